@@ -0,0 +1,42 @@
+package com.hy.oauth2.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * benchmarks.jar 的入口，参数与 org.openjdk.jmh.Main 相同，默认启用 GC 分析器（-prof gc）
+ * <p>
+ * 输出中 gc.alloc.rate.norm 为每次操作分配的字节数，gc.count、gc.time 为测量期间的 GC 次数及耗时，
+ * 便于对比优化前后的分配情况；-h、-l 等参数交给 JMH 处理
+ *
+ * @author wyl
+ * @since 2026-10-17 02:12:30
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> arguments = Arrays.asList(args);
+        if (arguments.contains("-h") || arguments.contains("-l") || arguments.contains("-lprof")) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+        boolean gcProfiler = commandLine.getProfilers().stream()
+                .anyMatch(profiler -> "gc".equals(profiler.getKlass()) || GCProfiler.class.getName().equals(profiler.getKlass()));
+        if (!gcProfiler) {
+            options.addProfiler(GCProfiler.class);
+        }
+        new Runner(options.build()).run();
+    }
+
+}
@@ -0,0 +1,127 @@
+package com.hy.oauth2.benchmark;
+
+import com.hy.oauth2.benchmark.support.AuthenticationFixtures;
+import com.hy.oauth2.server.token.BoundedInMemoryTokenStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.DefaultTokenServices;
+import org.springframework.security.oauth2.provider.token.TokenStore;
+import org.springframework.security.oauth2.provider.token.store.InMemoryTokenStore;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * InMemoryTokenStore 与 BoundedInMemoryTokenStore 的签发、校验、注销耗时对比（4 线程并发）
+ * <p>
+ * Setup 阶段预先签发 existingTokens 个令牌，打印平均每个令牌（含刷新令牌）占用的堆内存，BoundedInMemoryTokenStore 另打印堆外内存。
+ * 配合 -prof gc 查看 GC 次数及耗时
+ *
+ * @author wyl
+ * @since 2026-10-16 22:40:13
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(value = 1, jvmArgs = {"-Xmx2g", "-XX:MaxDirectMemorySize=2g"})
+public class InMemoryTokenStoreBenchmark {
+
+    private static final String CLIENT_ID = "client";
+
+    @Param({"stock", "bounded"})
+    public String store;
+
+    @Param({"200000"})
+    public int existingTokens;
+
+    private DefaultTokenServices tokenServices;
+
+    private OAuth2AccessToken token;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup
+    public void setup() {
+        TokenStore tokenStore = "bounded".equals(store)
+                ? new BoundedInMemoryTokenStore(existingTokens * 2, 64, 128) : new InMemoryTokenStore();
+        tokenServices = new DefaultTokenServices();
+        tokenServices.setTokenStore(tokenStore);
+        tokenServices.setSupportRefreshToken(true);
+        tokenServices.setReuseRefreshToken(false);
+
+        long heapBefore = usedHeap();
+        for (int i = 0; i < existingTokens; i++) {
+            tokenServices.createAccessToken(authentication());
+        }
+        long heapAfter = usedHeap();
+        System.out.printf("%nheap per token: %d bytes%n", (heapAfter - heapBefore) / existingTokens);
+        if (tokenStore instanceof BoundedInMemoryTokenStore) {
+            BoundedInMemoryTokenStore bounded = (BoundedInMemoryTokenStore) tokenStore;
+            System.out.printf("off-heap per token: %d bytes used, %d bytes reserved%n",
+                    bounded.offHeapBytesUsed() / existingTokens, bounded.offHeapBytesReserved() / existingTokens);
+        }
+        token = tokenServices.createAccessToken(authentication());
+    }
+
+    /**
+     * 每次调用前签发一个新令牌，供 revoke 使用
+     */
+    @State(Scope.Thread)
+    public static class IssuedToken {
+
+        OAuth2AccessToken token;
+
+        @Setup(Level.Invocation)
+        public void setup(InMemoryTokenStoreBenchmark benchmark) {
+            token = benchmark.tokenServices.createAccessToken(benchmark.authentication());
+        }
+
+    }
+
+    @Benchmark
+    public OAuth2AccessToken issue() {
+        return tokenServices.createAccessToken(authentication());
+    }
+
+    @Benchmark
+    public OAuth2Authentication load() {
+        return tokenServices.loadAuthentication(token.getValue());
+    }
+
+    @Benchmark
+    public boolean revoke(IssuedToken issued) {
+        return tokenServices.revokeToken(issued.token.getValue());
+    }
+
+    /**
+     * 每次使用不同的用户，签发时不会命中已有令牌
+     */
+    private OAuth2Authentication authentication() {
+        return AuthenticationFixtures.passwordAuthentication(CLIENT_ID, "user" + sequence.getAndIncrement());
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+}
@@ -0,0 +1,178 @@
+package com.hy.oauth2.benchmark;
+
+import com.hy.oauth2.benchmark.support.AuthenticationFixtures;
+import com.hy.oauth2.benchmark.support.H2Database;
+import com.hy.oauth2.server.token.CompactTokenSerializer;
+import com.hy.oauth2.server.token.ExpiredTokenSweeper;
+import com.hy.oauth2.server.token.IndexedJdbcTokenStore;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.DefaultTokenServices;
+import org.springframework.security.oauth2.provider.token.TokenStore;
+import org.springframework.security.oauth2.provider.token.store.JdbcTokenStore;
+import org.springframework.util.SerializationUtils;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JdbcTokenStore（无索引的原表结构）与 IndexedJdbcTokenStore 的签发、校验、注销耗时对比
+ * <p>
+ * 数据库使用嵌入式 H2，existingTokens 为测试前表中已有的令牌数，原表结构下按 token_id 查询、删除为全表扫描，耗时随表大小增长。
+ * Setup 阶段打印认证信息在 JDK 序列化与 {@link CompactTokenSerializer} 下的大小，以及 {@link ExpiredTokenSweeper}
+ * 删除过期令牌的耗时
+ *
+ * @author wyl
+ * @since 2026-10-16 21:24:37
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JdbcTokenStoreBenchmark {
+
+    private static final String CLIENT_ID = "client";
+
+    private static final int EXPIRED_TOKENS = 10000;
+
+    @Param({"stock", "indexed"})
+    public String store;
+
+    @Param({"1000", "100000"})
+    public int existingTokens;
+
+    private HikariDataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private DefaultTokenServices tokenServices;
+
+    private OAuth2AccessToken token;
+
+    private long sequence;
+
+    @Setup
+    public void setup() {
+        dataSource = H2Database.create("jdbc-token-" + store);
+        H2Database.execute(dataSource, "indexed".equals(store) ? "h2/oauth2-token-h2.sql" : "h2/oauth2-token-legacy-h2.sql");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        insertTokens(existingTokens, null);
+
+        tokenServices = new DefaultTokenServices();
+        tokenServices.setTokenStore(tokenStore());
+        tokenServices.setSupportRefreshToken(true);
+        tokenServices.setReuseRefreshToken(false);
+        token = tokenServices.createAccessToken(authentication());
+
+        OAuth2Authentication authentication = authentication();
+        System.out.printf("%nserialized authentication: jdk %d bytes, compact %d bytes%n",
+                SerializationUtils.serialize(authentication).length,
+                CompactTokenSerializer.serializeAuthentication(authentication).length);
+
+        if ("indexed".equals(store)) {
+            insertTokens(EXPIRED_TOKENS, new Timestamp(System.currentTimeMillis() - 60000));
+            long start = System.nanoTime();
+            int deleted = new ExpiredTokenSweeper(jdbcTemplate, 500, Integer.MAX_VALUE, 0).sweep("oauth_access_token");
+            System.out.printf("sweep: deleted %d expired tokens in %d ms%n", deleted,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        dataSource.close();
+    }
+
+    /**
+     * 每次调用前签发一个新令牌，供 revoke 使用
+     */
+    @State(Scope.Thread)
+    public static class IssuedToken {
+
+        OAuth2AccessToken token;
+
+        @Setup(Level.Invocation)
+        public void setup(JdbcTokenStoreBenchmark benchmark) {
+            token = benchmark.tokenServices.createAccessToken(benchmark.authentication());
+        }
+
+    }
+
+    @Benchmark
+    public OAuth2AccessToken issue() {
+        return tokenServices.createAccessToken(authentication());
+    }
+
+    @Benchmark
+    public OAuth2Authentication load() {
+        return tokenServices.loadAuthentication(token.getValue());
+    }
+
+    @Benchmark
+    public boolean revoke(IssuedToken issued) {
+        return tokenServices.revokeToken(issued.token.getValue());
+    }
+
+    private TokenStore tokenStore() {
+        switch (store) {
+            case "stock":
+                return new JdbcTokenStore(dataSource);
+            case "indexed":
+                return new IndexedJdbcTokenStore(jdbcTemplate);
+            default:
+                throw new IllegalArgumentException(store);
+        }
+    }
+
+    /**
+     * 直接写入不相关的令牌行，只用于撑大表，内容不会被读取
+     *
+     * @param count
+     * @param expiresAt 为 null 时不写 expires_at（原表结构没有该列）
+     */
+    private void insertTokens(int count, Timestamp expiresAt) {
+        byte[] payload = new byte[256];
+        String sql = expiresAt == null
+                ? "INSERT INTO oauth_access_token (token_id, token, authentication_id, user_name, client_id, authentication, refresh_token) VALUES (?, ?, ?, ?, ?, ?, ?)"
+                : "INSERT INTO oauth_access_token (token_id, token, authentication_id, user_name, client_id, authentication, refresh_token, expires_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        List<Object[]> batch = new ArrayList<>(1000);
+        for (int i = 0; i < count; i++) {
+            String id = UUID.randomUUID().toString().replace("-", "");
+            batch.add(expiresAt == null
+                    ? new Object[]{id, payload, id, "filler" + i, CLIENT_ID, payload, null}
+                    : new Object[]{id, payload, id, "filler" + i, CLIENT_ID, payload, null, expiresAt});
+            if (batch.size() == 1000 || i == count - 1) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * 每次使用不同的用户，签发时不会命中已有令牌
+     */
+    private OAuth2Authentication authentication() {
+        return AuthenticationFixtures.passwordAuthentication(CLIENT_ID, "user" + (sequence++));
+    }
+
+}
@@ -0,0 +1,159 @@
+package com.hy.oauth2.benchmark;
+
+import com.hy.oauth2.common.authority.CompactAuthorityAccessTokenConverter;
+import com.hy.oauth2.common.authority.PermissionDictionary;
+import com.hy.oauth2.common.authority.PermissionDictionarySource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
+import org.springframework.security.oauth2.provider.token.store.JwtTokenStore;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * jwt 令牌中 authorities 数组与权限位图（auth_bits）的对比
+ * <p>
+ * encode 为认证服务器签发令牌，decode 为资源服务器验签并还原 OAuth2Authentication。
+ * 令牌长度在 Setup 阶段输出
+ *
+ * @author wyl
+ * @since 2026-10-16 15:30:12
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthorityEncodingBenchmark {
+
+    /**
+     * 与 tb_permission 一致，权限 id 从 37 开始
+     */
+    private static final int FIRST_PERMISSION_ID = 37;
+
+    @Param({"10", "100", "500"})
+    public int authorities;
+
+    private OAuth2Authentication authentication;
+
+    private JwtAccessTokenConverter defaultConverter;
+
+    private JwtAccessTokenConverter compactConverter;
+
+    private JwtTokenStore defaultTokenStore;
+
+    private JwtTokenStore compactTokenStore;
+
+    private String defaultToken;
+
+    private String compactToken;
+
+    @Setup
+    public void setup() {
+        Map<Integer, String> permissions = new HashMap<>();
+        List<GrantedAuthority> grantedAuthorities = new ArrayList<>(authorities);
+        for (int i = 0; i < authorities; i++) {
+            String name = "SystemModule" + (i / 5) + new String[]{"View", "Insert", "Update", "Delete", ""}[i % 5];
+            permissions.put(FIRST_PERMISSION_ID + i, name);
+            grantedAuthorities.add(new SimpleGrantedAuthority(name));
+        }
+        PermissionDictionary dictionary = PermissionDictionary.of(permissions);
+        PermissionDictionarySource dictionarySource = new PermissionDictionarySource() {
+            @Override
+            public PermissionDictionary current() {
+                return dictionary;
+            }
+
+            @Override
+            public PermissionDictionary forVersion(String version) {
+                return dictionary.getVersion().equals(version) ? dictionary : null;
+            }
+        };
+
+        OAuth2Request request = new OAuth2Request(Collections.emptyMap(), "client", Collections.emptyList(), true,
+                Collections.singleton("app"), Collections.emptySet(), null, null, null);
+        authentication = new OAuth2Authentication(request,
+                new UsernamePasswordAuthenticationToken("admin", "N/A", grantedAuthorities));
+
+        defaultConverter = converter(null);
+        compactConverter = converter(new CompactAuthorityAccessTokenConverter(dictionarySource));
+        defaultTokenStore = new JwtTokenStore(defaultConverter);
+        compactTokenStore = new JwtTokenStore(compactConverter);
+        defaultToken = encode(defaultConverter);
+        compactToken = encode(compactConverter);
+        if (!new HashSet<>(compactTokenStore.readAuthentication(compactToken).getAuthorities())
+                .equals(new HashSet<>(grantedAuthorities))) {
+            throw new IllegalStateException("auth_bits 解析结果与原权限不一致");
+        }
+        System.out.printf("%n[authorities=%d] token length: default=%d, compact=%d%n",
+                authorities, defaultToken.length(), compactToken.length());
+    }
+
+    @Benchmark
+    public String encodeDefault() {
+        return encode(defaultConverter);
+    }
+
+    @Benchmark
+    public String encodeCompact() {
+        return encode(compactConverter);
+    }
+
+    @Benchmark
+    public OAuth2Authentication decodeDefault() {
+        return defaultTokenStore.readAuthentication(defaultToken);
+    }
+
+    @Benchmark
+    public OAuth2Authentication decodeCompact() {
+        return compactTokenStore.readAuthentication(compactToken);
+    }
+
+    private String encode(JwtAccessTokenConverter converter) {
+        DefaultOAuth2AccessToken token = new DefaultOAuth2AccessToken(UUID.randomUUID().toString());
+        token.setExpiration(new Date(System.currentTimeMillis() + 3600_000L));
+        token.setScope(Collections.singleton("app"));
+        OAuth2AccessToken enhanced = converter.enhance(token, authentication);
+        return enhanced.getValue();
+    }
+
+    private static JwtAccessTokenConverter converter(CompactAuthorityAccessTokenConverter accessTokenConverter) {
+        JwtAccessTokenConverter converter = new JwtAccessTokenConverter();
+        if (accessTokenConverter != null) {
+            converter.setAccessTokenConverter(accessTokenConverter);
+        }
+        converter.setSigningKey("hy-oauth2");
+        try {
+            converter.afterPropertiesSet();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return converter;
+    }
+
+}
@@ -0,0 +1,160 @@
+package com.hy.oauth2.benchmark;
+
+import com.hy.oauth2.server.config.ResJwtAccessTokenConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+import org.springframework.security.oauth2.provider.token.DefaultTokenServices;
+import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
+import org.springframework.security.oauth2.provider.token.store.JwtTokenStore;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtAccessTokenConverter 与 ResJwtAccessTokenConverter（HS256 快速路径）的对比
+ * <p>
+ * encode 为签发令牌；decode 为 JwtTokenStore.readAuthentication；
+ * loadAuthentication 为资源服务器每个请求调用的 DefaultTokenServices.loadAuthentication（同一令牌解析两次）
+ *
+ * @author wyl
+ * @since 2026-10-16 18:05:37
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtConverterBenchmark {
+
+    private static final String SIGNING_KEY = "hy-oauth2";
+
+    private static final int TOKENS = 16;
+
+    @Param({"10", "100", "500"})
+    public int authorities;
+
+    private OAuth2Authentication authentication;
+
+    private DefaultOAuth2AccessToken accessToken;
+
+    private JwtAccessTokenConverter stockConverter;
+
+    private JwtAccessTokenConverter fastConverter;
+
+    private JwtTokenStore stockTokenStore;
+
+    private JwtTokenStore fastTokenStore;
+
+    private DefaultTokenServices stockTokenServices;
+
+    private DefaultTokenServices fastTokenServices;
+
+    /**
+     * 多个不同的令牌轮流解析，避免命中 ResJwtAccessTokenConverter 线程内记住的最近令牌
+     */
+    private String[] tokens;
+
+    private int next;
+
+    @Setup
+    public void setup() throws Exception {
+        List<GrantedAuthority> grantedAuthorities = new ArrayList<>(authorities);
+        for (int i = 0; i < authorities; i++) {
+            grantedAuthorities.add(new SimpleGrantedAuthority("SystemModule" + (i / 5) + new String[]{"View", "Insert", "Update", "Delete", ""}[i % 5]));
+        }
+        OAuth2Request request = new OAuth2Request(Collections.emptyMap(), "client", Collections.emptyList(), true,
+                Collections.singleton("app"), Collections.emptySet(), null, null, null);
+        authentication = new OAuth2Authentication(request,
+                new UsernamePasswordAuthenticationToken("admin", "N/A", grantedAuthorities));
+        accessToken = new DefaultOAuth2AccessToken("6291f374-d694-4f9c-87b8-af1eaf195ec3");
+        accessToken.setExpiration(new Date(System.currentTimeMillis() + 3600_000L));
+        accessToken.setScope(Collections.singleton("app"));
+
+        stockConverter = new JwtAccessTokenConverter();
+        stockConverter.setSigningKey(SIGNING_KEY);
+        stockConverter.afterPropertiesSet();
+        fastConverter = new ResJwtAccessTokenConverter(SIGNING_KEY);
+        fastConverter.afterPropertiesSet();
+        stockTokenStore = new JwtTokenStore(stockConverter);
+        fastTokenStore = new JwtTokenStore(fastConverter);
+        stockTokenServices = tokenServices(stockTokenStore);
+        fastTokenServices = tokenServices(fastTokenStore);
+
+        if (!encodeStock().equals(encodeFast())) {
+            throw new IllegalStateException("两种转换器生成的令牌不一致");
+        }
+        tokens = new String[TOKENS];
+        for (int i = 0; i < TOKENS; i++) {
+            DefaultOAuth2AccessToken value = new DefaultOAuth2AccessToken(UUID.randomUUID().toString());
+            value.setExpiration(accessToken.getExpiration());
+            value.setScope(accessToken.getScope());
+            tokens[i] = stockConverter.enhance(value, authentication).getValue();
+        }
+        if (!new HashSet<>(fastTokenStore.readAuthentication(tokens[0]).getAuthorities()).equals(new HashSet<>(grantedAuthorities))) {
+            throw new IllegalStateException("令牌解析结果与原权限不一致");
+        }
+    }
+
+    @Benchmark
+    public String encodeStock() {
+        return stockConverter.enhance(accessToken, authentication).getValue();
+    }
+
+    @Benchmark
+    public String encodeFast() {
+        return fastConverter.enhance(accessToken, authentication).getValue();
+    }
+
+    @Benchmark
+    public OAuth2Authentication decodeStock() {
+        return stockTokenStore.readAuthentication(nextToken());
+    }
+
+    @Benchmark
+    public OAuth2Authentication decodeFast() {
+        return fastTokenStore.readAuthentication(nextToken());
+    }
+
+    @Benchmark
+    public OAuth2Authentication loadAuthenticationStock() {
+        return stockTokenServices.loadAuthentication(nextToken());
+    }
+
+    @Benchmark
+    public OAuth2Authentication loadAuthenticationFast() {
+        return fastTokenServices.loadAuthentication(nextToken());
+    }
+
+    private String nextToken() {
+        next = (next + 1) % TOKENS;
+        return tokens[next];
+    }
+
+    private static DefaultTokenServices tokenServices(JwtTokenStore tokenStore) {
+        DefaultTokenServices tokenServices = new DefaultTokenServices();
+        tokenServices.setTokenStore(tokenStore);
+        return tokenServices;
+    }
+
+}
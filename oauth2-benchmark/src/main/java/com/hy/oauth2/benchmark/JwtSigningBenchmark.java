@@ -0,0 +1,127 @@
+package com.hy.oauth2.benchmark;
+
+import com.hy.oauth2.common.jwk.JwsAlgorithm;
+import com.hy.oauth2.common.jwk.JwtKey;
+import com.hy.oauth2.common.jwk.JwtKeyResolver;
+import com.hy.oauth2.common.jwk.KeyIdJwtAccessTokenConverter;
+import com.hy.oauth2.server.config.ResJwtAccessTokenConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
+import org.springframework.security.oauth2.provider.token.store.JwtTokenStore;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 认证服务器支持的三种签名算法下 jwt 的签发、解析耗时
+ * <p>
+ * HS256 为 {@link ResJwtAccessTokenConverter}，RS256（2048 位）、ES256 为 {@link KeyIdJwtAccessTokenConverter}，
+ * 与认证服务器 `security.oauth2.token.jwt.signing.algorithm` 的取值对应。
+ * 非对称算法签名（私钥）远慢于验签（公钥），签发耗时主要影响 /oauth/token，解析耗时影响每个资源服务器请求
+ *
+ * @author wyl
+ * @since 2026-10-17 01:55:09
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtSigningBenchmark {
+
+    private static final int TOKENS = 16;
+
+    @Param({"HS256", "RS256", "ES256"})
+    public String algorithm;
+
+    private OAuth2Authentication authentication;
+
+    private DefaultOAuth2AccessToken accessToken;
+
+    private JwtAccessTokenConverter converter;
+
+    private JwtTokenStore tokenStore;
+
+    /**
+     * 多个不同的令牌轮流解析，避免命中 ResJwtAccessTokenConverter 线程内记住的最近令牌
+     */
+    private String[] tokens;
+
+    private int next;
+
+    @Setup
+    public void setup() throws Exception {
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            authorities.add(new SimpleGrantedAuthority("SystemModule" + i + "View"));
+        }
+        OAuth2Request request = new OAuth2Request(Collections.emptyMap(), "client", Collections.emptyList(), true,
+                Collections.singleton("app"), Collections.emptySet(), null, null, null);
+        authentication = new OAuth2Authentication(request,
+                new UsernamePasswordAuthenticationToken("admin", "N/A", authorities));
+        accessToken = new DefaultOAuth2AccessToken("6291f374-d694-4f9c-87b8-af1eaf195ec3");
+        accessToken.setExpiration(new Date(System.currentTimeMillis() + 3600_000L));
+        accessToken.setScope(Collections.singleton("app"));
+
+        if ("HS256".equals(algorithm)) {
+            converter = new ResJwtAccessTokenConverter("hy-oauth2");
+        } else {
+            JwtKey key = JwtKey.generate("bench", JwsAlgorithm.from(algorithm), 2048);
+            converter = new KeyIdJwtAccessTokenConverter(new JwtKeyResolver() {
+                @Override
+                public JwtKey signingKey() {
+                    return key;
+                }
+
+                @Override
+                public JwtKey verificationKey(String kid) {
+                    return key.getKid().equals(kid) ? key : null;
+                }
+            });
+        }
+        converter.afterPropertiesSet();
+        tokenStore = new JwtTokenStore(converter);
+
+        tokens = new String[TOKENS];
+        for (int i = 0; i < TOKENS; i++) {
+            DefaultOAuth2AccessToken value = new DefaultOAuth2AccessToken(UUID.randomUUID().toString());
+            value.setExpiration(accessToken.getExpiration());
+            value.setScope(accessToken.getScope());
+            tokens[i] = converter.enhance(value, authentication).getValue();
+        }
+        System.out.printf("%ntoken length: %d%n", tokens[0].length());
+    }
+
+    @Benchmark
+    public String encode() {
+        return converter.enhance(accessToken, authentication).getValue();
+    }
+
+    @Benchmark
+    public OAuth2Authentication decode() {
+        next = (next + 1) % TOKENS;
+        return tokenStore.readAuthentication(tokens[next]);
+    }
+
+}
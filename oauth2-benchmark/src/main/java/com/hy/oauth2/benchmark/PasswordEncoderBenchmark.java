@@ -0,0 +1,72 @@
+package com.hy.oauth2.benchmark;
+
+import com.hy.oauth2.server.cache.CachingPasswordEncoder;
+import com.hy.oauth2.server.cache.ClientSecretCache;
+import com.hy.oauth2.server.cache.ClientSecretCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BCryptPasswordEncoder.matches 在不同强度下的耗时，每次登录（用户密码）及每次 /oauth/token（client_secret）各校验一次
+ * <p>
+ * strength 为 BCrypt 的 log2 轮数，默认 10，每加 1 耗时翻倍；cached 为 {@link CachingPasswordEncoder} 命中缓存时的耗时，
+ * 开启方式见认证服务器 `security.oauth2.client-secret-cache`
+ *
+ * @author wyl
+ * @since 2026-10-17 01:48:22
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class PasswordEncoderBenchmark {
+
+    private static final String SECRET = "secret";
+
+    @Param({"4", "8", "10", "12"})
+    public int strength;
+
+    private BCryptPasswordEncoder encoder;
+
+    private PasswordEncoder cachingEncoder;
+
+    private String encoded;
+
+    @Setup
+    public void setup() {
+        encoder = new BCryptPasswordEncoder(strength);
+        encoded = encoder.encode(SECRET);
+        cachingEncoder = new CachingPasswordEncoder(encoder,
+                new ClientSecretCache(new ClientSecretCacheProperties(), new SimpleMeterRegistry()));
+        if (!cachingEncoder.matches(SECRET, encoded)) {
+            throw new IllegalStateException("密钥校验失败");
+        }
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches(SECRET, encoded);
+    }
+
+    @Benchmark
+    public boolean cached() {
+        return cachingEncoder.matches(SECRET, encoded);
+    }
+
+}
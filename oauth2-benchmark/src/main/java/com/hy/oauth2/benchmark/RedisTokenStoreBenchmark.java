@@ -0,0 +1,194 @@
+package com.hy.oauth2.benchmark;
+
+import com.hy.oauth2.benchmark.support.AuthenticationFixtures;
+import com.hy.oauth2.benchmark.support.LatencyProxy;
+import com.hy.oauth2.benchmark.support.RoundTripCounter;
+import com.hy.oauth2.server.token.DeflateSerializationStrategy;
+import com.hy.oauth2.server.token.PipelinedRedisTokenStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.TokenRequest;
+import org.springframework.security.oauth2.provider.token.DefaultTokenServices;
+import org.springframework.security.oauth2.provider.token.TokenStore;
+import org.springframework.security.oauth2.provider.token.store.redis.JdkSerializationStrategy;
+import org.springframework.security.oauth2.provider.token.store.redis.RedisTokenStore;
+import redis.embedded.RedisServer;
+
+import java.net.ServerSocket;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * RedisTokenStore 与 PipelinedRedisTokenStore 的签发、刷新、注销耗时对比（含 p99）
+ * <p>
+ * Redis 使用嵌入式 Redis，latencyMicros 为经 {@link LatencyProxy} 注入的单向网络延迟，0 为本机直连。
+ * Setup 阶段打印每个操作的往返次数（round trips）、Redis 执行的命令数（commands）以及两种序列化方式下认证信息的大小
+ *
+ * @author wyl
+ * @since 2026-10-16 19:52:08
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RedisTokenStoreBenchmark {
+
+    private static final String CLIENT_ID = "client";
+
+    @Param({"stock", "pipelined", "pipelined-deflate"})
+    public String store;
+
+    @Param({"0", "250"})
+    public int latencyMicros;
+
+    private RedisServer redisServer;
+
+    private LatencyProxy proxy;
+
+    private LettuceConnectionFactory connectionFactory;
+
+    private final RoundTripCounter roundTrips = new RoundTripCounter();
+
+    private DefaultTokenServices tokenServices;
+
+    private final TokenRequest refreshRequest = new TokenRequest(Collections.emptyMap(), CLIENT_ID,
+            Collections.singleton("app"), "refresh_token");
+
+    private long sequence;
+
+    @Setup
+    public void setup() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = RedisServer.builder().port(port).setting("bind 127.0.0.1").setting("save \"\"").build();
+        redisServer.start();
+        int connectPort = port;
+        if (latencyMicros > 0) {
+            proxy = new LatencyProxy("127.0.0.1", port, latencyMicros);
+            connectPort = proxy.getPort();
+        }
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("127.0.0.1", connectPort));
+        connectionFactory.afterPropertiesSet();
+
+        tokenServices = new DefaultTokenServices();
+        tokenServices.setTokenStore(tokenStore(roundTrips.wrap(connectionFactory)));
+        tokenServices.setSupportRefreshToken(true);
+        tokenServices.setReuseRefreshToken(false);
+
+        // 先完整执行一遍，加载 Lua 脚本，建立连接
+        OAuth2AccessToken warmup = tokenServices.createAccessToken(authentication());
+        tokenServices.revokeToken(tokenServices.refreshAccessToken(warmup.getRefreshToken().getValue(), refreshRequest).getValue());
+
+        OAuth2AccessToken token = measure("issue", () -> tokenServices.createAccessToken(authentication()));
+        OAuth2AccessToken refreshed = measure("refresh", () -> tokenServices.refreshAccessToken(token.getRefreshToken().getValue(), refreshRequest));
+        measure("revoke", () -> tokenServices.revokeToken(refreshed.getValue()));
+
+        OAuth2Authentication authentication = authentication();
+        System.out.printf("%nserialized authentication: jdk %d bytes, deflate %d bytes%n",
+                new JdkSerializationStrategy().serialize(authentication).length,
+                new DeflateSerializationStrategy(512).serialize(authentication).length);
+    }
+
+    @TearDown
+    public void tearDown() {
+        connectionFactory.destroy();
+        if (proxy != null) {
+            proxy.close();
+        }
+        redisServer.stop();
+    }
+
+    /**
+     * 每次调用前签发一个新令牌，供 refresh、revoke 使用
+     */
+    @State(Scope.Thread)
+    public static class IssuedToken {
+
+        OAuth2AccessToken token;
+
+        @Setup(Level.Invocation)
+        public void setup(RedisTokenStoreBenchmark benchmark) {
+            token = benchmark.tokenServices.createAccessToken(benchmark.authentication());
+        }
+
+    }
+
+    @Benchmark
+    public OAuth2AccessToken issue() {
+        return tokenServices.createAccessToken(authentication());
+    }
+
+    @Benchmark
+    public OAuth2AccessToken refresh(IssuedToken issued) {
+        return tokenServices.refreshAccessToken(issued.token.getRefreshToken().getValue(), refreshRequest);
+    }
+
+    @Benchmark
+    public boolean revoke(IssuedToken issued) {
+        return tokenServices.revokeToken(issued.token.getValue());
+    }
+
+    private TokenStore tokenStore(RedisConnectionFactory factory) {
+        switch (store) {
+            case "stock":
+                return new RedisTokenStore(factory);
+            case "pipelined":
+                return new PipelinedRedisTokenStore(factory);
+            case "pipelined-deflate":
+                PipelinedRedisTokenStore tokenStore = new PipelinedRedisTokenStore(factory);
+                tokenStore.setSerializationStrategy(new DeflateSerializationStrategy(512));
+                return tokenStore;
+            default:
+                throw new IllegalArgumentException(store);
+        }
+    }
+
+    /**
+     * 每次使用不同的用户，签发时不会命中已有令牌
+     */
+    private OAuth2Authentication authentication() {
+        return AuthenticationFixtures.passwordAuthentication(CLIENT_ID, "user" + (sequence++));
+    }
+
+    private <T> T measure(String operation, Supplier<T> action) {
+        long roundTripsBefore = roundTrips.get();
+        long commandsBefore = commandsProcessed();
+        T result = action.get();
+        // 减去 INFO 命令本身
+        long commands = commandsProcessed() - commandsBefore - 1;
+        System.out.printf("%n%s: round trips %d, commands %d", operation, roundTrips.get() - roundTripsBefore, commands);
+        return result;
+    }
+
+    private long commandsProcessed() {
+        RedisConnection conn = connectionFactory.getConnection();
+        try {
+            return Long.parseLong(conn.info("stats").getProperty("total_commands_processed"));
+        } finally {
+            conn.close();
+        }
+    }
+
+}
@@ -0,0 +1,174 @@
+package com.hy.oauth2.benchmark;
+
+import com.hy.oauth2.benchmark.support.AuthenticationFixtures;
+import com.hy.oauth2.benchmark.support.H2Database;
+import com.hy.oauth2.server.config.ResJwtAccessTokenConverter;
+import com.hy.oauth2.server.token.BoundedInMemoryTokenStore;
+import com.hy.oauth2.server.token.IndexedJdbcTokenStore;
+import com.hy.oauth2.server.token.PipelinedRedisTokenStore;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.DefaultTokenServices;
+import org.springframework.security.oauth2.provider.token.TokenStore;
+import org.springframework.security.oauth2.provider.token.store.InMemoryTokenStore;
+import org.springframework.security.oauth2.provider.token.store.JdbcTokenStore;
+import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
+import org.springframework.security.oauth2.provider.token.store.JwtTokenStore;
+import org.springframework.security.oauth2.provider.token.store.redis.RedisTokenStore;
+import redis.embedded.RedisServer;
+
+import java.net.ServerSocket;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TokenStoreConfig 中可选的全部令牌存储在同一条件下的对比：签发（/oauth/token）及校验（check_token、资源服务器）
+ * <p>
+ * store 与认证服务器配置的对应关系：inMemory、inMemory-bounded（memory.bounded=true）、jdbc（jdbc.indexed=false）、
+ * jdbc-indexed、redis（redis.pipelined=false）、redis-pipelined、jwt（HS256）。
+ * 数据库为嵌入式 H2，Redis 为嵌入式 Redis，均无网络延迟；各存储之间的细节对比见对应的 *TokenStoreBenchmark
+ *
+ * @author wyl
+ * @since 2026-10-17 02:03:41
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenStoreBenchmark {
+
+    private static final String CLIENT_ID = "client";
+
+    @Param({"inMemory", "inMemory-bounded", "jdbc", "jdbc-indexed", "redis", "redis-pipelined", "jwt"})
+    public String store;
+
+    private HikariDataSource dataSource;
+
+    private RedisServer redisServer;
+
+    private LettuceConnectionFactory connectionFactory;
+
+    private DefaultTokenServices tokenServices;
+
+    private TokenStore tokenStore;
+
+    private OAuth2AccessToken token;
+
+    private long sequence;
+
+    @Setup
+    public void setup() throws Exception {
+        tokenServices = new DefaultTokenServices();
+        tokenStore = tokenStore();
+        tokenServices.setTokenStore(tokenStore);
+        tokenServices.setSupportRefreshToken(true);
+        tokenServices.setReuseRefreshToken(false);
+    }
+
+    /**
+     * InMemoryTokenStore、Redis 没有容量上限，每轮清空一次，避免签发的令牌占满内存
+     */
+    @Setup(Level.Iteration)
+    public void setupIteration() {
+        if (tokenStore instanceof InMemoryTokenStore) {
+            ((InMemoryTokenStore) tokenStore).clear();
+        }
+        if (connectionFactory != null) {
+            RedisConnection conn = connectionFactory.getConnection();
+            try {
+                conn.flushDb();
+            } finally {
+                conn.close();
+            }
+        }
+        token = tokenServices.createAccessToken(authentication());
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (dataSource != null) {
+            dataSource.close();
+        }
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+            redisServer.stop();
+        }
+    }
+
+    @Benchmark
+    public OAuth2AccessToken issue() {
+        return tokenServices.createAccessToken(authentication());
+    }
+
+    @Benchmark
+    public OAuth2Authentication load() {
+        return tokenServices.loadAuthentication(token.getValue());
+    }
+
+    private TokenStore tokenStore() throws Exception {
+        switch (store) {
+            case "inMemory":
+                return new InMemoryTokenStore();
+            case "inMemory-bounded":
+                return new BoundedInMemoryTokenStore(1000000, 64, 128);
+            case "jdbc":
+                dataSource = H2Database.create("token-store-jdbc");
+                H2Database.execute(dataSource, "h2/oauth2-token-legacy-h2.sql");
+                return new JdbcTokenStore(dataSource);
+            case "jdbc-indexed":
+                dataSource = H2Database.create("token-store-jdbc-indexed");
+                H2Database.execute(dataSource, "h2/oauth2-token-h2.sql");
+                return new IndexedJdbcTokenStore(new JdbcTemplate(dataSource));
+            case "redis":
+                return new RedisTokenStore(startRedis());
+            case "redis-pipelined":
+                return new PipelinedRedisTokenStore(startRedis());
+            case "jwt":
+                JwtAccessTokenConverter converter = new ResJwtAccessTokenConverter("hy-oauth2");
+                converter.afterPropertiesSet();
+                tokenServices.setTokenEnhancer(converter);
+                return new JwtTokenStore(converter);
+            default:
+                throw new IllegalArgumentException(store);
+        }
+    }
+
+    private LettuceConnectionFactory startRedis() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = RedisServer.builder().port(port).setting("bind 127.0.0.1").setting("save \"\"").build();
+        redisServer.start();
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("127.0.0.1", port));
+        connectionFactory.afterPropertiesSet();
+        return connectionFactory;
+    }
+
+    /**
+     * 每次使用不同的用户，签发时不会命中已有令牌
+     */
+    private OAuth2Authentication authentication() {
+        return AuthenticationFixtures.passwordAuthentication(CLIENT_ID, "user" + (sequence++));
+    }
+
+}
@@ -0,0 +1,123 @@
+package com.hy.oauth2.benchmark;
+
+import cn.hutool.db.Db;
+import com.hy.oauth2.benchmark.support.H2Database;
+import com.hy.oauth2.server.entity.LoginUser;
+import com.hy.oauth2.server.entity.TbPermission;
+import com.hy.oauth2.server.entity.TbUser;
+import com.hy.oauth2.server.service.UserAuthorityLoader;
+import com.hy.oauth2.server.service.impl.UserAuthorityLoaderImpl;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单次登录加载用户及权限的耗时与内存分配对比
+ * <p>
+ * legacyTwoQueries 为原 UserDetailsServiceImpl 的实现：hutool 反射映射，两次查询且查询 p.*；
+ * singleQuery 为当前登录使用的 {@link UserAuthorityLoaderImpl}：一次查询，手写映射，只取 enname。
+ * 配合 -prof gc 查看每次登录的分配字节数
+ *
+ * @author wyl
+ * @since 2026-10-16 11:52:30
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserLoadingBenchmark {
+
+    private static final String USERNAME = "admin";
+
+    private static final String LEGACY_PERMISSION_SQL = "SELECT p.*" +
+            " FROM" +
+            "  tb_user AS u" +
+            "  LEFT JOIN tb_user_role AS ur" +
+            "    ON u.id = ur.user_id" +
+            "  LEFT JOIN tb_role AS r" +
+            "    ON r.id = ur.role_id" +
+            "  LEFT JOIN tb_role_permission AS rp" +
+            "    ON r.id = rp.role_id" +
+            "  LEFT JOIN tb_permission AS p" +
+            "    ON p.id = rp.permission_id" +
+            " WHERE u.id = ?";
+
+    /**
+     * 在 admin 原有 11 个权限基础上追加的权限数
+     */
+    @Param({"0", "100"})
+    public int extraPermissions;
+
+    private HikariDataSource dataSource;
+
+    private AnnotationConfigApplicationContext context;
+
+    private UserAuthorityLoader userAuthorityLoader;
+
+    @Setup
+    public void setup() {
+        dataSource = H2Database.create("user_loading");
+        H2Database.addPermissions(dataSource, extraPermissions);
+        context = new AnnotationConfigApplicationContext();
+        context.registerBean(DataSource.class, () -> dataSource);
+        context.registerBean(JdbcTemplate.class, () -> new JdbcTemplate(dataSource));
+        context.register(UserAuthorityLoaderImpl.class);
+        context.refresh();
+        userAuthorityLoader = context.getBean(UserAuthorityLoader.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        dataSource.close();
+    }
+
+    @Benchmark
+    public UserDetails legacyTwoQueries() throws SQLException {
+        List<TbUser> users = Db.use(dataSource).query("select * from tb_user where username = ?", TbUser.class, USERNAME);
+        TbUser tbUser = users.get(0);
+        List<TbPermission> tbPermissions = Db.use(dataSource).query(LEGACY_PERMISSION_SQL, TbPermission.class, tbUser.getId());
+        List<GrantedAuthority> grantedAuthorities = new ArrayList<>();
+        tbPermissions.forEach(tbPermission -> {
+            if (tbPermission != null && tbPermission.getEnname() != null) {
+                grantedAuthorities.add(new SimpleGrantedAuthority(tbPermission.getEnname()));
+            }
+        });
+        return new User(tbUser.getUsername(), tbUser.getPassword(), grantedAuthorities);
+    }
+
+    @Benchmark
+    public UserDetails singleQuery() {
+        LoginUser loginUser = userAuthorityLoader.loadByUsername(USERNAME);
+        List<GrantedAuthority> grantedAuthorities = new ArrayList<>(loginUser.getAuthorities().size());
+        for (String authority : loginUser.getAuthorities()) {
+            grantedAuthorities.add(new SimpleGrantedAuthority(authority));
+        }
+        return new User(loginUser.getUsername(), loginUser.getPassword(), grantedAuthorities);
+    }
+
+}
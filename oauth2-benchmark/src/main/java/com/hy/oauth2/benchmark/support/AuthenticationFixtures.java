@@ -0,0 +1,59 @@
+package com.hy.oauth2.benchmark.support;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 令牌存储基准测试使用的认证信息
+ * <p>
+ * 与 password 授权认证成功后保存的认证信息结构相同：principal 为凭证已擦除的 {@link User}，
+ * details 为请求参数，带 20 个权限
+ *
+ * @author wyl
+ * @since 2026-10-17 05:08:14
+ */
+public final class AuthenticationFixtures {
+
+    private static final List<GrantedAuthority> AUTHORITIES;
+
+    static {
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            authorities.add(new SimpleGrantedAuthority("SystemModule" + i + "View"));
+        }
+        AUTHORITIES = Collections.unmodifiableList(authorities);
+    }
+
+    private AuthenticationFixtures() {
+    }
+
+    /**
+     * @param clientId 客户端
+     * @param username 用户名，每次使用不同的用户时签发不会命中已有令牌
+     * @return
+     */
+    public static OAuth2Authentication passwordAuthentication(String clientId, String username) {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        parameters.put("grant_type", "password");
+        parameters.put("username", username);
+        parameters.put("scope", "app");
+        OAuth2Request request = new OAuth2Request(parameters, clientId, Collections.emptyList(), true,
+                Collections.singleton("app"), Collections.emptySet(), null, null, null);
+        User principal = new User(username, "", AUTHORITIES);
+        principal.eraseCredentials();
+        UsernamePasswordAuthenticationToken user = new UsernamePasswordAuthenticationToken(principal, null, AUTHORITIES);
+        user.setDetails(new LinkedHashMap<>(parameters));
+        return new OAuth2Authentication(request, user);
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.hy.oauth2.benchmark.support;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+
+/**
+ * 基准测试使用的嵌入式 H2 数据库，初始化 oauth2.sql 的 H2 版本
+ *
+ * @author wyl
+ * @since 2026-10-16 11:40:02
+ */
+public final class H2Database {
+
+    private H2Database() {
+    }
+
+    /**
+     * 创建带连接池的内存数据库
+     *
+     * @param name 数据库名，不同基准测试使用不同的库
+     * @return
+     */
+    public static HikariDataSource create(String name) {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:" + name + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setMaximumPoolSize(10);
+        config.setPoolName(name);
+        HikariDataSource dataSource = new HikariDataSource(config);
+        new ResourceDatabasePopulator(new ClassPathResource("h2/oauth2-h2.sql")).execute(dataSource);
+        return dataSource;
+    }
+
+    /**
+     * 执行 classpath 下的脚本
+     *
+     * @param dataSource
+     * @param script     如 h2/oauth2-token-h2.sql
+     */
+    public static void execute(DataSource dataSource, String script) {
+        new ResourceDatabasePopulator(new ClassPathResource(script)).execute(dataSource);
+    }
+
+    /**
+     * 给 admin 的角色追加权限，模拟权限较多的用户
+     *
+     * @param dataSource
+     * @param count      追加的权限数量
+     */
+    public static void addPermissions(DataSource dataSource, int count) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        for (int i = 0; i < count; i++) {
+            long id = 1000 + i;
+            jdbcTemplate.update("INSERT INTO tb_permission VALUES (?, 37, ?, ?, ?, NULL, NOW(), NOW())",
+                    id, "基准权限" + i, "BenchPermission" + i, "/bench/" + i + "/**");
+            jdbcTemplate.update("INSERT INTO tb_role_permission (role_id, permission_id) VALUES (37, ?)", id);
+            jdbcTemplate.update("INSERT INTO tb_permission_closure VALUES (?, ?, 0), (37, ?, 1)", id, id, id);
+            jdbcTemplate.update("INSERT INTO tb_role_effective_permission VALUES (37, ?)", id);
+        }
+    }
+
+}
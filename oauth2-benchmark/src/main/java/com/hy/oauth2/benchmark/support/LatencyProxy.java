@@ -0,0 +1,153 @@
+package com.hy.oauth2.benchmark.support;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 在本机 TCP 连接上模拟网络延迟：每个方向的数据延迟 oneWayMicros 后转发
+ * <p>
+ * 延迟按数据到达时间计算，已发出的数据不会阻塞后续数据，因此流水线中的多条命令只付出一次往返时间，
+ * 与真实网络一致
+ *
+ * @author wyl
+ * @since 2026-10-16 19:38:52
+ */
+public final class LatencyProxy implements Closeable {
+
+    private final ServerSocket serverSocket;
+
+    private final String targetHost;
+
+    private final int targetPort;
+
+    private final long delayNanos;
+
+    private final List<Socket> sockets = new CopyOnWriteArrayList<>();
+
+    private volatile boolean running = true;
+
+    /**
+     * @param targetHost
+     * @param targetPort
+     * @param oneWayMicros 单向延迟，往返时间为两倍
+     * @throws IOException
+     */
+    public LatencyProxy(String targetHost, int targetPort, long oneWayMicros) throws IOException {
+        this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        this.targetHost = targetHost;
+        this.targetPort = targetPort;
+        this.delayNanos = TimeUnit.MICROSECONDS.toNanos(oneWayMicros);
+        daemon("latency-proxy-accept", this::accept).start();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    private void accept() {
+        while (running) {
+            try {
+                Socket client = serverSocket.accept();
+                Socket server = new Socket(targetHost, targetPort);
+                client.setTcpNoDelay(true);
+                server.setTcpNoDelay(true);
+                sockets.add(client);
+                sockets.add(server);
+                pipe(client, server);
+                pipe(server, client);
+            } catch (IOException e) {
+                if (running) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+    }
+
+    private void pipe(Socket from, Socket to) throws IOException {
+        InputStream in = from.getInputStream();
+        OutputStream out = to.getOutputStream();
+        BlockingQueue<Chunk> queue = new LinkedBlockingQueue<>();
+        daemon("latency-proxy-read", () -> {
+            byte[] buffer = new byte[16 * 1024];
+            try {
+                int length;
+                while ((length = in.read(buffer)) >= 0) {
+                    queue.put(new Chunk(System.nanoTime() + delayNanos, Arrays.copyOf(buffer, length)));
+                }
+            } catch (IOException | InterruptedException ignored) {
+                // 连接关闭
+            }
+            queue.add(Chunk.EOF);
+        }).start();
+        daemon("latency-proxy-write", () -> {
+            try {
+                while (true) {
+                    Chunk chunk = queue.take();
+                    if (chunk == Chunk.EOF) {
+                        break;
+                    }
+                    long wait;
+                    while ((wait = chunk.deadline - System.nanoTime()) > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    out.write(chunk.data);
+                    out.flush();
+                }
+            } catch (IOException | InterruptedException ignored) {
+                // 连接关闭
+            }
+            closeQuietly(to);
+        }).start();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        closeQuietly(serverSocket);
+        for (Socket socket : sockets) {
+            closeQuietly(socket);
+        }
+    }
+
+    private static Thread daemon(String name, Runnable runnable) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException ignored) {
+            // 忽略
+        }
+    }
+
+    private static final class Chunk {
+
+        static final Chunk EOF = new Chunk(0, new byte[0]);
+
+        final long deadline;
+
+        final byte[] data;
+
+        Chunk(long deadline, byte[] data) {
+            this.deadline = deadline;
+            this.data = data;
+        }
+
+    }
+
+}
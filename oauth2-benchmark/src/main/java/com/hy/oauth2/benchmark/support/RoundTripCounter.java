@@ -0,0 +1,70 @@
+package com.hy.oauth2.benchmark.support;
+
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 统计 RedisConnection 上的往返次数：流水线（openPipeline 到 closePipeline）算一次，其余每条命令算一次
+ *
+ * @author wyl
+ * @since 2026-10-16 19:45:17
+ */
+public final class RoundTripCounter {
+
+    /**
+     * 不与 Redis 通信的方法
+     */
+    private static final Set<String> LOCAL_METHODS = new HashSet<>(Arrays.asList(
+            "close", "isClosed", "isPipelined", "isQueueing", "isSubscribed", "getNativeConnection",
+            "openPipeline", "getSentinelConnection", "getSubscription", "toString", "hashCode", "equals"));
+
+    private final AtomicLong roundTrips = new AtomicLong();
+
+    public long get() {
+        return roundTrips.get();
+    }
+
+    /**
+     * 包装连接工厂，只代理 getConnection
+     *
+     * @param delegate
+     * @return
+     */
+    public RedisConnectionFactory wrap(RedisConnectionFactory delegate) {
+        return (RedisConnectionFactory) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class[]{RedisConnectionFactory.class}, (proxy, method, args) -> {
+                    Object result = invoke(delegate, method, args);
+                    return "getConnection".equals(method.getName()) ? wrap((RedisConnection) result) : result;
+                });
+    }
+
+    private RedisConnection wrap(RedisConnection connection) {
+        return (RedisConnection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class[]{RedisConnection.class}, (proxy, method, args) -> {
+                    String name = method.getName();
+                    if ("closePipeline".equals(name)) {
+                        roundTrips.incrementAndGet();
+                    } else if (!LOCAL_METHODS.contains(name) && !name.endsWith("Commands") && !connection.isPipelined()) {
+                        roundTrips.incrementAndGet();
+                    }
+                    return invoke(connection, method, args);
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+}
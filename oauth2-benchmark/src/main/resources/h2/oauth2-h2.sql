@@ -0,0 +1,161 @@
+-- oauth2.sql 的 H2 版本（MODE=MySQL），仅保留基准测试用到的表
+
+DROP TABLE IF EXISTS tb_permission;
+CREATE TABLE tb_permission (
+  id bigint NOT NULL AUTO_INCREMENT,
+  parent_id bigint NULL DEFAULT NULL,
+  name varchar(64) NOT NULL,
+  enname varchar(64) NOT NULL,
+  url varchar(255) NOT NULL,
+  description varchar(200) NULL DEFAULT NULL,
+  created datetime NOT NULL,
+  updated datetime NOT NULL,
+  PRIMARY KEY (id)
+);
+
+INSERT INTO tb_permission VALUES (37, 0, '系统管理', 'System', '/', NULL, '2019-04-04 23:22:54', '2019-04-04 23:22:56');
+INSERT INTO tb_permission VALUES (38, 37, '用户管理', 'SystemUser', '/users/', NULL, '2019-04-04 23:25:31', '2019-04-04 23:25:33');
+INSERT INTO tb_permission VALUES (39, 38, '查看用户', 'SystemUserView', '/users/view/**', NULL, '2019-04-04 15:30:30', '2019-04-04 15:30:43');
+INSERT INTO tb_permission VALUES (40, 38, '新增用户', 'SystemUserInsert', '/users/insert/**', NULL, '2019-04-04 15:30:31', '2019-04-04 15:30:44');
+INSERT INTO tb_permission VALUES (41, 38, '编辑用户', 'SystemUserUpdate', '/users/update/**', NULL, '2019-04-04 15:30:32', '2019-04-04 15:30:45');
+INSERT INTO tb_permission VALUES (42, 38, '删除用户', 'SystemUserDelete', '/users/delete/**', NULL, '2019-04-04 15:30:48', '2019-04-04 15:30:45');
+INSERT INTO tb_permission VALUES (44, 37, '内容管理', 'SystemContent', '/contents/', NULL, '2019-04-06 18:23:58', '2019-04-06 18:24:00');
+INSERT INTO tb_permission VALUES (45, 44, '查看内容', 'SystemContentView', '/contents/view/**', NULL, '2019-04-06 23:49:39', '2019-04-06 23:49:41');
+INSERT INTO tb_permission VALUES (46, 44, '新增内容', 'SystemContentInsert', '/contents/insert/**', NULL, '2019-04-06 23:51:00', '2019-04-06 23:51:02');
+INSERT INTO tb_permission VALUES (47, 44, '编辑内容', 'SystemContentUpdate', '/contents/update/**', NULL, '2019-04-06 23:51:04', '2019-04-06 23:51:06');
+INSERT INTO tb_permission VALUES (48, 44, '删除内容', 'SystemContentDelete', '/contents/delete/**', NULL, '2019-04-06 23:51:08', '2019-04-06 23:51:10');
+
+DROP TABLE IF EXISTS tb_permission_closure;
+CREATE TABLE tb_permission_closure (
+  ancestor_id bigint NOT NULL,
+  descendant_id bigint NOT NULL,
+  depth int NOT NULL,
+  PRIMARY KEY (ancestor_id, descendant_id)
+);
+CREATE INDEX idx_permission_closure_descendant ON tb_permission_closure (descendant_id);
+
+INSERT INTO tb_permission_closure VALUES (37, 37, 0);
+INSERT INTO tb_permission_closure VALUES (37, 38, 1);
+INSERT INTO tb_permission_closure VALUES (37, 39, 2);
+INSERT INTO tb_permission_closure VALUES (37, 40, 2);
+INSERT INTO tb_permission_closure VALUES (37, 41, 2);
+INSERT INTO tb_permission_closure VALUES (37, 42, 2);
+INSERT INTO tb_permission_closure VALUES (37, 44, 1);
+INSERT INTO tb_permission_closure VALUES (37, 45, 2);
+INSERT INTO tb_permission_closure VALUES (37, 46, 2);
+INSERT INTO tb_permission_closure VALUES (37, 47, 2);
+INSERT INTO tb_permission_closure VALUES (37, 48, 2);
+INSERT INTO tb_permission_closure VALUES (38, 38, 0);
+INSERT INTO tb_permission_closure VALUES (38, 39, 1);
+INSERT INTO tb_permission_closure VALUES (38, 40, 1);
+INSERT INTO tb_permission_closure VALUES (38, 41, 1);
+INSERT INTO tb_permission_closure VALUES (38, 42, 1);
+INSERT INTO tb_permission_closure VALUES (39, 39, 0);
+INSERT INTO tb_permission_closure VALUES (40, 40, 0);
+INSERT INTO tb_permission_closure VALUES (41, 41, 0);
+INSERT INTO tb_permission_closure VALUES (42, 42, 0);
+INSERT INTO tb_permission_closure VALUES (44, 44, 0);
+INSERT INTO tb_permission_closure VALUES (44, 45, 1);
+INSERT INTO tb_permission_closure VALUES (44, 46, 1);
+INSERT INTO tb_permission_closure VALUES (44, 47, 1);
+INSERT INTO tb_permission_closure VALUES (44, 48, 1);
+INSERT INTO tb_permission_closure VALUES (45, 45, 0);
+INSERT INTO tb_permission_closure VALUES (46, 46, 0);
+INSERT INTO tb_permission_closure VALUES (47, 47, 0);
+INSERT INTO tb_permission_closure VALUES (48, 48, 0);
+
+DROP TABLE IF EXISTS tb_role;
+CREATE TABLE tb_role (
+  id bigint NOT NULL AUTO_INCREMENT,
+  parent_id bigint NULL DEFAULT NULL,
+  name varchar(64) NOT NULL,
+  enname varchar(64) NOT NULL,
+  description varchar(200) NULL DEFAULT NULL,
+  created datetime NOT NULL,
+  updated datetime NOT NULL,
+  PRIMARY KEY (id)
+);
+
+INSERT INTO tb_role VALUES (37, 0, '超级管理员', 'admin', NULL, '2019-04-04 23:22:03', '2019-04-04 23:22:05');
+
+DROP TABLE IF EXISTS tb_role_closure;
+CREATE TABLE tb_role_closure (
+  ancestor_id bigint NOT NULL,
+  descendant_id bigint NOT NULL,
+  depth int NOT NULL,
+  PRIMARY KEY (ancestor_id, descendant_id)
+);
+CREATE INDEX idx_role_closure_descendant ON tb_role_closure (descendant_id);
+
+INSERT INTO tb_role_closure VALUES (37, 37, 0);
+
+DROP TABLE IF EXISTS tb_role_effective_permission;
+CREATE TABLE tb_role_effective_permission (
+  role_id bigint NOT NULL,
+  permission_id bigint NOT NULL,
+  PRIMARY KEY (role_id, permission_id)
+);
+CREATE INDEX idx_role_effective_permission ON tb_role_effective_permission (permission_id);
+
+INSERT INTO tb_role_effective_permission VALUES (37, 37);
+INSERT INTO tb_role_effective_permission VALUES (37, 38);
+INSERT INTO tb_role_effective_permission VALUES (37, 39);
+INSERT INTO tb_role_effective_permission VALUES (37, 40);
+INSERT INTO tb_role_effective_permission VALUES (37, 41);
+INSERT INTO tb_role_effective_permission VALUES (37, 42);
+INSERT INTO tb_role_effective_permission VALUES (37, 44);
+INSERT INTO tb_role_effective_permission VALUES (37, 45);
+INSERT INTO tb_role_effective_permission VALUES (37, 46);
+INSERT INTO tb_role_effective_permission VALUES (37, 47);
+INSERT INTO tb_role_effective_permission VALUES (37, 48);
+
+DROP TABLE IF EXISTS tb_role_permission;
+CREATE TABLE tb_role_permission (
+  id bigint NOT NULL AUTO_INCREMENT,
+  role_id bigint NOT NULL,
+  permission_id bigint NOT NULL,
+  PRIMARY KEY (id),
+  CONSTRAINT uk_role_permission UNIQUE (role_id, permission_id)
+);
+CREATE INDEX idx_role_permission_permission ON tb_role_permission (permission_id);
+
+INSERT INTO tb_role_permission VALUES (37, 37, 37);
+INSERT INTO tb_role_permission VALUES (38, 37, 38);
+INSERT INTO tb_role_permission VALUES (39, 37, 39);
+INSERT INTO tb_role_permission VALUES (40, 37, 40);
+INSERT INTO tb_role_permission VALUES (41, 37, 41);
+INSERT INTO tb_role_permission VALUES (42, 37, 42);
+INSERT INTO tb_role_permission VALUES (43, 37, 44);
+INSERT INTO tb_role_permission VALUES (44, 37, 45);
+INSERT INTO tb_role_permission VALUES (45, 37, 46);
+INSERT INTO tb_role_permission VALUES (46, 37, 47);
+INSERT INTO tb_role_permission VALUES (47, 37, 48);
+
+DROP TABLE IF EXISTS tb_user;
+CREATE TABLE tb_user (
+  id bigint NOT NULL AUTO_INCREMENT,
+  username varchar(50) NOT NULL,
+  password varchar(64) NOT NULL,
+  phone varchar(20) NULL DEFAULT NULL,
+  email varchar(50) NULL DEFAULT NULL,
+  created datetime NOT NULL,
+  updated datetime NOT NULL,
+  PRIMARY KEY (id),
+  CONSTRAINT uk_user_username UNIQUE (username),
+  CONSTRAINT uk_user_phone UNIQUE (phone),
+  CONSTRAINT uk_user_email UNIQUE (email)
+);
+
+INSERT INTO tb_user VALUES (37, 'admin', '$2a$10$9ZhDOBp.sRKat4l14ygu/.LscxrMUcDAfeVOEPiYwbcRkoB09gCmi', '15888888888', 'lee.lusifer@gmail.com', '2019-04-04 23:21:27', '2019-04-04 23:21:29');
+
+DROP TABLE IF EXISTS tb_user_role;
+CREATE TABLE tb_user_role (
+  id bigint NOT NULL AUTO_INCREMENT,
+  user_id bigint NOT NULL,
+  role_id bigint NOT NULL,
+  PRIMARY KEY (id),
+  CONSTRAINT uk_user_role UNIQUE (user_id, role_id)
+);
+CREATE INDEX idx_user_role_role ON tb_user_role (role_id);
+
+INSERT INTO tb_user_role VALUES (37, 37, 37);
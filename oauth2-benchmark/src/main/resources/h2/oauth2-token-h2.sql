@@ -0,0 +1,28 @@
+-- oauth2.sql 中 oauth_access_token、oauth_refresh_token 的 H2 版本（MODE=MySQL），带索引及 expires_at
+
+DROP TABLE IF EXISTS oauth_access_token;
+CREATE TABLE oauth_access_token (
+  token_id varchar(256) NULL DEFAULT NULL,
+  token blob NULL,
+  authentication_id varchar(256) NOT NULL,
+  user_name varchar(256) NULL DEFAULT NULL,
+  client_id varchar(256) NULL DEFAULT NULL,
+  authentication blob NULL,
+  refresh_token varchar(256) NULL DEFAULT NULL,
+  expires_at datetime(3) NULL DEFAULT NULL,
+  PRIMARY KEY (authentication_id),
+  CONSTRAINT uk_access_token_id UNIQUE (token_id)
+);
+CREATE INDEX idx_access_client_user ON oauth_access_token (client_id, user_name);
+CREATE INDEX idx_access_refresh_token ON oauth_access_token (refresh_token);
+CREATE INDEX idx_access_expires_at ON oauth_access_token (expires_at);
+
+DROP TABLE IF EXISTS oauth_refresh_token;
+CREATE TABLE oauth_refresh_token (
+  token_id varchar(256) NOT NULL,
+  token blob NULL,
+  authentication blob NULL,
+  expires_at datetime(3) NULL DEFAULT NULL,
+  PRIMARY KEY (token_id)
+);
+CREATE INDEX idx_refresh_expires_at ON oauth_refresh_token (expires_at);
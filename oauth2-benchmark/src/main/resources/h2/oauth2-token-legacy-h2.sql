@@ -0,0 +1,20 @@
+-- 升级前的 oauth_access_token、oauth_refresh_token（H2 版本），除主键外没有索引，JdbcTokenStore 使用
+
+DROP TABLE IF EXISTS oauth_access_token;
+CREATE TABLE oauth_access_token (
+  token_id varchar(256) NULL DEFAULT NULL,
+  token blob NULL,
+  authentication_id varchar(256) NOT NULL,
+  user_name varchar(256) NULL DEFAULT NULL,
+  client_id varchar(256) NULL DEFAULT NULL,
+  authentication blob NULL,
+  refresh_token varchar(256) NULL DEFAULT NULL,
+  PRIMARY KEY (authentication_id)
+);
+
+DROP TABLE IF EXISTS oauth_refresh_token;
+CREATE TABLE oauth_refresh_token (
+  token_id varchar(256) NULL DEFAULT NULL,
+  token blob NULL,
+  authentication blob NULL
+);
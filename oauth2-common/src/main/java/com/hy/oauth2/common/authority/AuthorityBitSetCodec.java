@@ -0,0 +1,72 @@
+package com.hy.oauth2.common.authority;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Base64;
+import java.util.BitSet;
+
+/**
+ * 权限位图编解码
+ * <p>
+ * 格式：varint(跳过的全零字节数) + 位图剩余字节（小端，与 {@link BitSet#toByteArray()} 一致），整体 base64url 无填充。
+ * 权限 id 一般从较大的值开始连续分配，跳过前导零字节后 N 个相邻权限约占 N/8 字节
+ *
+ * @author wyl
+ * @since 2026-10-16 14:31:08
+ */
+public final class AuthorityBitSetCodec {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    /**
+     * 单个令牌允许的最大位图字节数，防止构造的超大偏移量耗尽内存
+     */
+    private static final int MAX_BYTES = 1 << 20;
+
+    private AuthorityBitSetCodec() {
+    }
+
+    public static String encode(BitSet bits) {
+        byte[] bytes = bits.toByteArray();
+        int offset = 0;
+        while (offset < bytes.length && bytes[offset] == 0) {
+            offset++;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length - offset + 5);
+        int value = offset;
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+        out.write(bytes, offset, bytes.length - offset);
+        return ENCODER.encodeToString(out.toByteArray());
+    }
+
+    public static BitSet decode(String value) {
+        byte[] bytes = DECODER.decode(value);
+        int offset = 0;
+        int shift = 0;
+        int pos = 0;
+        while (true) {
+            if (pos >= bytes.length || shift > 28) {
+                throw new IllegalArgumentException("权限位图格式错误");
+            }
+            byte b = bytes[pos++];
+            offset |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                break;
+            }
+            shift += 7;
+        }
+        int length = bytes.length - pos;
+        if (offset < 0 || offset + length > MAX_BYTES) {
+            throw new IllegalArgumentException("权限位图过大");
+        }
+        byte[] raw = new byte[offset + length];
+        System.arraycopy(bytes, pos, raw, offset, length);
+        return BitSet.valueOf(raw);
+    }
+
+}
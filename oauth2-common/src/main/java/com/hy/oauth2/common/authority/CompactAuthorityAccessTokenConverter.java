@@ -0,0 +1,138 @@
+package com.hy.oauth2.common.authority;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.exceptions.InvalidTokenException;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.DefaultAccessTokenConverter;
+import org.springframework.security.oauth2.provider.token.UserAuthenticationConverter;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 以权限位图代替 authorities 数组的令牌转换器
+ * <p>
+ * 生成令牌时，字典中存在的权限写入 auth_bits（位下标为权限 id），字典版本写入 auth_ver，
+ * 字典中不存在的权限仍保留在 authorities 中；解析令牌时还原为完整的 authorities 后交给默认转换器处理。
+ * <pre>
+ * {
+ * "user_name": "admin",
+ * "auth_ver": "5d1b0c3e8a27f4b9",
+ * "auth_bits": "BLDf",
+ * ...
+ * }
+ * </pre>
+ * 解析时使用令牌中 auth_ver 对应的字典（当前字典或最近被替换的字典），找不到该版本时令牌无效
+ *
+ * @author wyl
+ * @since 2026-10-16 14:56:31
+ */
+public class CompactAuthorityAccessTokenConverter extends DefaultAccessTokenConverter {
+
+    public static final String AUTHORITY_BITS = "auth_bits";
+
+    public static final String AUTHORITY_VERSION = "auth_ver";
+
+    private final PermissionDictionarySource dictionarySource;
+
+    public CompactAuthorityAccessTokenConverter(PermissionDictionarySource dictionarySource) {
+        this.dictionarySource = dictionarySource;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<String, ?> convertAccessToken(OAuth2AccessToken token, OAuth2Authentication authentication) {
+        Map<String, Object> response = (Map<String, Object>) super.convertAccessToken(token, authentication);
+        response.remove(AUTHORITY_BITS);
+        response.remove(AUTHORITY_VERSION);
+        Collection<? extends GrantedAuthority> authorities = authentication.isClientOnly()
+                ? authentication.getOAuth2Request().getAuthorities() : authentication.getUserAuthentication().getAuthorities();
+        if (authorities == null || authorities.isEmpty()) {
+            return response;
+        }
+        PermissionDictionary dictionary = dictionarySource.current();
+        BitSet bits = new BitSet();
+        Set<String> residual = new LinkedHashSet<>();
+        for (GrantedAuthority authority : authorities) {
+            Integer id = dictionary.indexOf(authority.getAuthority());
+            if (id == null) {
+                residual.add(authority.getAuthority());
+            } else {
+                bits.set(id);
+            }
+        }
+        if (bits.isEmpty()) {
+            return response;
+        }
+        response.put(AUTHORITY_VERSION, dictionary.getVersion());
+        response.put(AUTHORITY_BITS, AuthorityBitSetCodec.encode(bits));
+        if (residual.isEmpty()) {
+            response.remove(UserAuthenticationConverter.AUTHORITIES);
+        } else {
+            response.put(UserAuthenticationConverter.AUTHORITIES, residual);
+        }
+        return response;
+    }
+
+    @Override
+    public OAuth2AccessToken extractAccessToken(String value, Map<String, ?> map) {
+        OAuth2AccessToken token = super.extractAccessToken(value, map);
+        if (map.containsKey(AUTHORITY_BITS)) {
+            // 权限由 OAuth2Authentication 提供，附加信息中不保留位图及残留的 authorities
+            Map<String, Object> info = new HashMap<>(token.getAdditionalInformation());
+            info.remove(AUTHORITY_BITS);
+            info.remove(AUTHORITY_VERSION);
+            info.remove(UserAuthenticationConverter.AUTHORITIES);
+            ((DefaultOAuth2AccessToken) token).setAdditionalInformation(info);
+        }
+        return token;
+    }
+
+    @Override
+    public OAuth2Authentication extractAuthentication(Map<String, ?> map) {
+        if (!map.containsKey(AUTHORITY_BITS)) {
+            return super.extractAuthentication(map);
+        }
+        Map<String, Object> expanded = new HashMap<>(map);
+        expanded.remove(AUTHORITY_BITS);
+        expanded.remove(AUTHORITY_VERSION);
+        expanded.put(UserAuthenticationConverter.AUTHORITIES, expandAuthorities(map));
+        return super.extractAuthentication(expanded);
+    }
+
+    private List<String> expandAuthorities(Map<String, ?> map) {
+        BitSet bits;
+        try {
+            bits = AuthorityBitSetCodec.decode(String.valueOf(map.get(AUTHORITY_BITS)));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidTokenException("Invalid authority bits", e);
+        }
+        PermissionDictionary dictionary = dictionarySource.forVersion(String.valueOf(map.get(AUTHORITY_VERSION)));
+        if (dictionary == null) {
+            throw new InvalidTokenException("Unknown authority dictionary version: " + map.get(AUTHORITY_VERSION));
+        }
+        List<String> authorities = new ArrayList<>(bits.cardinality() + 4);
+        Object residual = map.get(UserAuthenticationConverter.AUTHORITIES);
+        if (residual instanceof Collection) {
+            for (Object authority : (Collection<?>) residual) {
+                authorities.add(String.valueOf(authority));
+            }
+        }
+        for (int id = bits.nextSetBit(0); id >= 0; id = bits.nextSetBit(id + 1)) {
+            String name = dictionary.nameOf(id);
+            if (name != null) {
+                authorities.add(name);
+            }
+        }
+        return authorities;
+    }
+
+}
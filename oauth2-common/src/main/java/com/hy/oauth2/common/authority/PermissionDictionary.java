@@ -0,0 +1,89 @@
+package com.hy.oauth2.common.authority;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 权限字典：权限 id（即位图下标）与权限标识（tb_permission.enname）的对应关系
+ * <p>
+ * 版本号由字典内容计算，内容不变版本号不变，可直接作为 ETag 使用
+ *
+ * @author wyl
+ * @since 2026-10-16 14:35:22
+ */
+public final class PermissionDictionary {
+
+    public static final PermissionDictionary EMPTY = of(Collections.emptyMap());
+
+    private final String version;
+
+    private final Map<Integer, String> permissions;
+
+    private final Map<String, Integer> index;
+
+    private PermissionDictionary(String version, Map<Integer, String> permissions) {
+        this.version = version;
+        this.permissions = Collections.unmodifiableMap(permissions);
+        Map<String, Integer> index = new HashMap<>(permissions.size() * 2);
+        permissions.forEach((id, name) -> index.put(name, id));
+        this.index = index;
+    }
+
+    /**
+     * @param permissions 权限 id -> 权限标识，id 不能为负数
+     * @return
+     */
+    public static PermissionDictionary of(Map<Integer, String> permissions) {
+        TreeMap<Integer, String> sorted = new TreeMap<>(permissions);
+        if (!sorted.isEmpty() && sorted.firstKey() < 0) {
+            throw new IllegalArgumentException("权限 id 不能为负数: " + sorted.firstKey());
+        }
+        return new PermissionDictionary(computeVersion(sorted), sorted);
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public Map<Integer, String> getPermissions() {
+        return permissions;
+    }
+
+    /**
+     * @param name 权限标识
+     * @return 位图下标，不在字典中时返回 null
+     */
+    public Integer indexOf(String name) {
+        return index.get(name);
+    }
+
+    /**
+     * @param id 位图下标
+     * @return 权限标识，字典中已不存在时返回 null
+     */
+    public String nameOf(int id) {
+        return permissions.get(id);
+    }
+
+    private static String computeVersion(TreeMap<Integer, String> permissions) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        permissions.forEach((id, name) -> digest.update((id + ":" + name + "\n").getBytes(StandardCharsets.UTF_8)));
+        byte[] hash = digest.digest();
+        StringBuilder version = new StringBuilder(16);
+        for (int i = 0; i < 8; i++) {
+            version.append(Character.forDigit((hash[i] >> 4) & 0xF, 16)).append(Character.forDigit(hash[i] & 0xF, 16));
+        }
+        return version.toString();
+    }
+
+}
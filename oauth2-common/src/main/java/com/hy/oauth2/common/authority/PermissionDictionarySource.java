@@ -0,0 +1,26 @@
+package com.hy.oauth2.common.authority;
+
+/**
+ * 权限字典来源
+ *
+ * @author wyl
+ * @since 2026-10-16 14:38:40
+ */
+public interface PermissionDictionarySource {
+
+    /**
+     * 当前字典，生成令牌时使用
+     *
+     * @return
+     */
+    PermissionDictionary current();
+
+    /**
+     * 解析令牌时使用，本地字典版本与令牌中的版本不一致时尝试刷新
+     *
+     * @param version 令牌中的字典版本
+     * @return 与 version 一致的字典，刷新后仍找不到该版本时返回 null
+     */
+    PermissionDictionary forVersion(String version);
+
+}
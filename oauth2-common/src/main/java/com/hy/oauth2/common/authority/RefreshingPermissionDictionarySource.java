@@ -0,0 +1,114 @@
+package com.hy.oauth2.common.authority;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 定时刷新的权限字典
+ * <p>
+ * 超过 refreshInterval 后在下一次访问时重新加载；遇到未知版本时立即刷新，但两次刷新至少间隔 minRefreshInterval。
+ * 加载失败时继续使用旧字典。最近被替换的 {@value #MAX_PREVIOUS} 个字典按版本保留，字典变更前签发的令牌仍可解析
+ *
+ * @author wyl
+ * @since 2026-10-16 14:42:17
+ */
+public abstract class RefreshingPermissionDictionarySource implements PermissionDictionarySource {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshingPermissionDictionarySource.class);
+
+    private static final int MAX_PREVIOUS = 8;
+
+    private final long refreshIntervalNanos;
+
+    private final long minRefreshIntervalNanos;
+
+    private volatile PermissionDictionary dictionary;
+
+    private volatile long loadedAt;
+
+    /**
+     * 版本 -> 已被替换的字典，只在 refresh 中写入，读写都在 this 上同步
+     */
+    private final Map<String, PermissionDictionary> previous = new LinkedHashMap<String, PermissionDictionary>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, PermissionDictionary> eldest) {
+            return size() > MAX_PREVIOUS;
+        }
+    };
+
+    protected RefreshingPermissionDictionarySource(Duration refreshInterval, Duration minRefreshInterval) {
+        this.refreshIntervalNanos = refreshInterval.toNanos();
+        this.minRefreshIntervalNanos = minRefreshInterval.toNanos();
+    }
+
+    /**
+     * 加载字典
+     *
+     * @param previous 上一次加载的字典，首次加载时为 null
+     * @return
+     * @throws Exception
+     */
+    protected abstract PermissionDictionary load(PermissionDictionary previous) throws Exception;
+
+    @Override
+    public PermissionDictionary current() {
+        PermissionDictionary current = dictionary;
+        if (current == null || System.nanoTime() - loadedAt > refreshIntervalNanos) {
+            return refresh(current, 0L);
+        }
+        return current;
+    }
+
+    @Override
+    public PermissionDictionary forVersion(String version) {
+        PermissionDictionary current = current();
+        if (current.getVersion().equals(version)) {
+            return current;
+        }
+        synchronized (this) {
+            PermissionDictionary old = previous.get(version);
+            if (old != null) {
+                return old;
+            }
+        }
+        PermissionDictionary refreshed = refresh(current, minRefreshIntervalNanos);
+        return refreshed.getVersion().equals(version) ? refreshed : null;
+    }
+
+    /**
+     * 立即重新加载，权限变更后调用
+     */
+    public void invalidate() {
+        refresh(dictionary, 0L);
+    }
+
+    private synchronized PermissionDictionary refresh(PermissionDictionary seen, long minInterval) {
+        PermissionDictionary current = dictionary;
+        // 等待锁期间其他线程已经完成刷新
+        if (current != null && current != seen) {
+            return current;
+        }
+        if (current != null && System.nanoTime() - loadedAt < minInterval) {
+            return current;
+        }
+        try {
+            PermissionDictionary loaded = load(current);
+            if (current != null && !current.getVersion().equals(loaded.getVersion())) {
+                previous.put(current.getVersion(), current);
+            }
+            dictionary = loaded;
+        } catch (Exception e) {
+            if (current == null) {
+                throw new IllegalStateException("权限字典加载失败", e);
+            }
+            log.warn("权限字典刷新失败，继续使用版本 {}", current.getVersion(), e);
+        }
+        loadedAt = System.nanoTime();
+        return dictionary;
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.hy.oauth2.common.authority;
+
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 从认证服务器 /oauth/permission_dictionary 获取权限字典，资源服务器使用
+ * <p>
+ * 请求带 If-None-Match，字典未变化时服务端返回 304
+ *
+ * @author wyl
+ * @since 2026-10-16 14:50:03
+ */
+public class RemotePermissionDictionarySource extends RefreshingPermissionDictionarySource {
+
+    private static final ParameterizedTypeReference<Map<String, Object>> RESPONSE_TYPE =
+            new ParameterizedTypeReference<Map<String, Object>>() {
+            };
+
+    private final RestTemplate restTemplate;
+
+    private final String dictionaryUri;
+
+    public RemotePermissionDictionarySource(RestTemplate restTemplate, String dictionaryUri,
+                                            Duration refreshInterval, Duration minRefreshInterval) {
+        super(refreshInterval, minRefreshInterval);
+        this.restTemplate = restTemplate;
+        this.dictionaryUri = dictionaryUri;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected PermissionDictionary load(PermissionDictionary previous) {
+        HttpHeaders headers = new HttpHeaders();
+        if (previous != null) {
+            headers.setIfNoneMatch("\"" + previous.getVersion() + "\"");
+        }
+        ResponseEntity<Map<String, Object>> response = restTemplate.exchange(dictionaryUri, HttpMethod.GET,
+                new HttpEntity<>(headers), RESPONSE_TYPE);
+        if (response.getStatusCode() == HttpStatus.NOT_MODIFIED && previous != null) {
+            return previous;
+        }
+        Map<String, Object> body = response.getBody();
+        if (body == null || !(body.get("permissions") instanceof Map)) {
+            throw new IllegalStateException("权限字典响应格式错误: " + dictionaryUri);
+        }
+        Map<Integer, String> permissions = new HashMap<>();
+        ((Map<String, Object>) body.get("permissions")).forEach((id, name) -> permissions.put(Integer.valueOf(id), String.valueOf(name)));
+        return PermissionDictionary.of(permissions);
+    }
+
+}
@@ -0,0 +1,106 @@
+package com.hy.oauth2.common.concurrent;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 合并相同 key 的并发调用：同一时刻只有第一个线程执行，其余线程等待并共享其结果（或异常）
+ * <p>
+ * 调用结束后立即移除，不缓存结果，缓存由调用方负责
+ *
+ * @author wyl
+ * @since 2026-10-17 00:12:44
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+
+    private final LongAdder coalesced = new LongAdder();
+
+    private final LongAdder timedOut = new LongAdder();
+
+    /**
+     * @param key
+     * @param loader 只抛出运行时异常，等待的线程收到同一个异常对象
+     * @return
+     */
+    public V execute(K key, Supplier<V> loader) {
+        return execute(key, loader, 0);
+    }
+
+    /**
+     * 等待其他线程结果的时间有上限，执行调用的线程不受限制
+     *
+     * @param key
+     * @param loader       只抛出运行时异常，等待的线程收到同一个异常对象
+     * @param maxWaitNanos 最长等待时间，小于等于 0 时不限制
+     * @return
+     * @throws SingleFlightTimeoutException 等待超时
+     */
+    public V execute(K key, Supplier<V> loader, long maxWaitNanos) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = calls.putIfAbsent(key, call);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing, maxWaitNanos);
+        }
+        try {
+            V value = loader.get();
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            calls.remove(key, call);
+        }
+    }
+
+    /**
+     * @return 累计合并（等待其他线程结果）的调用数
+     */
+    public long coalesced() {
+        return coalesced.sum();
+    }
+
+    /**
+     * @return 累计等待超时的调用数
+     */
+    public long timedOut() {
+        return timedOut.sum();
+    }
+
+    /**
+     * @return 正在执行的调用数
+     */
+    public int inFlight() {
+        return calls.size();
+    }
+
+    private V await(CompletableFuture<V> call, long maxWaitNanos) {
+        try {
+            return maxWaitNanos > 0 ? call.get(maxWaitNanos, TimeUnit.NANOSECONDS) : call.get();
+        } catch (TimeoutException e) {
+            timedOut.increment();
+            throw new SingleFlightTimeoutException(maxWaitNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待合并调用结果时被中断", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+}
@@ -0,0 +1,19 @@
+package com.hy.oauth2.common.concurrent;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 等待合并调用结果超时，调用本身仍在执行
+ *
+ * @author wyl
+ * @since 2026-10-17 03:31:16
+ */
+public class SingleFlightTimeoutException extends RuntimeException {
+
+    private static final long serialVersionUID = 4213570863917012785L;
+
+    public SingleFlightTimeoutException(long maxWaitNanos) {
+        super("等待合并调用结果超时（" + TimeUnit.NANOSECONDS.toMillis(maxWaitNanos) + " ms）");
+    }
+
+}
@@ -0,0 +1,139 @@
+package com.hy.oauth2.common.jwk;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 从认证服务器 JWKS 获取验签公钥，资源服务器使用
+ * <p>
+ * 公钥缓存在本地，正常情况下验签不需要访问网络。遇到未知 kid 时重新获取，两次获取至少间隔 minRefreshInterval，
+ * 伪造的 kid 不会放大为对认证服务器的请求；另有后台线程按 refreshInterval 定期同步，清理已下线的密钥。
+ * 获取失败时继续使用已有公钥
+ *
+ * @author wyl
+ * @since 2026-10-16 17:41:55
+ */
+public class JwkSetKeyResolver implements JwtKeyResolver {
+
+    private static final Logger log = LoggerFactory.getLogger(JwkSetKeyResolver.class);
+
+    private static final ParameterizedTypeReference<Map<String, Object>> RESPONSE_TYPE =
+            new ParameterizedTypeReference<Map<String, Object>>() {
+            };
+
+    private final RestTemplate restTemplate;
+
+    private final String jwkSetUri;
+
+    private final long minRefreshIntervalNanos;
+
+    private volatile Map<String, JwtKey> keys = Collections.emptyMap();
+
+    private volatile String etag;
+
+    private volatile long fetchedAt = System.nanoTime() - TimeUnit.DAYS.toNanos(1);
+
+    private final ScheduledExecutorService scheduler;
+
+    public JwkSetKeyResolver(RestTemplate restTemplate, String jwkSetUri, Duration refreshInterval, Duration minRefreshInterval) {
+        this.restTemplate = restTemplate;
+        this.jwkSetUri = jwkSetUri;
+        this.minRefreshIntervalNanos = minRefreshInterval.toNanos();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "jwks-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::refreshQuietly, refreshInterval.toMillis(), refreshInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public JwtKey signingKey() {
+        throw new UnsupportedOperationException("资源服务器只能验签");
+    }
+
+    @Override
+    public JwtKey verificationKey(String kid) {
+        JwtKey key = keys.get(kid);
+        if (key != null) {
+            return key;
+        }
+        synchronized (this) {
+            key = keys.get(kid);
+            if (key == null && System.nanoTime() - fetchedAt >= minRefreshIntervalNanos) {
+                refreshQuietly();
+                key = keys.get(kid);
+            }
+        }
+        return key;
+    }
+
+    public Map<String, JwtKey> getKeys() {
+        return keys;
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private synchronized void refreshQuietly() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.warn("获取 JWKS 失败，继续使用已有的 {} 个公钥: {}", keys.size(), e.getMessage());
+        } finally {
+            fetchedAt = System.nanoTime();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void refresh() {
+        HttpHeaders headers = new HttpHeaders();
+        if (etag != null) {
+            headers.setIfNoneMatch(etag);
+        }
+        ResponseEntity<Map<String, Object>> response = restTemplate.exchange(jwkSetUri, HttpMethod.GET,
+                new HttpEntity<>(headers), RESPONSE_TYPE);
+        if (response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+            return;
+        }
+        Map<String, Object> body = response.getBody();
+        if (body == null || !(body.get("keys") instanceof List)) {
+            throw new IllegalStateException("JWKS 格式错误: " + jwkSetUri);
+        }
+        Map<String, JwtKey> loaded = new HashMap<>();
+        for (Object item : (List<Object>) body.get("keys")) {
+            if (!(item instanceof Map)) {
+                continue;
+            }
+            try {
+                JwtKey key = JwtKey.fromJwk((Map<String, ?>) item);
+                if (key != null) {
+                    loaded.put(key.getKid(), key);
+                }
+            } catch (IllegalArgumentException e) {
+                log.warn("忽略无法解析的 JWK: {}", e.getMessage());
+            }
+        }
+        keys = Collections.unmodifiableMap(loaded);
+        etag = response.getHeaders().getETag();
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.hy.oauth2.common.jwk;
+
+/**
+ * 支持的 jwt 非对称签名算法
+ *
+ * @author wyl
+ * @since 2026-10-16 17:10:26
+ */
+public enum JwsAlgorithm {
+
+    /**
+     * RSASSA-PKCS1-v1_5 + SHA-256
+     */
+    RS256("SHA256withRSA", "RSA"),
+
+    /**
+     * ECDSA P-256 + SHA-256，签名值为 64 字节 R||S
+     */
+    ES256("SHA256withECDSA", "EC");
+
+    private final String jcaName;
+
+    private final String keyType;
+
+    JwsAlgorithm(String jcaName, String keyType) {
+        this.jcaName = jcaName;
+        this.keyType = keyType;
+    }
+
+    public String getJcaName() {
+        return jcaName;
+    }
+
+    /**
+     * @return JWK 中的 kty，同时也是 JCA KeyFactory 算法名
+     */
+    public String getKeyType() {
+        return keyType;
+    }
+
+    /**
+     * @param name 算法名，如 RS256
+     * @return 不支持时返回 null
+     */
+    public static JwsAlgorithm from(String name) {
+        for (JwsAlgorithm algorithm : values()) {
+            if (algorithm.name().equals(name)) {
+                return algorithm;
+            }
+        }
+        return null;
+    }
+
+}
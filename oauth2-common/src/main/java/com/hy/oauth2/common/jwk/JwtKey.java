@@ -0,0 +1,341 @@
+package com.hy.oauth2.common.jwk;
+
+import java.math.BigInteger;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * jwt 签名密钥，kid 对应 jwt 头部及 JWKS 中的 kid
+ * <p>
+ * 认证服务器持有私钥用于签名，资源服务器只有公钥用于验签。
+ * Signature.getInstance 每次都要查找 Provider，这里每个线程创建一次并完成 initSign、initVerify，
+ * sign、verify 结束后 Signature 自动回到初始化后的状态，下次直接使用；出现异常时丢弃重建
+ *
+ * @author wyl
+ * @since 2026-10-16 17:14:03
+ */
+public final class JwtKey {
+
+    private static final String P256 = "P-256";
+
+    /**
+     * ES256 签名值中 R、S 各自的字节数
+     */
+    private static final int ES256_PART_LENGTH = 32;
+
+    private static final Base64.Encoder B64URL = Base64.getUrlEncoder().withoutPadding();
+
+    private static final Base64.Decoder B64URL_DECODER = Base64.getUrlDecoder();
+
+    private final String kid;
+
+    private final JwsAlgorithm algorithm;
+
+    private final PublicKey publicKey;
+
+    private final PrivateKey privateKey;
+
+    private final ThreadLocal<Signature> signer = new ThreadLocal<>();
+
+    private final ThreadLocal<Signature> verifier = new ThreadLocal<>();
+
+    public JwtKey(String kid, JwsAlgorithm algorithm, PublicKey publicKey, PrivateKey privateKey) {
+        this.kid = kid;
+        this.algorithm = algorithm;
+        this.publicKey = publicKey;
+        this.privateKey = privateKey;
+    }
+
+    /**
+     * 生成新的密钥对
+     *
+     * @param kid
+     * @param algorithm
+     * @param rsaKeySize RS256 密钥长度
+     * @return
+     */
+    public static JwtKey generate(String kid, JwsAlgorithm algorithm, int rsaKeySize) {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance(algorithm.getKeyType());
+            if (algorithm == JwsAlgorithm.ES256) {
+                generator.initialize(new ECGenParameterSpec("secp256r1"));
+            } else {
+                generator.initialize(rsaKeySize);
+            }
+            KeyPair keyPair = generator.generateKeyPair();
+            return new JwtKey(kid, algorithm, keyPair.getPublic(), keyPair.getPrivate());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("密钥生成失败: " + algorithm, e);
+        }
+    }
+
+    /**
+     * 由 X.509、PKCS#8 编码的密钥还原，privateKey 为空时只能验签
+     *
+     * @param kid
+     * @param algorithm
+     * @param publicKey  X.509 编码
+     * @param privateKey PKCS#8 编码，可以为 null
+     * @return
+     */
+    public static JwtKey decode(String kid, JwsAlgorithm algorithm, byte[] publicKey, byte[] privateKey) {
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance(algorithm.getKeyType());
+            return new JwtKey(kid, algorithm, keyFactory.generatePublic(new X509EncodedKeySpec(publicKey)),
+                    privateKey == null ? null : keyFactory.generatePrivate(new PKCS8EncodedKeySpec(privateKey)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("密钥格式错误: " + kid, e);
+        }
+    }
+
+    /**
+     * 由 JWK 还原公钥，不支持的密钥类型或算法返回 null
+     *
+     * @param jwk
+     * @return
+     */
+    public static JwtKey fromJwk(Map<String, ?> jwk) {
+        Object use = jwk.get("use");
+        if (use != null && !"sig".equals(use)) {
+            return null;
+        }
+        String kid = (String) jwk.get("kid");
+        String kty = (String) jwk.get("kty");
+        if (kid == null || kty == null) {
+            return null;
+        }
+        JwsAlgorithm algorithm = jwk.get("alg") == null ? ("EC".equals(kty) ? JwsAlgorithm.ES256 : JwsAlgorithm.RS256)
+                : JwsAlgorithm.from((String) jwk.get("alg"));
+        if (algorithm == null || !algorithm.getKeyType().equals(kty)) {
+            return null;
+        }
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance(kty);
+            PublicKey publicKey;
+            if (algorithm == JwsAlgorithm.ES256) {
+                if (!P256.equals(jwk.get("crv"))) {
+                    return null;
+                }
+                ECPoint point = new ECPoint(unsigned((String) jwk.get("x")), unsigned((String) jwk.get("y")));
+                publicKey = keyFactory.generatePublic(new ECPublicKeySpec(point, p256()));
+            } else {
+                publicKey = keyFactory.generatePublic(new RSAPublicKeySpec(unsigned((String) jwk.get("n")),
+                        unsigned((String) jwk.get("e"))));
+            }
+            return new JwtKey(kid, algorithm, publicKey, null);
+        } catch (GeneralSecurityException | RuntimeException e) {
+            throw new IllegalArgumentException("JWK 格式错误: " + kid, e);
+        }
+    }
+
+    /**
+     * 转换为 JWKS 中的一项，只包含公钥
+     *
+     * @return
+     */
+    public Map<String, Object> toJwk() {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        jwk.put("kty", algorithm.getKeyType());
+        jwk.put("kid", kid);
+        jwk.put("use", "sig");
+        jwk.put("alg", algorithm.name());
+        if (algorithm == JwsAlgorithm.ES256) {
+            ECPoint point = ((ECPublicKey) publicKey).getW();
+            jwk.put("crv", P256);
+            jwk.put("x", B64URL.encodeToString(fixedLength(point.getAffineX(), ES256_PART_LENGTH)));
+            jwk.put("y", B64URL.encodeToString(fixedLength(point.getAffineY(), ES256_PART_LENGTH)));
+        } else {
+            RSAPublicKey rsa = (RSAPublicKey) publicKey;
+            jwk.put("n", B64URL.encodeToString(unsignedBytes(rsa.getModulus())));
+            jwk.put("e", B64URL.encodeToString(unsignedBytes(rsa.getPublicExponent())));
+        }
+        return jwk;
+    }
+
+    /**
+     * 签名，ES256 的结果转换为 jws 要求的 R||S 格式
+     *
+     * @param content jwt 的 header.payload 部分
+     * @return
+     */
+    public byte[] sign(byte[] content) {
+        if (privateKey == null) {
+            throw new IllegalStateException("没有私钥，不能签名: " + kid);
+        }
+        try {
+            Signature signature = signer.get();
+            if (signature == null) {
+                signature = Signature.getInstance(algorithm.getJcaName());
+                signature.initSign(privateKey);
+                signer.set(signature);
+            }
+            byte[] sig;
+            try {
+                signature.update(content);
+                sig = signature.sign();
+            } catch (GeneralSecurityException | RuntimeException e) {
+                signer.remove();
+                throw e;
+            }
+            return algorithm == JwsAlgorithm.ES256 ? derToJose(sig) : sig;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("签名失败: " + kid, e);
+        }
+    }
+
+    /**
+     * 验签
+     *
+     * @param content
+     * @param sig
+     * @return
+     */
+    public boolean verify(byte[] content, byte[] sig) {
+        return verify(content, 0, content.length, sig);
+    }
+
+    /**
+     * 验签，content 中 [offset, offset + length) 为 jwt 的 header.payload 部分，避免截取整个令牌的副本
+     *
+     * @param content
+     * @param offset
+     * @param length
+     * @param sig
+     * @return
+     */
+    public boolean verify(byte[] content, int offset, int length, byte[] sig) {
+        if (algorithm == JwsAlgorithm.ES256) {
+            if (sig.length != ES256_PART_LENGTH * 2) {
+                return false;
+            }
+            sig = joseToDer(sig);
+        }
+        Signature signature = verifier.get();
+        try {
+            if (signature == null) {
+                signature = Signature.getInstance(algorithm.getJcaName());
+                signature.initVerify(publicKey);
+                verifier.set(signature);
+            }
+            signature.update(content, offset, length);
+            return signature.verify(sig);
+        } catch (GeneralSecurityException | RuntimeException e) {
+            // 签名格式错误时 Signature 的状态不确定，下次重新创建
+            verifier.remove();
+            return false;
+        }
+    }
+
+    public String getKid() {
+        return kid;
+    }
+
+    public JwsAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public PublicKey getPublicKey() {
+        return publicKey;
+    }
+
+    public PrivateKey getPrivateKey() {
+        return privateKey;
+    }
+
+    /**
+     * DER 编码的 SEQUENCE { INTEGER r, INTEGER s } 转换为定长 R||S
+     */
+    static byte[] derToJose(byte[] der) throws GeneralSecurityException {
+        if (der.length < 8 || der[0] != 0x30) {
+            throw new GeneralSecurityException("ECDSA 签名格式错误");
+        }
+        int offset = (der[1] & 0x80) != 0 ? 2 + (der[1] & 0x7F) : 2;
+        byte[] jose = new byte[ES256_PART_LENGTH * 2];
+        for (int part = 0; part < 2; part++) {
+            if (der[offset] != 0x02) {
+                throw new GeneralSecurityException("ECDSA 签名格式错误");
+            }
+            int length = der[offset + 1];
+            int start = offset + 2;
+            // 去掉 INTEGER 的符号前导零
+            int skip = Math.max(0, length - ES256_PART_LENGTH);
+            int copy = length - skip;
+            System.arraycopy(der, start + skip, jose, part * ES256_PART_LENGTH + ES256_PART_LENGTH - copy, copy);
+            offset = start + length;
+        }
+        return jose;
+    }
+
+    /**
+     * 定长 R||S 转换为 DER 编码
+     */
+    static byte[] joseToDer(byte[] jose) {
+        byte[] r = derInteger(Arrays.copyOfRange(jose, 0, ES256_PART_LENGTH));
+        byte[] s = derInteger(Arrays.copyOfRange(jose, ES256_PART_LENGTH, jose.length));
+        int length = r.length + s.length;
+        byte[] der = new byte[length + (length > 127 ? 3 : 2)];
+        int offset = 0;
+        der[offset++] = 0x30;
+        if (length > 127) {
+            der[offset++] = (byte) 0x81;
+        }
+        der[offset++] = (byte) length;
+        System.arraycopy(r, 0, der, offset, r.length);
+        System.arraycopy(s, 0, der, offset + r.length, s.length);
+        return der;
+    }
+
+    private static byte[] derInteger(byte[] value) {
+        byte[] bytes = new BigInteger(1, value).toByteArray();
+        byte[] der = new byte[bytes.length + 2];
+        der[0] = 0x02;
+        der[1] = (byte) bytes.length;
+        System.arraycopy(bytes, 0, der, 2, bytes.length);
+        return der;
+    }
+
+    private static ECParameterSpec p256() throws GeneralSecurityException {
+        AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+        parameters.init(new ECGenParameterSpec("secp256r1"));
+        return parameters.getParameterSpec(ECParameterSpec.class);
+    }
+
+    private static BigInteger unsigned(String base64Url) {
+        return new BigInteger(1, B64URL_DECODER.decode(base64Url));
+    }
+
+    private static byte[] unsignedBytes(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        return bytes[0] == 0 && bytes.length > 1 ? Arrays.copyOfRange(bytes, 1, bytes.length) : bytes;
+    }
+
+    private static byte[] fixedLength(BigInteger value, int length) {
+        byte[] bytes = unsignedBytes(value);
+        if (bytes.length == length) {
+            return bytes;
+        }
+        byte[] fixed = new byte[length];
+        System.arraycopy(bytes, 0, fixed, length - bytes.length, bytes.length);
+        return fixed;
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.hy.oauth2.common.jwk;
+
+/**
+ * jwt 密钥来源
+ *
+ * @author wyl
+ * @since 2026-10-16 17:22:40
+ */
+public interface JwtKeyResolver {
+
+    /**
+     * 当前用于签名的密钥
+     *
+     * @return
+     * @throws UnsupportedOperationException 只能验签时
+     */
+    JwtKey signingKey();
+
+    /**
+     * 根据 jwt 头部的 kid 查找验签密钥
+     *
+     * @param kid
+     * @return 不存在时返回 null
+     */
+    JwtKey verificationKey(String kid);
+
+}
@@ -0,0 +1,135 @@
+package com.hy.oauth2.common.jwk;
+
+import com.hy.oauth2.common.token.ClaimsJwtAccessTokenConverter;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.exceptions.InvalidTokenException;
+import org.springframework.security.oauth2.common.util.JsonParser;
+import org.springframework.security.oauth2.common.util.JsonParserFactory;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 按 kid 选择密钥的 jwt 转换器，支持 RS256、ES256
+ * <p>
+ * 签发时在头部写入当前签名密钥的 kid；验签时根据头部 kid 查找密钥，并要求头部 alg 与密钥算法一致，
+ * 不接受 none、HS256 等其他算法。验签在令牌的 ASCII 字节上原地进行，通过后才解码、解析 claims，
+ * 签名错误的令牌不会触发 claims 的 JSON 解析；Signature 由 {@link JwtKey} 按线程复用
+ *
+ * @author wyl
+ * @since 2026-10-16 17:30:18
+ */
+public class KeyIdJwtAccessTokenConverter extends ClaimsJwtAccessTokenConverter {
+
+    private static final Base64.Encoder B64URL = Base64.getUrlEncoder().withoutPadding();
+
+    private static final Base64.Decoder B64URL_DECODER = Base64.getUrlDecoder();
+
+    private final JsonParser jsonParser = JsonParserFactory.create();
+
+    private final JwtKeyResolver keyResolver;
+
+    public KeyIdJwtAccessTokenConverter(JwtKeyResolver keyResolver) {
+        this.keyResolver = keyResolver;
+    }
+
+    @Override
+    protected String encode(OAuth2AccessToken accessToken, OAuth2Authentication authentication) {
+        String content;
+        try {
+            content = jsonParser.formatMap(getAccessTokenConverter().convertAccessToken(accessToken, authentication));
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot convert access token to JSON", e);
+        }
+        JwtKey key = keyResolver.signingKey();
+        Map<String, Object> header = new LinkedHashMap<>();
+        header.put("alg", key.getAlgorithm().name());
+        header.put("kid", key.getKid());
+        header.put("typ", "JWT");
+        String signingInput = B64URL.encodeToString(jsonParser.formatMap(header).getBytes(StandardCharsets.UTF_8)) + "." +
+                B64URL.encodeToString(content.getBytes(StandardCharsets.UTF_8));
+        byte[] signature = key.sign(signingInput.getBytes(StandardCharsets.US_ASCII));
+        return signingInput + "." + B64URL.encodeToString(signature);
+    }
+
+    @Override
+    protected Map<String, Object> decode(String token) {
+        int first = token.indexOf('.');
+        int second = first < 0 ? -1 : token.indexOf('.', first + 1);
+        if (second < 0 || token.indexOf('.', second + 1) >= 0) {
+            throw new InvalidTokenException("Invalid JWT format");
+        }
+        Map<String, Object> header;
+        try {
+            header = jsonParser.parseMap(new String(B64URL_DECODER.decode(token.substring(0, first)), StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            throw new InvalidTokenException("Invalid JOSE header", e);
+        }
+        Object kid = header.get("kid");
+        if (!(kid instanceof String)) {
+            throw new InvalidTokenException("Invalid JOSE header: kid is required");
+        }
+        JwtKey key = keyResolver.verificationKey((String) kid);
+        if (key == null) {
+            throw new InvalidTokenException("Invalid JOSE header: unknown kid " + kid);
+        }
+        if (!key.getAlgorithm().name().equals(header.get("alg"))) {
+            throw new InvalidTokenException("Invalid JOSE header: alg does not match kid " + kid);
+        }
+        byte[] signature;
+        try {
+            signature = B64URL_DECODER.decode(token.substring(second + 1));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidTokenException("Invalid JWT signature encoding", e);
+        }
+        byte[] content = token.getBytes(StandardCharsets.US_ASCII);
+        if (!key.verify(content, 0, second, signature)) {
+            throw new InvalidTokenException("Invalid JWT signature");
+        }
+        Map<String, Object> claims;
+        try {
+            ByteBuffer payload = B64URL_DECODER.decode(ByteBuffer.wrap(content, first + 1, second - first - 1));
+            claims = jsonParser.parseMap(StandardCharsets.UTF_8.decode(payload).toString());
+        } catch (Exception e) {
+            throw new InvalidTokenException("Cannot convert access token to JSON", e);
+        }
+        if (claims.get(EXP) instanceof Integer) {
+            claims.put(EXP, ((Integer) claims.get(EXP)).longValue());
+        }
+        getJwtClaimsSetVerifier().verify(claims);
+        return claims;
+    }
+
+    /**
+     * /oauth/token_key 返回当前签名密钥的公钥，兼容仍通过 key-uri 获取公钥的客户端（只支持 RS256）
+     */
+    @Override
+    public Map<String, String> getKey() {
+        JwtKey key = keyResolver.signingKey();
+        Map<String, String> result = new LinkedHashMap<>();
+        result.put("alg", key.getAlgorithm().getJcaName());
+        result.put("kid", key.getKid());
+        String value = Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII)).encodeToString(key.getPublicKey().getEncoded());
+        result.put("value", "-----BEGIN PUBLIC KEY-----\n" + value + "\n-----END PUBLIC KEY-----");
+        return result;
+    }
+
+    @Override
+    public boolean isPublic() {
+        return true;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        // 密钥由 JwtKeyResolver 提供，不使用父类的 signer、verifier
+    }
+
+    public JwtKeyResolver getKeyResolver() {
+        return keyResolver;
+    }
+
+}
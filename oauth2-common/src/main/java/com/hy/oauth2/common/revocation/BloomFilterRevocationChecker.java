@@ -0,0 +1,163 @@
+package com.hy.oauth2.common.revocation;
+
+import com.hy.oauth2.common.concurrent.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 本地布隆过滤器 + Redis 确认的注销检查
+ * <p>
+ * 过滤器保存所有未过期的已注销 jti：启动时及每隔 rebuildInterval 从 Redis 全量重建（同时清除已过期的 jti），
+ * 期间通过 {@link #onRevoked(String)} 接收发布订阅通知增量写入。绝大多数未注销的令牌在本地即可判定，
+ * 只有过滤器命中（真正注销或误判）时才查询 Redis。
+ * <p>
+ * 订阅断开期间漏掉的通知在下一次重建时补上；Redis 不可用时过滤器命中的令牌按已注销处理，
+ * 首次加载成功前过滤器为空，所有令牌视为未注销
+ *
+ * @author wyl
+ * @since 2026-10-16 23:18:51
+ */
+public class BloomFilterRevocationChecker implements TokenRevocationChecker, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(BloomFilterRevocationChecker.class);
+
+    private final TokenRevocationRegistry registry;
+
+    private final long expectedInsertions;
+
+    private final double fpp;
+
+    private final Duration rebuildInterval;
+
+    private final Counter filterHits;
+
+    private final Counter revoked;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "token-revocation-filter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile BloomFilter filter;
+
+    /**
+     * 重建期间收到的通知同时写入新过滤器
+     */
+    private volatile BloomFilter pending;
+
+    /**
+     * 通知的两次写入与过滤器切换互斥，否则切换发生在两次写入之间时 jti 既不在新过滤器也不在 pending 中；
+     * 只在写入、切换时持有，不包括扫描 Redis
+     */
+    private final Object swapLock = new Object();
+
+    /**
+     * @param registry
+     * @param expectedInsertions 预计同时有效的已注销令牌数，实际数量超过一半时下次重建自动扩容
+     * @param fpp                误判率，误判的令牌需要查询一次 Redis
+     * @param rebuildInterval    全量重建间隔
+     * @param meterRegistry
+     */
+    public BloomFilterRevocationChecker(TokenRevocationRegistry registry, long expectedInsertions, double fpp,
+                                        Duration rebuildInterval, MeterRegistry meterRegistry) {
+        this.registry = registry;
+        this.expectedInsertions = expectedInsertions;
+        this.fpp = fpp;
+        this.rebuildInterval = rebuildInterval;
+        this.filter = new BloomFilter(expectedInsertions, fpp);
+        this.filterHits = meterRegistry.counter("oauth2.resource.revocation.filter.hits");
+        this.revoked = meterRegistry.counter("oauth2.resource.revocation.revoked");
+        Gauge.builder("oauth2.resource.revocation.filter.size", this, c -> c.filter.insertions())
+                .description("布隆过滤器中的已注销令牌数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 加载过滤器并开始定期重建
+     */
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::rebuildQuietly, 0, rebuildInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public boolean isRevoked(String jti) {
+        if (jti == null || !filter.mightContain(jti)) {
+            return false;
+        }
+        filterHits.increment();
+        boolean result;
+        try {
+            result = registry.isRevoked(jti);
+        } catch (RuntimeException e) {
+            log.warn("查询令牌注销状态失败，按已注销处理: {}", jti, e);
+            result = true;
+        }
+        if (result) {
+            revoked.increment();
+        }
+        return result;
+    }
+
+    /**
+     * 收到注销通知
+     *
+     * @param jti
+     */
+    public void onRevoked(String jti) {
+        synchronized (swapLock) {
+            filter.put(jti);
+            BloomFilter next = pending;
+            if (next != null) {
+                next.put(jti);
+            }
+        }
+    }
+
+    /**
+     * 从 Redis 全量重建过滤器
+     */
+    public synchronized void rebuild() {
+        long count = filter.insertions();
+        BloomFilter next = new BloomFilter(Math.max(expectedInsertions, count * 2), fpp);
+        synchronized (swapLock) {
+            pending = next;
+        }
+        try {
+            registry.forEachRevoked(next::put);
+            synchronized (swapLock) {
+                filter = next;
+                pending = null;
+            }
+        } finally {
+            if (pending != null) {
+                synchronized (swapLock) {
+                    pending = null;
+                }
+            }
+        }
+        log.debug("已注销令牌过滤器重建完成，共 {} 个", next.insertions());
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("已注销令牌过滤器重建失败，继续使用旧过滤器", e);
+        }
+    }
+
+}
@@ -0,0 +1,46 @@
+package com.hy.oauth2.common.revocation;
+
+import com.hy.oauth2.common.token.JwtTokenServices;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.exceptions.InvalidTokenException;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.AccessTokenConverter;
+import org.springframework.security.oauth2.provider.token.ResourceServerTokenServices;
+
+/**
+ * 校验令牌后检查 jti 是否已注销，未启用已验证令牌缓存时使用
+ * <p>
+ * 启用缓存时由 CachingResourceServerTokenServices 直接检查缓存项中的 jti，不需要本类
+ *
+ * @author wyl
+ * @since 2026-10-16 23:27:35
+ */
+public class RevocationCheckingTokenServices implements ResourceServerTokenServices {
+
+    private final JwtTokenServices delegate;
+
+    private final TokenRevocationChecker revocationChecker;
+
+    public RevocationCheckingTokenServices(JwtTokenServices delegate, TokenRevocationChecker revocationChecker) {
+        this.delegate = delegate;
+        this.revocationChecker = revocationChecker;
+    }
+
+    @Override
+    public OAuth2Authentication loadAuthentication(String accessToken) throws AuthenticationException, InvalidTokenException {
+        // 一次解析同时得到认证信息及 jti
+        JwtTokenServices.VerifiedToken verified = delegate.load(accessToken);
+        Object jti = verified.getAccessToken().getAdditionalInformation().get(AccessTokenConverter.JTI);
+        if (jti != null && revocationChecker.isRevoked(jti.toString())) {
+            throw new InvalidTokenException("Token has been revoked");
+        }
+        return verified.getAuthentication();
+    }
+
+    @Override
+    public OAuth2AccessToken readAccessToken(String accessToken) {
+        return delegate.readAccessToken(accessToken);
+    }
+
+}
@@ -0,0 +1,17 @@
+package com.hy.oauth2.common.revocation;
+
+/**
+ * 资源服务器判断 jwt 是否已注销
+ *
+ * @author wyl
+ * @since 2026-10-16 23:09:40
+ */
+public interface TokenRevocationChecker {
+
+    /**
+     * @param jti 令牌编号
+     * @return 已注销时返回 true
+     */
+    boolean isRevoked(String jti);
+
+}
@@ -0,0 +1,98 @@
+package com.hy.oauth2.common.revocation;
+
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 已注销 jwt 的登记表，保存在 Redis 中，认证服务器写入，资源服务器读取
+ * <p>
+ * 每个 jti 一个 key（keyPrefix + jti），过期时间为令牌剩余有效期，令牌过期后自动删除；
+ * 写入后向 channel 发布 jti，资源服务器据此更新本地布隆过滤器
+ *
+ * @author wyl
+ * @since 2026-10-16 23:06:12
+ */
+public class TokenRevocationRegistry {
+
+    public static final String DEFAULT_KEY_PREFIX = "oauth2:revoked:";
+
+    public static final String DEFAULT_CHANNEL = "oauth2:token-revocation";
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final String keyPrefix;
+
+    private final String channel;
+
+    public TokenRevocationRegistry(StringRedisTemplate redisTemplate) {
+        this(redisTemplate, DEFAULT_KEY_PREFIX, DEFAULT_CHANNEL);
+    }
+
+    public TokenRevocationRegistry(StringRedisTemplate redisTemplate, String keyPrefix, String channel) {
+        this.redisTemplate = redisTemplate;
+        this.keyPrefix = keyPrefix;
+        this.channel = channel;
+    }
+
+    /**
+     * 登记注销的令牌
+     *
+     * @param jti
+     * @param expiration 令牌过期时间
+     * @return 令牌已过期时不登记，返回 false
+     */
+    public boolean revoke(String jti, Date expiration) {
+        long ttlMillis = expiration.getTime() - System.currentTimeMillis();
+        if (ttlMillis <= 0) {
+            return false;
+        }
+        redisTemplate.opsForValue().set(keyPrefix + jti, "1", ttlMillis, TimeUnit.MILLISECONDS);
+        // 先写 key 再发布，订阅方重建过滤器时扫描不到的 jti 一定能收到通知
+        redisTemplate.convertAndSend(channel, jti);
+        return true;
+    }
+
+    public boolean isRevoked(String jti) {
+        Boolean exists = redisTemplate.hasKey(keyPrefix + jti);
+        return exists != null && exists;
+    }
+
+    /**
+     * 遍历全部未过期的已注销 jti（SCAN，不阻塞 Redis）
+     *
+     * @param consumer
+     */
+    public void forEachRevoked(Consumer<String> consumer) {
+        ScanOptions options = ScanOptions.scanOptions().match(keyPrefix + "*").count(1000).build();
+        redisTemplate.execute((RedisCallback<Void>) connection -> {
+            scan(connection, options, consumer);
+            return null;
+        });
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    private void scan(RedisConnection connection, ScanOptions options, Consumer<String> consumer) {
+        try (Cursor<byte[]> cursor = connection.scan(options)) {
+            while (cursor.hasNext()) {
+                String key = new String(cursor.next(), StandardCharsets.UTF_8);
+                consumer.accept(key.substring(keyPrefix.length()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
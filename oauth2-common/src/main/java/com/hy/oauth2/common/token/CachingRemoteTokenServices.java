@@ -0,0 +1,293 @@
+package com.hy.oauth2.common.token;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.hy.oauth2.common.concurrent.SingleFlight;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.exceptions.InvalidTokenException;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.AccessTokenConverter;
+import org.springframework.security.oauth2.provider.token.DefaultAccessTokenConverter;
+import org.springframework.security.oauth2.provider.token.RemoteTokenServices;
+import org.springframework.security.oauth2.provider.token.ResourceServerTokenServices;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.RestOperations;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * 带缓存的 check_token 令牌校验，代替 {@link RemoteTokenServices}
+ * <p>
+ * RemoteTokenServices 每个请求都同步调用一次认证服务器。这里：
+ * <ul>
+ * <li>校验成功的结果缓存到令牌 exp，没有 exp 时缓存 defaultTtl，两者都不超过 maxTtl</li>
+ * <li>无效令牌（invalid_token、active=false）缓存 negativeTtl，避免反复提交的无效令牌打到认证服务器；网络错误不缓存</li>
+ * <li>同一令牌的并发校验合并为一次请求</li>
+ * </ul>
+ * 连接池、keep-alive 由传入的 RestOperations 决定，其 ErrorHandler 需要放过 400（invalid_token）
+ * 以便读取响应体，与 RemoteTokenServices 相同。令牌在认证服务器注销后最多 maxTtl 内仍然有效，
+ * 可通过 evict 系列方法立即清理，清理期间正在校验的令牌不会再写入缓存
+ *
+ * @author wyl
+ * @since 2026-10-17 00:21:37
+ */
+public class CachingRemoteTokenServices implements ResourceServerTokenServices {
+
+    private static final ParameterizedTypeReference<Map<String, Object>> RESPONSE_TYPE =
+            new ParameterizedTypeReference<Map<String, Object>>() {
+            };
+
+    private final RestOperations restTemplate;
+
+    private final String checkTokenEndpointUrl;
+
+    private final String authorization;
+
+    private final Cache<String, Entry> cache;
+
+    private final SingleFlight<String, Entry> singleFlight = new SingleFlight<>();
+
+    private final long defaultTtlNanos;
+
+    private final long negativeTtlNanos;
+
+    private final long maxTtlNanos;
+
+    /**
+     * 每次清理加一，校验前后不一致时说明期间发生过清理，结果不写入缓存
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Timer requests;
+
+    private AccessTokenConverter tokenConverter = new DefaultAccessTokenConverter();
+
+    private final ThreadLocal<MessageDigest> digest = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    /**
+     * @param restTemplate          调用 check_token 使用，应配置连接池
+     * @param checkTokenEndpointUrl 如 http://localhost:8086/oauth/check_token
+     * @param clientId
+     * @param clientSecret
+     * @param maximumSize           缓存条数
+     * @param defaultTtl            令牌没有 exp 时的缓存时间
+     * @param negativeTtl           无效令牌的缓存时间
+     * @param maxTtl                有效令牌的最长缓存时间，即认证服务器注销令牌后资源服务器最迟多久发现
+     * @param meterRegistry
+     */
+    public CachingRemoteTokenServices(RestOperations restTemplate, String checkTokenEndpointUrl, String clientId,
+                                      String clientSecret, long maximumSize, Duration defaultTtl, Duration negativeTtl,
+                                      Duration maxTtl, MeterRegistry meterRegistry) {
+        this.restTemplate = restTemplate;
+        this.checkTokenEndpointUrl = checkTokenEndpointUrl;
+        this.authorization = "Basic " + Base64.getEncoder()
+                .encodeToString((clientId + ":" + clientSecret).getBytes(StandardCharsets.UTF_8));
+        this.defaultTtlNanos = defaultTtl.toNanos();
+        this.negativeTtlNanos = negativeTtl.toNanos();
+        this.maxTtlNanos = maxTtl.toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry entry, long currentTime) {
+                        return entry.ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+                        return entry.ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "oauth2.resource.introspection");
+        this.requests = meterRegistry.timer("oauth2.resource.introspection.requests");
+        FunctionCounter.builder("oauth2.resource.introspection.coalesced", singleFlight, SingleFlight::coalesced)
+                .description("与其他线程合并的 check_token 请求数")
+                .register(meterRegistry);
+    }
+
+    public void setAccessTokenConverter(AccessTokenConverter tokenConverter) {
+        this.tokenConverter = tokenConverter;
+    }
+
+    @Override
+    public OAuth2Authentication loadAuthentication(String accessToken) throws AuthenticationException, InvalidTokenException {
+        String key = hash(accessToken);
+        Entry entry = cache.getIfPresent(key);
+        if (entry == null) {
+            entry = singleFlight.execute(key, () -> {
+                // 等待期间其他线程可能已写入缓存
+                Entry loaded = cache.getIfPresent(key);
+                if (loaded == null) {
+                    long current = generation.get();
+                    loaded = introspect(accessToken);
+                    if (loaded.ttlNanos > 0) {
+                        cache.put(key, loaded);
+                        if (generation.get() != current) {
+                            // 校验期间发生过清理，不能确定本令牌是否在其中
+                            cache.invalidate(key);
+                        }
+                    }
+                }
+                return loaded;
+            });
+        }
+        if (entry.authentication == null) {
+            throw new InvalidTokenException(entry.error);
+        }
+        return copy(entry.authentication);
+    }
+
+    @Override
+    public OAuth2AccessToken readAccessToken(String accessToken) {
+        throw new UnsupportedOperationException("Not supported: read access token");
+    }
+
+    /**
+     * 清理单个令牌
+     *
+     * @param accessToken
+     */
+    public void evict(String accessToken) {
+        generation.incrementAndGet();
+        cache.invalidate(hash(accessToken));
+    }
+
+    /**
+     * 清理某个用户的全部令牌，用于用户退出、修改密码、禁用
+     *
+     * @param username
+     */
+    public void evictUser(String username) {
+        evictIf(entry -> entry.authentication != null && !entry.authentication.isClientOnly()
+                && Objects.equals(username, entry.authentication.getName()));
+    }
+
+    /**
+     * 清理某个客户端的全部令牌
+     *
+     * @param clientId
+     */
+    public void evictClient(String clientId) {
+        evictIf(entry -> entry.authentication != null
+                && Objects.equals(clientId, entry.authentication.getOAuth2Request().getClientId()));
+    }
+
+    public void evictAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private void evictIf(Predicate<Entry> predicate) {
+        generation.incrementAndGet();
+        cache.asMap().values().removeIf(predicate);
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private Entry introspect(String accessToken) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.AUTHORIZATION, authorization);
+        headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+        MultiValueMap<String, String> form = new LinkedMultiValueMap<>(1);
+        form.add("token", accessToken);
+        long start = System.nanoTime();
+        Map<String, Object> map;
+        try {
+            map = restTemplate.exchange(checkTokenEndpointUrl, HttpMethod.POST, new HttpEntity<>(form, headers), RESPONSE_TYPE).getBody();
+        } finally {
+            requests.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (map == null) {
+            throw new IllegalStateException("check_token 响应为空");
+        }
+        if (map.containsKey("error")) {
+            return Entry.invalid("Token was not recognised", negativeTtlNanos);
+        }
+        if (Boolean.FALSE.equals(map.get("active"))) {
+            return Entry.invalid("Token is not active", negativeTtlNanos);
+        }
+        OAuth2Authentication authentication = tokenConverter.extractAuthentication(map);
+        Object exp = map.get(AccessTokenConverter.EXP);
+        long ttlNanos = exp instanceof Number
+                ? TimeUnit.SECONDS.toNanos(((Number) exp).longValue()) - TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis())
+                : defaultTtlNanos;
+        return new Entry(authentication, null, Math.min(ttlNanos, maxTtlNanos));
+    }
+
+    /**
+     * OAuth2AuthenticationManager 会修改返回对象的 details、authenticated，每个请求使用独立的对象
+     */
+    private static OAuth2Authentication copy(OAuth2Authentication authentication) {
+        OAuth2Authentication copy = new OAuth2Authentication(authentication.getOAuth2Request(), authentication.getUserAuthentication());
+        copy.setDetails(authentication.getDetails());
+        return copy;
+    }
+
+    /**
+     * 以摘要作为缓存键，不在内存中长期保留完整令牌
+     */
+    private String hash(String accessToken) {
+        byte[] bytes = digest.get().digest(accessToken.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static final class Entry {
+
+        /**
+         * 为 null 表示无效令牌
+         */
+        private final OAuth2Authentication authentication;
+
+        private final String error;
+
+        private final long ttlNanos;
+
+        Entry(OAuth2Authentication authentication, String error, long ttlNanos) {
+            this.authentication = authentication;
+            this.error = error;
+            this.ttlNanos = ttlNanos;
+        }
+
+        static Entry invalid(String error, long ttlNanos) {
+            return new Entry(null, error, ttlNanos);
+        }
+
+    }
+
+}
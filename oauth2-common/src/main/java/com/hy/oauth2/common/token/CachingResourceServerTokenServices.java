@@ -0,0 +1,239 @@
+package com.hy.oauth2.common.token;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.hy.oauth2.common.revocation.TokenRevocationChecker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.exceptions.InvalidTokenException;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.AccessTokenConverter;
+import org.springframework.security.oauth2.provider.token.ResourceServerTokenServices;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * 资源服务器已验证令牌缓存
+ * <p>
+ * 同一个令牌在有效期内会被重复提交，缓存令牌摘要到 OAuth2Authentication 的映射，命中时不再验签、解析 claims；
+ * 未命中时经 {@link JwtTokenServices} 只解析一次，同时得到认证信息及 jti、exp。
+ * 缓存项在令牌 exp 时过期，没有 exp 的令牌使用 defaultTtl；只缓存验证成功的令牌。
+ * <p>
+ * 令牌注销后需调用 evict 系列方法清理缓存，清理期间正在加载的令牌不会再写入缓存；
+ * 设置 {@link TokenRevocationChecker} 后每次请求（包括命中缓存）都检查 jti 是否已注销
+ *
+ * @author wyl
+ * @since 2026-10-16 18:42:10
+ */
+public class CachingResourceServerTokenServices implements ResourceServerTokenServices {
+
+    private final JwtTokenServices delegate;
+
+    private final Cache<String, Entry> cache;
+
+    private final long defaultTtlNanos;
+
+    /**
+     * 每次清理加一，加载前后不一致时说明期间发生过注销，结果不写入缓存
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Counter invalidations;
+
+    private TokenRevocationChecker revocationChecker;
+
+    private final ThreadLocal<MessageDigest> digest = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    public CachingResourceServerTokenServices(JwtTokenServices delegate, long maximumSize,
+                                              Duration defaultTtl, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.defaultTtlNanos = defaultTtl.toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry entry, long currentTime) {
+                        return entry.ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+                        return entry.ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        // cache.gets（命中、未命中次数）/ cache.evictions 等指标
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "oauth2.resource.token");
+        Gauge.builder("oauth2.resource.token.hit.ratio", cache, c -> c.stats().hitRate())
+                .description("已验证令牌缓存命中率")
+                .register(meterRegistry);
+        this.invalidations = meterRegistry.counter("oauth2.resource.token.invalidations");
+    }
+
+    @Override
+    public OAuth2Authentication loadAuthentication(String accessToken) throws AuthenticationException, InvalidTokenException {
+        String key = hash(accessToken);
+        Entry entry = cache.getIfPresent(key);
+        if (entry != null) {
+            checkRevoked(entry.jti);
+            return copy(entry.authentication);
+        }
+        long current = generation.get();
+        JwtTokenServices.VerifiedToken verified = delegate.load(accessToken);
+        OAuth2Authentication authentication = verified.getAuthentication();
+        OAuth2AccessToken token = verified.getAccessToken();
+        Object jtiClaim = token == null ? null : token.getAdditionalInformation().get(AccessTokenConverter.JTI);
+        String jti = jtiClaim == null ? null : jtiClaim.toString();
+        checkRevoked(jti);
+        long ttlNanos = ttlNanos(token);
+        if (ttlNanos > 0) {
+            cache.put(key, new Entry(authentication, jti, ttlNanos));
+            if (generation.get() != current) {
+                // 加载期间发生过注销，不能确定本令牌是否在其中
+                cache.invalidate(key);
+            }
+        }
+        return copy(authentication);
+    }
+
+    public void setRevocationChecker(TokenRevocationChecker revocationChecker) {
+        this.revocationChecker = revocationChecker;
+    }
+
+    @Override
+    public OAuth2AccessToken readAccessToken(String accessToken) {
+        return delegate.readAccessToken(accessToken);
+    }
+
+    /**
+     * 清理单个令牌
+     *
+     * @param accessToken
+     */
+    public void evict(String accessToken) {
+        generation.incrementAndGet();
+        cache.invalidate(hash(accessToken));
+        invalidations.increment();
+    }
+
+    /**
+     * 按 jti 清理，用于只知道令牌编号的注销通知
+     *
+     * @param jti
+     */
+    public void evictJti(String jti) {
+        evictIf(entry -> Objects.equals(jti, entry.jti));
+    }
+
+    /**
+     * 清理某个用户的全部令牌，用于用户退出、修改密码、禁用
+     *
+     * @param username
+     */
+    public void evictUser(String username) {
+        evictIf(entry -> !entry.authentication.isClientOnly() && Objects.equals(username, entry.authentication.getName()));
+    }
+
+    /**
+     * 清理某个客户端的全部令牌
+     *
+     * @param clientId
+     */
+    public void evictClient(String clientId) {
+        evictIf(entry -> Objects.equals(clientId, entry.authentication.getOAuth2Request().getClientId()));
+    }
+
+    public void evictAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+        invalidations.increment();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public double hitRate() {
+        return cache.stats().hitRate();
+    }
+
+    private void evictIf(Predicate<Entry> predicate) {
+        generation.incrementAndGet();
+        cache.asMap().values().removeIf(predicate);
+        invalidations.increment();
+    }
+
+    private void checkRevoked(String jti) {
+        if (revocationChecker != null && jti != null && revocationChecker.isRevoked(jti)) {
+            throw new InvalidTokenException("Token has been revoked");
+        }
+    }
+
+    private long ttlNanos(OAuth2AccessToken token) {
+        Date expiration = token == null ? null : token.getExpiration();
+        if (expiration == null) {
+            return defaultTtlNanos;
+        }
+        return TimeUnit.MILLISECONDS.toNanos(expiration.getTime() - System.currentTimeMillis());
+    }
+
+    /**
+     * OAuth2AuthenticationManager 会修改返回对象的 details、authenticated，每个请求使用独立的对象
+     */
+    private static OAuth2Authentication copy(OAuth2Authentication authentication) {
+        OAuth2Authentication copy = new OAuth2Authentication(authentication.getOAuth2Request(), authentication.getUserAuthentication());
+        copy.setDetails(authentication.getDetails());
+        return copy;
+    }
+
+    /**
+     * 以摘要作为缓存键，不在内存中长期保留完整令牌
+     */
+    private String hash(String accessToken) {
+        byte[] bytes = digest.get().digest(accessToken.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static final class Entry {
+
+        private final OAuth2Authentication authentication;
+
+        private final String jti;
+
+        private final long ttlNanos;
+
+        Entry(OAuth2Authentication authentication, String jti, long ttlNanos) {
+            this.authentication = authentication;
+            this.jti = jti;
+            this.ttlNanos = ttlNanos;
+        }
+
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.hy.oauth2.common.token;
+
+import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
+
+import java.util.Map;
+
+/**
+ * 公开验签、解析 claims 的 jwt 转换器，供 {@link JwtTokenServices} 一次解析同时得到访问令牌及认证信息
+ * <p>
+ * JwtTokenStore 读取访问令牌、认证信息时各调用一次 decode，DefaultTokenServices 加载认证时两者都要读取
+ *
+ * @author wyl
+ * @since 2026-10-17 04:47:12
+ */
+public class ClaimsJwtAccessTokenConverter extends JwtAccessTokenConverter {
+
+    /**
+     * 验签并解析 claims，失败时抛出 InvalidTokenException
+     *
+     * @param token
+     * @return
+     */
+    public Map<String, Object> decodeClaims(String token) {
+        return decode(token);
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.hy.oauth2.common.token;
+
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.exceptions.InvalidTokenException;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.ResourceServerTokenServices;
+
+import java.util.Map;
+
+/**
+ * 资源服务器本地校验 jwt，每个令牌只验签、解析一次，代替 DefaultTokenServices + JwtTokenStore（加载认证时解析两次）
+ * <p>
+ * 校验规则与 DefaultTokenServices 相同：拒绝刷新令牌及已过期的令牌
+ *
+ * @author wyl
+ * @since 2026-10-17 04:48:30
+ */
+public class JwtTokenServices implements ResourceServerTokenServices {
+
+    private final ClaimsJwtAccessTokenConverter converter;
+
+    public JwtTokenServices(ClaimsJwtAccessTokenConverter converter) {
+        this.converter = converter;
+    }
+
+    /**
+     * 一次解析得到访问令牌（jti、exp 等）及认证信息
+     *
+     * @param accessToken
+     * @return
+     */
+    public VerifiedToken load(String accessToken) throws AuthenticationException {
+        Map<String, Object> claims = converter.decodeClaims(accessToken);
+        OAuth2AccessToken token = converter.extractAccessToken(accessToken, claims);
+        if (converter.isRefreshToken(token)) {
+            throw new InvalidTokenException("Encoded token is a refresh token");
+        }
+        if (token.isExpired()) {
+            throw new InvalidTokenException("Access token expired: " + accessToken);
+        }
+        return new VerifiedToken(token, converter.extractAuthentication(claims));
+    }
+
+    @Override
+    public OAuth2Authentication loadAuthentication(String accessToken) throws AuthenticationException, InvalidTokenException {
+        return load(accessToken).getAuthentication();
+    }
+
+    @Override
+    public OAuth2AccessToken readAccessToken(String accessToken) {
+        OAuth2AccessToken token = converter.extractAccessToken(accessToken, converter.decodeClaims(accessToken));
+        if (converter.isRefreshToken(token)) {
+            throw new InvalidTokenException("Encoded token is a refresh token");
+        }
+        return token;
+    }
+
+    public static final class VerifiedToken {
+
+        private final OAuth2AccessToken accessToken;
+
+        private final OAuth2Authentication authentication;
+
+        VerifiedToken(OAuth2AccessToken accessToken, OAuth2Authentication authentication) {
+            this.accessToken = accessToken;
+            this.authentication = authentication;
+        }
+
+        public OAuth2AccessToken getAccessToken() {
+            return accessToken;
+        }
+
+        public OAuth2Authentication getAuthentication() {
+            return authentication;
+        }
+
+    }
+
+}
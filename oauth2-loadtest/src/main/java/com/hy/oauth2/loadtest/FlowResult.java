@@ -0,0 +1,71 @@
+package com.hy.oauth2.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一个流程在某一并发下的结果，耗时分布只统计成功的操作
+ *
+ * @author wyl
+ * @since 2026-10-17 02:45:03
+ */
+public class FlowResult {
+
+    private static final String FORMAT = "%-20s %8s %10s %8s %10s %10s %10s %10s %10s%n";
+
+    private final String flow;
+
+    private final int concurrency;
+
+    /**
+     * 单位微秒
+     */
+    private final Histogram histogram;
+
+    private final long errors;
+
+    private final Throwable firstError;
+
+    private final long elapsedNanos;
+
+    public FlowResult(String flow, int concurrency, Histogram histogram, long errors, Throwable firstError, long elapsedNanos) {
+        this.flow = flow;
+        this.concurrency = concurrency;
+        this.histogram = histogram;
+        this.errors = errors;
+        this.firstError = firstError;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * 每秒完成的操作数
+     */
+    public double throughput() {
+        return histogram.getTotalCount() / (elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1));
+    }
+
+    public Throwable getFirstError() {
+        return firstError;
+    }
+
+    public String getFlow() {
+        return flow;
+    }
+
+    public static String header() {
+        return String.format(FORMAT, "flow", "threads", "ops", "errors", "ops/s", "p50(ms)", "p99(ms)", "p999(ms)", "max(ms)");
+    }
+
+    public String format() {
+        return String.format(FORMAT, flow, concurrency, histogram.getTotalCount(), errors,
+                String.format("%.1f", throughput()), millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()));
+    }
+
+    private static String millis(long micros) {
+        return String.format("%.2f", micros / 1000.0);
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.hy.oauth2.loadtest;
+
+import com.hy.oauth2.loadtest.flow.Flow;
+import org.HdrHistogram.Recorder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 以固定并发执行一个流程：每个并发用户一个线程，上一次操作完成后立即开始下一次（闭环），
+ * 先预热 warmup，再统计 duration 内完成的操作数及耗时分布
+ *
+ * @author wyl
+ * @since 2026-10-17 02:44:18
+ */
+public class LoadRunner {
+
+    private final Duration warmup;
+
+    private final Duration duration;
+
+    public LoadRunner(Duration warmup, Duration duration) {
+        this.warmup = warmup;
+        this.duration = duration;
+    }
+
+    public FlowResult run(Flow flow, int concurrency) throws Exception {
+        List<Flow.Worker> workers = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            workers.add(flow.newWorker(i));
+        }
+        if (!warmup.isZero()) {
+            new Phase(workers, warmup).run();
+        }
+        Phase measurement = new Phase(workers, duration);
+        long elapsed = measurement.run();
+        return new FlowResult(flow.name(), concurrency, measurement.recorder.getIntervalHistogram(),
+                measurement.errors.get(), measurement.firstError.get(), elapsed);
+    }
+
+    private static class Phase {
+
+        private final List<Flow.Worker> workers;
+
+        private final Duration duration;
+
+        /**
+         * 单位微秒
+         */
+        private final Recorder recorder = new Recorder(3);
+
+        private final AtomicLong errors = new AtomicLong();
+
+        private final AtomicReference<Throwable> firstError = new AtomicReference<>();
+
+        private Phase(List<Flow.Worker> workers, Duration duration) {
+            this.workers = workers;
+            this.duration = duration;
+        }
+
+        /**
+         * @return 实际耗时（纳秒）
+         */
+        private long run() throws InterruptedException {
+            ExecutorService executor = Executors.newFixedThreadPool(workers.size());
+            long start = System.nanoTime();
+            long deadline = start + duration.toNanos();
+            for (Flow.Worker worker : workers) {
+                executor.execute(() -> {
+                    long now = System.nanoTime();
+                    while (now < deadline) {
+                        try {
+                            worker.run();
+                            long end = System.nanoTime();
+                            recorder.recordValue(TimeUnit.NANOSECONDS.toMicros(end - now));
+                            now = end;
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                            firstError.compareAndSet(null, e);
+                            now = System.nanoTime();
+                        }
+                    }
+                });
+            }
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            return System.nanoTime() - start;
+        }
+
+    }
+
+}
@@ -0,0 +1,215 @@
+package com.hy.oauth2.loadtest;
+
+import com.hy.oauth2.loadtest.flow.AuthorizationCodeFlow;
+import com.hy.oauth2.loadtest.flow.ClientCredentialsFlow;
+import com.hy.oauth2.loadtest.flow.Flow;
+import com.hy.oauth2.loadtest.flow.PasswordFlow;
+import com.hy.oauth2.loadtest.flow.RefreshTokenFlow;
+import com.hy.oauth2.loadtest.flow.ResourceFlow;
+import com.hy.oauth2.loadtest.flow.TokenEndpoint;
+import com.hy.oauth2.loadtest.support.EmbeddedApplication;
+import com.hy.oauth2.loadtest.support.LocalDatabase;
+import com.hy.oauth2.loadtest.support.Ports;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.client.LaxRedirectStrategy;
+import redis.embedded.RedisServer;
+
+import java.io.Closeable;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 端到端压测：在当前进程内启动认证服务器、资源服务器及两个单点登录客户端（各自监听本地空闲端口），
+ * 数据库为 H2（TCP），Redis 为嵌入式 Redis，按授权类型逐个压测并输出吞吐量及 p50/p99/p999 耗时
+ * <p>
+ * 参数见 {@link LoadTestOptions}，运行方式见 oauth2-loadtest/README.md
+ *
+ * @author wyl
+ * @since 2026-10-17 02:49:12
+ */
+public final class LoadTestMain {
+
+    private static final String USERNAME = "loadtest";
+
+    private static final String PASSWORD = "secret";
+
+    /**
+     * "secret" 的 BCrypt 值（强度 10），与 oauth2.sql 中的客户端密钥相同
+     */
+    private static final String SECRET_HASH = "$2a$10$YDDFHQx5fxjSMvSqcEROJuXAY7KRku5uR4XpsB/a6G0CPdwUBhxkK";
+
+    private static final String GRANT_TYPES = "authorization_code,password,client_credentials,implicit,refresh_token";
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        Path projectDir = options.getProjectDir();
+        Deque<Closeable> resources = new ArrayDeque<>();
+        try {
+            int authPort = Ports.free();
+            int resourcePort = Ports.free();
+            int memberPort = Ports.free();
+            int orderPort = Ports.free();
+
+            LocalDatabase database = LocalDatabase.start(Ports.free());
+            resources.push(database);
+            initDatabase(database, projectDir, memberPort, orderPort);
+
+            int redisPort = Ports.free();
+            RedisServer redisServer = RedisServer.builder().port(redisPort).setting("bind 127.0.0.1").setting("save \"\"").build();
+            redisServer.start();
+            resources.push(redisServer::stop);
+
+            String authUrl = "http://localhost:" + authPort;
+
+            Map<String, String> auth = commonProperties(options, authPort);
+            auth.put("spring.datasource.jdbc-url", database.getUrl());
+            auth.put("spring.datasource.driver-class-name", "org.h2.Driver");
+            auth.put("spring.datasource.username", "sa");
+            auth.put("spring.datasource.password", "");
+            auth.put("spring.redis.host", "localhost");
+            auth.put("spring.redis.port", String.valueOf(redisPort));
+            auth.put("security.oauth2.token.store.type", options.getStore());
+            auth.putAll(options.getApplicationProperties("auth"));
+            EmbeddedApplication authServer = start(resources, "oauth2-server", projectDir.resolve("spring-security-oauth2"),
+                    "com.hy.oauth2.OAuth2ServerApplication", Collections.singletonList(LocalDatabase.driverLocation()), auth);
+
+            Map<String, String> resource = commonProperties(options, resourcePort);
+            resource.put("spring.redis.host", "localhost");
+            resource.put("spring.redis.port", String.valueOf(redisPort));
+            resource.put("security.oauth2.client.access-token-uri", authUrl + "/oauth/token");
+            resource.put("security.oauth2.client.user-authorization-uri", authUrl + "/oauth/authorize");
+            resource.put("security.oauth2.resource.token-info-uri", authUrl + "/oauth/check_token");
+            resource.put("security.oauth2.token.jwt.permission-dictionary-uri", authUrl + "/oauth/permission_dictionary");
+            resource.put("security.oauth2.token.jwt.jwk-set-uri", authUrl + "/oauth/jwks");
+            resource.put("security.oauth2.token.store.type", options.getStore());
+            resource.putAll(options.getApplicationProperties("resource"));
+            EmbeddedApplication resourceServer = start(resources, "oauth2-resource-demo", projectDir.resolve("oauth2-resource-demo"),
+                    "com.hy.oauth2.resource.OAuth2ResourceApplication", Collections.emptyList(), resource);
+
+            EmbeddedApplication member = start(resources, "sso-client-member", projectDir.resolve("oauth2-sso-client-member"),
+                    "com.hy.oauth2.resource.MemberApplication", Collections.emptyList(), ssoProperties(options, memberPort, authUrl));
+            EmbeddedApplication order = start(resources, "sso-client-order", projectDir.resolve("oauth2-sso-client-order"),
+                    "com.hy.oauth2.resource.OrderApplication", Collections.emptyList(), ssoProperties(options, orderPort, authUrl));
+
+            int maxConcurrency = Collections.max(options.getConcurrency());
+            CloseableHttpClient httpClient = HttpClients.custom()
+                    .setMaxConnTotal(maxConcurrency * 2)
+                    .setMaxConnPerRoute(maxConcurrency)
+                    .disableCookieManagement()
+                    .build();
+            resources.push(httpClient);
+            CloseableHttpClient browserClient = HttpClients.custom()
+                    .setMaxConnTotal(maxConcurrency * 4)
+                    .setMaxConnPerRoute(maxConcurrency)
+                    .setRedirectStrategy(LaxRedirectStrategy.INSTANCE)
+                    .build();
+            resources.push(browserClient);
+
+            TokenEndpoint tokenEndpoint = new TokenEndpoint(httpClient, authServer.url("/oauth/token"), "client", PASSWORD);
+            Map<String, Flow> flows = new LinkedHashMap<>();
+            for (Flow flow : Arrays.asList(
+                    new PasswordFlow(tokenEndpoint, USERNAME, PASSWORD),
+                    new ClientCredentialsFlow(tokenEndpoint),
+                    new RefreshTokenFlow(tokenEndpoint, USERNAME, PASSWORD),
+                    new AuthorizationCodeFlow(browserClient, authServer.url("/login"),
+                            Arrays.asList(member.url("/member/info"), order.url("/order/list")), USERNAME, PASSWORD),
+                    new ResourceFlow(httpClient, tokenEndpoint, resourceServer.url("/test3"), USERNAME, PASSWORD))) {
+                flows.put(flow.name(), flow);
+            }
+
+            System.out.printf("%nstore=%s, warmup=%s, duration=%s%n", options.getStore(), options.getWarmup(), options.getDuration());
+            LoadRunner runner = new LoadRunner(options.getWarmup(), options.getDuration());
+            List<FlowResult> results = new ArrayList<>();
+            for (int concurrency : options.getConcurrency()) {
+                for (String name : options.getFlows()) {
+                    Flow flow = flows.get(name.trim());
+                    if (flow == null) {
+                        throw new IllegalArgumentException("未知流程: " + name + "，可选 " + flows.keySet());
+                    }
+                    FlowResult result = runner.run(flow, concurrency);
+                    results.add(result);
+                    System.out.print(FlowResult.header() + result.format());
+                    if (result.getFirstError() != null) {
+                        System.out.println("  首个错误: " + result.getFirstError());
+                    }
+                }
+            }
+
+            System.out.println();
+            System.out.print(FlowResult.header());
+            results.forEach(result -> System.out.print(result.format()));
+        } finally {
+            while (!resources.isEmpty()) {
+                try {
+                    resources.pop().close();
+                } catch (Exception e) {
+                    System.err.println("关闭失败: " + e);
+                }
+            }
+        }
+        // 被测应用可能遗留非守护线程
+        System.exit(0);
+    }
+
+    /**
+     * 用户及权限表、令牌表、客户端表、签名密钥表，压测用户拥有超级管理员角色
+     */
+    private static void initDatabase(LocalDatabase database, Path projectDir, int memberPort, int orderPort) throws Exception {
+        Path h2 = projectDir.resolve("oauth2-benchmark/src/main/resources/h2");
+        database.execute(h2.resolve("oauth2-h2.sql"));
+        database.execute(h2.resolve("oauth2-token-h2.sql"));
+        database.execute("h2/oauth2-loadtest-h2.sql");
+
+        String sql = "INSERT INTO oauth_client_details (client_id, client_secret, scope, authorized_grant_types, web_server_redirect_uri, autoapprove) " +
+                "VALUES (?, ?, 'app', ?, ?, 'true')";
+        database.update(sql, "client", SECRET_HASH, GRANT_TYPES, "http://localhost/");
+        database.update(sql, "sso-client-member", SECRET_HASH, GRANT_TYPES, "http://localhost:" + memberPort + "/login");
+        database.update(sql, "sso-client-order", SECRET_HASH, GRANT_TYPES, "http://localhost:" + orderPort + "/login");
+
+        database.update("INSERT INTO tb_user VALUES (1000, ?, ?, NULL, NULL, NOW(), NOW())", USERNAME, SECRET_HASH);
+        database.update("INSERT INTO tb_user_role VALUES (1000, 1000, 37)");
+    }
+
+    private static Map<String, String> commonProperties(LoadTestOptions options, int port) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", String.valueOf(port));
+        properties.put("spring.main.banner-mode", "off");
+        // 多个应用在同一进程内，避免 MBean 重名
+        properties.put("spring.jmx.enabled", "false");
+        properties.put("logging.level.root", options.getAppLogLevel());
+        return properties;
+    }
+
+    private static Map<String, String> ssoProperties(LoadTestOptions options, int port, String authUrl) {
+        Map<String, String> properties = commonProperties(options, port);
+        properties.put("security.oauth2.url", authUrl);
+        if (!"jwt".equals(options.getStore())) {
+            // 非 jwt 令牌经 check_token 校验
+            properties.put("security.oauth2.resource.jwk.key-set-uri", "");
+        }
+        properties.putAll(options.getApplicationProperties("sso"));
+        return properties;
+    }
+
+    private static EmbeddedApplication start(Deque<Closeable> resources, String name, Path moduleDir, String mainClass,
+                                             List<URL> extraClasspath, Map<String, String> properties) throws Exception {
+        long start = System.nanoTime();
+        EmbeddedApplication application = EmbeddedApplication.start(name, moduleDir, mainClass, extraClasspath, properties);
+        resources.push(application);
+        System.out.printf("%s 已启动，端口 %d，耗时 %d ms%n", name, application.getPort(), (System.nanoTime() - start) / 1000000);
+        return application;
+    }
+
+}
@@ -0,0 +1,165 @@
+package com.hy.oauth2.loadtest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 压测参数，格式为 --name=value：
+ * <ul>
+ * <li>concurrency：并发用户数，逗号分隔时依次执行，默认 16</li>
+ * <li>warmup、duration：每个流程的预热、统计时长，如 500ms、10s、1m，默认 10s、30s</li>
+ * <li>flows：执行的流程，默认 password,client_credentials,refresh_token,authorization_code,resource</li>
+ * <li>store：认证服务器及资源服务器的 security.oauth2.token.store.type，默认 jwt</li>
+ * <li>app-log-level：被测应用的日志级别，默认 WARN</li>
+ * <li>project-dir：hy-oauth2 根目录，默认从当前目录向上查找</li>
+ * <li>auth.*、resource.*、sso.*：去掉前缀后传给认证服务器、资源服务器、单点登录客户端，
+ * 如 --auth.security.oauth2.client-secret-cache.enabled=false</li>
+ * </ul>
+ *
+ * @author wyl
+ * @since 2026-10-17 02:46:30
+ */
+public class LoadTestOptions {
+
+    private static final String[] APPLICATIONS = {"auth", "resource", "sso"};
+
+    private List<Integer> concurrency = Arrays.asList(16);
+
+    private Duration warmup = Duration.ofSeconds(10);
+
+    private Duration duration = Duration.ofSeconds(30);
+
+    private List<String> flows = Arrays.asList("password", "client_credentials", "refresh_token", "authorization_code", "resource");
+
+    private String store = "jwt";
+
+    private String appLogLevel = "WARN";
+
+    private Path projectDir;
+
+    private final Map<String, Map<String, String>> applicationProperties = new LinkedHashMap<>();
+
+    public static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (String application : APPLICATIONS) {
+            options.applicationProperties.put(application, new LinkedHashMap<>());
+        }
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("参数格式应为 --name=value: " + arg);
+            }
+            String name = arg.substring(2, separator);
+            String value = arg.substring(separator + 1);
+            switch (name) {
+                case "concurrency":
+                    options.concurrency = new ArrayList<>();
+                    for (String level : value.split(",")) {
+                        options.concurrency.add(Integer.parseInt(level.trim()));
+                    }
+                    break;
+                case "warmup":
+                    options.warmup = duration(value);
+                    break;
+                case "duration":
+                    options.duration = duration(value);
+                    break;
+                case "flows":
+                    options.flows = Arrays.asList(value.split(","));
+                    break;
+                case "store":
+                    options.store = value;
+                    break;
+                case "app-log-level":
+                    options.appLogLevel = value;
+                    break;
+                case "project-dir":
+                    options.projectDir = Paths.get(value).toAbsolutePath().normalize();
+                    break;
+                default:
+                    int dot = name.indexOf('.');
+                    Map<String, String> properties = dot < 0 ? null : options.applicationProperties.get(name.substring(0, dot));
+                    if (properties == null) {
+                        throw new IllegalArgumentException("未知参数: " + arg);
+                    }
+                    properties.put(name.substring(dot + 1), value);
+            }
+        }
+        if (options.projectDir == null) {
+            options.projectDir = findProjectDir();
+        }
+        return options;
+    }
+
+    private static Duration duration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        long amount = Long.parseLong(value.substring(0, value.length() - 1));
+        switch (value.charAt(value.length() - 1)) {
+            case 's':
+                return Duration.ofSeconds(amount);
+            case 'm':
+                return Duration.ofMinutes(amount);
+            default:
+                throw new IllegalArgumentException("时长格式应为 500ms、10s、1m: " + value);
+        }
+    }
+
+    /**
+     * mvn exec:java 的当前目录可能是根目录或 oauth2-loadtest
+     */
+    private static Path findProjectDir() {
+        Path dir = Paths.get("").toAbsolutePath();
+        while (dir != null) {
+            if (Files.isDirectory(dir.resolve("spring-security-oauth2")) && Files.isDirectory(dir.resolve("oauth2-loadtest"))) {
+                return dir;
+            }
+            dir = dir.getParent();
+        }
+        throw new IllegalArgumentException("未找到 hy-oauth2 根目录，请通过 --project-dir 指定");
+    }
+
+    public List<Integer> getConcurrency() {
+        return concurrency;
+    }
+
+    public Duration getWarmup() {
+        return warmup;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public List<String> getFlows() {
+        return flows;
+    }
+
+    public String getStore() {
+        return store;
+    }
+
+    public String getAppLogLevel() {
+        return appLogLevel;
+    }
+
+    public Path getProjectDir() {
+        return projectDir;
+    }
+
+    /**
+     * @param application auth、resource、sso
+     */
+    public Map<String, String> getApplicationProperties(String application) {
+        return applicationProperties.get(application);
+    }
+
+}
@@ -0,0 +1,109 @@
+package com.hy.oauth2.loadtest.flow;
+
+import org.apache.http.NameValuePair;
+import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.impl.client.BasicCookieStore;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.util.EntityUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 单点登录客户端的授权码模式，一次操作为一个新浏览器会话的完整登录：
+ * <ol>
+ * <li>访问客户端 /member/info（或 /order/list），依次重定向到客户端 /login、认证服务器 /oauth/authorize、认证服务器登录页</li>
+ * <li>提交登录表单，重定向回 /oauth/authorize，自动授权后携带授权码重定向到客户端 /login</li>
+ * <li>客户端以授权码换取令牌，重定向回最初访问的地址</li>
+ * </ol>
+ * 并发用户轮流使用两个客户端；httpClient 需开启 Cookie 并跟随 POST 的重定向
+ *
+ * @author wyl
+ * @since 2026-10-17 02:41:37
+ */
+public class AuthorizationCodeFlow implements Flow {
+
+    private static final Pattern CSRF = Pattern.compile("name=\"_csrf\"[^>]*value=\"([^\"]+)\"");
+
+    private final CloseableHttpClient httpClient;
+
+    private final String loginUri;
+
+    private final List<String> clientUris;
+
+    private final String username;
+
+    private final String password;
+
+    /**
+     * @param httpClient 开启 Cookie、使用 LaxRedirectStrategy 的客户端
+     * @param loginUri   认证服务器登录地址
+     * @param clientUris 单点登录客户端需要登录才能访问的地址
+     * @param username
+     * @param password
+     */
+    public AuthorizationCodeFlow(CloseableHttpClient httpClient, String loginUri, List<String> clientUris,
+                                 String username, String password) {
+        this.httpClient = httpClient;
+        this.loginUri = loginUri;
+        this.clientUris = clientUris;
+        this.username = username;
+        this.password = password;
+    }
+
+    @Override
+    public String name() {
+        return "authorization_code";
+    }
+
+    @Override
+    public Worker newWorker(int index) {
+        String clientUri = clientUris.get(index % clientUris.size());
+        return () -> {
+            HttpClientContext context = HttpClientContext.create();
+            context.setCookieStore(new BasicCookieStore());
+
+            String loginPage = execute(new HttpGet(clientUri), context);
+            Matcher matcher = CSRF.matcher(loginPage);
+            if (!matcher.find()) {
+                throw new IOException("未重定向到认证服务器登录页: " + clientUri);
+            }
+            List<NameValuePair> form = Arrays.asList(
+                    new BasicNameValuePair("username", username),
+                    new BasicNameValuePair("password", password),
+                    new BasicNameValuePair("_csrf", matcher.group(1)));
+            HttpPost login = new HttpPost(loginUri);
+            login.setEntity(new UrlEncodedFormEntity(form, StandardCharsets.UTF_8));
+            // 登录后会再次重定向到同一 /oauth/authorize 地址，清除上一次的重定向记录，避免被判定为循环重定向
+            context.removeAttribute(HttpClientContext.REDIRECT_LOCATIONS);
+            execute(login, context);
+            List<URI> redirects = context.getRedirectLocations();
+            if (redirects == null || !URI.create(clientUri).equals(redirects.get(redirects.size() - 1))) {
+                throw new IOException("登录后未返回 " + clientUri + ": " + redirects);
+            }
+        };
+    }
+
+    private String execute(HttpUriRequest request, HttpClientContext context) throws IOException {
+        try (CloseableHttpResponse response = httpClient.execute(request, context)) {
+            String body = EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
+            int status = response.getStatusLine().getStatusCode();
+            if (status != 200) {
+                throw new IOException(request.getURI() + " " + status + ": " + body);
+            }
+            return body;
+        }
+    }
+
+}
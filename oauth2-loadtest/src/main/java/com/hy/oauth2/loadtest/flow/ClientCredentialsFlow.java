@@ -0,0 +1,27 @@
+package com.hy.oauth2.loadtest.flow;
+
+/**
+ * 客户端模式，只校验客户端密钥
+ *
+ * @author wyl
+ * @since 2026-10-17 02:39:12
+ */
+public class ClientCredentialsFlow implements Flow {
+
+    private final TokenEndpoint tokenEndpoint;
+
+    public ClientCredentialsFlow(TokenEndpoint tokenEndpoint) {
+        this.tokenEndpoint = tokenEndpoint;
+    }
+
+    @Override
+    public String name() {
+        return "client_credentials";
+    }
+
+    @Override
+    public Worker newWorker(int index) {
+        return () -> tokenEndpoint.token("grant_type", "client_credentials", "scope", "app");
+    }
+
+}
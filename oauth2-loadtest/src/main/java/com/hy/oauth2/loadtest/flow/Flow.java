@@ -0,0 +1,34 @@
+package com.hy.oauth2.loadtest.flow;
+
+/**
+ * 压测流程，每个并发用户对应一个 {@link Worker}
+ *
+ * @author wyl
+ * @since 2026-10-17 02:36:02
+ */
+public interface Flow {
+
+    /**
+     * 报告中的名称，与授权类型对应
+     */
+    String name();
+
+    /**
+     * 创建并发用户，准备工作（如获取刷新令牌）在此完成，不计入耗时
+     *
+     * @param index 并发用户序号
+     * @return
+     * @throws Exception
+     */
+    Worker newWorker(int index) throws Exception;
+
+    interface Worker {
+
+        /**
+         * 一次被计时的操作，抛出异常或响应不符合预期时计为失败
+         */
+        void run() throws Exception;
+
+    }
+
+}
@@ -0,0 +1,33 @@
+package com.hy.oauth2.loadtest.flow;
+
+/**
+ * 密码模式，每次请求校验一次客户端密钥及用户密码（BCrypt），并加载用户权限
+ *
+ * @author wyl
+ * @since 2026-10-17 02:38:50
+ */
+public class PasswordFlow implements Flow {
+
+    private final TokenEndpoint tokenEndpoint;
+
+    private final String username;
+
+    private final String password;
+
+    public PasswordFlow(TokenEndpoint tokenEndpoint, String username, String password) {
+        this.tokenEndpoint = tokenEndpoint;
+        this.username = username;
+        this.password = password;
+    }
+
+    @Override
+    public String name() {
+        return "password";
+    }
+
+    @Override
+    public Worker newWorker(int index) {
+        return () -> tokenEndpoint.token("grant_type", "password", "username", username, "password", password, "scope", "app");
+    }
+
+}
@@ -0,0 +1,47 @@
+package com.hy.oauth2.loadtest.flow;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * 刷新令牌，每个并发用户先以密码模式取得刷新令牌，之后反复刷新
+ * <p>
+ * 认证服务器不复用刷新令牌时使用响应中的新刷新令牌
+ *
+ * @author wyl
+ * @since 2026-10-17 02:39:40
+ */
+public class RefreshTokenFlow implements Flow {
+
+    private final TokenEndpoint tokenEndpoint;
+
+    private final String username;
+
+    private final String password;
+
+    public RefreshTokenFlow(TokenEndpoint tokenEndpoint, String username, String password) {
+        this.tokenEndpoint = tokenEndpoint;
+        this.username = username;
+        this.password = password;
+    }
+
+    @Override
+    public String name() {
+        return "refresh_token";
+    }
+
+    @Override
+    public Worker newWorker(int index) throws Exception {
+        JsonNode token = tokenEndpoint.token("grant_type", "password", "username", username, "password", password, "scope", "app");
+        if (!token.hasNonNull("refresh_token")) {
+            throw new IllegalStateException("客户端未开启 refresh_token 授权类型");
+        }
+        String[] refreshToken = {token.get("refresh_token").asText()};
+        return () -> {
+            JsonNode refreshed = tokenEndpoint.token("grant_type", "refresh_token", "refresh_token", refreshToken[0]);
+            if (refreshed.hasNonNull("refresh_token")) {
+                refreshToken[0] = refreshed.get("refresh_token").asText();
+            }
+        };
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.hy.oauth2.loadtest.flow;
+
+import org.apache.http.HttpHeaders;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.util.EntityUtils;
+
+import java.io.IOException;
+
+/**
+ * 携带访问令牌访问资源服务器，每个并发用户先以密码模式取得令牌
+ * <p>
+ * jwt 存储时资源服务器本地验签，其他存储时经 check_token 校验（有缓存）
+ *
+ * @author wyl
+ * @since 2026-10-17 02:40:21
+ */
+public class ResourceFlow implements Flow {
+
+    private final CloseableHttpClient httpClient;
+
+    private final TokenEndpoint tokenEndpoint;
+
+    private final String resourceUri;
+
+    private final String username;
+
+    private final String password;
+
+    public ResourceFlow(CloseableHttpClient httpClient, TokenEndpoint tokenEndpoint, String resourceUri,
+                        String username, String password) {
+        this.httpClient = httpClient;
+        this.tokenEndpoint = tokenEndpoint;
+        this.resourceUri = resourceUri;
+        this.username = username;
+        this.password = password;
+    }
+
+    @Override
+    public String name() {
+        return "resource";
+    }
+
+    @Override
+    public Worker newWorker(int index) throws Exception {
+        String accessToken = tokenEndpoint.token("grant_type", "password", "username", username, "password", password, "scope", "app")
+                .get("access_token").asText();
+        return () -> {
+            HttpGet get = new HttpGet(resourceUri);
+            get.setHeader(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken);
+            try (CloseableHttpResponse response = httpClient.execute(get)) {
+                EntityUtils.consume(response.getEntity());
+                int status = response.getStatusLine().getStatusCode();
+                if (status != 200) {
+                    throw new IOException(resourceUri + " " + status);
+                }
+            }
+        };
+    }
+
+}
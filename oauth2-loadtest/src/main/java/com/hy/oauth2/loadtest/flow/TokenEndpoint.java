@@ -0,0 +1,72 @@
+package com.hy.oauth2.loadtest.flow;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.http.HttpHeaders;
+import org.apache.http.NameValuePair;
+import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.util.EntityUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * 认证服务器 /oauth/token，客户端以 Basic 方式认证
+ *
+ * @author wyl
+ * @since 2026-10-17 02:37:25
+ */
+public class TokenEndpoint {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final CloseableHttpClient httpClient;
+
+    private final String tokenUri;
+
+    private final String authorization;
+
+    public TokenEndpoint(CloseableHttpClient httpClient, String tokenUri, String clientId, String clientSecret) {
+        this.httpClient = httpClient;
+        this.tokenUri = tokenUri;
+        this.authorization = "Basic " + Base64.getEncoder()
+                .encodeToString((clientId + ":" + clientSecret).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 申请令牌
+     *
+     * @param params 成对的参数名、参数值，如 grant_type、password
+     * @return 响应中的 access_token、refresh_token 等
+     * @throws IOException 状态码不为 200 或响应中没有 access_token
+     */
+    public JsonNode token(String... params) throws IOException {
+        List<NameValuePair> form = new ArrayList<>(params.length / 2);
+        for (int i = 0; i < params.length; i += 2) {
+            form.add(new BasicNameValuePair(params[i], params[i + 1]));
+        }
+        HttpPost post = new HttpPost(tokenUri);
+        post.setHeader(HttpHeaders.AUTHORIZATION, authorization);
+        post.setEntity(new UrlEncodedFormEntity(form, StandardCharsets.UTF_8));
+        try (CloseableHttpResponse response = httpClient.execute(post)) {
+            String body = EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
+            int status = response.getStatusLine().getStatusCode();
+            if (status != 200) {
+                throw new IOException("/oauth/token " + status + ": " + body);
+            }
+            JsonNode token = OBJECT_MAPPER.readTree(body);
+            if (!token.hasNonNull("access_token")) {
+                throw new IOException("/oauth/token 响应中没有 access_token: " + body);
+            }
+            return token;
+        }
+    }
+
+}
@@ -0,0 +1,127 @@
+package com.hy.oauth2.loadtest.support;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 在当前进程内启动一个 Spring Boot 应用
+ * <p>
+ * 两个单点登录客户端的包名、配置类及 application.yml 同名，无法放在同一类路径下，
+ * 因此每个应用使用独立的类加载器（父加载器为扩展类加载器），类路径为模块的 target/classes 及
+ * target/classpath.txt（mvn dependency:build-classpath 生成），通过反射调用 SpringApplication.run
+ *
+ * @author wyl
+ * @since 2026-10-17 02:31:06
+ */
+public final class EmbeddedApplication implements Closeable {
+
+    private final String name;
+
+    private final int port;
+
+    private final URLClassLoader classLoader;
+
+    private final Object context;
+
+    private EmbeddedApplication(String name, int port, URLClassLoader classLoader, Object context) {
+        this.name = name;
+        this.port = port;
+        this.classLoader = classLoader;
+        this.context = context;
+    }
+
+    /**
+     * 启动应用，返回时内嵌 Tomcat 已开始监听
+     *
+     * @param name           应用名，仅用于输出
+     * @param moduleDir      模块目录，如 spring-security-oauth2
+     * @param mainClass      启动类
+     * @param extraClasspath 追加到类路径末尾的 jar，如 H2 驱动
+     * @param properties     覆盖 application.yml 的配置，以命令行参数传入
+     * @return
+     * @throws Exception
+     */
+    public static EmbeddedApplication start(String name, Path moduleDir, String mainClass, List<URL> extraClasspath,
+                                            Map<String, String> properties) throws Exception {
+        List<URL> urls = classpath(moduleDir);
+        urls.addAll(extraClasspath);
+        URLClassLoader classLoader = new URLClassLoader(urls.toArray(new URL[0]), ClassLoader.getSystemClassLoader().getParent());
+
+        List<String> args = new ArrayList<>();
+        properties.forEach((key, value) -> args.add("--" + key + "=" + value));
+
+        Thread thread = Thread.currentThread();
+        ClassLoader previous = thread.getContextClassLoader();
+        thread.setContextClassLoader(classLoader);
+        try {
+            Class<?> springApplication = classLoader.loadClass("org.springframework.boot.SpringApplication");
+            Object context = springApplication.getMethod("run", Class.class, String[].class)
+                    .invoke(null, classLoader.loadClass(mainClass), args.toArray(new String[0]));
+            return new EmbeddedApplication(name, Integer.parseInt(properties.get("server.port")), classLoader, context);
+        } catch (InvocationTargetException e) {
+            classLoader.close();
+            throw new IllegalStateException(name + " 启动失败", e.getCause());
+        } finally {
+            thread.setContextClassLoader(previous);
+        }
+    }
+
+    /**
+     * 模块的类路径，target/classes 在前
+     */
+    private static List<URL> classpath(Path moduleDir) throws IOException {
+        Path classes = moduleDir.resolve("target/classes");
+        Path classpathFile = moduleDir.resolve("target/classpath.txt");
+        if (!Files.isDirectory(classes) || !Files.isRegularFile(classpathFile)) {
+            throw new IllegalStateException(moduleDir + " 未编译或缺少 target/classpath.txt，执行方式见 oauth2-loadtest/README.md");
+        }
+        List<URL> urls = new ArrayList<>();
+        urls.add(classes.toUri().toURL());
+        String entries = new String(Files.readAllBytes(classpathFile), StandardCharsets.UTF_8).trim();
+        for (String entry : entries.split(File.pathSeparator)) {
+            if (!entry.isEmpty()) {
+                urls.add(new File(entry).toURI().toURL());
+            }
+        }
+        return urls;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public String url(String path) {
+        return "http://localhost:" + port + path;
+    }
+
+    @Override
+    public void close() throws IOException {
+        Thread thread = Thread.currentThread();
+        ClassLoader previous = thread.getContextClassLoader();
+        thread.setContextClassLoader(classLoader);
+        try {
+            classLoader.loadClass("org.springframework.context.ConfigurableApplicationContext")
+                    .getMethod("close").invoke(context);
+        } catch (ReflectiveOperationException e) {
+            throw new IOException(name + " 关闭失败", e);
+        } finally {
+            thread.setContextClassLoader(previous);
+            classLoader.close();
+        }
+    }
+
+}
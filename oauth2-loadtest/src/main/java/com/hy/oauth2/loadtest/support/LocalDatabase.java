@@ -0,0 +1,97 @@
+package com.hy.oauth2.loadtest.support;
+
+import org.h2.tools.RunScript;
+import org.h2.tools.Server;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * 以 TCP 方式对外提供的 H2 内存数据库（MODE=MySQL），代替 MySQL
+ * <p>
+ * 认证服务器运行在独立的类加载器中，只能通过 jdbc url 连接；压测客户端持有一个连接，数据库在压测结束前不会被关闭
+ *
+ * @author wyl
+ * @since 2026-10-17 02:33:40
+ */
+public final class LocalDatabase implements Closeable {
+
+    private final Server server;
+
+    private final String url;
+
+    private final Connection connection;
+
+    private LocalDatabase(Server server, String url, Connection connection) {
+        this.server = server;
+        this.url = url;
+        this.connection = connection;
+    }
+
+    public static LocalDatabase start(int port) throws SQLException {
+        Server server = Server.createTcpServer("-tcpPort", String.valueOf(port), "-tcpDaemon").start();
+        String url = "jdbc:h2:tcp://localhost:" + port + "/mem:oauth2;MODE=MySQL;DB_CLOSE_DELAY=-1";
+        return new LocalDatabase(server, url, DriverManager.getConnection(url, "sa", ""));
+    }
+
+    /**
+     * H2 驱动所在的 jar，追加到认证服务器的类路径
+     */
+    public static URL driverLocation() {
+        return org.h2.Driver.class.getProtectionDomain().getCodeSource().getLocation();
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * 执行文件中的脚本
+     */
+    public void execute(Path script) throws IOException, SQLException {
+        try (Reader reader = Files.newBufferedReader(script, StandardCharsets.UTF_8)) {
+            RunScript.execute(connection, reader);
+        }
+    }
+
+    /**
+     * 执行 classpath 下的脚本
+     *
+     * @param script 如 h2/oauth2-loadtest-h2.sql
+     */
+    public void execute(String script) throws IOException, SQLException {
+        try (Reader reader = new InputStreamReader(LocalDatabase.class.getClassLoader().getResourceAsStream(script), StandardCharsets.UTF_8)) {
+            RunScript.execute(connection, reader);
+        }
+    }
+
+    public void update(String sql, Object... args) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < args.length; i++) {
+                statement.setObject(i + 1, args[i]);
+            }
+            statement.executeUpdate();
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+            // 数据库随 TCP 服务一起关闭
+        }
+        server.stop();
+    }
+
+}
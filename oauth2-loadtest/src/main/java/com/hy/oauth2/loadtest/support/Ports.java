@@ -0,0 +1,23 @@
+package com.hy.oauth2.loadtest.support;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+
+/**
+ * 本地空闲端口
+ *
+ * @author wyl
+ * @since 2026-10-17 02:34:15
+ */
+public final class Ports {
+
+    private Ports() {
+    }
+
+    public static int free() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+}
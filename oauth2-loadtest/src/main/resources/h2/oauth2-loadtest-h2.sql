@@ -0,0 +1,30 @@
+-- oauth2.sql 中 oauth_client_details、oauth_jwk 的 H2 版本（MODE=MySQL），用户及权限表见 oauth2-benchmark 的 h2/oauth2-h2.sql
+-- 客户端记录由 LoadTestMain 按实际端口写入
+
+DROP TABLE IF EXISTS oauth_client_details;
+CREATE TABLE oauth_client_details (
+  client_id varchar(128) NOT NULL,
+  resource_ids varchar(256) NULL DEFAULT NULL,
+  client_secret varchar(256) NULL DEFAULT NULL,
+  scope varchar(256) NULL DEFAULT NULL,
+  authorized_grant_types varchar(256) NULL DEFAULT NULL,
+  web_server_redirect_uri varchar(256) NULL DEFAULT NULL,
+  authorities varchar(256) NULL DEFAULT NULL,
+  access_token_validity int NULL DEFAULT NULL,
+  refresh_token_validity int NULL DEFAULT NULL,
+  additional_information varchar(4096) NULL DEFAULT NULL,
+  autoapprove varchar(256) NULL DEFAULT NULL,
+  PRIMARY KEY (client_id)
+);
+
+DROP TABLE IF EXISTS oauth_jwk;
+CREATE TABLE oauth_jwk (
+  kid varchar(64) NOT NULL,
+  algorithm varchar(16) NOT NULL,
+  public_key text NOT NULL,
+  private_key text NOT NULL,
+  activate_at datetime(3) NOT NULL,
+  created datetime(3) NOT NULL,
+  PRIMARY KEY (kid)
+);
+CREATE INDEX idx_jwk_activate_at ON oauth_jwk (activate_at);
@@ -0,0 +1,63 @@
+package com.hy.oauth2.resource.cache;
+
+import com.hy.oauth2.common.token.CachingRemoteTokenServices;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * check_token 校验结果缓存管理端点
+ * <p>
+ * GET /actuator/introspectioncache 查看缓存状态，DELETE /actuator/introspectioncache 清空缓存，
+ * DELETE /actuator/introspectioncache/{type}/{value} 按 user、client 清理；
+ * 单个令牌通过 POST /actuator/introspectioncache {"token": "..."} 清理，令牌不出现在 URL 及访问日志中
+ *
+ * @author wyl
+ * @since 2026-10-17 04:52:16
+ */
+@Endpoint(id = "introspectioncache")
+public class IntrospectionCacheEndpoint {
+
+    private final CachingRemoteTokenServices tokenServices;
+
+    public IntrospectionCacheEndpoint(CachingRemoteTokenServices tokenServices) {
+        this.tokenServices = tokenServices;
+    }
+
+    @ReadOperation
+    public Map<String, Object> info() {
+        Map<String, Object> info = new LinkedHashMap<>();
+        info.put("size", tokenServices.size());
+        return info;
+    }
+
+    @DeleteOperation
+    public void evictAll() {
+        tokenServices.evictAll();
+    }
+
+    @WriteOperation
+    public void evictToken(String token) {
+        tokenServices.evict(token);
+    }
+
+    @DeleteOperation
+    public void evict(@Selector String type, @Selector String value) {
+        switch (type) {
+            case "user":
+                tokenServices.evictUser(value);
+                break;
+            case "client":
+                tokenServices.evictClient(value);
+                break;
+            default:
+                throw new IllegalArgumentException("不支持的清理方式: " + type);
+        }
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.hy.oauth2.resource.cache;
+
+import com.hy.oauth2.common.token.CachingResourceServerTokenServices;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 已验证令牌缓存管理端点
+ * <p>
+ * GET /actuator/tokencache 查看缓存状态，DELETE /actuator/tokencache 清空缓存，
+ * DELETE /actuator/tokencache/{type}/{value} 按 jti、user、client 清理
+ *
+ * @author wyl
+ * @since 2026-10-16 18:55:03
+ */
+@Endpoint(id = "tokencache")
+public class TokenCacheEndpoint {
+
+    private final CachingResourceServerTokenServices tokenServices;
+
+    public TokenCacheEndpoint(CachingResourceServerTokenServices tokenServices) {
+        this.tokenServices = tokenServices;
+    }
+
+    @ReadOperation
+    public Map<String, Object> info() {
+        Map<String, Object> info = new LinkedHashMap<>();
+        info.put("size", tokenServices.size());
+        info.put("hitRate", tokenServices.hitRate());
+        return info;
+    }
+
+    @DeleteOperation
+    public void evictAll() {
+        tokenServices.evictAll();
+    }
+
+    @DeleteOperation
+    public void evict(@Selector String type, @Selector String value) {
+        switch (type) {
+            case "jti":
+                tokenServices.evictJti(value);
+                break;
+            case "user":
+                tokenServices.evictUser(value);
+                break;
+            case "client":
+                tokenServices.evictClient(value);
+                break;
+            default:
+                throw new IllegalArgumentException("不支持的清理方式: " + type);
+        }
+    }
+
+}
@@ -1,16 +1,36 @@
 package com.hy.oauth2.resource.config;
 
+import com.hy.oauth2.common.authority.CompactAuthorityAccessTokenConverter;
+import com.hy.oauth2.common.authority.RemotePermissionDictionarySource;
+import com.hy.oauth2.common.jwk.JwkSetKeyResolver;
+import com.hy.oauth2.common.jwk.KeyIdJwtAccessTokenConverter;
+import com.hy.oauth2.common.revocation.RevocationCheckingTokenServices;
+import com.hy.oauth2.common.revocation.TokenRevocationChecker;
+import com.hy.oauth2.common.token.CachingResourceServerTokenServices;
+import com.hy.oauth2.common.token.ClaimsJwtAccessTokenConverter;
+import com.hy.oauth2.common.token.JwtTokenServices;
+import com.hy.oauth2.resource.cache.TokenCacheEndpoint;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.oauth2.config.annotation.web.configuration.EnableResourceServer;
 import org.springframework.security.oauth2.config.annotation.web.configuration.ResourceServerConfigurerAdapter;
+import org.springframework.security.oauth2.provider.token.ResourceServerTokenServices;
 import org.springframework.security.oauth2.provider.token.TokenStore;
-import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
 import org.springframework.security.oauth2.provider.token.store.JwtTokenStore;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
 
 /**
  * 资源服务器配置
@@ -20,6 +40,48 @@ import org.springframework.security.oauth2.provider.token.store.JwtTokenStore;
 @EnableGlobalMethodSecurity(prePostEnabled = true, securedEnabled = true, jsr250Enabled = true)
 public class ResourceServerConfig extends ResourceServerConfigurerAdapter {
 
+    /**
+     * 令牌中的权限为位图（auth_bits）时开启，需与认证服务器一致
+     */
+    @Value("${security.oauth2.token.jwt.compact-authorities:false}")
+    private boolean compactAuthorities;
+
+    @Value("${security.oauth2.token.jwt.permission-dictionary-uri:http://localhost:8086/oauth/permission_dictionary}")
+    private String permissionDictionaryUri;
+
+    /**
+     * 签名算法，需与认证服务器一致，默认值与认证服务器相同（HS256）；HS256 时使用共享密钥，RS256、ES256 时从 JWKS 获取公钥
+     */
+    @Value("${security.oauth2.token.jwt.signing.algorithm:HS256}")
+    private String signingAlgorithm;
+
+    @Value("${security.oauth2.token.jwt.signing.secret:hy-oauth2}")
+    private String signingSecret;
+
+    @Value("${security.oauth2.token.jwt.jwk-set-uri:http://localhost:8086/oauth/jwks}")
+    private String jwkSetUri;
+
+    /**
+     * 已验证令牌缓存，同一令牌重复请求时不再验签、解析
+     */
+    @Value("${security.oauth2.token.cache.enabled:true}")
+    private boolean tokenCacheEnabled;
+
+    @Value("${security.oauth2.token.cache.maximum-size:10000}")
+    private long tokenCacheMaximumSize;
+
+    /**
+     * 令牌没有 exp 时的缓存时间
+     */
+    @Value("${security.oauth2.token.cache.default-ttl:5m}")
+    private Duration tokenCacheDefaultTtl;
+
+    /**
+     * 访问 /actuator 管理端点（清理令牌缓存等）所需的权限，与认证服务器相同，对应 tb_permission.enname
+     */
+    @Value("${security.oauth2.management.authority:System}")
+    private String managementAuthority;
+
     @Override
     public void configure(HttpSecurity http) throws Exception {
         http
@@ -28,6 +90,8 @@ public class ResourceServerConfig extends ResourceServerConfigurerAdapter {
                 .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 .and()
                 .authorizeRequests()
+                // 持有任意令牌即可清空缓存会把全部校验压力转到认证服务器，管理端点只允许管理员访问
+                .requestMatchers(EndpointRequest.toAnyEndpoint()).hasAuthority(managementAuthority)
                 .anyRequest().authenticated()
         // 以下为配置所需保护的资源路径及权限，需要与认证服务器配置的授权部分对应
                 /*.antMatchers("/").hasAuthority("SystemContent")
@@ -44,14 +108,65 @@ public class ResourceServerConfig extends ResourceServerConfigurerAdapter {
     }
 
     /**
-     * 与授权服务器使用共同的密钥进行解析
+     * 本地解析 jwt，优先于 token-info-uri 自动配置的 RemoteTokenServices；每个令牌只验签、解析一次
      */
     @ConditionalOnProperty(prefix = "security.oauth2.token.store", name = "type", havingValue = "jwt", matchIfMissing = false)
+    @Primary
+    @Bean
+    public ResourceServerTokenServices jwtTokenServices(MeterRegistry meterRegistry,
+                                                        ObjectProvider<TokenRevocationChecker> revocationChecker) {
+        JwtTokenServices tokenServices = new JwtTokenServices(jwtAccessTokenConverter());
+        TokenRevocationChecker checker = revocationChecker.getIfAvailable();
+        if (!tokenCacheEnabled) {
+            return checker == null ? tokenServices : new RevocationCheckingTokenServices(tokenServices, checker);
+        }
+        CachingResourceServerTokenServices cachingTokenServices = new CachingResourceServerTokenServices(tokenServices,
+                tokenCacheMaximumSize, tokenCacheDefaultTtl, meterRegistry);
+        // 命中缓存的令牌同样检查是否已注销
+        cachingTokenServices.setRevocationChecker(checker);
+        return cachingTokenServices;
+    }
+
+    @ConditionalOnExpression("'${security.oauth2.token.store.type:inMemory}' == 'jwt' and ${security.oauth2.token.cache.enabled:true}")
     @Bean
-    public JwtAccessTokenConverter jwtAccessTokenConverter() {
-        JwtAccessTokenConverter converter = new JwtAccessTokenConverter();
-        converter.setSigningKey("hy-oauth2");
+    public TokenCacheEndpoint tokenCacheEndpoint(ResourceServerTokenServices tokenServices) {
+        return new TokenCacheEndpoint((CachingResourceServerTokenServices) tokenServices);
+    }
+
+    /**
+     * 非对称签名时按令牌头部的 kid 查找本地缓存的公钥，遇到未知 kid 才重新拉取 JWKS；
+     * HS256 时与授权服务器使用共同的密钥进行解析
+     */
+    @ConditionalOnProperty(prefix = "security.oauth2.token.store", name = "type", havingValue = "jwt", matchIfMissing = false)
+    @Bean
+    public ClaimsJwtAccessTokenConverter jwtAccessTokenConverter() {
+        ClaimsJwtAccessTokenConverter converter;
+        if ("HS256".equalsIgnoreCase(signingAlgorithm)) {
+            converter = new ClaimsJwtAccessTokenConverter();
+            converter.setSigningKey(signingSecret);
+        } else {
+            converter = new KeyIdJwtAccessTokenConverter(new JwkSetKeyResolver(restTemplate(), jwkSetUri,
+                    Duration.ofHours(1), Duration.ofSeconds(30)));
+        }
+        if (compactAuthorities) {
+            converter.setAccessTokenConverter(new CompactAuthorityAccessTokenConverter(permissionDictionarySource()));
+        }
         return converter;
     }
 
+    /**
+     * 从认证服务器获取权限字典，用于将 auth_bits 还原为权限标识
+     */
+    private RemotePermissionDictionarySource permissionDictionarySource() {
+        return new RemotePermissionDictionarySource(restTemplate(), permissionDictionaryUri,
+                Duration.ofMinutes(5), Duration.ofSeconds(10));
+    }
+
+    private static RestTemplate restTemplate() {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(2000);
+        requestFactory.setReadTimeout(5000);
+        return new RestTemplate(requestFactory);
+    }
+
 }
\ No newline at end of file
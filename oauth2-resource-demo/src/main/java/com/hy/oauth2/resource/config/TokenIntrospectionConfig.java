@@ -0,0 +1,118 @@
+package com.hy.oauth2.resource.config;
+
+import com.hy.oauth2.common.token.CachingRemoteTokenServices;
+import com.hy.oauth2.resource.cache.IntrospectionCacheEndpoint;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.DefaultResponseErrorHandler;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 非 jwt 模式下通过 token-info-uri（/oauth/check_token）校验令牌：
+ * 连接池复用到认证服务器的长连接，校验结果按令牌缓存，同一令牌的并发校验合并为一次请求
+ *
+ * @author wyl
+ * @since 2026-10-17 00:34:08
+ */
+@Configuration
+@ConditionalOnExpression("'${security.oauth2.token.store.type:inMemory}' != 'jwt'")
+public class TokenIntrospectionConfig {
+
+    @Value("${security.oauth2.resource.token-info-uri}")
+    private String checkTokenEndpointUrl;
+
+    @Value("${security.oauth2.client.client-id}")
+    private String clientId;
+
+    @Value("${security.oauth2.client.client-secret}")
+    private String clientSecret;
+
+    /**
+     * 到认证服务器的最大连接数
+     */
+    @Value("${security.oauth2.resource.introspection.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${security.oauth2.resource.introspection.cache.maximum-size:10000}")
+    private long cacheMaximumSize;
+
+    /**
+     * check_token 响应中没有 exp 时的缓存时间
+     */
+    @Value("${security.oauth2.resource.introspection.cache.default-ttl:5m}")
+    private Duration cacheDefaultTtl;
+
+    /**
+     * 无效令牌的缓存时间
+     */
+    @Value("${security.oauth2.resource.introspection.cache.negative-ttl:10s}")
+    private Duration cacheNegativeTtl;
+
+    /**
+     * 有效令牌的最长缓存时间，认证服务器注销令牌后最迟在此时间后失效，需要立即失效时通过 /actuator/introspectioncache 清理
+     */
+    @Value("${security.oauth2.resource.introspection.cache.max-ttl:1m}")
+    private Duration cacheMaxTtl;
+
+    /**
+     * 优先于 token-info-uri 自动配置的 RemoteTokenServices
+     */
+    @Primary
+    @Bean
+    public CachingRemoteTokenServices remoteTokenServices(MeterRegistry meterRegistry) {
+        return new CachingRemoteTokenServices(introspectionRestTemplate(), checkTokenEndpointUrl, clientId,
+                clientSecret, cacheMaximumSize, cacheDefaultTtl, cacheNegativeTtl, cacheMaxTtl, meterRegistry);
+    }
+
+    @Bean
+    public IntrospectionCacheEndpoint introspectionCacheEndpoint(CachingRemoteTokenServices remoteTokenServices) {
+        return new IntrospectionCacheEndpoint(remoteTokenServices);
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient introspectionHttpClient() {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(30, TimeUnit.SECONDS);
+        connectionManager.setMaxTotal(maxConnections);
+        // 只访问认证服务器一个地址
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+        connectionManager.setValidateAfterInactivity(2000);
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setKeepAliveStrategy(DefaultConnectionKeepAliveStrategy.INSTANCE)
+                .evictIdleConnections(30, TimeUnit.SECONDS)
+                .build();
+    }
+
+    private RestTemplate introspectionRestTemplate() {
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(introspectionHttpClient());
+        requestFactory.setConnectTimeout(2000);
+        requestFactory.setConnectionRequestTimeout(1000);
+        requestFactory.setReadTimeout(5000);
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
+        // 无效令牌时认证服务器返回 400，读取响应体中的 error
+        restTemplate.setErrorHandler(new DefaultResponseErrorHandler() {
+            @Override
+            public void handleError(ClientHttpResponse response) throws IOException {
+                if (response.getRawStatusCode() != 400) {
+                    super.handleError(response);
+                }
+            }
+        });
+        return restTemplate;
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.hy.oauth2.resource.config;
+
+import com.hy.oauth2.common.revocation.BloomFilterRevocationChecker;
+import com.hy.oauth2.common.revocation.TokenRevocationRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * jwt 注销检查：本地布隆过滤器，命中时查询 Redis；认证服务器注销令牌后通过 Redis 发布订阅增量更新过滤器
+ *
+ * @author wyl
+ * @since 2026-10-16 23:55:30
+ */
+@Configuration
+@ConditionalOnExpression("'${security.oauth2.token.store.type:inMemory}' == 'jwt' and ${security.oauth2.token.revocation.enabled:false}")
+public class TokenRevocationConfig {
+
+    /**
+     * 预计同时有效的已注销令牌数，超出后下次重建时自动扩容
+     */
+    @Value("${security.oauth2.token.revocation.expected-insertions:100000}")
+    private long expectedInsertions;
+
+    @Value("${security.oauth2.token.revocation.fpp:0.01}")
+    private double fpp;
+
+    /**
+     * 全量重建间隔，清除已过期的 jti 并补上订阅断开期间漏掉的通知
+     */
+    @Value("${security.oauth2.token.revocation.rebuild-interval:10m}")
+    private Duration rebuildInterval;
+
+    @Bean
+    public TokenRevocationRegistry tokenRevocationRegistry(StringRedisTemplate redisTemplate) {
+        return new TokenRevocationRegistry(redisTemplate);
+    }
+
+    @Bean(destroyMethod = "close")
+    public BloomFilterRevocationChecker tokenRevocationChecker(TokenRevocationRegistry tokenRevocationRegistry,
+                                                               MeterRegistry meterRegistry) {
+        BloomFilterRevocationChecker checker = new BloomFilterRevocationChecker(tokenRevocationRegistry,
+                expectedInsertions, fpp, rebuildInterval, meterRegistry);
+        checker.start();
+        return checker;
+    }
+
+    @Bean
+    public RedisMessageListenerContainer tokenRevocationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                         TokenRevocationRegistry tokenRevocationRegistry,
+                                                                         BloomFilterRevocationChecker tokenRevocationChecker) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) ->
+                        tokenRevocationChecker.onRevoked(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(tokenRevocationRegistry.getChannel()));
+        return container;
+    }
+
+}
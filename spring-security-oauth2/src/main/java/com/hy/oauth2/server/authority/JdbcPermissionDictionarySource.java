@@ -0,0 +1,36 @@
+package com.hy.oauth2.server.authority;
+
+import com.hy.oauth2.common.authority.PermissionDictionary;
+import com.hy.oauth2.common.authority.RefreshingPermissionDictionarySource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 从 tb_permission 加载权限字典，位图下标即权限 id
+ *
+ * @author wyl
+ * @since 2026-10-16 15:04:12
+ */
+public class JdbcPermissionDictionarySource extends RefreshingPermissionDictionarySource {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcPermissionDictionarySource(JdbcTemplate jdbcTemplate, Duration refreshInterval) {
+        // 令牌中的字典版本与本地不一致时（其他节点已变更权限），最多每秒重新查询一次
+        super(refreshInterval, Duration.ofSeconds(1));
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    protected PermissionDictionary load(PermissionDictionary previous) {
+        Map<Integer, String> permissions = new HashMap<>();
+        jdbcTemplate.query("SELECT id, enname FROM tb_permission", rs -> {
+            permissions.put(Math.toIntExact(rs.getLong(1)), rs.getString(2));
+        });
+        return PermissionDictionary.of(permissions);
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.hy.oauth2.server.authority;
+
+import com.hy.oauth2.server.service.PermissionClosureService;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * 权限闭包表管理端点
+ * <p>
+ * GET /actuator/permissionclosure 查看有效权限表是否可用，
+ * POST /actuator/permissionclosure 全量重建闭包表及有效权限表，直接修改 tb_role、tb_permission、tb_role_permission 后调用
+ *
+ * @author wyl
+ * @since 2026-10-17 04:41:18
+ */
+@Endpoint(id = "permissionclosure")
+public class PermissionClosureEndpoint {
+
+    private final PermissionClosureService permissionClosureService;
+
+    public PermissionClosureEndpoint(PermissionClosureService permissionClosureService) {
+        this.permissionClosureService = permissionClosureService;
+    }
+
+    @ReadOperation
+    public Map<String, Object> info() {
+        return Collections.singletonMap("effectiveTableReady", permissionClosureService.isEffectiveTableReady());
+    }
+
+    @WriteOperation
+    public void rebuild() {
+        permissionClosureService.rebuild();
+    }
+
+}
@@ -0,0 +1,117 @@
+package com.hy.oauth2.server.cache;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 缓存中的用户信息快照
+ * <p>
+ * 认证成功后框架会擦除 {@link User} 中的密码，所以缓存里只保存不可变的快照，每次命中都重新构建 {@link User}
+ *
+ * @author wyl
+ * @since 2026-10-16 09:20:11
+ */
+public class CachedUserDetails implements Serializable {
+    private static final long serialVersionUID = -3904472810957461823L;
+
+    private String username;
+
+    private String password;
+
+    private List<String> authorities;
+
+    private boolean enabled = true;
+
+    private boolean accountNonExpired = true;
+
+    private boolean accountNonLocked = true;
+
+    private boolean credentialsNonExpired = true;
+
+    public static CachedUserDetails of(UserDetails userDetails) {
+        CachedUserDetails cached = new CachedUserDetails();
+        cached.setUsername(userDetails.getUsername());
+        cached.setPassword(userDetails.getPassword());
+        List<String> authorities = new ArrayList<>(userDetails.getAuthorities().size());
+        for (GrantedAuthority authority : userDetails.getAuthorities()) {
+            authorities.add(authority.getAuthority());
+        }
+        cached.setAuthorities(authorities);
+        cached.setEnabled(userDetails.isEnabled());
+        cached.setAccountNonExpired(userDetails.isAccountNonExpired());
+        cached.setAccountNonLocked(userDetails.isAccountNonLocked());
+        cached.setCredentialsNonExpired(userDetails.isCredentialsNonExpired());
+        return cached;
+    }
+
+    public UserDetails toUserDetails() {
+        List<GrantedAuthority> grantedAuthorities = new ArrayList<>(authorities.size());
+        for (String authority : authorities) {
+            grantedAuthorities.add(new SimpleGrantedAuthority(authority));
+        }
+        return new User(username, password, enabled, accountNonExpired, credentialsNonExpired, accountNonLocked, grantedAuthorities);
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public List<String> getAuthorities() {
+        return authorities;
+    }
+
+    public void setAuthorities(List<String> authorities) {
+        this.authorities = authorities;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isAccountNonExpired() {
+        return accountNonExpired;
+    }
+
+    public void setAccountNonExpired(boolean accountNonExpired) {
+        this.accountNonExpired = accountNonExpired;
+    }
+
+    public boolean isAccountNonLocked() {
+        return accountNonLocked;
+    }
+
+    public void setAccountNonLocked(boolean accountNonLocked) {
+        this.accountNonLocked = accountNonLocked;
+    }
+
+    public boolean isCredentialsNonExpired() {
+        return credentialsNonExpired;
+    }
+
+    public void setCredentialsNonExpired(boolean credentialsNonExpired) {
+        this.credentialsNonExpired = credentialsNonExpired;
+    }
+
+}
@@ -0,0 +1,74 @@
+package com.hy.oauth2.server.cache;
+
+import org.springframework.security.oauth2.provider.ClientAlreadyExistsException;
+import org.springframework.security.oauth2.provider.ClientDetails;
+import org.springframework.security.oauth2.provider.ClientDetailsService;
+import org.springframework.security.oauth2.provider.ClientRegistrationException;
+import org.springframework.security.oauth2.provider.ClientRegistrationService;
+import org.springframework.security.oauth2.provider.NoSuchClientException;
+
+import java.util.List;
+
+/**
+ * 带缓存的客户端信息查询，包装 {@link org.springframework.security.oauth2.provider.client.JdbcClientDetailsService}
+ * <p>
+ * 通过 {@link ClientRegistrationService} 修改客户端时自动清理缓存
+ *
+ * @author wyl
+ * @since 2026-10-16 16:07:51
+ */
+public class CachingClientDetailsService implements ClientDetailsService, ClientRegistrationService {
+
+    private final ClientDetailsCache clientDetailsCache;
+
+    public CachingClientDetailsService(ClientDetailsCache clientDetailsCache) {
+        this.clientDetailsCache = clientDetailsCache;
+    }
+
+    @Override
+    public ClientDetails loadClientByClientId(String clientId) throws ClientRegistrationException {
+        ClientDetails clientDetails = clientDetailsCache.get(clientId);
+        if (clientDetails == null) {
+            throw new NoSuchClientException("No client with requested id: " + clientId);
+        }
+        return clientDetails;
+    }
+
+    @Override
+    public void addClientDetails(ClientDetails clientDetails) throws ClientAlreadyExistsException {
+        registrationService().addClientDetails(clientDetails);
+        // 清理不存在的缓存结果
+        clientDetailsCache.evict(clientDetails.getClientId());
+    }
+
+    @Override
+    public void updateClientDetails(ClientDetails clientDetails) throws NoSuchClientException {
+        registrationService().updateClientDetails(clientDetails);
+        clientDetailsCache.evict(clientDetails.getClientId());
+    }
+
+    @Override
+    public void updateClientSecret(String clientId, String secret) throws NoSuchClientException {
+        registrationService().updateClientSecret(clientId, secret);
+        clientDetailsCache.evict(clientId);
+    }
+
+    @Override
+    public void removeClientDetails(String clientId) throws NoSuchClientException {
+        registrationService().removeClientDetails(clientId);
+        clientDetailsCache.evict(clientId);
+    }
+
+    @Override
+    public List<ClientDetails> listClientDetails() {
+        return registrationService().listClientDetails();
+    }
+
+    private ClientRegistrationService registrationService() {
+        if (!(clientDetailsCache.getDelegate() instanceof ClientRegistrationService)) {
+            throw new UnsupportedOperationException("客户端信息不支持修改");
+        }
+        return (ClientRegistrationService) clientDetailsCache.getDelegate();
+    }
+
+}
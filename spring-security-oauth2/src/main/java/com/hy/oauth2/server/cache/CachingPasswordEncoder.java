@@ -0,0 +1,37 @@
+package com.hy.oauth2.server.cache;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * 带校验结果缓存的密码校验器，只用于客户端密钥（client_secret）
+ *
+ * @author wyl
+ * @since 2026-10-16 16:51:37
+ */
+public class CachingPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+
+    private final ClientSecretCache clientSecretCache;
+
+    public CachingPasswordEncoder(PasswordEncoder delegate, ClientSecretCache clientSecretCache) {
+        this.delegate = delegate;
+        this.clientSecretCache = clientSecretCache;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return clientSecretCache.matches(rawPassword, encodedPassword, delegate);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+}
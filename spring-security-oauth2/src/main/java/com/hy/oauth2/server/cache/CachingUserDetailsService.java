@@ -0,0 +1,62 @@
+package com.hy.oauth2.server.cache;
+
+import com.hy.oauth2.server.entity.TbUser;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+/**
+ * 带缓存的用户认证信息查询，包装 {@link com.hy.oauth2.server.service.UserDetailsServiceImpl}
+ * <p>
+ * 缓存总是以数据库中的用户名为 key（归一化，见 {@link UserDetailsCache}），每个用户只缓存一份，
+ * 清理用户名即可使所有登录方式、大小写写法失效。开启多键索引时手机号、邮箱登录先经索引（只查内存）换成用户名，
+ * 未开启时使用缓存中记录的别名
+ *
+ * @author wyl
+ * @since 2026-10-16 09:48:05
+ */
+public class CachingUserDetailsService implements UserDetailsService {
+
+    private final UserDetailsService delegate;
+
+    private final UserDetailsCache userDetailsCache;
+
+    private final UserIdentifierIndex userIdentifierIndex;
+
+    /**
+     * @param userIdentifierIndex 为 null 时登录名即用户名
+     */
+    public CachingUserDetailsService(UserDetailsService delegate, UserDetailsCache userDetailsCache,
+                                     UserIdentifierIndex userIdentifierIndex) {
+        this.delegate = delegate;
+        this.userDetailsCache = userDetailsCache;
+        this.userIdentifierIndex = userIdentifierIndex;
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        String key = username;
+        if (userIdentifierIndex != null) {
+            TbUser user = userIdentifierIndex.get(username);
+            if (user != null) {
+                key = user.getUsername();
+            }
+        } else {
+            String alias = userDetailsCache.resolveAlias(username);
+            if (alias != null) {
+                key = alias;
+            }
+        }
+        UserDetails userDetails = userDetailsCache.get(key);
+        if (userDetails != null) {
+            return userDetails;
+        }
+        userDetails = delegate.loadUserByUsername(username);
+        userDetailsCache.put(userDetails.getUsername(), userDetails);
+        if (userIdentifierIndex == null) {
+            userDetailsCache.putAlias(username, userDetails.getUsername());
+        }
+        return userDetails;
+    }
+
+}
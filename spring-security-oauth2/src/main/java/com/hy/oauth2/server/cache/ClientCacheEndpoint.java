@@ -0,0 +1,46 @@
+package com.hy.oauth2.server.cache;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 客户端缓存管理端点
+ * <p>
+ * GET /actuator/clientcache 查看缓存状态，DELETE /actuator/clientcache 清空缓存，DELETE /actuator/clientcache/{clientId} 清理单个客户端
+ *
+ * @author wyl
+ * @since 2026-10-16 16:12:19
+ */
+@Endpoint(id = "clientcache")
+public class ClientCacheEndpoint {
+
+    private final ClientDetailsCache clientDetailsCache;
+
+    public ClientCacheEndpoint(ClientDetailsCache clientDetailsCache) {
+        this.clientDetailsCache = clientDetailsCache;
+    }
+
+    @ReadOperation
+    public Map<String, Object> info() {
+        Map<String, Object> info = new LinkedHashMap<>();
+        info.put("size", clientDetailsCache.size());
+        info.put("redisEnabled", clientDetailsCache.isRedisEnabled());
+        return info;
+    }
+
+    @DeleteOperation
+    public void evictAll() {
+        clientDetailsCache.evictAll();
+    }
+
+    @DeleteOperation
+    public void evict(@Selector String clientId) {
+        clientDetailsCache.evict(clientId);
+    }
+
+}
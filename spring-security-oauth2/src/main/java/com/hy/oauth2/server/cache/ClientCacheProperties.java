@@ -0,0 +1,106 @@
+package com.hy.oauth2.server.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 客户端信息（oauth_client_details）缓存配置
+ *
+ * @author wyl
+ * @since 2026-10-16 15:52:08
+ */
+@ConfigurationProperties(prefix = "security.oauth2.client-cache")
+public class ClientCacheProperties {
+
+    /**
+     * 是否启用客户端信息缓存
+     */
+    private boolean enabled = true;
+
+    /**
+     * 最大条数
+     */
+    private long maximumSize = 1000;
+
+    /**
+     * 刷新间隔，超过后下一次访问时在后台重新加载，加载完成前仍返回旧值
+     */
+    private Duration refreshInterval = Duration.ofMinutes(1);
+
+    /**
+     * 过期时间，数据库不可用时旧值最多保留的时间
+     */
+    private Duration ttl = Duration.ofMinutes(30);
+
+    private final Redis redis = new Redis();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    public void setMaximumSize(long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    public Duration getRefreshInterval() {
+        return refreshInterval;
+    }
+
+    public void setRefreshInterval(Duration refreshInterval) {
+        this.refreshInterval = refreshInterval;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    public Redis getRedis() {
+        return redis;
+    }
+
+    /**
+     * 多节点之间的缓存失效通知
+     */
+    public static class Redis {
+
+        /**
+         * 是否通过 Redis 发布订阅通知其他节点
+         */
+        private boolean enabled = false;
+
+        /**
+         * 缓存失效通知频道
+         */
+        private String channel = "oauth2:client-cache:evict";
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getChannel() {
+            return channel;
+        }
+
+        public void setChannel(String channel) {
+            this.channel = channel;
+        }
+    }
+
+}
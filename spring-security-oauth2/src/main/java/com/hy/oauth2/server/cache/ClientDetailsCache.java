@@ -0,0 +1,154 @@
+package com.hy.oauth2.server.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.oauth2.provider.ClientDetails;
+import org.springframework.security.oauth2.provider.ClientDetailsService;
+import org.springframework.security.oauth2.provider.NoSuchClientException;
+import org.springframework.security.oauth2.provider.client.BaseClientDetails;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 客户端信息缓存
+ * <p>
+ * 一次 /oauth/token、/oauth/authorize 请求会多次查询同一客户端（客户端认证、授权类型校验、回调地址校验），
+ * 缓存后只在刷新时查询数据库。不存在的 client_id 同样缓存，避免随意构造的 client_id 穿透到数据库。
+ * oauth_client_details 直接修改后需要调用 {@link #evict(String)} 或 {@link #evictAll()}，
+ * 启用 Redis 时会通知其他节点
+ *
+ * @author wyl
+ * @since 2026-10-16 15:58:24
+ */
+public class ClientDetailsCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ClientDetailsCache.class);
+
+    /**
+     * 失效通知中表示清空全部缓存的消息
+     */
+    public static final String EVICT_ALL = "*";
+
+    private final ClientCacheProperties properties;
+
+    private final ClientDetailsService delegate;
+
+    private final LoadingCache<String, Optional<ClientDetails>> cache;
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final Timer loadFound;
+    private final Timer loadNotFound;
+    private final Timer loadError;
+    private final Counter invalidations;
+
+    public ClientDetailsCache(ClientCacheProperties properties, ClientDetailsService delegate,
+                              MeterRegistry meterRegistry, StringRedisTemplate redisTemplate) {
+        this.properties = properties;
+        this.delegate = delegate;
+        this.redisTemplate = properties.getRedis().isEnabled() ? redisTemplate : null;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .refreshAfterWrite(properties.getRefreshInterval().toMillis(), TimeUnit.MILLISECONDS)
+                .expireAfterWrite(properties.getTtl().toMillis(), TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build(this::load);
+        // cache.gets（命中率）/ cache.loads / cache.evictions 等指标
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "oauth2.client.details");
+        this.loadFound = meterRegistry.timer("oauth2.client.details.load", "result", "found");
+        this.loadNotFound = meterRegistry.timer("oauth2.client.details.load", "result", "not_found");
+        this.loadError = meterRegistry.timer("oauth2.client.details.load", "result", "error");
+        this.invalidations = meterRegistry.counter("oauth2.client.details.invalidations");
+    }
+
+    /**
+     * @param clientId
+     * @return 客户端信息副本，不存在时返回 null
+     */
+    public ClientDetails get(String clientId) {
+        Optional<ClientDetails> cached = cache.get(clientId);
+        // BaseClientDetails 可修改，返回副本避免调用方影响缓存
+        return cached != null && cached.isPresent() ? new BaseClientDetails(cached.get()) : null;
+    }
+
+    public ClientDetailsService getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * 清理单个客户端缓存
+     *
+     * @param clientId
+     */
+    public void evict(String clientId) {
+        invalidations.increment();
+        cache.invalidate(clientId);
+        publish(clientId);
+    }
+
+    /**
+     * 清理全部客户端缓存
+     */
+    public void evictAll() {
+        invalidations.increment();
+        cache.invalidateAll();
+        publish(EVICT_ALL);
+    }
+
+    /**
+     * 收到其他节点的失效通知，只清理本地缓存
+     *
+     * @param message client_id 或 {@link #EVICT_ALL}
+     */
+    public void onEvictMessage(String message) {
+        if (EVICT_ALL.equals(message)) {
+            cache.invalidateAll();
+        } else {
+            cache.invalidate(message);
+        }
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public boolean isRedisEnabled() {
+        return redisTemplate != null;
+    }
+
+    private Optional<ClientDetails> load(String clientId) {
+        long start = System.nanoTime();
+        try {
+            ClientDetails clientDetails = delegate.loadClientByClientId(clientId);
+            loadFound.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return Optional.ofNullable(clientDetails);
+        } catch (NoSuchClientException e) {
+            loadNotFound.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return Optional.empty();
+        } catch (RuntimeException e) {
+            // 后台刷新失败时 Caffeine 保留旧值，首次加载失败时异常抛给调用方
+            loadError.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private void publish(String message) {
+        if (redisTemplate == null) {
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(properties.getRedis().getChannel(), message);
+        } catch (Exception e) {
+            log.warn("发送客户端缓存失效通知失败: {}", e.getMessage());
+        }
+    }
+
+}
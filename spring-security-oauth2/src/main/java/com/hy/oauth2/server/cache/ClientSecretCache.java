@@ -0,0 +1,127 @@
+package com.hy.oauth2.server.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 客户端密钥校验成功结果的缓存，同一客户端重复请求时跳过 BCrypt
+ * <p>
+ * 缓存 key 为 HMAC-SHA256(进程内随机密钥, 数据库中的密钥哈希 + 提交的密钥)，不保存明文密钥。
+ * 客户端修改密钥后数据库中的哈希随之变化，旧的缓存结果不会再被命中，无需主动清理。
+ * 只缓存校验成功的结果，错误的密钥每次都经过 BCrypt，不降低暴力破解的成本
+ *
+ * @author wyl
+ * @since 2026-10-16 16:44:52
+ */
+public class ClientSecretCache {
+
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    private final Cache<String, Boolean> verified;
+
+    private final SecretKeySpec hmacKey;
+
+    private final ThreadLocal<Mac> macs;
+
+    private final Counter hits;
+
+    private final LongAdder delegateCount = new LongAdder();
+
+    private final LongAdder delegateCpuNanos = new LongAdder();
+
+    public ClientSecretCache(ClientSecretCacheProperties properties, MeterRegistry meterRegistry) {
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl().toMillis(), TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.hmacKey = new SecretKeySpec(key, "HmacSHA256");
+        this.macs = ThreadLocal.withInitial(this::newMac);
+        CaffeineCacheMetrics.monitor(meterRegistry, verified, "oauth2.client.secret");
+        this.hits = meterRegistry.counter("oauth2.client.secret.verify", "result", "cached");
+        // 命中次数 × 每次 BCrypt 校验的平均 CPU 时间
+        FunctionCounter.builder("oauth2.client.secret.saved.cpu", this, ClientSecretCache::savedCpuSeconds)
+                .baseUnit("seconds")
+                .description("跳过 BCrypt 节省的 CPU 时间估算值")
+                .register(meterRegistry);
+        FunctionCounter.builder("oauth2.client.secret.verify.cpu", delegateCpuNanos, adder -> adder.sum() / 1e9)
+                .baseUnit("seconds")
+                .description("BCrypt 校验消耗的 CPU 时间")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 校验密钥，已校验成功过的组合直接返回 true
+     *
+     * @param rawPassword     请求中的密钥
+     * @param encodedPassword 数据库中的密钥哈希
+     * @param delegate        实际的密码校验器
+     * @return
+     */
+    public boolean matches(CharSequence rawPassword, String encodedPassword, PasswordEncoder delegate) {
+        if (rawPassword == null || encodedPassword == null) {
+            return delegate.matches(rawPassword, encodedPassword);
+        }
+        String key = key(rawPassword, encodedPassword);
+        if (verified.getIfPresent(key) != null) {
+            hits.increment();
+            return true;
+        }
+        long start = THREAD_MX_BEAN.getCurrentThreadCpuTime();
+        boolean matches = delegate.matches(rawPassword, encodedPassword);
+        delegateCpuNanos.add(THREAD_MX_BEAN.getCurrentThreadCpuTime() - start);
+        delegateCount.increment();
+        if (matches) {
+            verified.put(key, Boolean.TRUE);
+        }
+        return matches;
+    }
+
+    public void invalidateAll() {
+        verified.invalidateAll();
+    }
+
+    public double savedCpuSeconds() {
+        long count = delegateCount.sum();
+        if (count == 0) {
+            return 0;
+        }
+        return hits.count() * (delegateCpuNanos.sum() / (double) count) / 1e9;
+    }
+
+    private String key(CharSequence rawPassword, String encodedPassword) {
+        Mac mac = macs.get();
+        mac.update(encodedPassword.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        return Base64.getEncoder().encodeToString(mac.doFinal(rawPassword.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(hmacKey);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.hy.oauth2.server.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 客户端密钥校验结果缓存配置
+ *
+ * @author wyl
+ * @since 2026-10-16 16:40:15
+ */
+@ConfigurationProperties(prefix = "security.oauth2.client-secret-cache")
+public class ClientSecretCacheProperties {
+
+    /**
+     * 是否缓存客户端密钥校验成功的结果
+     */
+    private boolean enabled = true;
+
+    /**
+     * 最大条数
+     */
+    private long maximumSize = 10000;
+
+    /**
+     * 过期时间
+     */
+    private Duration ttl = Duration.ofMinutes(10);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    public void setMaximumSize(long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+}
@@ -0,0 +1,37 @@
+package com.hy.oauth2.server.cache;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * 登录名（用户名、手机号、邮箱）归一化
+ * <p>
+ * 与 MySQL 默认排序规则一致：不区分大小写、忽略尾部空格及重音。数据库认为相同的登录名归一化后相同，
+ * 不存在用户过滤、多键索引、用户缓存、限流都以归一化结果为 key，同一登录名在各组件中的判断一致
+ *
+ * @author wyl
+ * @since 2026-10-17 05:02:11
+ */
+public final class LoginNames {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private LoginNames() {
+    }
+
+    public static String normalize(String loginName) {
+        int end = loginName.length();
+        while (end > 0 && loginName.charAt(end - 1) == ' ') {
+            end--;
+        }
+        String key = loginName.substring(0, end).toLowerCase(Locale.ROOT);
+        for (int i = 0; i < key.length(); i++) {
+            if (key.charAt(i) > 0x7F) {
+                return COMBINING_MARKS.matcher(Normalizer.normalize(key, Normalizer.Form.NFD)).replaceAll("");
+            }
+        }
+        return key;
+    }
+
+}
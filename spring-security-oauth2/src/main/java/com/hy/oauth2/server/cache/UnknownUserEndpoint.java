@@ -0,0 +1,60 @@
+package com.hy.oauth2.server.cache;
+
+import com.hy.oauth2.common.concurrent.BloomFilter;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 不存在用户拦截管理端点
+ * <p>
+ * GET /actuator/unknownuser 查看状态，POST /actuator/unknownuser 从 tb_user 重新构建布隆过滤器，
+ * POST /actuator/unknownuser/{username} 登记新增用户（手机号、邮箱同样登记），DELETE /actuator/unknownuser 清空未找到缓存
+ *
+ * @author wyl
+ * @since 2026-10-17 03:49:27
+ */
+@Endpoint(id = "unknownuser")
+public class UnknownUserEndpoint {
+
+    private final UnknownUserFilter unknownUserFilter;
+
+    public UnknownUserEndpoint(UnknownUserFilter unknownUserFilter) {
+        this.unknownUserFilter = unknownUserFilter;
+    }
+
+    @ReadOperation
+    public Map<String, Object> info() {
+        Map<String, Object> info = new LinkedHashMap<>();
+        BloomFilter bloomFilter = unknownUserFilter.getBloomFilter();
+        info.put("bloomFilterReady", bloomFilter != null);
+        if (bloomFilter != null) {
+            info.put("bloomFilterIdentifiers", bloomFilter.insertions());
+            info.put("bloomFilterBits", bloomFilter.bitSize());
+            info.put("bloomFilterHashes", bloomFilter.hashes());
+        }
+        info.put("negativeCacheSize", unknownUserFilter.negativeCacheSize());
+        return info;
+    }
+
+    @WriteOperation
+    public void rebuild() {
+        unknownUserFilter.rebuild();
+    }
+
+    @WriteOperation
+    public void userCreated(@Selector String username) {
+        unknownUserFilter.onUserCreated(username);
+    }
+
+    @DeleteOperation
+    public void clearNegativeCache() {
+        unknownUserFilter.clearNegativeCache();
+    }
+
+}
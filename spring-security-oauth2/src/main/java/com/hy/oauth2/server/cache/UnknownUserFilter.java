@@ -0,0 +1,166 @@
+package com.hy.oauth2.server.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.hy.oauth2.common.concurrent.BloomFilter;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 不存在用户的判断：tb_user 用户名布隆过滤器加短期的未找到缓存
+ * <p>
+ * 布隆过滤器启动后异步构建，构建完成前全部放行；之后按间隔重新构建，新增用户需调用 {@link #onUserCreated(String)}。
+ * 手机号、邮箱同样写入，支持按手机号、邮箱登录（见 {@link com.hy.oauth2.server.service.UserLookupService}）。
+ * 用户名按 MySQL 默认排序规则（不区分大小写、忽略尾部空格及重音）归一化后再判断（{@link LoginNames}），避免把能查到的用户拦截掉
+ *
+ * @author wyl
+ * @since 2026-10-17 03:46:30
+ */
+public class UnknownUserFilter implements Runnable {
+
+    private static final Logger log = LoggerFactory.getLogger(UnknownUserFilter.class);
+
+    private final UnknownUserProperties properties;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Cache<String, Boolean> negativeCache;
+
+    private volatile BloomFilter bloomFilter;
+
+    /**
+     * 构建期间新增的用户同时写入新旧两个过滤器
+     */
+    private volatile BloomFilter building;
+
+    /**
+     * 新增用户的两次写入与过滤器切换互斥，否则切换发生在两次写入之间时新用户既不在新过滤器也不在 building 中，
+     * 直到下次构建前都被当作不存在；只在写入、切换时持有，不包括查询 tb_user
+     */
+    private final Object swapLock = new Object();
+
+    private final Counter bloomRejections;
+    private final Counter negativeCacheRejections;
+
+    public UnknownUserFilter(UnknownUserProperties properties, JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.negativeCache = Caffeine.newBuilder()
+                .maximumSize(properties.getNegativeCache().getMaximumSize())
+                .expireAfterWrite(properties.getNegativeCache().getTtl().toMillis(), TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, negativeCache, "oauth2.user.unknown");
+        this.bloomRejections = meterRegistry.counter("oauth2.user.unknown.rejected", "reason", "bloom_filter");
+        this.negativeCacheRejections = meterRegistry.counter("oauth2.user.unknown.rejected", "reason", "negative_cache");
+    }
+
+    /**
+     * @param username
+     * @return false 表示用户一定不存在
+     */
+    public boolean mightExist(String username) {
+        String key = LoginNames.normalize(username);
+        BloomFilter filter = bloomFilter;
+        if (filter != null && !filter.mightContain(key)) {
+            bloomRejections.increment();
+            return false;
+        }
+        if (negativeCache.getIfPresent(key) != null) {
+            negativeCacheRejections.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 数据库中查询不到该用户
+     */
+    public void onNotFound(String username) {
+        negativeCache.put(LoginNames.normalize(username), Boolean.TRUE);
+    }
+
+    /**
+     * 新增用户（写入 tb_user）或修改手机号、邮箱后调用，每个标识调用一次
+     */
+    public void onUserCreated(String username) {
+        String key = LoginNames.normalize(username);
+        synchronized (swapLock) {
+            BloomFilter filter = bloomFilter;
+            if (filter != null) {
+                filter.put(key);
+            }
+            BloomFilter next = building;
+            if (next != null) {
+                next.put(key);
+            }
+        }
+        negativeCache.invalidate(key);
+    }
+
+    /**
+     * 从 tb_user 重新构建布隆过滤器，由定时任务调用
+     */
+    @Override
+    public void run() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            // 保留原过滤器，下次定时任务重试
+            log.warn("构建用户名布隆过滤器失败: {}", e.getMessage());
+        }
+    }
+
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_user", Long.class);
+        // 每个用户最多 3 个标识
+        long expected = 3 * Math.max(properties.getExpectedUsers(), count == null ? 0 : count * 2);
+        BloomFilter next = new BloomFilter(expected, properties.getFalsePositiveRate());
+        synchronized (swapLock) {
+            building = next;
+        }
+        try {
+            jdbcTemplate.query("SELECT username, phone, email FROM tb_user", (RowCallbackHandler) rs -> {
+                for (int i = 1; i <= 3; i++) {
+                    String identifier = rs.getString(i);
+                    if (identifier != null) {
+                        next.put(LoginNames.normalize(identifier));
+                    }
+                }
+            });
+            synchronized (swapLock) {
+                bloomFilter = next;
+                building = null;
+            }
+        } finally {
+            if (building != null) {
+                synchronized (swapLock) {
+                    building = null;
+                }
+            }
+        }
+        log.info("用户名布隆过滤器已构建，{} 个标识，{} 位，耗时 {} ms", next.insertions(), next.bitSize(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    public BloomFilter getBloomFilter() {
+        return bloomFilter;
+    }
+
+    public long negativeCacheSize() {
+        return negativeCache.estimatedSize();
+    }
+
+    public void clearNegativeCache() {
+        negativeCache.invalidateAll();
+    }
+
+}
@@ -0,0 +1,101 @@
+package com.hy.oauth2.server.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 不存在用户拦截配置
+ *
+ * @author wyl
+ * @since 2026-10-17 03:45:02
+ */
+@ConfigurationProperties(prefix = "security.oauth2.unknown-user")
+public class UnknownUserProperties {
+
+    /**
+     * 是否在查询数据库前拦截不存在的用户名
+     */
+    private boolean enabled = false;
+
+    /**
+     * 布隆过滤器预期用户数，实际用户数更多时按实际用户数的 2 倍计算
+     */
+    private long expectedUsers = 100000;
+
+    /**
+     * 布隆过滤器误判率，误判的用户名仍会查询数据库
+     */
+    private double falsePositiveRate = 0.01;
+
+    /**
+     * 重新从 tb_user 构建布隆过滤器的间隔，直接写入 tb_user 的用户最迟在此间隔后可以登录
+     */
+    private Duration rebuildInterval = Duration.ofMinutes(10);
+
+    private final NegativeCache negativeCache = new NegativeCache();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getExpectedUsers() {
+        return expectedUsers;
+    }
+
+    public void setExpectedUsers(long expectedUsers) {
+        this.expectedUsers = expectedUsers;
+    }
+
+    public double getFalsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    public void setFalsePositiveRate(double falsePositiveRate) {
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    public Duration getRebuildInterval() {
+        return rebuildInterval;
+    }
+
+    public void setRebuildInterval(Duration rebuildInterval) {
+        this.rebuildInterval = rebuildInterval;
+    }
+
+    public NegativeCache getNegativeCache() {
+        return negativeCache;
+    }
+
+    /**
+     * 数据库中查询不到的用户名缓存，拦截布隆过滤器误判的用户名
+     */
+    public static class NegativeCache {
+
+        private long maximumSize = 100000;
+
+        private Duration ttl = Duration.ofMinutes(1);
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+    }
+
+}
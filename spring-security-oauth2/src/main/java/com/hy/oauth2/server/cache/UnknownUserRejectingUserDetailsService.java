@@ -0,0 +1,40 @@
+package com.hy.oauth2.server.cache;
+
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+/**
+ * 不存在的用户名不查询数据库，直接抛出 UsernameNotFoundException
+ * <p>
+ * 响应时间与密码错误相同：DaoAuthenticationProvider 收到 UsernameNotFoundException 后仍会做一次 BCrypt 校验，
+ * 且对外统一为 Bad credentials，无法据此枚举用户
+ *
+ * @author wyl
+ * @since 2026-10-17 03:48:11
+ */
+public class UnknownUserRejectingUserDetailsService implements UserDetailsService {
+
+    private final UserDetailsService delegate;
+
+    private final UnknownUserFilter unknownUserFilter;
+
+    public UnknownUserRejectingUserDetailsService(UserDetailsService delegate, UnknownUserFilter unknownUserFilter) {
+        this.delegate = delegate;
+        this.unknownUserFilter = unknownUserFilter;
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        if (!unknownUserFilter.mightExist(username)) {
+            throw new UsernameNotFoundException("用户不存在: " + username);
+        }
+        try {
+            return delegate.loadUserByUsername(username);
+        } catch (UsernameNotFoundException e) {
+            unknownUserFilter.onNotFound(username);
+            throw e;
+        }
+    }
+
+}
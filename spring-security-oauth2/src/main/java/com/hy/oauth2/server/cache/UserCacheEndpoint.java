@@ -0,0 +1,62 @@
+package com.hy.oauth2.server.cache;
+
+import com.hy.oauth2.server.entity.TbUser;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 用户缓存管理端点
+ * <p>
+ * GET /actuator/usercache 查看缓存状态，DELETE /actuator/usercache 清空缓存，DELETE /actuator/usercache/{username} 清理单个用户，
+ * 开启多键索引时同时清理该用户在索引中的用户名、手机号、邮箱，修改密码、手机号、邮箱后任何登录名都不再使用旧数据
+ *
+ * @author wyl
+ * @since 2026-10-16 10:02:37
+ */
+@Endpoint(id = "usercache")
+public class UserCacheEndpoint {
+
+    private final UserDetailsCache userDetailsCache;
+
+    private final UserIdentifierIndex userIdentifierIndex;
+
+    /**
+     * @param userIdentifierIndex 未开启多键索引时为 null
+     */
+    public UserCacheEndpoint(UserDetailsCache userDetailsCache, UserIdentifierIndex userIdentifierIndex) {
+        this.userDetailsCache = userDetailsCache;
+        this.userIdentifierIndex = userIdentifierIndex;
+    }
+
+    @ReadOperation
+    public Map<String, Object> info() {
+        Map<String, Object> info = new LinkedHashMap<>();
+        info.put("localSize", userDetailsCache.localSize());
+        info.put("redisEnabled", userDetailsCache.isRedisEnabled());
+        return info;
+    }
+
+    @DeleteOperation
+    public void evictAll() {
+        userDetailsCache.evictAll();
+        if (userIdentifierIndex != null) {
+            userIdentifierIndex.evictAll();
+        }
+    }
+
+    @DeleteOperation
+    public void evict(@Selector String username) {
+        TbUser user = userIdentifierIndex == null ? null : userIdentifierIndex.get(username);
+        if (user != null) {
+            userIdentifierIndex.evict(user.getId());
+            userDetailsCache.evict(user.getUsername());
+        }
+        userDetailsCache.evict(username);
+    }
+
+}
@@ -0,0 +1,119 @@
+package com.hy.oauth2.server.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 用户信息缓存配置
+ *
+ * @author wyl
+ * @since 2026-10-16 09:12:40
+ */
+@ConfigurationProperties(prefix = "security.oauth2.user-cache")
+public class UserCacheProperties {
+
+    /**
+     * 是否启用用户信息缓存
+     */
+    private boolean enabled = true;
+
+    /**
+     * 一级缓存（进程内）最大条数
+     */
+    private long maximumSize = 10000;
+
+    /**
+     * 一级缓存过期时间
+     */
+    private Duration ttl = Duration.ofMinutes(5);
+
+    private final Redis redis = new Redis();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    public void setMaximumSize(long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    public Redis getRedis() {
+        return redis;
+    }
+
+    /**
+     * 二级缓存（Redis）配置，同时负责多节点之间的缓存失效通知
+     */
+    public static class Redis {
+
+        /**
+         * 是否启用 Redis 二级缓存
+         */
+        private boolean enabled = false;
+
+        /**
+         * 二级缓存过期时间
+         */
+        private Duration ttl = Duration.ofMinutes(30);
+
+        /**
+         * 缓存 key 前缀
+         */
+        private String keyPrefix = "oauth2:user:";
+
+        /**
+         * 缓存失效通知频道
+         */
+        private String channel = "oauth2:user-cache:evict";
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public String getKeyPrefix() {
+            return keyPrefix;
+        }
+
+        public void setKeyPrefix(String keyPrefix) {
+            this.keyPrefix = keyPrefix;
+        }
+
+        public String getChannel() {
+            return channel;
+        }
+
+        public void setChannel(String channel) {
+            this.channel = channel;
+        }
+    }
+
+}
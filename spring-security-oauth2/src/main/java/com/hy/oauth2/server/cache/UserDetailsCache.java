@@ -0,0 +1,234 @@
+package com.hy.oauth2.server.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用户信息两级缓存
+ * <p>
+ * 一级缓存为进程内 Caffeine，按条数和过期时间淘汰；二级缓存为共享 Redis（可选），多个认证服务节点共用。
+ * tb_user、tb_user_role、tb_role_permission 变更后需要调用 {@link #evict(String)} 或 {@link #evictAll()}，
+ * 启用 Redis 时会通过发布订阅通知其他节点清理一级缓存。
+ * <p>
+ * key 为归一化的用户名（{@link LoginNames}），数据库认为相同的 "ADMIN"、"admin "、"admin" 共用一份缓存，
+ * 按任一写法清理都能清掉。与用户名不同的登录名（手机号、邮箱）只在本地记录到用户名的别名，
+ * 别名指向的用户被清理后查询落空、回源数据库，不会读到旧数据
+ *
+ * @author wyl
+ * @since 2026-10-16 09:31:52
+ */
+public class UserDetailsCache {
+
+    private static final Logger log = LoggerFactory.getLogger(UserDetailsCache.class);
+
+    /**
+     * 失效通知中表示清空全部缓存的消息
+     */
+    public static final String EVICT_ALL = "*";
+
+    private final UserCacheProperties properties;
+
+    private final Cache<String, CachedUserDetails> localCache;
+
+    private final Cache<String, String> aliases;
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Counter redisHits;
+    private final Counter redisMisses;
+    private final Counter redisErrors;
+    private final Counter invalidations;
+
+    public UserDetailsCache(UserCacheProperties properties, MeterRegistry meterRegistry, StringRedisTemplate redisTemplate) {
+        this.properties = properties;
+        this.redisTemplate = properties.getRedis().isEnabled() ? redisTemplate : null;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl().toMillis(), TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+        this.aliases = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl().toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+        // cache.gets / cache.evictions / cache.size 等指标
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, "oauth2.user.details");
+        this.redisHits = meterRegistry.counter("oauth2.user.details.redis", "result", "hit");
+        this.redisMisses = meterRegistry.counter("oauth2.user.details.redis", "result", "miss");
+        this.redisErrors = meterRegistry.counter("oauth2.user.details.redis", "result", "error");
+        this.invalidations = meterRegistry.counter("oauth2.user.details.invalidations");
+    }
+
+    /**
+     * 查询缓存，先查一级缓存，未命中再查二级缓存并回填一级缓存
+     *
+     * @param username
+     * @return 未命中返回 null
+     */
+    public UserDetails get(String username) {
+        username = LoginNames.normalize(username);
+        CachedUserDetails cached = localCache.getIfPresent(username);
+        if (cached == null && redisTemplate != null) {
+            cached = getFromRedis(username);
+            if (cached != null) {
+                localCache.put(username, cached);
+            }
+        }
+        return cached == null ? null : cached.toUserDetails();
+    }
+
+    public void put(String username, UserDetails userDetails) {
+        username = LoginNames.normalize(username);
+        CachedUserDetails cached = CachedUserDetails.of(userDetails);
+        localCache.put(username, cached);
+        if (redisTemplate != null) {
+            try {
+                redisTemplate.opsForValue().set(redisKey(username), objectMapper.writeValueAsString(cached),
+                        properties.getRedis().getTtl().toMillis(), TimeUnit.MILLISECONDS);
+            } catch (Exception e) {
+                redisErrors.increment();
+                log.warn("写入用户二级缓存失败: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 清理单个用户缓存，tb_user 或该用户的 tb_user_role 变更时调用
+     *
+     * @param username
+     */
+    public void evict(String username) {
+        username = LoginNames.normalize(username);
+        invalidations.increment();
+        localCache.invalidate(username);
+        if (redisTemplate != null) {
+            try {
+                redisTemplate.delete(redisKey(username));
+                redisTemplate.convertAndSend(properties.getRedis().getChannel(), username);
+            } catch (Exception e) {
+                redisErrors.increment();
+                log.warn("清理用户二级缓存失败: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 清理全部用户缓存，tb_role_permission 等影响多个用户的变更时调用
+     */
+    public void evictAll() {
+        invalidations.increment();
+        localCache.invalidateAll();
+        aliases.invalidateAll();
+        if (redisTemplate != null) {
+            try {
+                deleteRedisKeys();
+                redisTemplate.convertAndSend(properties.getRedis().getChannel(), EVICT_ALL);
+            } catch (Exception e) {
+                redisErrors.increment();
+                log.warn("清理用户二级缓存失败: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 收到其他节点的失效通知，只清理本地一级缓存
+     *
+     * @param message 用户名或 {@link #EVICT_ALL}
+     */
+    public void onEvictMessage(String message) {
+        if (EVICT_ALL.equals(message)) {
+            localCache.invalidateAll();
+            aliases.invalidateAll();
+        } else {
+            localCache.invalidate(message);
+        }
+    }
+
+    /**
+     * @param loginName 登录时输入的手机号、邮箱等
+     * @return 之前登录时查到的用户名，没有记录返回 null
+     */
+    public String resolveAlias(String loginName) {
+        return aliases.getIfPresent(LoginNames.normalize(loginName));
+    }
+
+    /**
+     * 记录登录名到用户名的别名，两者归一化后相同时不记录
+     */
+    public void putAlias(String loginName, String username) {
+        String alias = LoginNames.normalize(loginName);
+        String key = LoginNames.normalize(username);
+        if (!alias.equals(key)) {
+            aliases.put(alias, key);
+        }
+    }
+
+    public long localSize() {
+        return localCache.estimatedSize();
+    }
+
+    public boolean isRedisEnabled() {
+        return redisTemplate != null;
+    }
+
+    private CachedUserDetails getFromRedis(String username) {
+        try {
+            String json = redisTemplate.opsForValue().get(redisKey(username));
+            if (json == null) {
+                redisMisses.increment();
+                return null;
+            }
+            redisHits.increment();
+            return objectMapper.readValue(json, CachedUserDetails.class);
+        } catch (Exception e) {
+            // 二级缓存不可用时直接回源数据库，不影响登录
+            redisErrors.increment();
+            log.warn("读取用户二级缓存失败: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void deleteRedisKeys() {
+        ScanOptions options = ScanOptions.scanOptions().match(properties.getRedis().getKeyPrefix() + "*").count(500).build();
+        redisTemplate.execute((RedisConnection connection) -> {
+            List<byte[]> keys = new ArrayList<>();
+            try (Cursor<byte[]> cursor = connection.scan(options)) {
+                while (cursor.hasNext()) {
+                    keys.add(cursor.next());
+                    if (keys.size() == 500) {
+                        connection.del(keys.toArray(new byte[0][]));
+                        keys.clear();
+                    }
+                }
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            if (!keys.isEmpty()) {
+                connection.del(keys.toArray(new byte[0][]));
+            }
+            return null;
+        });
+    }
+
+    private String redisKey(String username) {
+        return properties.getRedis().getKeyPrefix() + username;
+    }
+
+}
@@ -0,0 +1,150 @@
+package com.hy.oauth2.server.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.hy.oauth2.server.entity.TbUser;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用户名、手机号、邮箱到用户的多键索引
+ * <p>
+ * 每个用户只缓存一份 TbUser（按 id），三个标识各自只保存到 id 的映射；用户淘汰、更新时同步移除旧标识。
+ * 读取时核对用户当前的标识，并发更新遗留的旧映射不会返回错误的用户。
+ * 同一字符串同时是一个用户的用户名和另一个用户的手机号/邮箱时，按用户名、手机号、邮箱的顺序取已缓存的用户
+ *
+ * @author wyl
+ * @since 2026-10-17 03:58:36
+ */
+public class UserIdentifierIndex {
+
+    private enum Type {
+
+        USERNAME('u') {
+            @Override
+            String of(TbUser user) {
+                return user.getUsername();
+            }
+        },
+        PHONE('p') {
+            @Override
+            String of(TbUser user) {
+                return user.getPhone();
+            }
+        },
+        EMAIL('e') {
+            @Override
+            String of(TbUser user) {
+                return user.getEmail();
+            }
+        };
+
+        private static final Type[] VALUES = values();
+
+        private final char prefix;
+
+        Type(char prefix) {
+            this.prefix = prefix;
+        }
+
+        abstract String of(TbUser user);
+
+        String key(String normalized) {
+            return prefix + normalized;
+        }
+
+        boolean matches(TbUser user, String normalized) {
+            String value = of(user);
+            return value != null && LoginNames.normalize(value).equals(normalized);
+        }
+
+    }
+
+    private final Cache<Long, TbUser> users;
+
+    private final Map<String, Long> keys = new ConcurrentHashMap<>();
+
+    public UserIdentifierIndex(long maximumSize, Duration ttl, MeterRegistry meterRegistry) {
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl.toMillis(), TimeUnit.MILLISECONDS)
+                .removalListener((Long id, TbUser user, RemovalCause cause) -> {
+                    // 替换时由 put 处理
+                    if (cause != RemovalCause.REPLACED && user != null) {
+                        removeKeys(user);
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "oauth2.user.index");
+        Gauge.builder("oauth2.user.index.keys", keys, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * @param identifier 用户名、手机号或邮箱
+     * @return 未缓存返回 null
+     */
+    public TbUser get(String identifier) {
+        String normalized = LoginNames.normalize(identifier);
+        for (Type type : Type.VALUES) {
+            Long id = keys.get(type.key(normalized));
+            if (id == null) {
+                continue;
+            }
+            TbUser user = users.getIfPresent(id);
+            if (user != null && type.matches(user, normalized)) {
+                return user;
+            }
+        }
+        return null;
+    }
+
+    public void put(TbUser user) {
+        TbUser previous = users.asMap().put(user.getId(), user);
+        if (previous != null) {
+            removeKeys(previous);
+        }
+        for (Type type : Type.VALUES) {
+            String value = type.of(user);
+            if (value != null) {
+                keys.put(type.key(LoginNames.normalize(value)), user.getId());
+            }
+        }
+    }
+
+    /**
+     * tb_user 中该用户的用户名、手机号、邮箱或密码变更后调用
+     */
+    public void evict(Long userId) {
+        users.invalidate(userId);
+    }
+
+    public void evictAll() {
+        users.invalidateAll();
+    }
+
+    public long size() {
+        return users.estimatedSize();
+    }
+
+    public int keyCount() {
+        return keys.size();
+    }
+
+    private void removeKeys(TbUser user) {
+        for (Type type : Type.VALUES) {
+            String value = type.of(user);
+            if (value != null) {
+                keys.remove(type.key(LoginNames.normalize(value)), user.getId());
+            }
+        }
+    }
+
+}
@@ -0,0 +1,46 @@
+package com.hy.oauth2.server.cache;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 用户多键索引管理端点
+ * <p>
+ * GET /actuator/userindex 查看索引状态，DELETE /actuator/userindex 清空索引，DELETE /actuator/userindex/{id} 清理单个用户
+ *
+ * @author wyl
+ * @since 2026-10-17 04:00:12
+ */
+@Endpoint(id = "userindex")
+public class UserIndexEndpoint {
+
+    private final UserIdentifierIndex userIdentifierIndex;
+
+    public UserIndexEndpoint(UserIdentifierIndex userIdentifierIndex) {
+        this.userIdentifierIndex = userIdentifierIndex;
+    }
+
+    @ReadOperation
+    public Map<String, Object> info() {
+        Map<String, Object> info = new LinkedHashMap<>();
+        info.put("users", userIdentifierIndex.size());
+        info.put("keys", userIdentifierIndex.keyCount());
+        return info;
+    }
+
+    @DeleteOperation
+    public void evictAll() {
+        userIdentifierIndex.evictAll();
+    }
+
+    @DeleteOperation
+    public void evict(@Selector Long id) {
+        userIdentifierIndex.evict(id);
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.hy.oauth2.server.coalescing;
+
+import com.hy.oauth2.common.concurrent.SingleFlight;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * 一类查询的合并：相同 key 的并发查询只执行一次，等待时间有上限
+ * <p>
+ * 指标（标签 lookup 为查询名称）：oauth2.user.lookup.coalesced 合并的查询数，
+ * oauth2.user.lookup.coalesce.timeouts 等待超时数，oauth2.user.lookup.in.flight 正在执行的查询数
+ *
+ * @author wyl
+ * @since 2026-10-17 03:34:22
+ */
+public class CoalescedLookup<K, V> {
+
+    private final SingleFlight<K, V> singleFlight = new SingleFlight<>();
+
+    private final long maxWaitNanos;
+
+    public CoalescedLookup(String lookup, Duration maxWait, MeterRegistry meterRegistry) {
+        this.maxWaitNanos = maxWait.toNanos();
+        FunctionCounter.builder("oauth2.user.lookup.coalesced", singleFlight, SingleFlight::coalesced)
+                .description("与其他线程合并的查询数")
+                .tag("lookup", lookup)
+                .register(meterRegistry);
+        FunctionCounter.builder("oauth2.user.lookup.coalesce.timeouts", singleFlight, SingleFlight::timedOut)
+                .description("等待其他线程查询结果超时的次数")
+                .tag("lookup", lookup)
+                .register(meterRegistry);
+        Gauge.builder("oauth2.user.lookup.in.flight", singleFlight, SingleFlight::inFlight)
+                .tag("lookup", lookup)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param key
+     * @param loader 等待的线程共享其返回值（同一对象，调用方只读）或异常
+     * @return
+     */
+    public V load(K key, Supplier<V> loader) {
+        return singleFlight.execute(key, loader, maxWaitNanos);
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.hy.oauth2.server.coalescing;
+
+import com.hy.oauth2.server.entity.LoginUser;
+import com.hy.oauth2.server.service.UserAuthorityLoader;
+
+/**
+ * 合并相同用户名的并发登录查询，如客户端重连时同一用户的大量 password、refresh_token 请求
+ *
+ * @author wyl
+ * @since 2026-10-17 03:35:40
+ */
+public class CoalescingUserAuthorityLoader implements UserAuthorityLoader {
+
+    private final UserAuthorityLoader delegate;
+
+    private final CoalescedLookup<String, LoginUser> lookup;
+
+    public CoalescingUserAuthorityLoader(UserAuthorityLoader delegate, CoalescedLookup<String, LoginUser> lookup) {
+        this.delegate = delegate;
+        this.lookup = lookup;
+    }
+
+    @Override
+    public LoginUser loadByUsername(String username) {
+        return lookup.load(username, () -> delegate.loadByUsername(username));
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.hy.oauth2.server.coalescing;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 用户查询合并配置
+ *
+ * @author wyl
+ * @since 2026-10-17 03:33:05
+ */
+@ConfigurationProperties(prefix = "security.oauth2.user-lookup.coalescing")
+public class UserLookupCoalescingProperties {
+
+    /**
+     * 是否合并相同用户的并发查询
+     */
+    private boolean enabled = true;
+
+    /**
+     * 等待其他线程查询结果的最长时间，超时的请求失败，不再单独查询数据库
+     */
+    private Duration maxWait = Duration.ofSeconds(3);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getMaxWait() {
+        return maxWait;
+    }
+
+    public void setMaxWait(Duration maxWait) {
+        this.maxWait = maxWait;
+    }
+
+}
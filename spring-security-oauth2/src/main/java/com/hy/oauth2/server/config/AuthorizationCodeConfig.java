@@ -0,0 +1,38 @@
+package com.hy.oauth2.server.config;
+
+import com.hy.oauth2.server.token.RedisAuthorizationCodeServices;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import java.time.Duration;
+
+/**
+ * 授权码存储，security.oauth2.authorization-code.store=memory 时使用框架默认的 InMemoryAuthorizationCodeServices
+ *
+ * @author wyl
+ * @since 2026-10-17 01:31:12
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "security.oauth2.authorization-code", name = "store", havingValue = "redis", matchIfMissing = true)
+public class AuthorizationCodeConfig {
+
+    /**
+     * 授权码有效期
+     */
+    @Value("${security.oauth2.authorization-code.ttl:5m}")
+    private Duration ttl;
+
+    @Value("${security.oauth2.authorization-code.length:6}")
+    private int codeLength;
+
+    @Bean
+    public RedisAuthorizationCodeServices authorizationCodeServices(RedisConnectionFactory connectionFactory) {
+        RedisAuthorizationCodeServices authorizationCodeServices = new RedisAuthorizationCodeServices(connectionFactory, ttl);
+        authorizationCodeServices.setCodeLength(codeLength);
+        return authorizationCodeServices;
+    }
+
+}
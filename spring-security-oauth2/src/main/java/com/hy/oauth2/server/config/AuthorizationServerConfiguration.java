@@ -1,11 +1,20 @@
 package com.hy.oauth2.server.config;
 
 
+import com.hy.oauth2.server.cache.CachingClientDetailsService;
+import com.hy.oauth2.server.cache.CachingPasswordEncoder;
+import com.hy.oauth2.server.cache.ClientDetailsCache;
+import com.hy.oauth2.server.cache.ClientSecretCache;
+import com.hy.oauth2.server.metrics.TimedPasswordEncoder;
+import com.hy.oauth2.server.metrics.TimedTokenEnhancer;
+import com.hy.oauth2.server.metrics.TimedTokenStore;
+import com.hy.oauth2.server.metrics.TokenEndpointMetrics;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.config.annotation.configurers.ClientDetailsServiceConfigurer;
 import org.springframework.security.oauth2.config.annotation.web.configuration.AuthorizationServerConfigurerAdapter;
 import org.springframework.security.oauth2.config.annotation.web.configuration.EnableAuthorizationServer;
@@ -13,8 +22,10 @@ import org.springframework.security.oauth2.config.annotation.web.configurers.Aut
 import org.springframework.security.oauth2.config.annotation.web.configurers.AuthorizationServerSecurityConfigurer;
 import org.springframework.security.oauth2.provider.ClientDetailsService;
 import org.springframework.security.oauth2.provider.client.JdbcClientDetailsService;
+import org.springframework.security.oauth2.provider.code.AuthorizationCodeServices;
 import org.springframework.security.oauth2.provider.token.TokenStore;
 import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
+import org.springframework.security.oauth2.provider.token.store.JwtTokenStore;
 
 import javax.sql.DataSource;
 
@@ -36,6 +47,14 @@ public class AuthorizationServerConfiguration extends AuthorizationServerConfigu
     private TokenStore tokenStore;
     @Autowired(required = false)
     private JwtAccessTokenConverter jwtAccessTokenConverter;
+    @Autowired(required = false)
+    private ClientDetailsCache clientDetailsCache;
+    @Autowired(required = false)
+    private ClientSecretCache clientSecretCache;
+    @Autowired(required = false)
+    private AuthorizationCodeServices authorizationCodeServices;
+    @Autowired(required = false)
+    private TokenEndpointMetrics tokenEndpointMetrics;
 
     @Override
     public void configure(ClientDetailsServiceConfigurer clients) throws Exception {
@@ -61,6 +80,10 @@ public class AuthorizationServerConfiguration extends AuthorizationServerConfigu
 
     @Bean
     public ClientDetailsService jdbcClientDetails() {
+        if (clientDetailsCache != null) {
+            // 一次请求会多次查询同一客户端，优先从缓存读取
+            return new CachingClientDetailsService(clientDetailsCache);
+        }
         // 基于 JDBC 实现，需要事先在数据库配置客户端信息
         return new JdbcClientDetailsService(dataSource);
     }
@@ -68,13 +91,30 @@ public class AuthorizationServerConfiguration extends AuthorizationServerConfigu
     @Override
     public void configure(AuthorizationServerEndpointsConfigurer endpoints) throws Exception {
         // 设置令牌
-        endpoints.tokenStore(tokenStore);
+        if (tokenEndpointMetrics != null) {
+            // 统计令牌存储耗时，只包装端点使用的令牌存储
+            endpoints.tokenStore(new TimedTokenStore(tokenStore, tokenEndpointMetrics));
+            if (tokenStore instanceof JwtTokenStore) {
+                // 框架按 JwtTokenStore 类型关闭 ApprovalStore，包装后需显式关闭
+                endpoints.approvalStoreDisabled();
+            }
+        } else {
+            endpoints.tokenStore(tokenStore);
+        }
         // 配置认证管理器，密码模式依赖于认证管理器
         endpoints.authenticationManager(authenticationManager);
+        // 授权码保存在 Redis 中，多节点部署时换取令牌的请求可以落到任意节点
+        if (authorizationCodeServices != null) {
+            endpoints.authorizationCodeServices(authorizationCodeServices);
+        }
 
         // jwt存储token
         if (jwtAccessTokenConverter != null) {
             endpoints.accessTokenConverter(jwtAccessTokenConverter);
+            if (tokenEndpointMetrics != null) {
+                // 统计 jwt 签名耗时，accessTokenConverter 仍用于 check_token 解析
+                endpoints.tokenEnhancer(new TimedTokenEnhancer(jwtAccessTokenConverter, tokenEndpointMetrics));
+            }
         }
 
     }
@@ -89,6 +129,17 @@ public class AuthorizationServerConfiguration extends AuthorizationServerConfigu
     public void configure(AuthorizationServerSecurityConfigurer security) throws Exception {
         //必须要身份认证，单点登录必须要配置
         security.tokenKeyAccess("isAuthenticated()");
+        // 客户端认证时校验 client_secret，同一客户端重复请求时跳过 BCrypt
+        PasswordEncoder clientSecretEncoder = clientSecretCache != null
+                ? new CachingPasswordEncoder(passwordEncoder, clientSecretCache) : null;
+        if (tokenEndpointMetrics != null) {
+            // 统计客户端密钥校验耗时（含缓存命中）
+            clientSecretEncoder = new TimedPasswordEncoder(clientSecretEncoder != null ? clientSecretEncoder : passwordEncoder,
+                    tokenEndpointMetrics, TokenEndpointMetrics.CLIENT_AUTHENTICATION);
+        }
+        if (clientSecretEncoder != null) {
+            security.passwordEncoder(clientSecretEncoder);
+        }
     }
 
 
@@ -0,0 +1,53 @@
+package com.hy.oauth2.server.config;
+
+import com.hy.oauth2.server.cache.ClientCacheEndpoint;
+import com.hy.oauth2.server.cache.ClientCacheProperties;
+import com.hy.oauth2.server.cache.ClientDetailsCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.oauth2.provider.client.JdbcClientDetailsService;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 客户端信息缓存配置，security.oauth2.client-cache.enabled=false 时关闭
+ *
+ * @author wyl
+ * @since 2026-10-16 16:16:02
+ */
+@Configuration
+@EnableConfigurationProperties(ClientCacheProperties.class)
+@ConditionalOnProperty(prefix = "security.oauth2.client-cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ClientCacheConfig {
+
+    @Bean
+    public ClientDetailsCache clientDetailsCache(ClientCacheProperties properties, DataSource dataSource,
+                                                 BCryptPasswordEncoder passwordEncoder, MeterRegistry meterRegistry,
+                                                 StringRedisTemplate redisTemplate, RedisMessageListenerContainer container) {
+        JdbcClientDetailsService jdbcClientDetailsService = new JdbcClientDetailsService(dataSource);
+        // 通过 ClientRegistrationService 新增客户端或修改密钥时加密
+        jdbcClientDetailsService.setPasswordEncoder(passwordEncoder);
+        ClientDetailsCache clientDetailsCache = new ClientDetailsCache(properties, jdbcClientDetailsService, meterRegistry, redisTemplate);
+        if (properties.getRedis().isEnabled()) {
+            // 订阅其他节点的缓存失效通知
+            container.addMessageListener((message, pattern) ->
+                            clientDetailsCache.onEvictMessage(new String(message.getBody(), StandardCharsets.UTF_8)),
+                    new ChannelTopic(properties.getRedis().getChannel()));
+        }
+        return clientDetailsCache;
+    }
+
+    @Bean
+    public ClientCacheEndpoint clientCacheEndpoint(ClientDetailsCache clientDetailsCache) {
+        return new ClientCacheEndpoint(clientDetailsCache);
+    }
+
+}
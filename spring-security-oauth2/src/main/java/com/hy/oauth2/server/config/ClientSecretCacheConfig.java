@@ -0,0 +1,29 @@
+package com.hy.oauth2.server.config;
+
+import com.hy.oauth2.server.cache.ClientSecretCache;
+import com.hy.oauth2.server.cache.ClientSecretCacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 客户端密钥校验结果缓存配置，security.oauth2.client-secret-cache.enabled=false 时关闭
+ * <p>
+ * 不注册 PasswordEncoder 类型的 bean，否则 Spring Security 无法确定用户登录使用的 PasswordEncoder
+ *
+ * @author wyl
+ * @since 2026-10-16 16:55:10
+ */
+@Configuration
+@EnableConfigurationProperties(ClientSecretCacheProperties.class)
+@ConditionalOnProperty(prefix = "security.oauth2.client-secret-cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ClientSecretCacheConfig {
+
+    @Bean
+    public ClientSecretCache clientSecretCache(ClientSecretCacheProperties properties, MeterRegistry meterRegistry) {
+        return new ClientSecretCache(properties, meterRegistry);
+    }
+
+}
@@ -1,25 +1,30 @@
 package com.hy.oauth2.server.config;
 
+import com.hy.oauth2.server.service.TokenRevocationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.oauth2.common.OAuth2AccessToken;
-import org.springframework.security.oauth2.provider.token.TokenStore;
+import org.springframework.security.oauth2.provider.authentication.BearerTokenExtractor;
+import org.springframework.security.oauth2.provider.authentication.TokenExtractor;
 import org.springframework.security.web.authentication.logout.LogoutHandler;
-import org.springframework.stereotype.Component;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.io.IOException;
 
-// 自定义 LogoutHandler
+// 自定义 LogoutHandler，退出时注销请求携带的访问令牌（Authorization: Bearer 或 access_token 参数）
 public class CustomLogoutHandler implements LogoutHandler {
 
+    private final TokenExtractor tokenExtractor = new BearerTokenExtractor();
+
     @Autowired
-    private TokenStore tokenStore;
+    private TokenRevocationService tokenRevocationService;
 
     @Override
     public void logout(HttpServletRequest httpServletRequest, HttpServletResponse httpServletResponse, Authentication authentication) {
-
+        Authentication token = tokenExtractor.extract(httpServletRequest);
+        if (token != null) {
+            // jwt 登记 jti，资源服务器据此拒绝该令牌
+            tokenRevocationService.revoke((String) token.getPrincipal());
+        }
     }
 
 }
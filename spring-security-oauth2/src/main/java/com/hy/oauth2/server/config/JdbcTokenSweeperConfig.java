@@ -0,0 +1,54 @@
+package com.hy.oauth2.server.config;
+
+import com.hy.oauth2.server.token.ExpiredTokenSweeper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+import java.time.Duration;
+
+/**
+ * 数据库令牌过期清理，security.oauth2.token.store.type 为 jdbc 且使用 IndexedJdbcTokenStore 时生效
+ *
+ * @author wyl
+ * @since 2026-10-16 20:52:19
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnExpression("'${security.oauth2.token.store.type:inMemory}' == 'jdbc' and ${security.oauth2.token.jdbc.indexed:false} and ${security.oauth2.token.jdbc.sweeper.enabled:true}")
+public class JdbcTokenSweeperConfig implements SchedulingConfigurer {
+
+    @Value("${security.oauth2.token.jdbc.sweeper.interval:1m}")
+    private Duration interval;
+
+    @Value("${security.oauth2.token.jdbc.sweeper.batch-size:500}")
+    private int batchSize;
+
+    @Value("${security.oauth2.token.jdbc.sweeper.max-batches:100}")
+    private int maxBatches;
+
+    @Value("${security.oauth2.token.jdbc.sweeper.pause:50ms}")
+    private Duration pause;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcTokenSweeperConfig(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Bean
+    public ExpiredTokenSweeper expiredTokenSweeper() {
+        return new ExpiredTokenSweeper(jdbcTemplate, batchSize, maxBatches, pause.toMillis());
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        taskRegistrar.addFixedDelayTask(expiredTokenSweeper(), interval.toMillis());
+    }
+
+}
@@ -0,0 +1,49 @@
+package com.hy.oauth2.server.config;
+
+import com.hy.oauth2.server.jwk.JdbcSigningKeyRepository;
+import com.hy.oauth2.server.jwk.JwtSigningProperties;
+import com.hy.oauth2.server.jwk.SigningKeyManager;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+/**
+ * 非对称 jwt 签名密钥配置，security.oauth2.token.jwt.signing.algorithm 为 RS256、ES256 时生效
+ *
+ * @author wyl
+ * @since 2026-10-16 18:20:37
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnExpression("'${security.oauth2.token.store.type:inMemory}' == 'jwt' and '${security.oauth2.token.jwt.signing.algorithm:HS256}' != 'HS256'")
+public class JwtSigningKeyConfig implements SchedulingConfigurer {
+
+    private final JwtSigningProperties properties;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JwtSigningKeyConfig(JwtSigningProperties properties, JdbcTemplate jdbcTemplate) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Bean
+    public SigningKeyManager signingKeyManager() {
+        SigningKeyManager signingKeyManager = new SigningKeyManager(new JdbcSigningKeyRepository(jdbcTemplate), properties);
+        // 启动时准备好签名密钥
+        signingKeyManager.rotate();
+        return signingKeyManager;
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        SigningKeyManager signingKeyManager = signingKeyManager();
+        long interval = properties.getReloadInterval().toMillis();
+        taskRegistrar.addFixedDelayTask(signingKeyManager::rotate, interval);
+    }
+
+}
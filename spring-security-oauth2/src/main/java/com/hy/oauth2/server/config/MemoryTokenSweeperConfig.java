@@ -0,0 +1,48 @@
+package com.hy.oauth2.server.config;
+
+import com.hy.oauth2.server.token.BoundedInMemoryTokenStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.security.oauth2.provider.token.TokenStore;
+
+import java.time.Duration;
+
+/**
+ * 内存令牌过期清理，security.oauth2.token.store.type 为 inMemory 且使用 BoundedInMemoryTokenStore 时生效
+ *
+ * @author wyl
+ * @since 2026-10-17 04:58:27
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnExpression("'${security.oauth2.token.store.type:inMemory}' == 'inMemory' and ${security.oauth2.token.memory.bounded:false} and ${security.oauth2.token.memory.sweeper.enabled:true}")
+public class MemoryTokenSweeperConfig implements SchedulingConfigurer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MemoryTokenSweeperConfig.class);
+
+    @Value("${security.oauth2.token.memory.sweeper.interval:1m}")
+    private Duration interval;
+
+    private final BoundedInMemoryTokenStore tokenStore;
+
+    public MemoryTokenSweeperConfig(TokenStore tokenStore) {
+        this.tokenStore = (BoundedInMemoryTokenStore) tokenStore;
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        taskRegistrar.addFixedDelayTask(() -> {
+            int removed = tokenStore.removeExpired();
+            if (removed > 0) {
+                LOG.debug("已删除过期令牌 {} 个", removed);
+            }
+        }, interval.toMillis());
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.hy.oauth2.server.config;
+
+import com.hy.oauth2.server.authority.PermissionClosureEndpoint;
+import com.hy.oauth2.server.service.PermissionClosureService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 权限闭包表配置
+ *
+ * @author wyl
+ * @since 2026-10-16 14:02:15
+ */
+@Configuration
+public class PermissionClosureConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(PermissionClosureConfig.class);
+
+    /**
+     * 启动时全量重建闭包表：配置了 rebuild-closure-on-startup，或有效权限表已建但未填充（首次迁移）。
+     * 表不存在时重建失败，登录继续直接查询 tb_role_permission
+     *
+     * @param permissionClosureService
+     * @param rebuildOnStartup
+     * @return
+     */
+    @Bean
+    public ApplicationRunner permissionClosureRebuilder(PermissionClosureService permissionClosureService,
+                                                        @Value("${security.oauth2.authority.rebuild-closure-on-startup:false}") boolean rebuildOnStartup) {
+        return args -> {
+            if (!rebuildOnStartup && permissionClosureService.isEffectiveTableReady()) {
+                return;
+            }
+            try {
+                permissionClosureService.rebuild();
+            } catch (RuntimeException e) {
+                log.warn("重建权限闭包表失败，请执行 oauth2-authority-upgrade.sql 后 POST /actuator/permissionclosure", e);
+            }
+        };
+    }
+
+    @Bean
+    public PermissionClosureEndpoint permissionClosureEndpoint(PermissionClosureService permissionClosureService) {
+        return new PermissionClosureEndpoint(permissionClosureService);
+    }
+
+}
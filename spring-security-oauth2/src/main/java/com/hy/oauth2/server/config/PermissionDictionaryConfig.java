@@ -0,0 +1,27 @@
+package com.hy.oauth2.server.config;
+
+import com.hy.oauth2.server.authority.JdbcPermissionDictionarySource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+
+/**
+ * 权限字典配置，供 jwt 令牌的权限位图编码及资源服务器解码使用
+ *
+ * @author wyl
+ * @since 2026-10-16 15:08:46
+ */
+@Configuration
+public class PermissionDictionaryConfig {
+
+    @Bean
+    public JdbcPermissionDictionarySource permissionDictionarySource(
+            JdbcTemplate jdbcTemplate,
+            @Value("${security.oauth2.token.jwt.dictionary-refresh-interval:5m}") Duration refreshInterval) {
+        return new JdbcPermissionDictionarySource(jdbcTemplate, refreshInterval);
+    }
+
+}
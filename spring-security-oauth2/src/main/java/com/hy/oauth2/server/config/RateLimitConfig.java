@@ -0,0 +1,103 @@
+package com.hy.oauth2.server.config;
+
+import com.hy.oauth2.server.limit.ClientRateLimits;
+import com.hy.oauth2.server.limit.RateLimitFilter;
+import com.hy.oauth2.server.limit.RateLimitProperties;
+import com.hy.oauth2.server.limit.RedisTokenBucketLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.oauth2.provider.ClientDetailsService;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+
+/**
+ * 按客户端、用户名的集群限流，security.oauth2.rate-limit.enabled=true 时开启
+ *
+ * @author wyl
+ * @since 2026-10-17 04:35:02
+ */
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+@ConditionalOnProperty(prefix = "security.oauth2.rate-limit", name = "enabled", havingValue = "true")
+public class RateLimitConfig {
+
+    private LettuceConnectionFactory limiterConnectionFactory;
+
+    /**
+     * 使用与 spring.redis 相同地址、命令超时时间较短的独立连接，Redis 变慢时尽快放行，不影响其他 Redis 操作的超时设置
+     */
+    @Bean
+    public RedisTokenBucketLimiter redisTokenBucketLimiter(RateLimitProperties properties, RedisConnectionFactory connectionFactory,
+                                                           MeterRegistry meterRegistry) {
+        StringRedisTemplate redisTemplate = new StringRedisTemplate(limiterConnectionFactory(connectionFactory, properties.getRedisTimeout()));
+        return new RedisTokenBucketLimiter(properties, redisTemplate, meterRegistry);
+    }
+
+    /**
+     * 不注册为 bean，否则 spring.redis 的自动配置不再创建默认连接
+     */
+    private RedisConnectionFactory limiterConnectionFactory(RedisConnectionFactory shared, Duration timeout) {
+        if (!(shared instanceof LettuceConnectionFactory)) {
+            return shared;
+        }
+        LettuceConnectionFactory lettuce = (LettuceConnectionFactory) shared;
+        LettuceClientConfiguration.LettuceClientConfigurationBuilder builder = LettuceClientConfiguration.builder()
+                .commandTimeout(timeout);
+        if (lettuce.isUseSsl()) {
+            builder.useSsl();
+        }
+        LettuceClientConfiguration clientConfiguration = builder.build();
+        LettuceConnectionFactory factory;
+        if (lettuce.isClusterAware()) {
+            factory = new LettuceConnectionFactory(lettuce.getClusterConfiguration(), clientConfiguration);
+        } else if (lettuce.isRedisSentinelAware()) {
+            factory = new LettuceConnectionFactory(lettuce.getSentinelConfiguration(), clientConfiguration);
+        } else {
+            factory = new LettuceConnectionFactory(lettuce.getStandaloneConfiguration(), clientConfiguration);
+        }
+        factory.afterPropertiesSet();
+        limiterConnectionFactory = factory;
+        return factory;
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (limiterConnectionFactory != null) {
+            limiterConnectionFactory.destroy();
+        }
+    }
+
+    /**
+     * 使用认证服务器的客户端查询（启用客户端缓存时不查询数据库）
+     */
+    @Bean
+    public ClientRateLimits clientRateLimits(@Qualifier("jdbcClientDetails") ClientDetailsService clientDetailsService,
+                                             RateLimitProperties properties) {
+        return new ClientRateLimits(clientDetailsService, properties);
+    }
+
+    /**
+     * 排在分阶段耗时统计之后、并发限制及 Spring Security 之前，被限流的请求不占用并发数，也不做客户端认证
+     */
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(RedisTokenBucketLimiter redisTokenBucketLimiter,
+                                                                   ClientRateLimits clientRateLimits) {
+        FilterRegistrationBean<RateLimitFilter> registration =
+                new FilterRegistrationBean<>(new RateLimitFilter(redisTokenBucketLimiter, clientRateLimits));
+        registration.addUrlPatterns("/oauth/token", "/oauth/check_token", "/oauth/check_tokens");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 2);
+        return registration;
+    }
+
+}
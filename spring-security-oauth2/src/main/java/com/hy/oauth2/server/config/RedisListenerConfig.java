@@ -0,0 +1,26 @@
+package com.hy.oauth2.server.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Redis 发布订阅监听容器，用于多个认证服务节点之间的缓存失效通知
+ * <p>
+ * 没有注册监听器时容器不会建立订阅连接
+ *
+ * @author wyl
+ * @since 2026-10-16 10:10:24
+ */
+@Configuration
+public class RedisListenerConfig {
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
+}
@@ -1,60 +1,301 @@
 package com.hy.oauth2.server.config;
 
-import org.springframework.security.core.Authentication;
-import org.springframework.security.oauth2.provider.token.DefaultAccessTokenConverter;
-import org.springframework.security.oauth2.provider.token.DefaultUserAuthenticationConverter;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.exceptions.InvalidTokenException;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
 import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
 
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
- * 自定义JwtToken生成方式
+ * 自定义JwtToken生成方式，HS256 签发、解析的快速路径
+ * <p>
+ * 父类每次签发经过 Map -> String -> byte[] -> base64 多次拷贝，并为每个令牌创建 Mac；这里：
+ * <ul>
+ * <li>每个线程复用 Mac 及字节缓冲区，claims 由 Jackson 直接写入缓冲区，base64url 编码与签名在同一个数组上完成</li>
+ * <li>头部 {"alg":"HS256","typ":"JWT"} 预先序列化，解析时按字节比较，不再解析头部 JSON</li>
+ * <li>先验签再解码 claims，签名错误的令牌不会触发 JSON 解析</li>
+ * <li>每个线程记住最近一次解析的令牌，DefaultTokenServices.loadAuthentication 中 readAccessToken、readAuthentication
+ * 对同一令牌的两次解析只验签一次</li>
+ * </ul>
+ * 生成的令牌与父类逐字节一致；头部不同（如其他系统签发）的令牌交给父类处理。
+ * 只用于 HS256，RS256、ES256 由 KeyIdJwtAccessTokenConverter 处理：私钥签名本身的开销远大于序列化、拷贝，
+ * 那里只做了按线程复用 Signature、验签通过后再解析 claims，没有复制这里的缓冲区复用
  *
  * @author wyl
  * @since 2021-08-20 16:42:53
  */
 public class ResJwtAccessTokenConverter extends JwtAccessTokenConverter {
 
-    public ResJwtAccessTokenConverter() {
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+
+    private static final byte[] BASE64_URL = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_"
+            .getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] HEADER = base64Url("{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+
+    private static final String HEADER_STRING = new String(HEADER, StandardCharsets.US_ASCII);
+
+    private static final int[] BASE64_URL_DECODE = new int[128];
+
+    /**
+     * 超过该大小的缓冲区用完后丢弃，避免个别超大令牌长期占用线程内存
+     */
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
+    static {
+        Arrays.fill(BASE64_URL_DECODE, -1);
+        for (int i = 0; i < BASE64_URL.length; i++) {
+            BASE64_URL_DECODE[BASE64_URL[i]] = i;
+        }
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final JavaType claimsType = objectMapper.getTypeFactory().constructMapType(LinkedHashMap.class, String.class, Object.class);
+
+    private final ThreadLocal<Context> context;
+
+    public ResJwtAccessTokenConverter(String signingKey) {
         super();
-        super.setAccessTokenConverter(new JwtUserAuthenticationConverter());
+        setSigningKey(signingKey);
+        SecretKeySpec key = new SecretKeySpec(signingKey.getBytes(StandardCharsets.UTF_8), MAC_ALGORITHM);
+        this.context = ThreadLocal.withInitial(() -> new Context(key));
+    }
+
+    @Override
+    protected String encode(OAuth2AccessToken accessToken, OAuth2Authentication authentication) {
+        Map<String, ?> claims = getAccessTokenConverter().convertAccessToken(accessToken, authentication);
+        Context ctx = context.get();
+        try {
+            ctx.json.reset();
+            objectMapper.writeValue(ctx.json, claims);
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot convert access token to JSON", e);
+        }
+        int macLength = ctx.mac.getMacLength();
+        byte[] out = ctx.buffer(HEADER.length + 2 + base64UrlLength(ctx.json.size()) + base64UrlLength(macLength));
+        System.arraycopy(HEADER, 0, out, 0, HEADER.length);
+        int pos = HEADER.length;
+        out[pos++] = '.';
+        pos = base64Url(ctx.json.array(), ctx.json.size(), out, pos);
+        ctx.mac.update(out, 0, pos);
+        try {
+            ctx.mac.doFinal(ctx.signature, 0);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("签名失败", e);
+        }
+        out[pos++] = '.';
+        pos = base64Url(ctx.signature, macLength, out, pos);
+        String token = new String(out, 0, pos, StandardCharsets.US_ASCII);
+        ctx.release();
+        return token;
+    }
+
+    @Override
+    protected Map<String, Object> decode(String token) {
+        Context ctx = context.get();
+        if (token.equals(ctx.lastToken)) {
+            Map<String, Object> claims = new LinkedHashMap<>(ctx.lastClaims);
+            getJwtClaimsSetVerifier().verify(claims);
+            return claims;
+        }
+        int first = token.indexOf('.');
+        if (first != HEADER.length || !token.startsWith(HEADER_STRING)) {
+            return super.decode(token);
+        }
+        int second = token.indexOf('.', first + 1);
+        if (second < 0 || token.indexOf('.', second + 1) >= 0) {
+            throw new InvalidTokenException("Invalid JWT format");
+        }
+        byte[] in = ctx.buffer(token.length());
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (c > 127) {
+                throw new InvalidTokenException("Invalid JWT format");
+            }
+            in[i] = (byte) c;
+        }
+        int macLength = ctx.mac.getMacLength();
+        if (base64UrlDecodedLength(token.length() - second - 1) != macLength) {
+            throw new InvalidTokenException("Invalid JWT signature");
+        }
+        ctx.mac.update(in, 0, second);
+        try {
+            ctx.mac.doFinal(ctx.signature, 0);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("验签失败", e);
+        }
+        decodeBase64Url(in, second + 1, token.length(), ctx.received, 0);
+        int diff = 0;
+        for (int i = 0; i < macLength; i++) {
+            diff |= ctx.signature[i] ^ ctx.received[i];
+        }
+        if (diff != 0) {
+            throw new InvalidTokenException("Invalid JWT signature");
+        }
+        // 在原缓冲区中原地解码 claims，解码结果不会超过编码长度
+        int claimsLength = decodeBase64Url(in, first + 1, second, in, 0);
+        Map<String, Object> claims;
+        try {
+            claims = objectMapper.readValue(in, 0, claimsLength, claimsType);
+        } catch (Exception e) {
+            throw new InvalidTokenException("Cannot convert access token to JSON", e);
+        } finally {
+            ctx.release();
+        }
+        if (claims.get(EXP) instanceof Integer) {
+            claims.put(EXP, ((Integer) claims.get(EXP)).longValue());
+        }
+        getJwtClaimsSetVerifier().verify(claims);
+        ctx.lastToken = token;
+        ctx.lastClaims = claims;
+        return new LinkedHashMap<>(claims);
+    }
+
+    private static int base64UrlLength(int length) {
+        return (length / 3) * 4 + (length % 3 == 0 ? 0 : length % 3 + 1);
     }
 
-    public class JwtUserAuthenticationConverter extends DefaultAccessTokenConverter {
+    private static int base64UrlDecodedLength(int length) {
+        return (length / 4) * 3 + (length % 4 == 0 ? 0 : length % 4 - 1);
+    }
 
+    private static byte[] base64Url(byte[] src) {
+        byte[] dst = new byte[base64UrlLength(src.length)];
+        base64Url(src, src.length, dst, 0);
+        return dst;
+    }
 
-        public JwtUserAuthenticationConverter() {
-            super.setUserTokenConverter(new JWTfaultUserAuthenticationConverter());
+    /**
+     * 无填充的 base64url 编码，写入 dst 的 offset 位置，返回写入后的位置
+     */
+    private static int base64Url(byte[] src, int length, byte[] dst, int offset) {
+        int i = 0;
+        for (; i + 3 <= length; i += 3) {
+            int bits = (src[i] & 0xff) << 16 | (src[i + 1] & 0xff) << 8 | (src[i + 2] & 0xff);
+            dst[offset++] = BASE64_URL[bits >>> 18];
+            dst[offset++] = BASE64_URL[(bits >>> 12) & 0x3f];
+            dst[offset++] = BASE64_URL[(bits >>> 6) & 0x3f];
+            dst[offset++] = BASE64_URL[bits & 0x3f];
+        }
+        int remaining = length - i;
+        if (remaining > 0) {
+            int bits = (src[i] & 0xff) << 16 | (remaining == 2 ? (src[i + 1] & 0xff) << 8 : 0);
+            dst[offset++] = BASE64_URL[bits >>> 18];
+            dst[offset++] = BASE64_URL[(bits >>> 12) & 0x3f];
+            if (remaining == 2) {
+                dst[offset++] = BASE64_URL[(bits >>> 6) & 0x3f];
+            }
         }
+        return offset;
+    }
+
+    /**
+     * 解码 src[from, to) 中无填充的 base64url，写入 dst 的 offset 位置，返回写入的字节数；
+     * dst 与 src 可以是同一个数组，只要 offset 不大于 from
+     */
+    private static int decodeBase64Url(byte[] src, int from, int to, byte[] dst, int offset) {
+        int start = offset;
+        int bits = 0;
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            int value = BASE64_URL_DECODE[src[i]];
+            if (value < 0) {
+                throw new InvalidTokenException("Invalid JWT encoding");
+            }
+            bits = bits << 6 | value;
+            if (++count == 4) {
+                dst[offset++] = (byte) (bits >>> 16);
+                dst[offset++] = (byte) (bits >>> 8);
+                dst[offset++] = (byte) bits;
+                bits = 0;
+                count = 0;
+            }
+        }
+        if (count == 1) {
+            throw new InvalidTokenException("Invalid JWT encoding");
+        } else if (count == 2) {
+            dst[offset++] = (byte) (bits >>> 4);
+        } else if (count == 3) {
+            dst[offset++] = (byte) (bits >>> 10);
+            dst[offset++] = (byte) (bits >>> 2);
+        }
+        return offset - start;
+    }
+
+    /**
+     * 线程内复用的 Mac 及缓冲区
+     */
+    private static final class Context {
+
+        private final Mac mac;
+
+        private final byte[] signature;
 
+        private final byte[] received;
 
-        public class JWTfaultUserAuthenticationConverter extends DefaultUserAuthenticationConverter {
+        private final ExposedByteArrayOutputStream json = new ExposedByteArrayOutputStream();
 
-            @Override
-            public Authentication extractAuthentication(Map<String, ?> map) {
+        private byte[] buffer = new byte[1024];
 
-                /*if (map.containsKey(USERNAME)) {
-                    Object principal = map.get(USERNAME);
-//					Collection<? extends GrantedAuthority> authorities = getAuthorities(map);
-                    LoginAppUser loginUser = new LoginAppUser();
-                    if (principal instanceof Map) {
+        private String lastToken;
 
-                        loginUser = BeanUtil.mapToBean((Map) principal, LoginAppUser.class, true);
+        private Map<String, Object> lastClaims;
 
-                        Set<SysRole> roles = new HashSet<>();
+        Context(SecretKeySpec key) {
+            try {
+                mac = Mac.getInstance(MAC_ALGORITHM);
+                mac.init(key);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Mac 初始化失败", e);
+            }
+            signature = new byte[mac.getMacLength()];
+            received = new byte[mac.getMacLength()];
+        }
 
-                        for (Iterator<SysRole> it = loginUser.getSysRoles().iterator(); it.hasNext(); ) {
-                            SysRole role = BeanUtil.mapToBean((Map) it.next(), SysRole.class, false);
-                            roles.add(role);
-                        }
-                        loginUser.setSysRoles(roles);
-                    }
-                    return new UsernamePasswordAuthenticationToken(loginUser, "N/A", loginUser.getAuthorities());
-                }*/
-                return null;
+        byte[] buffer(int size) {
+            if (buffer.length < size) {
+                buffer = new byte[Math.max(size, buffer.length * 2)];
             }
+            return buffer;
+        }
 
+        void release() {
+            if (buffer.length > MAX_RETAINED_BUFFER) {
+                buffer = new byte[1024];
+            }
+            if (json.array().length > MAX_RETAINED_BUFFER) {
+                json.shrink();
+            }
         }
 
     }
+
+    private static final class ExposedByteArrayOutputStream extends ByteArrayOutputStream {
+
+        ExposedByteArrayOutputStream() {
+            super(1024);
+        }
+
+        byte[] array() {
+            return buf;
+        }
+
+        void shrink() {
+            buf = new byte[1024];
+            count = 0;
+        }
+
+    }
+
 }
@@ -0,0 +1,44 @@
+package com.hy.oauth2.server.config;
+
+import com.hy.oauth2.server.limit.AdaptiveConcurrencyLimiter;
+import com.hy.oauth2.server.limit.TokenEndpointLimiterFilter;
+import com.hy.oauth2.server.limit.TokenEndpointLimiterProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * /oauth/token 自适应并发限制，security.oauth2.token.limiter.enabled=true 时开启
+ *
+ * @author wyl
+ * @since 2026-10-17 04:17:26
+ */
+@Configuration
+@EnableConfigurationProperties(TokenEndpointLimiterProperties.class)
+@ConditionalOnProperty(prefix = "security.oauth2.token.limiter", name = "enabled", havingValue = "true")
+public class TokenEndpointLimiterConfig {
+
+    @Bean
+    public AdaptiveConcurrencyLimiter tokenEndpointLimiter(TokenEndpointLimiterProperties properties, MeterRegistry meterRegistry) {
+        return new AdaptiveConcurrencyLimiter(properties, meterRegistry);
+    }
+
+    /**
+     * 排在分阶段耗时统计之后（被拒绝的请求计入 429）、Spring Security 之前，被拒绝的请求不做客户端认证
+     */
+    @Bean
+    public FilterRegistrationBean<TokenEndpointLimiterFilter> tokenEndpointLimiterFilter(AdaptiveConcurrencyLimiter tokenEndpointLimiter,
+                                                                                         TokenEndpointLimiterProperties properties,
+                                                                                         MeterRegistry meterRegistry) {
+        FilterRegistrationBean<TokenEndpointLimiterFilter> registration =
+                new FilterRegistrationBean<>(new TokenEndpointLimiterFilter(tokenEndpointLimiter, properties, meterRegistry));
+        registration.addUrlPatterns("/oauth/token");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.hy.oauth2.server.config;
+
+import com.hy.oauth2.server.metrics.TokenEndpointMetrics;
+import com.hy.oauth2.server.metrics.TokenEndpointMetricsEndpoint;
+import com.hy.oauth2.server.metrics.TokenEndpointMetricsFilter;
+import com.hy.oauth2.server.metrics.TokenEndpointMetricsProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.provider.ClientDetailsService;
+import org.springframework.security.oauth2.provider.ClientRegistrationException;
+
+/**
+ * /oauth/token 分阶段耗时统计配置，security.oauth2.metrics.token-endpoint.enabled=true 时开启
+ * <p>
+ * 关闭时不注册 {@link TokenEndpointMetrics}，客户端密钥校验、用户查询、令牌存储、jwt 签名均不包装，没有额外开销
+ *
+ * @author wyl
+ * @since 2026-10-17 03:15:30
+ */
+@Configuration
+@EnableConfigurationProperties(TokenEndpointMetricsProperties.class)
+@ConditionalOnProperty(prefix = "security.oauth2.metrics.token-endpoint", name = "enabled", havingValue = "true")
+public class TokenEndpointMetricsConfig {
+
+    @Value("${security.oauth2.token.store.type:inMemory}")
+    private String storeType;
+
+    /**
+     * 客户端是否存在使用认证服务器的客户端查询（启用客户端缓存时不查询数据库）；延迟获取，
+     * AuthorizationServerConfiguration 本身依赖 TokenEndpointMetrics
+     */
+    @Bean
+    public TokenEndpointMetrics tokenEndpointMetrics(MeterRegistry meterRegistry, TokenEndpointMetricsProperties properties,
+                                                     @Qualifier("jdbcClientDetails") ObjectProvider<ClientDetailsService> clientDetailsService) {
+        return new TokenEndpointMetrics(meterRegistry, storeType, properties, clientId -> {
+            try {
+                return clientDetailsService.getObject().loadClientByClientId(clientId) != null;
+            } catch (ClientRegistrationException e) {
+                return false;
+            }
+        });
+    }
+
+    /**
+     * 排在字符编码过滤器之后（读取参数前需设置编码）、限流及 Spring Security 之前，客户端认证也在请求上下文内
+     */
+    @Bean
+    public FilterRegistrationBean<TokenEndpointMetricsFilter> tokenEndpointMetricsFilter(TokenEndpointMetrics tokenEndpointMetrics) {
+        FilterRegistrationBean<TokenEndpointMetricsFilter> registration =
+                new FilterRegistrationBean<>(new TokenEndpointMetricsFilter(tokenEndpointMetrics));
+        registration.addUrlPatterns("/oauth/token");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 3);
+        return registration;
+    }
+
+    @Bean
+    public TokenEndpointMetricsEndpoint tokenEndpointMetricsEndpoint(TokenEndpointMetrics tokenEndpointMetrics) {
+        return new TokenEndpointMetricsEndpoint(tokenEndpointMetrics);
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.hy.oauth2.server.config;
+
+import com.hy.oauth2.server.cache.CachingPasswordEncoder;
+import com.hy.oauth2.server.cache.ClientSecretCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.provider.ClientDetailsService;
+import org.springframework.security.oauth2.provider.client.ClientDetailsUserDetailsService;
+
+/**
+ * POST /oauth/check_tokens 需要客户端认证（HTTP Basic，client_id:client_secret），
+ * 与认证服务器的 /oauth/token 一样只认客户端，不认用户；未认证时返回 401
+ *
+ * @author wyl
+ * @since 2026-10-17 04:55:42
+ */
+@Configuration
+@Order(90)
+public class TokenIntrospectionSecurityConfig extends WebSecurityConfigurerAdapter {
+
+    @Autowired
+    private BCryptPasswordEncoder passwordEncoder;
+
+    @Autowired
+    @Qualifier("jdbcClientDetails")
+    private ClientDetailsService clientDetailsService;
+
+    @Autowired(required = false)
+    private ClientSecretCache clientSecretCache;
+
+    @Override
+    protected void configure(AuthenticationManagerBuilder auth) throws Exception {
+        // 只使用客户端信息认证，不回退到用户认证
+        PasswordEncoder clientSecretEncoder = clientSecretCache != null
+                ? new CachingPasswordEncoder(passwordEncoder, clientSecretCache) : passwordEncoder;
+        auth.userDetailsService(new ClientDetailsUserDetailsService(clientDetailsService))
+                .passwordEncoder(clientSecretEncoder);
+    }
+
+    @Override
+    protected void configure(HttpSecurity http) throws Exception {
+        http
+                .antMatcher("/oauth/check_tokens")
+                .csrf().disable()
+                .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+                .and()
+                .authorizeRequests()
+                .anyRequest().authenticated()
+                .and()
+                .httpBasic();
+    }
+
+}
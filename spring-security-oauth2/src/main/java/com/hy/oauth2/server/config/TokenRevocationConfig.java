@@ -0,0 +1,33 @@
+package com.hy.oauth2.server.config;
+
+import com.hy.oauth2.common.revocation.TokenRevocationRegistry;
+import com.hy.oauth2.server.service.TokenRevocationService;
+import com.hy.oauth2.server.token.TokenRevocationEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * 令牌注销配置
+ * <p>
+ * security.oauth2.token.revocation.enabled=false 时不登记 jti，退出登录、管理员注销只删除令牌存储中的令牌，jwt 在过期前仍然有效
+ *
+ * @author wyl
+ * @since 2026-10-16 23:47:52
+ */
+@Configuration
+public class TokenRevocationConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "security.oauth2.token.revocation", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public TokenRevocationRegistry tokenRevocationRegistry(StringRedisTemplate redisTemplate) {
+        return new TokenRevocationRegistry(redisTemplate);
+    }
+
+    @Bean
+    public TokenRevocationEndpoint tokenRevocationEndpoint(TokenRevocationService tokenRevocationService) {
+        return new TokenRevocationEndpoint(tokenRevocationService);
+    }
+
+}
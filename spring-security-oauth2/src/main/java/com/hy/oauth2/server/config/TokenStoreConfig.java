@@ -1,17 +1,34 @@
 package com.hy.oauth2.server.config;
 
+import com.hy.oauth2.common.authority.CompactAuthorityAccessTokenConverter;
+import com.hy.oauth2.common.authority.PermissionDictionarySource;
+import com.hy.oauth2.common.jwk.KeyIdJwtAccessTokenConverter;
+import com.hy.oauth2.server.jwk.JwtSigningProperties;
+import com.hy.oauth2.server.jwk.SigningKeyManager;
+import com.hy.oauth2.server.token.BoundedInMemoryTokenStore;
+import com.hy.oauth2.server.token.DeflateSerializationStrategy;
+import com.hy.oauth2.server.token.IndexedJdbcTokenStore;
+import com.hy.oauth2.server.token.PipelinedRedisTokenStore;
+import com.hy.oauth2.server.token.TokenStoreEndpoint;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.oauth2.provider.token.TokenStore;
 import org.springframework.security.oauth2.provider.token.store.InMemoryTokenStore;
 import org.springframework.security.oauth2.provider.token.store.JdbcTokenStore;
 import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
 import org.springframework.security.oauth2.provider.token.store.JwtTokenStore;
+import org.springframework.security.oauth2.provider.token.store.redis.JdkSerializationStrategy;
 import org.springframework.security.oauth2.provider.token.store.redis.RedisTokenStore;
+import org.springframework.security.oauth2.provider.token.store.redis.RedisTokenStoreSerializationStrategy;
 import org.springframework.util.Assert;
 
 import javax.sql.DataSource;
@@ -23,6 +40,7 @@ import javax.sql.DataSource;
  * @since 2021-08-20 15:45:04
  */
 @Configuration
+@EnableConfigurationProperties(JwtSigningProperties.class)
 public class TokenStoreConfig {
 
     @Autowired
@@ -37,9 +55,33 @@ public class TokenStoreConfig {
     @Bean
     @ConditionalOnProperty(prefix = "security.oauth2.token.store", name = "type", havingValue = "inMemory", matchIfMissing = true)
     public TokenStore inMemoryTokenStore() {
+        if (memoryBounded) {
+            return new BoundedInMemoryTokenStore(memoryMaxTokens, memoryStripes, memoryBlockSize);
+        }
         return new InMemoryTokenStore();
     }
 
+    @Bean
+    @ConditionalOnExpression("'${security.oauth2.token.store.type:inMemory}' == 'inMemory' and ${security.oauth2.token.memory.bounded:false}")
+    public TokenStoreEndpoint tokenStoreEndpoint(TokenStore tokenStore) {
+        return new TokenStoreEndpoint((BoundedInMemoryTokenStore) tokenStore);
+    }
+
+    /**
+     * 使用有容量上限、数据存放在堆外的 BoundedInMemoryTokenStore
+     */
+    @Value("${security.oauth2.token.memory.bounded:false}")
+    private boolean memoryBounded;
+
+    @Value("${security.oauth2.token.memory.max-tokens:1000000}")
+    private int memoryMaxTokens;
+
+    @Value("${security.oauth2.token.memory.stripes:64}")
+    private int memoryStripes;
+
+    @Value("${security.oauth2.token.memory.block-size:128}")
+    private int memoryBlockSize;
+
     /**
      * 基于数据库存储token
      *
@@ -50,14 +92,48 @@ public class TokenStoreConfig {
     public TokenStore jdbcTokenStore() {
 //		oauth_access_token oauth_refresh_token 创建两张表
 //		return new JdbcTokenStore( dataSource ) ;
+        if (jdbcIndexed) {
+            return new IndexedJdbcTokenStore(new JdbcTemplate(dataSource));
+        }
         return new JdbcTokenStore(dataSource);
     }
 
+    /**
+     * 使用带索引、expires_at 的表结构及紧凑序列化，需执行 oauth2-token-upgrade.sql；默认关闭，
+     * 开启后写入的数据 JdbcTokenStore 无法读取
+     */
+    @Value("${security.oauth2.token.jdbc.indexed:false}")
+    private boolean jdbcIndexed;
+
+    /**
+     * 每个操作合并为一次 Redis 往返，Lua 脚本访问多个 key，集群模式不可用，默认关闭
+     */
+    @Value("${security.oauth2.token.redis.pipelined:false}")
+    private boolean redisPipelined;
+
+    /**
+     * jdk 或 deflate（超过阈值时压缩，可读取 jdk 写入的数据）
+     */
+    @Value("${security.oauth2.token.redis.serialization:jdk}")
+    private String redisSerialization;
+
+    @Value("${security.oauth2.token.redis.compress-threshold:512}")
+    private int redisCompressThreshold;
+
     @Bean
     @ConditionalOnProperty(prefix = "security.oauth2.token.store", name = "type", havingValue = "redis", matchIfMissing = false)
     public TokenStore redisTokenStore(RedisConnectionFactory connectionFactory) {
         Assert.state(connectionFactory != null, "connectionFactory must be provided");
-        return new RedisTokenStore(connectionFactory);
+        RedisTokenStoreSerializationStrategy serializationStrategy = "deflate".equalsIgnoreCase(redisSerialization)
+                ? new DeflateSerializationStrategy(redisCompressThreshold) : new JdkSerializationStrategy();
+        if (redisPipelined) {
+            PipelinedRedisTokenStore tokenStore = new PipelinedRedisTokenStore(connectionFactory);
+            tokenStore.setSerializationStrategy(serializationStrategy);
+            return tokenStore;
+        }
+        RedisTokenStore tokenStore = new RedisTokenStore(connectionFactory);
+        tokenStore.setSerializationStrategy(serializationStrategy);
+        return tokenStore;
     }
 
     /**
@@ -88,6 +164,25 @@ public class TokenStoreConfig {
     @Configuration
     @ConditionalOnProperty(prefix = "security.oauth2.token.store", name = "type", havingValue = "jwt", matchIfMissing = false)
     public static class JWTTokenConfig {
+
+        /**
+         * 是否以权限位图（auth_bits）代替 authorities 数组，资源服务器需同时开启
+         */
+        @Value("${security.oauth2.token.jwt.compact-authorities:false}")
+        private boolean compactAuthorities;
+
+        @Autowired
+        private PermissionDictionarySource permissionDictionarySource;
+
+        @Autowired
+        private JwtSigningProperties signingProperties;
+
+        /**
+         * RS256、ES256 时由 JwtSigningKeyConfig 提供
+         */
+        @Autowired
+        private ObjectProvider<SigningKeyManager> signingKeyManager;
+
         @Bean
         public JwtTokenStore jwtTokenStore() {
             return new JwtTokenStore(jwtAccessTokenConverter());
@@ -95,10 +190,18 @@ public class TokenStoreConfig {
 
         @Bean
         public JwtAccessTokenConverter jwtAccessTokenConverter() {
-            //new ResJwtAccessTokenConverter();  可以自定义转化器
-            JwtAccessTokenConverter accessTokenConverter = new JwtAccessTokenConverter();
-
-            accessTokenConverter.setSigningKey("hy-oauth2");//对称加密key
+            JwtAccessTokenConverter accessTokenConverter;
+            SigningKeyManager keyManager = signingKeyManager.getIfAvailable();
+            if (keyManager != null) {
+                // 非对称签名，头部带 kid，资源服务器通过 /oauth/jwks 获取公钥
+                accessTokenConverter = new KeyIdJwtAccessTokenConverter(keyManager);
+            } else {
+                // 对称加密key，生成的令牌与 JwtAccessTokenConverter 一致
+                accessTokenConverter = new ResJwtAccessTokenConverter(signingProperties.getSecret());
+            }
+            if (compactAuthorities) {
+                accessTokenConverter.setAccessTokenConverter(new CompactAuthorityAccessTokenConverter(permissionDictionarySource));
+            }
             return accessTokenConverter;
         }
     }
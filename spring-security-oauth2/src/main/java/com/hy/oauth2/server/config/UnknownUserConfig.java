@@ -0,0 +1,57 @@
+package com.hy.oauth2.server.config;
+
+import com.hy.oauth2.server.cache.UnknownUserEndpoint;
+import com.hy.oauth2.server.cache.UnknownUserFilter;
+import com.hy.oauth2.server.cache.UnknownUserProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.IntervalTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+/**
+ * 不存在用户拦截配置，security.oauth2.unknown-user.enabled=true 时开启
+ *
+ * @author wyl
+ * @since 2026-10-17 03:50:40
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(UnknownUserProperties.class)
+@ConditionalOnProperty(prefix = "security.oauth2.unknown-user", name = "enabled", havingValue = "true")
+public class UnknownUserConfig implements SchedulingConfigurer {
+
+    private final UnknownUserProperties properties;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final MeterRegistry meterRegistry;
+
+    public UnknownUserConfig(UnknownUserProperties properties, JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    public UnknownUserFilter unknownUserFilter() {
+        return new UnknownUserFilter(properties, jdbcTemplate, meterRegistry);
+    }
+
+    @Bean
+    public UnknownUserEndpoint unknownUserEndpoint() {
+        return new UnknownUserEndpoint(unknownUserFilter());
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        // 启动后立即在调度线程中构建，不阻塞启动
+        taskRegistrar.addFixedDelayTask(new IntervalTask(unknownUserFilter(), properties.getRebuildInterval().toMillis(), 0));
+    }
+
+}
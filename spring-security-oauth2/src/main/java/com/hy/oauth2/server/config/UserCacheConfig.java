@@ -0,0 +1,49 @@
+package com.hy.oauth2.server.config;
+
+import com.hy.oauth2.server.cache.UserCacheEndpoint;
+import com.hy.oauth2.server.cache.UserCacheProperties;
+import com.hy.oauth2.server.cache.UserDetailsCache;
+import com.hy.oauth2.server.cache.UserIdentifierIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 用户信息缓存配置，security.oauth2.user-cache.enabled=false 时关闭
+ *
+ * @author wyl
+ * @since 2026-10-16 10:16:48
+ */
+@Configuration
+@EnableConfigurationProperties(UserCacheProperties.class)
+@ConditionalOnProperty(prefix = "security.oauth2.user-cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class UserCacheConfig {
+
+    @Bean
+    public UserDetailsCache userDetailsCache(UserCacheProperties properties, MeterRegistry meterRegistry,
+                                             StringRedisTemplate redisTemplate, RedisMessageListenerContainer container) {
+        UserDetailsCache userDetailsCache = new UserDetailsCache(properties, meterRegistry, redisTemplate);
+        if (properties.getRedis().isEnabled()) {
+            // 订阅其他节点的缓存失效通知
+            container.addMessageListener((message, pattern) ->
+                            userDetailsCache.onEvictMessage(new String(message.getBody(), StandardCharsets.UTF_8)),
+                    new ChannelTopic(properties.getRedis().getChannel()));
+        }
+        return userDetailsCache;
+    }
+
+    @Bean
+    public UserCacheEndpoint userCacheEndpoint(UserDetailsCache userDetailsCache,
+                                               ObjectProvider<UserIdentifierIndex> userIdentifierIndex) {
+        return new UserCacheEndpoint(userDetailsCache, userIdentifierIndex.getIfAvailable());
+    }
+
+}
@@ -0,0 +1,37 @@
+package com.hy.oauth2.server.config;
+
+import com.hy.oauth2.server.coalescing.CoalescedLookup;
+import com.hy.oauth2.server.coalescing.CoalescingUserAuthorityLoader;
+import com.hy.oauth2.server.coalescing.UserLookupCoalescingProperties;
+import com.hy.oauth2.server.service.UserAuthorityLoader;
+import com.hy.oauth2.server.service.impl.UserAuthorityLoaderImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * 用户查询合并配置，包装登录使用的 UserAuthorityLoader 数据库实现，
+ * security.oauth2.user-lookup.coalescing.enabled=false 时关闭；开启多键索引时索引未命中的查询同样合并，见 {@link UserLookupIndexConfig}
+ * <p>
+ * 位于用户信息缓存之后，只合并缓存未命中的查询
+ *
+ * @author wyl
+ * @since 2026-10-17 03:37:50
+ */
+@Configuration
+@EnableConfigurationProperties(UserLookupCoalescingProperties.class)
+@ConditionalOnProperty(prefix = "security.oauth2.user-lookup.coalescing", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class UserLookupCoalescingConfig {
+
+    @Bean
+    @Primary
+    public UserAuthorityLoader coalescingUserAuthorityLoader(UserAuthorityLoaderImpl delegate, UserLookupCoalescingProperties properties,
+                                                             MeterRegistry meterRegistry) {
+        return new CoalescingUserAuthorityLoader(delegate,
+                new CoalescedLookup<>("user_authority", properties.getMaxWait(), meterRegistry));
+    }
+
+}
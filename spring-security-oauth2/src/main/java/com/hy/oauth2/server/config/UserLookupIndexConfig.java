@@ -0,0 +1,57 @@
+package com.hy.oauth2.server.config;
+
+import com.hy.oauth2.server.cache.UserIdentifierIndex;
+import com.hy.oauth2.server.cache.UserIndexEndpoint;
+import com.hy.oauth2.server.coalescing.CoalescedLookup;
+import com.hy.oauth2.server.coalescing.UserLookupCoalescingProperties;
+import com.hy.oauth2.server.service.UserLookupService;
+import com.hy.oauth2.server.service.impl.IndexedUserLookupService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+
+/**
+ * 按用户名、手机号或邮箱登录，security.oauth2.user-lookup.index.enabled=true 时开启
+ *
+ * @author wyl
+ * @since 2026-10-17 04:05:21
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "security.oauth2.user-lookup.index", name = "enabled", havingValue = "true")
+public class UserLookupIndexConfig {
+
+    @Value("${security.oauth2.user-lookup.index.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${security.oauth2.user-lookup.index.ttl:5m}")
+    private Duration ttl;
+
+    @Bean
+    public UserIdentifierIndex userIdentifierIndex(MeterRegistry meterRegistry) {
+        return new UserIdentifierIndex(maximumSize, ttl, meterRegistry);
+    }
+
+    /**
+     * 每次登录都先经此查询，security.oauth2.user-lookup.coalescing.enabled=true 时合并索引未命中的并发查询
+     */
+    @Bean
+    public UserLookupService userLookupService(JdbcTemplate jdbcTemplate, UserIdentifierIndex userIdentifierIndex,
+                                               MeterRegistry meterRegistry,
+                                               ObjectProvider<UserLookupCoalescingProperties> coalescingProperties) {
+        UserLookupCoalescingProperties properties = coalescingProperties.getIfAvailable();
+        return new IndexedUserLookupService(jdbcTemplate, userIdentifierIndex, meterRegistry, properties == null ? null
+                : new CoalescedLookup<>("user_identifier", properties.getMaxWait(), meterRegistry));
+    }
+
+    @Bean
+    public UserIndexEndpoint userIndexEndpoint(UserIdentifierIndex userIdentifierIndex) {
+        return new UserIndexEndpoint(userIdentifierIndex);
+    }
+
+}
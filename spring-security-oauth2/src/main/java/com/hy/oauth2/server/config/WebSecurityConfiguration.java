@@ -1,12 +1,24 @@
 package com.hy.oauth2.server.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hy.oauth2.server.cache.CachingUserDetailsService;
+import com.hy.oauth2.server.cache.UnknownUserFilter;
+import com.hy.oauth2.server.cache.UnknownUserRejectingUserDetailsService;
+import com.hy.oauth2.server.cache.UserDetailsCache;
+import com.hy.oauth2.server.cache.UserIdentifierIndex;
+import com.hy.oauth2.server.metrics.TimedPasswordEncoder;
+import com.hy.oauth2.server.metrics.TimedUserDetailsService;
+import com.hy.oauth2.server.metrics.TokenEndpointMetrics;
 import com.hy.oauth2.server.service.UserDetailsServiceImpl;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
+import org.springframework.security.config.annotation.authentication.configurers.userdetails.DaoAuthenticationConfigurer;
 import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.builders.WebSecurity;
@@ -27,6 +39,24 @@ public class WebSecurityConfiguration extends WebSecurityConfigurerAdapter {
     @Value("${security.oauth2.token.auth-mode}")
     private String authMode;
 
+    /**
+     * 访问 /actuator 管理端点所需的权限（tb_permission.enname）
+     */
+    @Value("${security.oauth2.management.authority:System}")
+    private String managementAuthority;
+
+    @Autowired(required = false)
+    private UserDetailsCache userDetailsCache;
+
+    @Autowired(required = false)
+    private UserIdentifierIndex userIdentifierIndex;
+
+    @Autowired(required = false)
+    private UnknownUserFilter unknownUserFilter;
+
+    @Autowired(required = false)
+    private TokenEndpointMetrics tokenEndpointMetrics;
+
     @Bean
     public BCryptPasswordEncoder passwordEncoder() {
         // 设置默认的加密方式
@@ -36,7 +66,11 @@ public class WebSecurityConfiguration extends WebSecurityConfigurerAdapter {
     @Override
     protected void configure(AuthenticationManagerBuilder auth) throws Exception {
         // 使用自定义认证与授权
-        auth.userDetailsService(userDetailsService());
+        DaoAuthenticationConfigurer<AuthenticationManagerBuilder, UserDetailsService> userDetails = auth.userDetailsService(userDetailsService());
+        if (tokenEndpointMetrics != null) {
+            // 统计用户密码校验耗时，未开启时使用容器中的 BCryptPasswordEncoder
+            userDetails.passwordEncoder(new TimedPasswordEncoder(passwordEncoder(), tokenEndpointMetrics, TokenEndpointMetrics.USER_PASSWORD));
+        }
         // 基于内存存储用户
         /*auth.inMemoryAuthentication()
                 // 在内存中创建用户并为密码加密
@@ -47,15 +81,46 @@ public class WebSecurityConfiguration extends WebSecurityConfigurerAdapter {
     }
 
     @Bean
+    @Primary
     @Override
     public UserDetailsService userDetailsService() {
+        UserDetailsService userDetailsService = userDetailsServiceImpl();
+        if (tokenEndpointMetrics != null) {
+            // 统计查询数据库的耗时，缓存命中不计
+            userDetailsService = new TimedUserDetailsService(userDetailsService, tokenEndpointMetrics);
+        }
+        if (unknownUserFilter != null) {
+            // 不存在的用户名不查询数据库
+            userDetailsService = new UnknownUserRejectingUserDetailsService(userDetailsService, unknownUserFilter);
+        }
+        if (userDetailsCache == null) {
+            return userDetailsService;
+        }
+        // 登录时优先从缓存读取用户信息，减少数据库查询；手机号、邮箱登录与用户名共用一份缓存
+        return new CachingUserDetailsService(userDetailsService, userDetailsCache, userIdentifierIndex);
+    }
+
+    @Bean
+    public UserDetailsServiceImpl userDetailsServiceImpl() {
         return new UserDetailsServiceImpl();
     }
 
+    /**
+     * 注册为 bean，使其中的 @Autowired 生效
+     */
+    @Bean
+    public CustomLogoutHandler customLogoutHandler() {
+        return new CustomLogoutHandler();
+    }
+
     @Override
     public void configure(WebSecurity web) throws Exception {
         // 将 check_token 暴露出去，否则资源服务器访问时报 403 错误
         web.ignoring().antMatchers("/oauth/check_token");
+        // 权限字典只包含权限标识，资源服务器解析 auth_bits 时获取
+        web.ignoring().antMatchers("/oauth/permission_dictionary");
+        // 公钥集合，资源服务器验签时获取
+        web.ignoring().antMatchers("/oauth/jwks");
     }
 
     /**
@@ -107,6 +172,8 @@ public class WebSecurityConfiguration extends WebSecurityConfigurerAdapter {
                     .authorizeRequests()
                     .requestMatchers(CorsUtils::isPreFlightRequest)
                     .permitAll()
+                    .requestMatchers(EndpointRequest.toAnyEndpoint())
+                    .hasAuthority(managementAuthority)
                     .anyRequest()
                     .authenticated()
                     .and()
@@ -142,6 +209,8 @@ public class WebSecurityConfiguration extends WebSecurityConfigurerAdapter {
                     .and()
                     .logout()
                     .permitAll()
+                    // 与非分离模式相同，退出时删除令牌并发布 jwt 注销通知
+                    .addLogoutHandler(customLogoutHandler())
                     .logoutSuccessHandler((req, resp, authentication) -> {
                         // 将子系统的cookie删掉  实现退出一个系统其他子系统跟着退出
                         Cookie[] cookies = req.getCookies();
@@ -160,11 +229,21 @@ public class WebSecurityConfiguration extends WebSecurityConfigurerAdapter {
                     out.close();*/
                     });
         } else {
-            super.configure(http);
+            // 与 super.configure(http) 相同，另外管理端点（清理缓存、注销令牌、重建权限等）只允许管理员访问
             http
+                    .authorizeRequests()
+                    .requestMatchers(EndpointRequest.toAnyEndpoint())
+                    .hasAuthority(managementAuthority)
+                    .anyRequest()
+                    .authenticated()
+                    .and()
+                    .formLogin()
+                    .and()
+                    .httpBasic()
+                    .and()
                     .logout()
                     .permitAll()
-                    .addLogoutHandler(new CustomLogoutHandler())
+                    .addLogoutHandler(customLogoutHandler())
                     .logoutSuccessHandler(new CustomLogoutSuccessHandler());
         }
 
@@ -0,0 +1,47 @@
+package com.hy.oauth2.server.controller;
+
+import com.hy.oauth2.server.jwk.JwtSigningProperties;
+import com.hy.oauth2.server.jwk.SigningKeyManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWKS 发布，资源服务器据此验证 RS256、ES256 签名的令牌
+ * <p>
+ * 响应带 ETag 及 Cache-Control，请求带 If-None-Match 且密钥未变化时返回 304
+ *
+ * @author wyl
+ * @since 2026-10-16 18:26:02
+ */
+@RestController
+public class JwksController {
+
+    @Autowired(required = false)
+    private SigningKeyManager signingKeyManager;
+
+    @Autowired
+    private JwtSigningProperties properties;
+
+    @GetMapping("/oauth/jwks")
+    public ResponseEntity<Map<String, Object>> jwks(WebRequest request) {
+        if (signingKeyManager == null) {
+            // 对称签名时没有可以公开的密钥
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        String etag = "\"" + signingKeyManager.jwksVersion() + "\"";
+        CacheControl cacheControl = CacheControl.maxAge(properties.getJwksMaxAge().getSeconds(), TimeUnit.SECONDS).cachePublic();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).body(signingKeyManager.jwks());
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.hy.oauth2.server.controller;
+
+import com.hy.oauth2.common.authority.PermissionDictionary;
+import com.hy.oauth2.common.authority.PermissionDictionarySource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 权限字典发布，资源服务器据此解析令牌中的 auth_bits
+ * <p>
+ * 响应带 ETag（即字典版本），请求带 If-None-Match 且字典未变化时返回 304
+ *
+ * @author wyl
+ * @since 2026-10-16 15:12:30
+ */
+@RestController
+public class PermissionDictionaryController {
+
+    @Autowired
+    private PermissionDictionarySource permissionDictionarySource;
+
+    @GetMapping("/oauth/permission_dictionary")
+    public Map<String, Object> dictionary(WebRequest request) {
+        PermissionDictionary dictionary = permissionDictionarySource.current();
+        if (request.checkNotModified("\"" + dictionary.getVersion() + "\"")) {
+            return null;
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("version", dictionary.getVersion());
+        body.put("permissions", dictionary.getPermissions());
+        return body;
+    }
+
+}
@@ -0,0 +1,48 @@
+package com.hy.oauth2.server.controller;
+
+import com.hy.oauth2.server.service.TokenIntrospectionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 批量校验令牌，网关、资源服务器预热缓存或批量复核会话时使用
+ * <p>
+ * POST /oauth/check_tokens ["token1", "token2", ...]，返回与请求顺序一致的数组，
+ * 每一项与 /oauth/check_token 的响应相同并带 active；无效令牌返回 {"active": false}，不返回 400。
+ * 需要客户端认证（HTTP Basic），见 TokenIntrospectionSecurityConfig
+ *
+ * @author wyl
+ * @since 2026-10-17 01:10:25
+ */
+@RestController
+public class TokenIntrospectionController {
+
+    @Autowired
+    private TokenIntrospectionService tokenIntrospectionService;
+
+    /**
+     * 每次请求最多校验的令牌数
+     */
+    @Value("${security.oauth2.token.introspection.batch-max-size:100}")
+    private int batchMaxSize;
+
+    @PostMapping("/oauth/check_tokens")
+    public ResponseEntity<?> checkTokens(@RequestBody List<String> tokens) {
+        if (tokens.size() > batchMaxSize) {
+            Map<String, Object> error = new LinkedHashMap<>();
+            error.put("error", "invalid_request");
+            error.put("error_description", "最多校验 " + batchMaxSize + " 个令牌");
+            return ResponseEntity.badRequest().body(error);
+        }
+        return ResponseEntity.ok(tokenIntrospectionService.introspect(tokens));
+    }
+
+}
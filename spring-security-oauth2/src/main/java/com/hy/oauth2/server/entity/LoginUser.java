@@ -0,0 +1,62 @@
+package com.hy.oauth2.server.entity;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 登录用户信息，包含用户及其权限英文名称
+ *
+ * @author wyl
+ * @since 2026-10-16 11:05:19
+ */
+public class LoginUser implements Serializable {
+    private static final long serialVersionUID = 4518867263520375413L;
+
+    private Long id;
+    /**
+     * 用户名
+     */
+    private String username;
+    /**
+     * 密码，加密存储
+     */
+    private String password;
+    /**
+     * 权限英文名称（已去重）
+     */
+    private List<String> authorities;
+
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public List<String> getAuthorities() {
+        return authorities;
+    }
+
+    public void setAuthorities(List<String> authorities) {
+        this.authorities = authorities;
+    }
+
+}
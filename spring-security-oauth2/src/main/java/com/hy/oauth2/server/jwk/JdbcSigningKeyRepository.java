@@ -0,0 +1,48 @@
+package com.hy.oauth2.server.jwk;
+
+import com.hy.oauth2.common.jwk.JwsAlgorithm;
+import com.hy.oauth2.common.jwk.JwtKey;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * 签名密钥存储（oauth_jwk），多个认证服务节点共用
+ *
+ * @author wyl
+ * @since 2026-10-16 18:02:33
+ */
+public class JdbcSigningKeyRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcSigningKeyRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @return 按启用时间升序
+     */
+    public List<SigningKey> findAll() {
+        return jdbcTemplate.query("SELECT kid, algorithm, public_key, private_key, activate_at FROM oauth_jwk ORDER BY activate_at",
+                (rs, rowNum) -> new SigningKey(JwtKey.decode(rs.getString(1), JwsAlgorithm.valueOf(rs.getString(2)),
+                        Base64.getDecoder().decode(rs.getString(3)), Base64.getDecoder().decode(rs.getString(4))),
+                        rs.getTimestamp(5).getTime()));
+    }
+
+    public void insert(SigningKey signingKey) {
+        JwtKey key = signingKey.getKey();
+        jdbcTemplate.update("INSERT INTO oauth_jwk (kid, algorithm, public_key, private_key, activate_at, created) VALUES (?, ?, ?, ?, ?, ?)",
+                key.getKid(), key.getAlgorithm().name(),
+                Base64.getEncoder().encodeToString(key.getPublicKey().getEncoded()),
+                Base64.getEncoder().encodeToString(key.getPrivateKey().getEncoded()),
+                new Timestamp(signingKey.getActivateAt()), new Timestamp(System.currentTimeMillis()));
+    }
+
+    public void delete(String kid) {
+        jdbcTemplate.update("DELETE FROM oauth_jwk WHERE kid = ?", kid);
+    }
+
+}
@@ -0,0 +1,121 @@
+package com.hy.oauth2.server.jwk;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * jwt 签名配置
+ *
+ * @author wyl
+ * @since 2026-10-16 17:55:21
+ */
+@ConfigurationProperties(prefix = "security.oauth2.token.jwt.signing")
+public class JwtSigningProperties {
+
+    /**
+     * 签名算法：HS256（对称密钥 secret）、RS256、ES256（密钥保存在 oauth_jwk 表中并定期轮换），
+     * 未配置时为 HS256，与资源服务器的默认值相同
+     */
+    private String algorithm = "HS256";
+
+    /**
+     * HS256 对称密钥，资源服务器需配置相同的值
+     */
+    private String secret = "hy-oauth2";
+
+    /**
+     * RS256 密钥长度
+     */
+    private int rsaKeySize = 2048;
+
+    /**
+     * 签名密钥轮换周期
+     */
+    private Duration rotationInterval = Duration.ofDays(7);
+
+    /**
+     * 新密钥提前发布到 JWKS 的时间，应大于 JWKS 的缓存时间
+     */
+    private Duration publishAhead = Duration.ofMinutes(10);
+
+    /**
+     * 密钥停止签名后继续发布的时间，应大于刷新令牌有效期，否则旧的刷新令牌无法使用
+     */
+    private Duration retention = Duration.ofDays(31);
+
+    /**
+     * 从数据库重新加载密钥及检查轮换的间隔，多个认证服务节点据此同步
+     */
+    private Duration reloadInterval = Duration.ofMinutes(1);
+
+    /**
+     * JWKS 响应的 Cache-Control max-age
+     */
+    private Duration jwksMaxAge = Duration.ofMinutes(5);
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public void setAlgorithm(String algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    public String getSecret() {
+        return secret;
+    }
+
+    public void setSecret(String secret) {
+        this.secret = secret;
+    }
+
+    public int getRsaKeySize() {
+        return rsaKeySize;
+    }
+
+    public void setRsaKeySize(int rsaKeySize) {
+        this.rsaKeySize = rsaKeySize;
+    }
+
+    public Duration getRotationInterval() {
+        return rotationInterval;
+    }
+
+    public void setRotationInterval(Duration rotationInterval) {
+        this.rotationInterval = rotationInterval;
+    }
+
+    public Duration getPublishAhead() {
+        return publishAhead;
+    }
+
+    public void setPublishAhead(Duration publishAhead) {
+        this.publishAhead = publishAhead;
+    }
+
+    public Duration getRetention() {
+        return retention;
+    }
+
+    public void setRetention(Duration retention) {
+        this.retention = retention;
+    }
+
+    public Duration getReloadInterval() {
+        return reloadInterval;
+    }
+
+    public void setReloadInterval(Duration reloadInterval) {
+        this.reloadInterval = reloadInterval;
+    }
+
+    public Duration getJwksMaxAge() {
+        return jwksMaxAge;
+    }
+
+    public void setJwksMaxAge(Duration jwksMaxAge) {
+        this.jwksMaxAge = jwksMaxAge;
+    }
+
+}
@@ -0,0 +1,33 @@
+package com.hy.oauth2.server.jwk;
+
+import com.hy.oauth2.common.jwk.JwtKey;
+
+/**
+ * oauth_jwk 表中的一条密钥
+ *
+ * @author wyl
+ * @since 2026-10-16 17:58:47
+ */
+public class SigningKey {
+
+    private final JwtKey key;
+
+    /**
+     * 开始用于签名的时间（毫秒），之前只发布公钥
+     */
+    private final long activateAt;
+
+    public SigningKey(JwtKey key, long activateAt) {
+        this.key = key;
+        this.activateAt = activateAt;
+    }
+
+    public JwtKey getKey() {
+        return key;
+    }
+
+    public long getActivateAt() {
+        return activateAt;
+    }
+
+}
@@ -0,0 +1,223 @@
+package com.hy.oauth2.server.jwk;
+
+import com.hy.oauth2.common.jwk.JwsAlgorithm;
+import com.hy.oauth2.common.jwk.JwtKey;
+import com.hy.oauth2.common.jwk.JwtKeyResolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 签名密钥管理及轮换
+ * <p>
+ * 密钥生命周期：生成后先发布到 JWKS（publishAhead），到 activate_at 后开始签名，下一个密钥启用后停止签名，
+ * 再保留 retention 供旧令牌验签，之后从 JWKS 及数据库中删除。
+ * 多个节点同时轮换时可能各生成一个密钥，两个密钥都会发布，只是其中一个很快被替换，不影响验签
+ *
+ * @author wyl
+ * @since 2026-10-16 18:08:14
+ */
+public class SigningKeyManager implements JwtKeyResolver {
+
+    private static final Logger log = LoggerFactory.getLogger(SigningKeyManager.class);
+
+    /**
+     * 未知 kid 触发重新加载的最小间隔
+     */
+    private static final long MIN_RELOAD_INTERVAL_MILLIS = 1000L;
+
+    private final JdbcSigningKeyRepository repository;
+
+    private final JwtSigningProperties properties;
+
+    private final JwsAlgorithm algorithm;
+
+    private final SecureRandom random = new SecureRandom();
+
+    private volatile List<SigningKey> keys = Collections.emptyList();
+
+    private volatile KeySet keySet = KeySet.EMPTY;
+
+    private volatile long loadedAt;
+
+    public SigningKeyManager(JdbcSigningKeyRepository repository, JwtSigningProperties properties) {
+        this.repository = repository;
+        this.properties = properties;
+        this.algorithm = JwsAlgorithm.valueOf(properties.getAlgorithm());
+    }
+
+    @Override
+    public JwtKey signingKey() {
+        KeySet current = currentKeySet();
+        if (current.signing == null) {
+            rotate();
+            current = currentKeySet();
+        }
+        if (current.signing == null) {
+            throw new IllegalStateException("没有可用的 jwt 签名密钥");
+        }
+        return current.signing;
+    }
+
+    @Override
+    public JwtKey verificationKey(String kid) {
+        JwtKey key = currentKeySet().published.get(kid);
+        if (key == null && System.currentTimeMillis() - loadedAt > MIN_RELOAD_INTERVAL_MILLIS) {
+            // 其他节点刚生成的密钥
+            reload();
+            key = currentKeySet().published.get(kid);
+        }
+        return key;
+    }
+
+    /**
+     * @return 当前发布的 JWKS
+     */
+    public Map<String, Object> jwks() {
+        return currentKeySet().jwks;
+    }
+
+    /**
+     * @return JWKS 内容的摘要，作为 ETag
+     */
+    public String jwksVersion() {
+        return currentKeySet().version;
+    }
+
+    /**
+     * 从数据库重新加载密钥，按需生成新密钥、删除过期密钥，定时调用
+     */
+    public synchronized void rotate() {
+        reload();
+        long now = System.currentTimeMillis();
+        List<SigningKey> current = keys;
+        SigningKey latest = current.isEmpty() ? null : current.get(current.size() - 1);
+        if (latest == null || latest.getKey().getAlgorithm() != algorithm) {
+            // 首次启动没有密钥时立即启用；切换算法时仍提前发布
+            create(latest == null ? now : now + properties.getPublishAhead().toMillis());
+        } else if (latest.getActivateAt() <= now
+                && latest.getActivateAt() + properties.getRotationInterval().toMillis() - properties.getPublishAhead().toMillis() <= now) {
+            create(now + properties.getPublishAhead().toMillis());
+        }
+        for (int i = 0; i + 1 < current.size(); i++) {
+            long retiredAt = current.get(i + 1).getActivateAt();
+            if (retiredAt <= now && retiredAt + properties.getRetention().toMillis() <= now) {
+                log.info("删除过期的 jwt 签名密钥 {}", current.get(i).getKey().getKid());
+                repository.delete(current.get(i).getKey().getKid());
+            }
+        }
+        reload();
+    }
+
+    public synchronized void reload() {
+        keys = repository.findAll();
+        loadedAt = System.currentTimeMillis();
+        keySet = KeySet.of(keys, loadedAt, properties.getRetention().toMillis());
+    }
+
+    /**
+     * 待启用的密钥到达 activate_at 后，无需访问数据库即可切换
+     */
+    private KeySet currentKeySet() {
+        KeySet current = keySet;
+        if (current.expiresAt <= System.currentTimeMillis()) {
+            synchronized (this) {
+                current = keySet;
+                if (current.expiresAt <= System.currentTimeMillis()) {
+                    current = KeySet.of(keys, System.currentTimeMillis(), properties.getRetention().toMillis());
+                    keySet = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private void create(long activateAt) {
+        byte[] id = new byte[12];
+        random.nextBytes(id);
+        String kid = Base64.getUrlEncoder().withoutPadding().encodeToString(id);
+        repository.insert(new SigningKey(JwtKey.generate(kid, algorithm, properties.getRsaKeySize()), activateAt));
+        log.info("生成 jwt 签名密钥 {}（{}），启用时间 {}", kid, algorithm, new Date(activateAt));
+    }
+
+    /**
+     * 某一时刻的签名密钥及发布的公钥
+     */
+    private static final class KeySet {
+
+        static final KeySet EMPTY = new KeySet(null, Collections.emptyMap(), Collections.singletonMap("keys", Collections.emptyList()), "", 0L);
+
+        final JwtKey signing;
+
+        final Map<String, JwtKey> published;
+
+        final Map<String, Object> jwks;
+
+        final String version;
+
+        /**
+         * 下一个密钥启用或旧密钥过期的时间，之后需要重新计算
+         */
+        final long expiresAt;
+
+        KeySet(JwtKey signing, Map<String, JwtKey> published, Map<String, Object> jwks, String version, long expiresAt) {
+            this.signing = signing;
+            this.published = published;
+            this.jwks = jwks;
+            this.version = version;
+            this.expiresAt = expiresAt;
+        }
+
+        static KeySet of(List<SigningKey> keys, long now, long retention) {
+            JwtKey signing = null;
+            long expiresAt = Long.MAX_VALUE;
+            Map<String, JwtKey> published = new LinkedHashMap<>();
+            List<Map<String, Object>> jwkList = new ArrayList<>();
+            for (int i = 0; i < keys.size(); i++) {
+                SigningKey key = keys.get(i);
+                if (key.getActivateAt() <= now) {
+                    signing = key.getKey();
+                } else {
+                    expiresAt = Math.min(expiresAt, key.getActivateAt());
+                }
+                if (i + 1 < keys.size() && keys.get(i + 1).getActivateAt() <= now) {
+                    long removeAt = keys.get(i + 1).getActivateAt() + retention;
+                    if (removeAt <= now) {
+                        continue;
+                    }
+                    expiresAt = Math.min(expiresAt, removeAt);
+                }
+                published.put(key.getKey().getKid(), key.getKey());
+                jwkList.add(key.getKey().toJwk());
+            }
+            Map<String, Object> jwks = Collections.singletonMap("keys", Collections.unmodifiableList(jwkList));
+            return new KeySet(signing, Collections.unmodifiableMap(published), jwks, version(published.keySet()), expiresAt);
+        }
+
+        private static String version(Iterable<String> kids) {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                for (String kid : kids) {
+                    digest.update(kid.getBytes(StandardCharsets.UTF_8));
+                    digest.update((byte) 0);
+                }
+                return Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest()).substring(0, 16);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,120 @@
+package com.hy.oauth2.server.limit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 梯度算法的自适应并发限制
+ * <p>
+ * 每个请求结束后以其耗时 rtt 调整并发上限：
+ * <pre>
+ * gradient = clamp(rttTolerance * longRtt / rtt, 0.5, 1.0)
+ * newLimit = limit * gradient + sqrt(limit)
+ * limit    = limit * (1 - smoothing) + newLimit * smoothing
+ * </pre>
+ * longRtt 为长期平均耗时。CPU 饱和时 BCrypt 耗时上升，gradient 小于 1，并发上限随之下降；
+ * 耗时恢复后以 sqrt(limit) 的步长回升。并发数不足上限一半时不调整，避免空闲时上限无限增长
+ *
+ * @author wyl
+ * @since 2026-10-17 04:13:40
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double smoothing;
+
+    private final double rttTolerance;
+
+    private final int longWindow;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double estimatedLimit;
+
+    private volatile int limit;
+
+    private double longRttNanos;
+
+    public AdaptiveConcurrencyLimiter(TokenEndpointLimiterProperties properties, MeterRegistry meterRegistry) {
+        this.minLimit = properties.getMinLimit();
+        this.maxLimit = properties.getMaxLimit();
+        this.smoothing = properties.getSmoothing();
+        this.rttTolerance = properties.getRttTolerance();
+        this.longWindow = properties.getLongWindow();
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, properties.getInitialLimit()));
+        this.limit = (int) estimatedLimit;
+        Gauge.builder("oauth2.token.limiter.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("当前并发上限")
+                .register(meterRegistry);
+        Gauge.builder("oauth2.token.limiter.in.flight", inFlight, AtomicInteger::get)
+                .description("正在处理的受限请求数")
+                .register(meterRegistry);
+        Gauge.builder("oauth2.token.limiter.long.rtt", this, limiter -> limiter.longRttNanos / 1e9)
+                .description("长期平均耗时（秒）")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return 获取成功时返回获取前的并发数，达到上限返回 -1
+     */
+    public int tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return -1;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return current;
+            }
+        }
+    }
+
+    /**
+     * @param inFlightAtStart {@link #tryAcquire()} 的返回值
+     * @param rttNanos        请求耗时，小于 0 表示请求异常结束，不作为样本
+     */
+    public void release(int inFlightAtStart, long rttNanos) {
+        inFlight.decrementAndGet();
+        if (rttNanos >= 0) {
+            onSample(inFlightAtStart + 1, rttNanos);
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void onSample(int inFlight, long rttNanos) {
+        double rtt = Math.max(1, rttNanos);
+        if (longRttNanos == 0) {
+            longRttNanos = rtt;
+        } else {
+            longRttNanos += (rtt - longRttNanos) / longWindow;
+        }
+        // 持续低于长期平均耗时（如负载下降后），加快长期平均值的回落
+        if (longRttNanos / rtt > 2) {
+            longRttNanos *= 0.95;
+        }
+        double current = estimatedLimit;
+        if (inFlight < current / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRttNanos / rtt));
+        double next = current * gradient + Math.sqrt(current);
+        next = current * (1 - smoothing) + next * smoothing;
+        next = Math.max(minLimit, Math.min(maxLimit, next));
+        estimatedLimit = next;
+        limit = (int) next;
+    }
+
+}
@@ -0,0 +1,131 @@
+package com.hy.oauth2.server.limit;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.oauth2.provider.ClientDetails;
+import org.springframework.security.oauth2.provider.ClientDetailsService;
+import org.springframework.security.oauth2.provider.NoSuchClientException;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 客户端的限流配置，取自 oauth_client_details.additional_information，如：
+ * <pre>
+ * {"rate_limit": {"rate": 20, "burst": 40, "user_rate": 0.5, "user_burst": 5}}
+ * </pre>
+ * rate、burst 为该客户端的限制，user_rate、user_burst 为该客户端下每个用户名的限制，未配置的项使用默认值，rate 为 0 表示不限制
+ *
+ * @author wyl
+ * @since 2026-10-17 04:31:07
+ */
+public class ClientRateLimits {
+
+    private static final Logger log = LoggerFactory.getLogger(ClientRateLimits.class);
+
+    public static final String ADDITIONAL_INFORMATION_KEY = "rate_limit";
+
+    private final ClientDetailsService clientDetailsService;
+
+    private final RateLimitProperties properties;
+
+    private final Limits unknown;
+
+    private final LoadingCache<String, Limits> cache;
+
+    public ClientRateLimits(ClientDetailsService clientDetailsService, RateLimitProperties properties) {
+        this.clientDetailsService = clientDetailsService;
+        this.properties = properties;
+        this.unknown = new Limits(false, properties.getUnknownClient(), properties.getUser());
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(10000)
+                .expireAfterWrite(properties.getClientRefreshInterval().toMillis(), TimeUnit.MILLISECONDS)
+                .build(this::load);
+    }
+
+    /**
+     * @param clientId
+     * @return 查询客户端失败时返回 null，调用方不限流
+     */
+    public Limits get(String clientId) {
+        try {
+            return cache.get(clientId);
+        } catch (RuntimeException e) {
+            log.warn("读取客户端 {} 的限流配置失败: {}", clientId, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 不存在或未携带 client_id 的请求共用的限制
+     *
+     * @return
+     */
+    public Limits unknown() {
+        return unknown;
+    }
+
+    private Limits load(String clientId) {
+        ClientDetails clientDetails;
+        try {
+            clientDetails = clientDetailsService.loadClientByClientId(clientId);
+        } catch (NoSuchClientException e) {
+            return unknown;
+        }
+        Object value = clientDetails.getAdditionalInformation().get(ADDITIONAL_INFORMATION_KEY);
+        if (!(value instanceof Map)) {
+            return new Limits(true, properties.getClient(), properties.getUser());
+        }
+        Map<?, ?> config = (Map<?, ?>) value;
+        try {
+            return new Limits(true,
+                    limit(config, "rate", "burst", properties.getClient()),
+                    limit(config, "user_rate", "user_burst", properties.getUser()));
+        } catch (NumberFormatException e) {
+            log.warn("客户端 {} 的 rate_limit 格式错误，使用默认值: {}", clientId, config);
+            return new Limits(true, properties.getClient(), properties.getUser());
+        }
+    }
+
+    private static RateLimit limit(Map<?, ?> config, String rateKey, String burstKey, RateLimit defaults) {
+        Object rate = config.get(rateKey);
+        Object burst = config.get(burstKey);
+        return new RateLimit(
+                rate == null ? defaults.getRate() : Double.parseDouble(rate.toString()),
+                burst == null ? defaults.getBurst() : (long) Double.parseDouble(burst.toString()));
+    }
+
+    public static final class Limits {
+
+        private final boolean known;
+
+        private final RateLimit client;
+
+        private final RateLimit user;
+
+        Limits(boolean known, RateLimit client, RateLimit user) {
+            this.known = known;
+            this.client = client;
+            this.user = user;
+        }
+
+        /**
+         * @return false 表示 client_id 不存在，使用共用的令牌桶
+         */
+        public boolean isKnown() {
+            return known;
+        }
+
+        public RateLimit getClient() {
+            return client;
+        }
+
+        public RateLimit getUser() {
+            return user;
+        }
+
+    }
+
+}
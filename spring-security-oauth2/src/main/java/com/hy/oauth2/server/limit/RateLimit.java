@@ -0,0 +1,55 @@
+package com.hy.oauth2.server.limit;
+
+/**
+ * 令牌桶参数：每秒补充 rate 个令牌，桶容量 burst；rate 小于等于 0 表示不限制
+ *
+ * @author wyl
+ * @since 2026-10-17 04:25:30
+ */
+public class RateLimit {
+
+    private double rate;
+
+    private long burst;
+
+    public RateLimit() {
+    }
+
+    public RateLimit(double rate, long burst) {
+        this.rate = rate;
+        this.burst = burst;
+    }
+
+    public boolean isUnlimited() {
+        return rate <= 0 || burst <= 0;
+    }
+
+    /**
+     * @return 补充一个令牌所需的毫秒数
+     */
+    public long refillMillis() {
+        return (long) Math.ceil(1000 / rate);
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    public void setRate(double rate) {
+        this.rate = rate;
+    }
+
+    public long getBurst() {
+        return burst;
+    }
+
+    public void setBurst(long burst) {
+        this.burst = burst;
+    }
+
+    @Override
+    public String toString() {
+        return "RateLimit{rate=" + rate + ", burst=" + burst + '}';
+    }
+
+}
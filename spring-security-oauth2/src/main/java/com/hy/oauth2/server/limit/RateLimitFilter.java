@@ -0,0 +1,68 @@
+package com.hy.oauth2.server.limit;
+
+import com.hy.oauth2.server.cache.LoginNames;
+import com.hy.oauth2.server.metrics.TokenEndpointMetricsFilter;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * /oauth/token、/oauth/check_token 按客户端限流，password 授权再按客户端、用户名、来源 IP 限流，超出时返回 429 及 Retry-After
+ * <p>
+ * client_id、用户名取自请求，此时尚未认证；不存在或未携带 client_id 的请求共用一个令牌桶，
+ * 随意构造的 client_id 不会产生大量 Redis key。公开客户端的 client_id 人人可知，用户令牌桶因此再按来源 IP 区分：
+ * 限制的是同一来源对同一用户的尝试次数，他人从别的地址反复提交某个用户名只会耗尽自己的令牌桶，
+ * 只有与其共用出口 IP 的用户会受影响。来源 IP 为 getRemoteAddr()，经过反向代理时需开启
+ * server.use-forward-headers 以取得真实地址
+ *
+ * @author wyl
+ * @since 2026-10-17 04:33:20
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    static final String UNKNOWN_CLIENT = "-";
+
+    private static final byte[] CLIENT_REJECTED = TooManyRequests.body("Client rate limit exceeded");
+
+    private static final byte[] USER_REJECTED = TooManyRequests.body("User rate limit exceeded");
+
+    private final RedisTokenBucketLimiter limiter;
+
+    private final ClientRateLimits clientRateLimits;
+
+    public RateLimitFilter(RedisTokenBucketLimiter limiter, ClientRateLimits clientRateLimits) {
+        this.limiter = limiter;
+        this.clientRateLimits = clientRateLimits;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String clientId = TokenEndpointMetricsFilter.clientId(request);
+        ClientRateLimits.Limits limits = clientId == null ? clientRateLimits.unknown() : clientRateLimits.get(clientId);
+        if (limits != null) {
+            long wait = limiter.tryAcquire("client", limits.isKnown() ? clientId : UNKNOWN_CLIENT, limits.getClient());
+            if (wait > 0) {
+                TooManyRequests.write(response, wait, CLIENT_REJECTED);
+                return;
+            }
+            String username = limits.isKnown() && "password".equals(request.getParameter("grant_type"))
+                    ? request.getParameter("username") : null;
+            if (username != null) {
+                // 与数据库一致，用户名不区分大小写、忽略尾部空格
+                wait = limiter.tryAcquire("user", clientId + ":" + LoginNames.normalize(username) + ":" + request.getRemoteAddr(),
+                        limits.getUser());
+                if (wait > 0) {
+                    TooManyRequests.write(response, wait, USER_REJECTED);
+                    return;
+                }
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+}
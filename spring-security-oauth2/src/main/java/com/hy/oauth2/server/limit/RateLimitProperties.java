@@ -0,0 +1,146 @@
+package com.hy.oauth2.server.limit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 按客户端、用户名限流配置，单个客户端的限制见 oauth_client_details.additional_information 中的 rate_limit
+ *
+ * @author wyl
+ * @since 2026-10-17 04:26:18
+ */
+@ConfigurationProperties(prefix = "security.oauth2.rate-limit")
+public class RateLimitProperties {
+
+    /**
+     * 是否开启
+     */
+    private boolean enabled = false;
+
+    /**
+     * Redis 中令牌桶 key 的前缀
+     */
+    private String keyPrefix = "oauth2:ratelimit:";
+
+    /**
+     * 客户端未配置 rate_limit 时的限制
+     */
+    private RateLimit client = new RateLimit(50, 100);
+
+    /**
+     * password 授权按用户名的限制，客户端未配置 user_rate、user_burst 时使用
+     */
+    private RateLimit user = new RateLimit(1, 10);
+
+    /**
+     * 不存在的 client_id 共用一个令牌桶
+     */
+    private RateLimit unknownClient = new RateLimit(10, 20);
+
+    /**
+     * 每次从 Redis 预取的最多令牌数，本地用完前不访问 Redis
+     */
+    private int maxLease = 20;
+
+    /**
+     * 预取令牌的有效期，过期未用完的令牌作废
+     */
+    private Duration leaseTtl = Duration.ofSeconds(1);
+
+    /**
+     * 客户端限制的本地缓存时间，修改 additional_information 后最迟在此时间后生效
+     */
+    private Duration clientRefreshInterval = Duration.ofMinutes(1);
+
+    /**
+     * 同一 key 已有线程访问 Redis 时，其他线程等待预取令牌的最长时间，超时放行
+     */
+    private Duration maxWait = Duration.ofMillis(50);
+
+    /**
+     * 限流使用独立的 Redis 连接，命令超时时间，超时放行
+     */
+    private Duration redisTimeout = Duration.ofMillis(200);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getKeyPrefix() {
+        return keyPrefix;
+    }
+
+    public void setKeyPrefix(String keyPrefix) {
+        this.keyPrefix = keyPrefix;
+    }
+
+    public RateLimit getClient() {
+        return client;
+    }
+
+    public void setClient(RateLimit client) {
+        this.client = client;
+    }
+
+    public RateLimit getUser() {
+        return user;
+    }
+
+    public void setUser(RateLimit user) {
+        this.user = user;
+    }
+
+    public RateLimit getUnknownClient() {
+        return unknownClient;
+    }
+
+    public void setUnknownClient(RateLimit unknownClient) {
+        this.unknownClient = unknownClient;
+    }
+
+    public int getMaxLease() {
+        return maxLease;
+    }
+
+    public void setMaxLease(int maxLease) {
+        this.maxLease = maxLease;
+    }
+
+    public Duration getLeaseTtl() {
+        return leaseTtl;
+    }
+
+    public void setLeaseTtl(Duration leaseTtl) {
+        this.leaseTtl = leaseTtl;
+    }
+
+    public Duration getClientRefreshInterval() {
+        return clientRefreshInterval;
+    }
+
+    public void setClientRefreshInterval(Duration clientRefreshInterval) {
+        this.clientRefreshInterval = clientRefreshInterval;
+    }
+
+    public Duration getMaxWait() {
+        return maxWait;
+    }
+
+    public void setMaxWait(Duration maxWait) {
+        this.maxWait = maxWait;
+    }
+
+    public Duration getRedisTimeout() {
+        return redisTimeout;
+    }
+
+    public void setRedisTimeout(Duration redisTimeout) {
+        this.redisTimeout = redisTimeout;
+    }
+
+}
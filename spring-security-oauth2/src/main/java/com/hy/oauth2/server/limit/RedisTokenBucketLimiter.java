@@ -0,0 +1,200 @@
+package com.hy.oauth2.server.limit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 基于 Redis 的集群令牌桶
+ * <p>
+ * 令牌桶的补充与扣减由 Lua 脚本原子完成（单 key，支持集群模式）。每次从 Redis 预取一批令牌（不超过 maxLease 及 burst 的 1/10），
+ * 本地用完或过期前不访问 Redis；Redis 拒绝后在补充一个令牌所需的时间内直接本地拒绝。
+ * 预取的令牌过期作废，各节点实际放行数不会超过集群限制。Redis 不可用时放行
+ * <p>
+ * 访问 Redis 时不持有本地令牌桶的锁，同一 key 同时只有一个线程访问 Redis，其他线程最多等待 maxWait 取用预取的令牌，
+ * 超时放行；Redis 变慢时请求线程不会排队等满命令超时时间
+ *
+ * @author wyl
+ * @since 2026-10-17 04:28:44
+ */
+public class RedisTokenBucketLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisTokenBucketLimiter.class);
+
+    /**
+     * 访问 Redis 失败的 warn 日志最短间隔，其余记为 debug
+     */
+    private static final long WARN_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
+    /**
+     * KEYS[1] 令牌桶，ARGV：rate（每秒）、burst、请求的令牌数；返回实际取得的令牌数。
+     * 当前时间取 Redis TIME，不受各节点时钟偏差影响；Redis 5 以前脚本中调用 TIME 后写入需先开启按命令复制
+     */
+    private static final String SCRIPT = "if redis.replicate_commands then redis.replicate_commands() end\n" +
+            "local rate = tonumber(ARGV[1])\n" +
+            "local burst = tonumber(ARGV[2])\n" +
+            "local requested = tonumber(ARGV[3])\n" +
+            "local time = redis.call('TIME')\n" +
+            "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)\n" +
+            "local bucket = redis.call('HMGET', KEYS[1], 'tokens', 'ts')\n" +
+            "local tokens = tonumber(bucket[1])\n" +
+            "local ts = tonumber(bucket[2])\n" +
+            "if tokens == nil or ts == nil then\n" +
+            "  tokens = burst\n" +
+            "  ts = now\n" +
+            "elseif now > ts then\n" +
+            "  tokens = math.min(burst, tokens + (now - ts) * rate / 1000)\n" +
+            "  ts = now\n" +
+            "end\n" +
+            "local granted = math.min(requested, math.floor(tokens))\n" +
+            "tokens = tokens - granted\n" +
+            "redis.call('HMSET', KEYS[1], 'tokens', tostring(tokens), 'ts', tostring(ts))\n" +
+            "redis.call('PEXPIRE', KEYS[1], math.ceil(burst * 1000 / rate) + 1000)\n" +
+            "return granted";
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final DefaultRedisScript<Long> script = new DefaultRedisScript<>(SCRIPT, Long.class);
+
+    private final String keyPrefix;
+
+    private final int maxLease;
+
+    private final long leaseTtlMillis;
+
+    private final long maxWaitMillis;
+
+    private final AtomicLong lastWarnAt = new AtomicLong();
+
+    private final Cache<String, LocalBucket> buckets;
+
+    private final Counter localHits;
+    private final Counter redisCalls;
+    private final Counter rejected;
+    private final Counter errors;
+
+    public RedisTokenBucketLimiter(RateLimitProperties properties, StringRedisTemplate redisTemplate, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.keyPrefix = properties.getKeyPrefix();
+        this.maxLease = Math.max(1, properties.getMaxLease());
+        this.leaseTtlMillis = properties.getLeaseTtl().toMillis();
+        this.maxWaitMillis = properties.getMaxWait().toMillis();
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(100000)
+                .expireAfterAccess(1, TimeUnit.MINUTES)
+                .build();
+        this.localHits = meterRegistry.counter("oauth2.ratelimit.requests", "result", "local");
+        this.redisCalls = meterRegistry.counter("oauth2.ratelimit.requests", "result", "redis");
+        this.rejected = meterRegistry.counter("oauth2.ratelimit.requests", "result", "rejected");
+        this.errors = meterRegistry.counter("oauth2.ratelimit.requests", "result", "error");
+    }
+
+    /**
+     * @param scope 如 client、user
+     * @param id    client_id 或用户名
+     * @param limit
+     * @return 0 表示放行，大于 0 为建议的重试等待毫秒数
+     */
+    public long tryAcquire(String scope, String id, RateLimit limit) {
+        if (limit.isUnlimited()) {
+            return 0;
+        }
+        String key = keyPrefix + scope + ":" + id;
+        LocalBucket bucket = buckets.get(key, k -> new LocalBucket());
+        // 同一 key 在本节点只有一个线程访问 Redis，其他线程等待其预取的令牌
+        synchronized (bucket) {
+            long deadline = System.currentTimeMillis() + maxWaitMillis;
+            while (true) {
+                long now = System.currentTimeMillis();
+                if (bucket.deniedUntil > now) {
+                    rejected.increment();
+                    return bucket.deniedUntil - now;
+                }
+                if (bucket.remaining > 0 && bucket.expiresAt > now) {
+                    bucket.remaining--;
+                    localHits.increment();
+                    return 0;
+                }
+                if (!bucket.refilling) {
+                    bucket.refilling = true;
+                    break;
+                }
+                if (now >= deadline) {
+                    // 访问 Redis 的线程迟迟没有返回，与 Redis 不可用时一样放行
+                    errors.increment();
+                    return 0;
+                }
+                try {
+                    bucket.wait(deadline - now);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return 0;
+                }
+            }
+        }
+        long lease = Math.max(1, Math.min(maxLease, limit.getBurst() / 10));
+        Long granted = null;
+        boolean failed = false;
+        try {
+            granted = redisTemplate.execute(script, Collections.singletonList(key),
+                    String.valueOf(limit.getRate()), String.valueOf(limit.getBurst()), String.valueOf(lease));
+        } catch (Exception e) {
+            failed = true;
+            errors.increment();
+            warn(e);
+        }
+        synchronized (bucket) {
+            bucket.refilling = false;
+            bucket.notifyAll();
+            if (failed) {
+                return 0;
+            }
+            redisCalls.increment();
+            long now = System.currentTimeMillis();
+            if (granted == null || granted <= 0) {
+                bucket.remaining = 0;
+                bucket.deniedUntil = now + limit.refillMillis();
+                rejected.increment();
+                return limit.refillMillis();
+            }
+            bucket.remaining = granted - 1;
+            bucket.expiresAt = now + leaseTtlMillis;
+            return 0;
+        }
+    }
+
+    private void warn(Exception e) {
+        long now = System.currentTimeMillis();
+        long last = lastWarnAt.get();
+        if (now - last >= WARN_INTERVAL_MILLIS && lastWarnAt.compareAndSet(last, now)) {
+            log.warn("限流访问 Redis 失败，放行: {}", e.getMessage());
+        } else {
+            log.debug("限流访问 Redis 失败，放行: {}", e.getMessage());
+        }
+    }
+
+    private static final class LocalBucket {
+
+        private long remaining;
+
+        private long expiresAt;
+
+        private long deniedUntil;
+
+        /**
+         * 是否有线程正在访问 Redis
+         */
+        private boolean refilling;
+
+    }
+
+}
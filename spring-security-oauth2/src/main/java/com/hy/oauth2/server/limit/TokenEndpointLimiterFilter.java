@@ -0,0 +1,73 @@
+package com.hy.oauth2.server.limit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * /oauth/token 并发限制，只限制指定的授权类型（默认 password），超出并发上限时直接返回 429 及 Retry-After，
+ * 不进入客户端认证及 BCrypt 校验
+ * <p>
+ * 指标 oauth2.token.limiter.requests，标签 result 为 accepted、rejected、bypassed（不受限制的授权类型）
+ *
+ * @author wyl
+ * @since 2026-10-17 04:15:52
+ */
+public class TokenEndpointLimiterFilter extends OncePerRequestFilter {
+
+    private static final byte[] REJECTED_BODY = TooManyRequests.body("Too many concurrent requests, retry later");
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    private final Set<String> grantTypes;
+
+    private final long retryAfterMillis;
+
+    private final Counter accepted;
+    private final Counter rejected;
+    private final Counter bypassed;
+
+    public TokenEndpointLimiterFilter(AdaptiveConcurrencyLimiter limiter, TokenEndpointLimiterProperties properties,
+                                      MeterRegistry meterRegistry) {
+        this.limiter = limiter;
+        this.grantTypes = properties.getGrantTypes();
+        this.retryAfterMillis = properties.getRetryAfter().toMillis();
+        this.accepted = meterRegistry.counter("oauth2.token.limiter.requests", "result", "accepted");
+        this.rejected = meterRegistry.counter("oauth2.token.limiter.requests", "result", "rejected");
+        this.bypassed = meterRegistry.counter("oauth2.token.limiter.requests", "result", "bypassed");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String grantType = request.getParameter("grant_type");
+        if (grantType == null || !grantTypes.contains(grantType)) {
+            bypassed.increment();
+            filterChain.doFilter(request, response);
+            return;
+        }
+        int inFlight = limiter.tryAcquire();
+        if (inFlight < 0) {
+            rejected.increment();
+            TooManyRequests.write(response, retryAfterMillis, REJECTED_BODY);
+            return;
+        }
+        accepted.increment();
+        long start = System.nanoTime();
+        long rtt = -1;
+        try {
+            filterChain.doFilter(request, response);
+            rtt = System.nanoTime() - start;
+        } finally {
+            limiter.release(inFlight, rtt);
+        }
+    }
+
+}
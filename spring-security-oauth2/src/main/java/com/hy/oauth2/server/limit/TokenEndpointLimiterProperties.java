@@ -0,0 +1,129 @@
+package com.hy.oauth2.server.limit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * /oauth/token 自适应并发限制配置
+ *
+ * @author wyl
+ * @since 2026-10-17 04:12:06
+ */
+@ConfigurationProperties(prefix = "security.oauth2.token.limiter")
+public class TokenEndpointLimiterProperties {
+
+    /**
+     * 是否开启
+     */
+    private boolean enabled = false;
+
+    /**
+     * 受限制的授权类型，其余类型（refresh_token、client_credentials 等）始终放行
+     */
+    private Set<String> grantTypes = Collections.singleton("password");
+
+    /**
+     * 初始并发数及上下限
+     */
+    private int initialLimit = 20;
+
+    private int minLimit = 2;
+
+    private int maxLimit = 200;
+
+    /**
+     * 每次调整时新估计值的权重
+     */
+    private double smoothing = 0.2;
+
+    /**
+     * 当前耗时不超过长期平均耗时的该倍数时不降低并发数
+     */
+    private double rttTolerance = 1.5;
+
+    /**
+     * 长期平均耗时的样本窗口
+     */
+    private int longWindow = 600;
+
+    /**
+     * 拒绝时 Retry-After 响应头的值
+     */
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Set<String> getGrantTypes() {
+        return grantTypes;
+    }
+
+    public void setGrantTypes(Set<String> grantTypes) {
+        this.grantTypes = grantTypes;
+    }
+
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    public void setInitialLimit(int initialLimit) {
+        this.initialLimit = initialLimit;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public void setMinLimit(int minLimit) {
+        this.minLimit = minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public void setMaxLimit(int maxLimit) {
+        this.maxLimit = maxLimit;
+    }
+
+    public double getSmoothing() {
+        return smoothing;
+    }
+
+    public void setSmoothing(double smoothing) {
+        this.smoothing = smoothing;
+    }
+
+    public double getRttTolerance() {
+        return rttTolerance;
+    }
+
+    public void setRttTolerance(double rttTolerance) {
+        this.rttTolerance = rttTolerance;
+    }
+
+    public int getLongWindow() {
+        return longWindow;
+    }
+
+    public void setLongWindow(int longWindow) {
+        this.longWindow = longWindow;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    public void setRetryAfter(Duration retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+
+}
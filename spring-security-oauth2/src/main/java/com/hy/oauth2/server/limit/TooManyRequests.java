@@ -0,0 +1,42 @@
+package com.hy.oauth2.server.limit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 429 响应，错误码沿用 OAuth2 的 temporarily_unavailable
+ *
+ * @author wyl
+ * @since 2026-10-17 04:24:15
+ */
+final class TooManyRequests {
+
+    private TooManyRequests() {
+    }
+
+    /**
+     * 预先生成响应体，拒绝时不再拼接
+     */
+    static byte[] body(String description) {
+        return ("{\"error\":\"temporarily_unavailable\",\"error_description\":\"" + description + "\"}")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param retryAfterMillis 向上取整为秒，至少 1 秒
+     */
+    static void write(HttpServletResponse response, long retryAfterMillis, byte[] body) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (retryAfterMillis + 999) / 1000)));
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+        response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+}
@@ -0,0 +1,48 @@
+package com.hy.oauth2.server.metrics;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * 记录密码校验耗时，客户端密钥为 client_authentication 阶段，用户密码为 user_password 阶段
+ *
+ * @author wyl
+ * @since 2026-10-17 03:09:02
+ */
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+
+    private final TokenEndpointMetrics metrics;
+
+    private final String stage;
+
+    public TimedPasswordEncoder(PasswordEncoder delegate, TokenEndpointMetrics metrics, String stage) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+        this.stage = stage;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        long start = System.nanoTime();
+        String outcome = TokenEndpointMetrics.ERROR;
+        try {
+            boolean matches = delegate.matches(rawPassword, encodedPassword);
+            outcome = matches ? TokenEndpointMetrics.SUCCESS : TokenEndpointMetrics.FAILURE;
+            return matches;
+        } finally {
+            metrics.recordStage(stage, "matches", outcome, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+}
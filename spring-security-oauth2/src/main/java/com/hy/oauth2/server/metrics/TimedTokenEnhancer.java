@@ -0,0 +1,37 @@
+package com.hy.oauth2.server.metrics;
+
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.TokenEnhancer;
+
+/**
+ * 记录 jwt_signing 阶段的耗时，包装 JwtAccessTokenConverter（签发访问令牌及刷新令牌）
+ *
+ * @author wyl
+ * @since 2026-10-17 03:10:18
+ */
+public class TimedTokenEnhancer implements TokenEnhancer {
+
+    private final TokenEnhancer delegate;
+
+    private final TokenEndpointMetrics metrics;
+
+    public TimedTokenEnhancer(TokenEnhancer delegate, TokenEndpointMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public OAuth2AccessToken enhance(OAuth2AccessToken accessToken, OAuth2Authentication authentication) {
+        long start = System.nanoTime();
+        String outcome = TokenEndpointMetrics.ERROR;
+        try {
+            OAuth2AccessToken enhanced = delegate.enhance(accessToken, authentication);
+            outcome = TokenEndpointMetrics.SUCCESS;
+            return enhanced;
+        } finally {
+            metrics.recordStage(TokenEndpointMetrics.JWT_SIGNING, "enhance", outcome, System.nanoTime() - start);
+        }
+    }
+
+}
@@ -0,0 +1,119 @@
+package com.hy.oauth2.server.metrics;
+
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.OAuth2RefreshToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.TokenStore;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/**
+ * 记录 token_store 阶段的耗时，operation 为方法名
+ * <p>
+ * 只用于认证服务器端点（/oauth/token、/oauth/check_token 等），其他组件仍直接使用原令牌存储，
+ * 不影响 BatchTokenStore、BoundedInMemoryTokenStore 等类型判断
+ *
+ * @author wyl
+ * @since 2026-10-17 03:11:25
+ */
+public class TimedTokenStore implements TokenStore {
+
+    private final TokenStore delegate;
+
+    private final TokenEndpointMetrics metrics;
+
+    public TimedTokenStore(TokenStore delegate, TokenEndpointMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public OAuth2Authentication readAuthentication(OAuth2AccessToken token) {
+        return time("read_authentication", () -> delegate.readAuthentication(token));
+    }
+
+    @Override
+    public OAuth2Authentication readAuthentication(String token) {
+        return time("read_authentication", () -> delegate.readAuthentication(token));
+    }
+
+    @Override
+    public void storeAccessToken(OAuth2AccessToken token, OAuth2Authentication authentication) {
+        run("store_access_token", () -> delegate.storeAccessToken(token, authentication));
+    }
+
+    @Override
+    public OAuth2AccessToken readAccessToken(String tokenValue) {
+        return time("read_access_token", () -> delegate.readAccessToken(tokenValue));
+    }
+
+    @Override
+    public void removeAccessToken(OAuth2AccessToken token) {
+        run("remove_access_token", () -> delegate.removeAccessToken(token));
+    }
+
+    @Override
+    public void storeRefreshToken(OAuth2RefreshToken refreshToken, OAuth2Authentication authentication) {
+        run("store_refresh_token", () -> delegate.storeRefreshToken(refreshToken, authentication));
+    }
+
+    @Override
+    public OAuth2RefreshToken readRefreshToken(String tokenValue) {
+        return time("read_refresh_token", () -> delegate.readRefreshToken(tokenValue));
+    }
+
+    @Override
+    public OAuth2Authentication readAuthenticationForRefreshToken(OAuth2RefreshToken token) {
+        return time("read_authentication_for_refresh_token", () -> delegate.readAuthenticationForRefreshToken(token));
+    }
+
+    @Override
+    public void removeRefreshToken(OAuth2RefreshToken token) {
+        run("remove_refresh_token", () -> delegate.removeRefreshToken(token));
+    }
+
+    @Override
+    public void removeAccessTokenUsingRefreshToken(OAuth2RefreshToken refreshToken) {
+        run("remove_access_token_using_refresh_token", () -> delegate.removeAccessTokenUsingRefreshToken(refreshToken));
+    }
+
+    @Override
+    public OAuth2AccessToken getAccessToken(OAuth2Authentication authentication) {
+        return time("get_access_token", () -> delegate.getAccessToken(authentication));
+    }
+
+    @Override
+    public Collection<OAuth2AccessToken> findTokensByClientIdAndUserName(String clientId, String userName) {
+        return time("find_tokens_by_client_id_and_user_name", () -> delegate.findTokensByClientIdAndUserName(clientId, userName));
+    }
+
+    @Override
+    public Collection<OAuth2AccessToken> findTokensByClientId(String clientId) {
+        return time("find_tokens_by_client_id", () -> delegate.findTokensByClientId(clientId));
+    }
+
+    public TokenStore getDelegate() {
+        return delegate;
+    }
+
+    private <T> T time(String operation, Supplier<T> call) {
+        long start = System.nanoTime();
+        String outcome = TokenEndpointMetrics.ERROR;
+        try {
+            T result = call.get();
+            outcome = TokenEndpointMetrics.SUCCESS;
+            return result;
+        } finally {
+            metrics.recordStage(TokenEndpointMetrics.TOKEN_STORE, operation, outcome, System.nanoTime() - start);
+        }
+    }
+
+    private void run(String operation, Runnable call) {
+        time(operation, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+}
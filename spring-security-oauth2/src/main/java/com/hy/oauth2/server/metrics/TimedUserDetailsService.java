@@ -0,0 +1,40 @@
+package com.hy.oauth2.server.metrics;
+
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+/**
+ * 记录 user_lookup 阶段的耗时，包装 UserDetailsServiceImpl（用户缓存之内），只统计实际查询数据库的调用
+ *
+ * @author wyl
+ * @since 2026-10-17 03:09:40
+ */
+public class TimedUserDetailsService implements UserDetailsService {
+
+    private final UserDetailsService delegate;
+
+    private final TokenEndpointMetrics metrics;
+
+    public TimedUserDetailsService(UserDetailsService delegate, TokenEndpointMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        long start = System.nanoTime();
+        String outcome = TokenEndpointMetrics.ERROR;
+        try {
+            UserDetails user = delegate.loadUserByUsername(username);
+            outcome = TokenEndpointMetrics.SUCCESS;
+            return user;
+        } catch (UsernameNotFoundException e) {
+            outcome = TokenEndpointMetrics.FAILURE;
+            throw e;
+        } finally {
+            metrics.recordStage(TokenEndpointMetrics.USER_LOOKUP, "load_user_by_username", outcome, System.nanoTime() - start);
+        }
+    }
+
+}
@@ -0,0 +1,194 @@
+package com.hy.oauth2.server.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * /oauth/token 分阶段耗时统计
+ * <p>
+ * 每个请求的 grant_type、client_id 由 {@link TokenEndpointMetricsFilter} 放入当前线程，各阶段的包装类记录耗时时作为标签：
+ * <ul>
+ * <li>oauth2.token.stage：stage 为 client_authentication（客户端密钥校验）、user_lookup（UserDetailsServiceImpl 查询数据库）、
+ * user_password（用户密码校验）、token_store（令牌存储，operation 为方法名）、jwt_signing（jwt 签名）</li>
+ * <li>oauth2.token.requests：整个请求的耗时，status 为响应状态码</li>
+ * </ul>
+ * 公共标签还有 store（令牌存储类型）、outcome（success、failure、error）。不在 /oauth/token 请求中的调用（如登录页、check_token）
+ * grant_type、client_id 记为 none；grant_type 只保留标准授权类型，其他取值（请求参数可随意构造）记为 other。
+ * client_id 此时尚未认证，只有客户端存在时才占用一个标签取值（最多 maxClientIds 个），伪造的 client_id 记为 other，
+ * 不会挤占真实客户端的标签。
+ * Timer 按标签组合缓存，不在每次记录时重新注册
+ *
+ * @author wyl
+ * @since 2026-10-17 03:04:26
+ */
+public class TokenEndpointMetrics {
+
+    public static final String STAGE_METER = "oauth2.token.stage";
+
+    public static final String REQUEST_METER = "oauth2.token.requests";
+
+    public static final String CLIENT_AUTHENTICATION = "client_authentication";
+
+    public static final String USER_LOOKUP = "user_lookup";
+
+    public static final String USER_PASSWORD = "user_password";
+
+    public static final String TOKEN_STORE = "token_store";
+
+    public static final String JWT_SIGNING = "jwt_signing";
+
+    public static final String SUCCESS = "success";
+
+    /**
+     * 执行完成但结果为否，如密码不匹配
+     */
+    public static final String FAILURE = "failure";
+
+    public static final String ERROR = "error";
+
+    private static final String NONE = "none";
+
+    private static final String OTHER = "other";
+
+    private static final Set<String> GRANT_TYPES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "authorization_code", "password", "client_credentials", "implicit", "refresh_token")));
+
+    private static final ThreadLocal<String[]> CURRENT = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+
+    private final String store;
+
+    private final double[] percentiles;
+
+    private final int maxClientIds;
+
+    private final Set<String> clientIds = ConcurrentHashMap.newKeySet();
+
+    private final Predicate<String> clientExists;
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    /**
+     * @param clientExists 判断客户端是否存在，新的 client_id 占用标签前调用
+     */
+    public TokenEndpointMetrics(MeterRegistry meterRegistry, String store, TokenEndpointMetricsProperties properties,
+                                Predicate<String> clientExists) {
+        this.meterRegistry = meterRegistry;
+        this.clientExists = clientExists;
+        this.store = store;
+        this.percentiles = properties.getPercentiles();
+        this.maxClientIds = properties.getMaxClientIds();
+    }
+
+    /**
+     * 开始一个 /oauth/token 请求
+     */
+    public void begin(String grantType, String clientId) {
+        CURRENT.set(new String[]{grantTypeTag(grantType), clientIdTag(clientId)});
+    }
+
+    public void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * 记录一个阶段的耗时
+     *
+     * @param stage     阶段
+     * @param operation 阶段内的操作，没有时与 stage 相同
+     * @param outcome   success、failure、error
+     * @param nanos     耗时
+     */
+    public void recordStage(String stage, String operation, String outcome, long nanos) {
+        String[] current = CURRENT.get();
+        String grantType = current == null ? NONE : current[0];
+        String clientId = current == null ? NONE : current[1];
+        String key = STAGE_METER + '|' + stage + '|' + operation + '|' + grantType + '|' + clientId + '|' + outcome;
+        timer(key, () -> Timer.builder(STAGE_METER)
+                .tag("stage", stage)
+                .tag("operation", operation)
+                .tag("grant_type", grantType)
+                .tag("client_id", clientId)
+                .tag("store", store)
+                .tag("outcome", outcome)
+                .publishPercentiles(percentiles)
+                .register(meterRegistry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录整个请求的耗时，在 {@link #end()} 之前调用
+     */
+    public void recordRequest(int status, long nanos) {
+        String[] current = CURRENT.get();
+        String grantType = current == null ? NONE : current[0];
+        String clientId = current == null ? NONE : current[1];
+        String key = REQUEST_METER + '|' + grantType + '|' + clientId + '|' + status;
+        timer(key, () -> Timer.builder(REQUEST_METER)
+                .tag("grant_type", grantType)
+                .tag("client_id", clientId)
+                .tag("store", store)
+                .tag("status", String.valueOf(status))
+                .publishPercentiles(percentiles)
+                .register(meterRegistry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public MeterRegistry getMeterRegistry() {
+        return meterRegistry;
+    }
+
+    public String getStore() {
+        return store;
+    }
+
+    /**
+     * JDK 8 的 computeIfAbsent 在 key 已存在时也会加锁，先 get
+     */
+    private Timer timer(String key, Supplier<Timer> factory) {
+        Timer timer = timers.get(key);
+        return timer != null ? timer : timers.computeIfAbsent(key, k -> factory.get());
+    }
+
+    private static String grantTypeTag(String grantType) {
+        if (grantType == null || grantType.isEmpty()) {
+            return NONE;
+        }
+        return GRANT_TYPES.contains(grantType) ? grantType : OTHER;
+    }
+
+    private String clientIdTag(String clientId) {
+        if (clientId == null || clientId.isEmpty()) {
+            return NONE;
+        }
+        if (clientIds.contains(clientId)) {
+            return clientId;
+        }
+        if (clientIds.size() >= maxClientIds || !clientExists.test(clientId)) {
+            return OTHER;
+        }
+        // 检查数量与写入需要原子，否则并发时会超出上限
+        synchronized (clientIds) {
+            if (clientIds.contains(clientId)) {
+                return clientId;
+            }
+            if (clientIds.size() >= maxClientIds) {
+                return OTHER;
+            }
+            clientIds.add(clientId);
+        }
+        return clientId;
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.hy.oauth2.server.metrics;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /oauth/token 分阶段耗时端点
+ * <p>
+ * GET /actuator/tokenmetrics 按标签列出每个阶段及整个请求的次数、总耗时、平均耗时、最大耗时（毫秒），
+ * 配置了 percentiles 时同时列出百分位。同样的数据也可以通过 /actuator/metrics/oauth2.token.stage 按标签查询
+ *
+ * @author wyl
+ * @since 2026-10-17 03:13:52
+ */
+@Endpoint(id = "tokenmetrics")
+public class TokenEndpointMetricsEndpoint {
+
+    private final TokenEndpointMetrics metrics;
+
+    public TokenEndpointMetricsEndpoint(TokenEndpointMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @ReadOperation
+    public Map<String, Object> info() {
+        Map<String, Object> info = new LinkedHashMap<>();
+        info.put("store", metrics.getStore());
+        info.put("stages", describe(TokenEndpointMetrics.STAGE_METER));
+        info.put("requests", describe(TokenEndpointMetrics.REQUEST_METER));
+        return info;
+    }
+
+    private List<Map<String, Object>> describe(String name) {
+        List<Map<String, Object>> timers = new ArrayList<>();
+        for (Timer timer : metrics.getMeterRegistry().find(name).timers()) {
+            Map<String, Object> description = new LinkedHashMap<>();
+            for (Tag tag : timer.getId().getTags()) {
+                if (!"store".equals(tag.getKey())) {
+                    description.put(tag.getKey(), tag.getValue());
+                }
+            }
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+            description.put("count", snapshot.count());
+            description.put("totalMs", snapshot.total(TimeUnit.MILLISECONDS));
+            description.put("meanMs", snapshot.mean(TimeUnit.MILLISECONDS));
+            description.put("maxMs", snapshot.max(TimeUnit.MILLISECONDS));
+            for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+                String key = "p" + BigDecimal.valueOf(percentile.percentile() * 100).stripTrailingZeros().toPlainString() + "Ms";
+                description.put(key, percentile.value(TimeUnit.MILLISECONDS));
+            }
+            timers.add(description);
+        }
+        // 总耗时最多的排在前面
+        timers.sort(Comparator.comparing((Map<String, Object> timer) -> (Double) timer.get("totalMs")).reversed());
+        return timers;
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.hy.oauth2.server.metrics;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 在 Spring Security 之前执行，将 grant_type、client_id 放入当前线程并记录整个请求的耗时，
+ * 客户端认证阶段（BasicAuthenticationFilter、ClientCredentialsTokenEndpointFilter）也在统计范围内
+ *
+ * @author wyl
+ * @since 2026-10-17 03:07:45
+ */
+public class TokenEndpointMetricsFilter extends OncePerRequestFilter {
+
+    private static final String BASIC = "Basic ";
+
+    private final TokenEndpointMetrics metrics;
+
+    public TokenEndpointMetricsFilter(TokenEndpointMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        metrics.begin(request.getParameter("grant_type"), clientId(request));
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            metrics.recordRequest(response.getStatus(), System.nanoTime() - start);
+            metrics.end();
+        }
+    }
+
+    /**
+     * 与 BasicAuthenticationFilter 的解析方式相同，未认证前仅作为标签及限流 key 使用
+     */
+    public static String clientId(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.regionMatches(true, 0, BASIC, 0, BASIC.length())) {
+            try {
+                String credentials = new String(Base64.getDecoder().decode(header.substring(BASIC.length()).trim()), StandardCharsets.UTF_8);
+                int separator = credentials.indexOf(':');
+                return separator < 0 ? null : credentials.substring(0, separator);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+        return request.getParameter("client_id");
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.hy.oauth2.server.metrics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * /oauth/token 分阶段耗时统计配置
+ *
+ * @author wyl
+ * @since 2026-10-17 03:02:11
+ */
+@ConfigurationProperties(prefix = "security.oauth2.metrics.token-endpoint")
+public class TokenEndpointMetricsProperties {
+
+    /**
+     * 是否统计，关闭时不包装任何组件
+     */
+    private boolean enabled = false;
+
+    /**
+     * 客户端计算的百分位，如 0.5、0.99，为空时只统计次数、总耗时及最大值
+     */
+    private double[] percentiles = new double[0];
+
+    /**
+     * client_id 标签最多的取值数，超出后记为 other，避免伪造的 client_id 产生大量指标
+     */
+    private int maxClientIds = 100;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public double[] getPercentiles() {
+        return percentiles;
+    }
+
+    public void setPercentiles(double[] percentiles) {
+        this.percentiles = percentiles;
+    }
+
+    public int getMaxClientIds() {
+        return maxClientIds;
+    }
+
+    public void setMaxClientIds(int maxClientIds) {
+        this.maxClientIds = maxClientIds;
+    }
+
+}
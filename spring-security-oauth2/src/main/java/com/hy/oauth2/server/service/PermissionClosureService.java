@@ -0,0 +1,89 @@
+package com.hy.oauth2.server.service;
+
+/**
+ * 角色、权限层级闭包表及角色有效权限表（tb_role_effective_permission）的维护
+ * <p>
+ * 有效权限规则：角色继承所有祖先角色（tb_role.parent_id）的授权，授予某个权限等同于授予其所有子权限（tb_permission.parent_id）。
+ * 登录时只需按 tb_user_role.role_id 查询有效权限表，不再在每次登录时展开层级。
+ * <p>
+ * 各方法在业务代码写入 tb_role、tb_permission、tb_role_permission 之后，在同一事务中调用，按变更范围增量维护；
+ * 事务提交后清理用户信息缓存
+ */
+public interface PermissionClosureService {
+
+    /**
+     * 新增角色
+     *
+     * @param roleId
+     * @param parentId 父角色，0 或 null 表示顶级角色
+     */
+    void onRoleCreated(Long roleId, Long parentId);
+
+    /**
+     * 角色移动到新的父角色下（包含其子角色）
+     *
+     * @param roleId
+     * @param newParentId 0 或 null 表示移动为顶级角色
+     */
+    void onRoleMoved(Long roleId, Long newParentId);
+
+    /**
+     * 删除角色，只允许删除没有子角色的角色
+     *
+     * @param roleId
+     */
+    void onRoleDeleted(Long roleId);
+
+    /**
+     * 新增权限
+     *
+     * @param permissionId
+     * @param parentId     父权限，0 或 null 表示顶级权限
+     */
+    void onPermissionCreated(Long permissionId, Long parentId);
+
+    /**
+     * 权限移动到新的父权限下（包含其子权限）
+     *
+     * @param permissionId
+     * @param newParentId  0 或 null 表示移动为顶级权限
+     */
+    void onPermissionMoved(Long permissionId, Long newParentId);
+
+    /**
+     * 删除权限，只允许删除没有子权限的权限
+     *
+     * @param permissionId
+     */
+    void onPermissionDeleted(Long permissionId);
+
+    /**
+     * tb_role_permission 新增授权
+     *
+     * @param roleId
+     * @param permissionId
+     */
+    void onPermissionGranted(Long roleId, Long permissionId);
+
+    /**
+     * tb_role_permission 删除授权
+     *
+     * @param roleId
+     * @param permissionId
+     */
+    void onPermissionRevoked(Long roleId, Long permissionId);
+
+    /**
+     * 根据 tb_role、tb_permission、tb_role_permission 全量重建闭包表及有效权限表
+     */
+    void rebuild();
+
+    /**
+     * 有效权限表是否可用：表存在且已填充（或 tb_role_permission 为空）。
+     * 不可用时登录直接关联 tb_role_permission 查询，不包含继承的角色权限及子权限
+     *
+     * @return
+     */
+    boolean isEffectiveTableReady();
+
+}
@@ -0,0 +1,17 @@
+package com.hy.oauth2.server.service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 批量校验访问令牌，结果与 /oauth/check_token 相同
+ */
+public interface TokenIntrospectionService {
+
+    /**
+     * @param tokenValues 访问令牌，可以重复，可以包含 null
+     * @return 与参数顺序一致；有效令牌为 check_token 的响应内容加 active=true，无效、过期的令牌及 null 只有 active=false
+     */
+    List<Map<String, ?>> introspect(List<String> tokenValues);
+
+}
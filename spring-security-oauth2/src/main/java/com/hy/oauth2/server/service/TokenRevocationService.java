@@ -0,0 +1,41 @@
+package com.hy.oauth2.server.service;
+
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+
+import java.util.Date;
+
+/**
+ * 访问令牌注销，用于退出登录及管理员强制下线
+ * <p>
+ * 从令牌存储中删除令牌；jwt 无法删除，登记 jti 到 Redis（有效期为令牌剩余时间）并通知资源服务器
+ */
+public interface TokenRevocationService {
+
+    /**
+     * @param tokenValue 访问令牌
+     * @return 令牌无效或已过期时返回 false
+     */
+    boolean revoke(String tokenValue);
+
+    /**
+     * @param accessToken
+     * @return 令牌已过期时返回 false
+     */
+    boolean revoke(OAuth2AccessToken accessToken);
+
+    /**
+     * 只知道 jti 时使用
+     *
+     * @param jti
+     * @param expiration 令牌过期时间
+     * @return 令牌已过期或未启用注销登记时返回 false
+     */
+    boolean revokeJti(String jti, Date expiration);
+
+    /**
+     * @param jti
+     * @return 已登记注销时返回 true
+     */
+    boolean isRevoked(String jti);
+
+}
@@ -0,0 +1,18 @@
+package com.hy.oauth2.server.service;
+
+import com.hy.oauth2.server.entity.LoginUser;
+
+/**
+ * 登录时加载用户及其权限，一次数据库往返完成
+ */
+public interface UserAuthorityLoader {
+
+    /**
+     * 根据用户名查询用户及权限
+     *
+     * @param username
+     * @return 用户不存在返回 null
+     */
+    LoginUser loadByUsername(String username);
+
+}
@@ -1,6 +1,6 @@
 package com.hy.oauth2.server.service;
 
-import com.hy.oauth2.server.entity.TbPermission;
+import com.hy.oauth2.server.entity.LoginUser;
 import com.hy.oauth2.server.entity.TbUser;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.GrantedAuthority;
@@ -20,32 +20,40 @@ import java.util.List;
 public class UserDetailsServiceImpl implements UserDetailsService {
 
     @Autowired
-    private TbUserService tbUserService;
+    private UserAuthorityLoader userAuthorityLoader;
 
-    @Autowired
-    private TbPermissionService tbPermissionService;
+    /**
+     * security.oauth2.user-lookup.index.enabled=true 时支持按手机号、邮箱登录
+     */
+    @Autowired(required = false)
+    private UserLookupService userLookupService;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        // 查询用户信息
-        TbUser tbUser = tbUserService.getByUsername(username);
-        List<GrantedAuthority> grantedAuthorities = new ArrayList<>();
-        if (tbUser != null) {
-            // 获取用户授权
-            List<TbPermission> tbPermissions = tbPermissionService.selectByUserId(tbUser.getId());
-
-            // 声明用户授权
-            tbPermissions.forEach(tbPermission -> {
-                if (tbPermission != null && tbPermission.getEnname() != null) {
-                    GrantedAuthority grantedAuthority = new SimpleGrantedAuthority(tbPermission.getEnname());
-                    grantedAuthorities.add(grantedAuthority);
-                }
-            });
+        LoginUser loginUser = null;
+        if (userLookupService == null) {
+            // 一次查询获取用户信息及授权
+            loginUser = userAuthorityLoader.loadByUsername(username);
+        } else {
+            // 用户名、手机号、邮箱先经索引（未命中时一次查询）换成用户名，再加载一次权限
+            TbUser tbUser = userLookupService.findByIdentifier(username);
+            if (tbUser != null) {
+                loginUser = userAuthorityLoader.loadByUsername(tbUser.getUsername());
+            }
+        }
+        if (loginUser == null) {
+            throw new UsernameNotFoundException("用户不存在: " + username);
+        }
+
+        // 声明用户授权
+        List<GrantedAuthority> grantedAuthorities = new ArrayList<>(loginUser.getAuthorities().size());
+        for (String authority : loginUser.getAuthorities()) {
+            grantedAuthorities.add(new SimpleGrantedAuthority(authority));
         }
 
         // grantedAuthorities.add(new SimpleGrantedAuthority("ROLE_test2"));//用于测试角色控制权限
         // 由框架完成认证工作
-        return new User(tbUser.getUsername(), tbUser.getPassword(), grantedAuthorities);
+        return new User(loginUser.getUsername(), loginUser.getPassword(), grantedAuthorities);
     }
 
 }
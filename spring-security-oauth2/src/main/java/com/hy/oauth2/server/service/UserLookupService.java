@@ -0,0 +1,19 @@
+package com.hy.oauth2.server.service;
+
+import com.hy.oauth2.server.entity.TbUser;
+
+/**
+ * 按用户名、手机号或邮箱查询用户，调用方无需区分标识类型
+ *
+ * @author wyl
+ * @since 2026-10-17 04:01:30
+ */
+public interface UserLookupService {
+
+    /**
+     * @param identifier 用户名、手机号或邮箱
+     * @return 用户不存在返回 null
+     */
+    TbUser findByIdentifier(String identifier);
+
+}
@@ -0,0 +1,322 @@
+package com.hy.oauth2.server.service.impl;
+
+import com.hy.oauth2.server.authority.JdbcPermissionDictionarySource;
+import com.hy.oauth2.server.cache.UserDetailsCache;
+import com.hy.oauth2.server.service.PermissionClosureService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 闭包表增量维护，每个操作只涉及变更节点的子树
+ *
+ * @author wyl
+ * @since 2026-10-16 13:26:41
+ */
+@Service
+public class PermissionClosureServiceImpl implements PermissionClosureService {
+
+    private static final Logger log = LoggerFactory.getLogger(PermissionClosureServiceImpl.class);
+
+    private static final String ROLE_CLOSURE = "tb_role_closure";
+
+    private static final String PERMISSION_CLOSURE = "tb_permission_closure";
+
+    /**
+     * 授权 (A, P) 对 A 的所有后代角色生效，内容为 P 及其所有子权限
+     */
+    private static final String EFFECTIVE_SELECT = "SELECT DISTINCT rc.descendant_id, pc.descendant_id" +
+            " FROM" +
+            "  tb_role_permission AS rp" +
+            "  JOIN tb_role_closure AS rc" +
+            "    ON rc.ancestor_id = rp.role_id" +
+            "  JOIN tb_permission_closure AS pc" +
+            "    ON pc.ancestor_id = rp.permission_id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectProvider<UserDetailsCache> userDetailsCache;
+
+    @Autowired
+    private ObjectProvider<JdbcPermissionDictionarySource> permissionDictionarySource;
+
+    private volatile boolean effectiveTableReady;
+
+    /**
+     * 已有库未执行 oauth2-authority-upgrade.sql 时表不存在，登录退回直接关联 tb_role_permission
+     */
+    @PostConstruct
+    public void checkEffectiveTable() {
+        try {
+            boolean populated = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM (SELECT 1 FROM tb_role_effective_permission LIMIT 1) AS t", Integer.class) > 0;
+            boolean noGrants = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM (SELECT 1 FROM tb_role_permission LIMIT 1) AS t", Integer.class) == 0;
+            effectiveTableReady = populated || noGrants;
+        } catch (DataAccessException e) {
+            effectiveTableReady = false;
+            log.warn("角色有效权限表不可用，请执行 oauth2-authority-upgrade.sql: {}", e.getMessage());
+        }
+        if (!effectiveTableReady) {
+            log.warn("角色有效权限表未填充，登录时直接查询 tb_role_permission（不含继承的权限），重建后自动切换");
+        }
+    }
+
+    @Override
+    public boolean isEffectiveTableReady() {
+        return effectiveTableReady;
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void onRoleCreated(Long roleId, Long parentId) {
+        insertNode(ROLE_CLOSURE, roleId, parentId);
+        if (!isRoot(parentId)) {
+            // 新角色继承父角色的全部有效权限
+            jdbcTemplate.update("INSERT INTO tb_role_effective_permission (role_id, permission_id)" +
+                    " SELECT ?, permission_id FROM tb_role_effective_permission WHERE role_id = ?", roleId, parentId);
+        }
+        afterCommitEvictUsers();
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void onRoleMoved(Long roleId, Long newParentId) {
+        moveSubtree(ROLE_CLOSURE, roleId, newParentId);
+        refreshRoleSubtree(roleId);
+        afterCommitEvictUsers();
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void onRoleDeleted(Long roleId) {
+        assertLeaf(ROLE_CLOSURE, roleId);
+        jdbcTemplate.update("DELETE FROM tb_role_closure WHERE descendant_id = ?", roleId);
+        jdbcTemplate.update("DELETE FROM tb_role_effective_permission WHERE role_id = ?", roleId);
+        afterCommitEvictUsers();
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void onPermissionCreated(Long permissionId, Long parentId) {
+        insertNode(PERMISSION_CLOSURE, permissionId, parentId);
+        if (!isRoot(parentId)) {
+            // 拥有父权限的角色同时拥有新的子权限
+            jdbcTemplate.update("INSERT INTO tb_role_effective_permission (role_id, permission_id)" +
+                    " SELECT role_id, ? FROM tb_role_effective_permission WHERE permission_id = ?", permissionId, parentId);
+        }
+        afterCommitRefreshDictionary();
+        afterCommitEvictUsers();
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void onPermissionMoved(Long permissionId, Long newParentId) {
+        moveSubtree(PERMISSION_CLOSURE, permissionId, newParentId);
+        // 权限移动影响的角色无法只从子树推导，重新计算有效权限表
+        rebuildEffective();
+        afterCommitEvictUsers();
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void onPermissionDeleted(Long permissionId) {
+        assertLeaf(PERMISSION_CLOSURE, permissionId);
+        jdbcTemplate.update("DELETE FROM tb_permission_closure WHERE descendant_id = ?", permissionId);
+        jdbcTemplate.update("DELETE FROM tb_role_effective_permission WHERE permission_id = ?", permissionId);
+        afterCommitRefreshDictionary();
+        afterCommitEvictUsers();
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void onPermissionGranted(Long roleId, Long permissionId) {
+        jdbcTemplate.update("INSERT INTO tb_role_effective_permission (role_id, permission_id)" +
+                " SELECT rc.descendant_id, pc.descendant_id" +
+                " FROM" +
+                "  tb_role_closure AS rc" +
+                "  JOIN tb_permission_closure AS pc" +
+                "    ON pc.ancestor_id = ?" +
+                " WHERE rc.ancestor_id = ?" +
+                "  AND NOT EXISTS (SELECT 1 FROM tb_role_effective_permission AS e" +
+                "    WHERE e.role_id = rc.descendant_id AND e.permission_id = pc.descendant_id)", permissionId, roleId);
+        afterCommitEvictUsers();
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void onPermissionRevoked(Long roleId, Long permissionId) {
+        // 同一权限可能还通过其他授权继承而来，重新计算该角色子树
+        refreshRoleSubtree(roleId);
+        afterCommitEvictUsers();
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void rebuild() {
+        rebuildClosure(ROLE_CLOSURE, "tb_role");
+        rebuildClosure(PERMISSION_CLOSURE, "tb_permission");
+        rebuildEffective();
+        afterCommit(() -> effectiveTableReady = true);
+        afterCommitRefreshDictionary();
+        afterCommitEvictUsers();
+    }
+
+    /**
+     * 重新计算某个角色及其所有后代角色的有效权限
+     */
+    private void refreshRoleSubtree(Long roleId) {
+        jdbcTemplate.update("DELETE FROM tb_role_effective_permission" +
+                " WHERE role_id IN (SELECT descendant_id FROM tb_role_closure WHERE ancestor_id = ?)", roleId);
+        jdbcTemplate.update("INSERT INTO tb_role_effective_permission (role_id, permission_id)" +
+                " SELECT DISTINCT sub.descendant_id, pc.descendant_id" +
+                " FROM" +
+                "  tb_role_closure AS sub" +
+                "  JOIN tb_role_closure AS anc" +
+                "    ON anc.descendant_id = sub.descendant_id" +
+                "  JOIN tb_role_permission AS rp" +
+                "    ON rp.role_id = anc.ancestor_id" +
+                "  JOIN tb_permission_closure AS pc" +
+                "    ON pc.ancestor_id = rp.permission_id" +
+                " WHERE sub.ancestor_id = ?", roleId);
+    }
+
+    private void rebuildEffective() {
+        jdbcTemplate.update("DELETE FROM tb_role_effective_permission");
+        jdbcTemplate.update("INSERT INTO tb_role_effective_permission (role_id, permission_id) " + EFFECTIVE_SELECT);
+    }
+
+    /**
+     * 根据 parent_id 在内存中展开层级后批量写入闭包表
+     */
+    private void rebuildClosure(String closureTable, String nodeTable) {
+        Map<Long, Long> parents = new HashMap<>();
+        jdbcTemplate.query("SELECT id, parent_id FROM " + nodeTable, rs -> {
+            long parentId = rs.getLong(2);
+            parents.put(rs.getLong(1), rs.wasNull() ? 0L : parentId);
+        });
+        List<Object[]> rows = new ArrayList<>();
+        for (Long id : parents.keySet()) {
+            Set<Long> visited = new HashSet<>();
+            Long ancestor = id;
+            int depth = 0;
+            // 父节点不存在或出现环时停止向上展开
+            while (ancestor != null && !isRoot(ancestor) && parents.containsKey(ancestor) && visited.add(ancestor)) {
+                rows.add(new Object[]{ancestor, id, depth++});
+                ancestor = parents.get(ancestor);
+            }
+        }
+        jdbcTemplate.update("DELETE FROM " + closureTable);
+        jdbcTemplate.batchUpdate("INSERT INTO " + closureTable + " (ancestor_id, descendant_id, depth) VALUES (?, ?, ?)", rows);
+    }
+
+    private void insertNode(String closureTable, Long id, Long parentId) {
+        if (!isRoot(parentId)) {
+            jdbcTemplate.update("INSERT INTO " + closureTable + " (ancestor_id, descendant_id, depth)" +
+                    " SELECT ancestor_id, ?, depth + 1 FROM " + closureTable + " WHERE descendant_id = ?", id, parentId);
+        }
+        jdbcTemplate.update("INSERT INTO " + closureTable + " (ancestor_id, descendant_id, depth) VALUES (?, ?, 0)", id, id);
+    }
+
+    /**
+     * 子树整体移动：先断开子树与原祖先的关联，再与新父节点的所有祖先建立关联
+     */
+    private void moveSubtree(String closureTable, Long id, Long newParentId) {
+        List<Map<String, Object>> subtree = jdbcTemplate.queryForList(
+                "SELECT descendant_id, depth FROM " + closureTable + " WHERE ancestor_id = ?", id);
+        List<Long> subtreeIds = new ArrayList<>(subtree.size());
+        for (Map<String, Object> row : subtree) {
+            subtreeIds.add(((Number) row.get("descendant_id")).longValue());
+        }
+        if (subtreeIds.isEmpty()) {
+            throw new IllegalArgumentException("闭包表中不存在该节点: " + id);
+        }
+        if (!isRoot(newParentId) && subtreeIds.contains(newParentId)) {
+            throw new IllegalArgumentException("不能移动到自身或子节点下: " + id + " -> " + newParentId);
+        }
+        // MySQL 不允许 DELETE 的子查询引用同一张表，子树节点先查询出来
+        new NamedParameterJdbcTemplate(jdbcTemplate).update("DELETE FROM " + closureTable +
+                        " WHERE descendant_id IN (:subtree) AND ancestor_id NOT IN (:subtree)",
+                new MapSqlParameterSource("subtree", subtreeIds));
+        if (isRoot(newParentId)) {
+            return;
+        }
+        List<Map<String, Object>> ancestors = jdbcTemplate.queryForList(
+                "SELECT ancestor_id, depth FROM " + closureTable + " WHERE descendant_id = ?", newParentId);
+        List<Object[]> rows = new ArrayList<>(ancestors.size() * subtree.size());
+        for (Map<String, Object> ancestor : ancestors) {
+            for (Map<String, Object> descendant : subtree) {
+                rows.add(new Object[]{ancestor.get("ancestor_id"), descendant.get("descendant_id"),
+                        ((Number) ancestor.get("depth")).intValue() + ((Number) descendant.get("depth")).intValue() + 1});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO " + closureTable + " (ancestor_id, descendant_id, depth) VALUES (?, ?, ?)", rows);
+    }
+
+    private void assertLeaf(String closureTable, Long id) {
+        Integer children = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + closureTable + " WHERE ancestor_id = ? AND depth > 0", Integer.class, id);
+        if (children != null && children > 0) {
+            throw new IllegalStateException("请先移除或移动子节点: " + id);
+        }
+    }
+
+    private static boolean isRoot(Long parentId) {
+        return parentId == null || parentId == 0L;
+    }
+
+    /**
+     * 权限变更影响的用户无法逐个定位，提交后清空用户信息缓存
+     */
+    private void afterCommitEvictUsers() {
+        UserDetailsCache cache = userDetailsCache.getIfAvailable();
+        if (cache != null) {
+            afterCommit(cache::evictAll);
+        }
+    }
+
+    /**
+     * 新增、删除权限后重新加载权限字典，新令牌立即使用新版本
+     */
+    private void afterCommitRefreshDictionary() {
+        JdbcPermissionDictionarySource source = permissionDictionarySource.getIfAvailable();
+        if (source != null) {
+            afterCommit(source::invalidate);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                        action.run();
+                    }
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+}
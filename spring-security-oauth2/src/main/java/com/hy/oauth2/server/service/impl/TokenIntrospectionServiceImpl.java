@@ -0,0 +1,112 @@
+package com.hy.oauth2.server.service.impl;
+
+import com.hy.oauth2.server.service.TokenIntrospectionService;
+import com.hy.oauth2.server.token.BatchTokenStore;
+import com.hy.oauth2.server.token.StoredAccessToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.exceptions.InvalidTokenException;
+import org.springframework.security.oauth2.provider.ClientDetailsService;
+import org.springframework.security.oauth2.provider.ClientRegistrationException;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.AccessTokenConverter;
+import org.springframework.security.oauth2.provider.token.DefaultAccessTokenConverter;
+import org.springframework.security.oauth2.provider.token.TokenStore;
+import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 令牌存储实现 {@link BatchTokenStore} 时一次读取全部令牌（Redis MGET、数据库 IN 查询），否则逐个读取。
+ * 与 CheckTokenEndpoint 一样校验过期时间及客户端是否存在，同一批次中每个客户端只查询一次
+ *
+ * @author wyl
+ * @since 2026-10-17 01:02:47
+ */
+@Service
+public class TokenIntrospectionServiceImpl implements TokenIntrospectionService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TokenIntrospectionServiceImpl.class);
+
+    private static final Map<String, ?> INACTIVE = Collections.singletonMap("active", false);
+
+    @Autowired
+    private TokenStore tokenStore;
+
+    @Autowired
+    private ClientDetailsService clientDetailsService;
+
+    /**
+     * jwt 模式下与签发令牌使用同一个转换器，响应内容与 check_token 一致
+     */
+    @Autowired(required = false)
+    private JwtAccessTokenConverter jwtAccessTokenConverter;
+
+    private final AccessTokenConverter defaultAccessTokenConverter = new DefaultAccessTokenConverter();
+
+    @Override
+    public List<Map<String, ?>> introspect(List<String> tokenValues) {
+        Set<String> distinct = new LinkedHashSet<>(tokenValues);
+        // 请求体中的 null 视为无效令牌，不交给令牌存储
+        distinct.remove(null);
+        Map<String, StoredAccessToken> stored = read(distinct);
+        AccessTokenConverter converter = jwtAccessTokenConverter != null ? jwtAccessTokenConverter : defaultAccessTokenConverter;
+        Map<String, Boolean> clients = new HashMap<>();
+        Map<String, Map<String, ?>> responses = new HashMap<>(distinct.size() * 2);
+        for (String tokenValue : distinct) {
+            StoredAccessToken token = stored.get(tokenValue);
+            if (token == null || token.getAccessToken().isExpired()
+                    || !clients.computeIfAbsent(token.getAuthentication().getOAuth2Request().getClientId(), this::clientExists)) {
+                responses.put(tokenValue, INACTIVE);
+                continue;
+            }
+            @SuppressWarnings("unchecked")
+            Map<String, Object> response = (Map<String, Object>) converter.convertAccessToken(token.getAccessToken(), token.getAuthentication());
+            response.put("active", true);
+            responses.put(tokenValue, response);
+        }
+        List<Map<String, ?>> result = new ArrayList<>(tokenValues.size());
+        for (String tokenValue : tokenValues) {
+            result.add(tokenValue == null ? INACTIVE : responses.get(tokenValue));
+        }
+        return result;
+    }
+
+    private Map<String, StoredAccessToken> read(Set<String> tokenValues) {
+        if (tokenStore instanceof BatchTokenStore) {
+            return ((BatchTokenStore) tokenStore).readAccessTokens(tokenValues);
+        }
+        Map<String, StoredAccessToken> stored = new HashMap<>(tokenValues.size() * 2);
+        for (String tokenValue : tokenValues) {
+            try {
+                OAuth2AccessToken accessToken = tokenStore.readAccessToken(tokenValue);
+                OAuth2Authentication authentication = accessToken == null ? null : tokenStore.readAuthentication(accessToken);
+                if (authentication != null) {
+                    stored.put(tokenValue, new StoredAccessToken(accessToken, authentication));
+                }
+            } catch (InvalidTokenException e) {
+                // jwt 签名错误等
+                LOG.debug("校验的令牌无效: {}", e.getMessage());
+            }
+        }
+        return stored;
+    }
+
+    private boolean clientExists(String clientId) {
+        try {
+            return clientDetailsService.loadClientByClientId(clientId) != null;
+        } catch (ClientRegistrationException e) {
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.hy.oauth2.server.service.impl;
+
+import com.hy.oauth2.common.revocation.TokenRevocationRegistry;
+import com.hy.oauth2.server.service.TokenRevocationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.exceptions.InvalidTokenException;
+import org.springframework.security.oauth2.provider.token.AccessTokenConverter;
+import org.springframework.security.oauth2.provider.token.TokenStore;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+
+/**
+ * 删除存储中的令牌，带 jti 的令牌（jwt）同时登记到 {@link TokenRevocationRegistry}
+ *
+ * @author wyl
+ * @since 2026-10-16 23:36:08
+ */
+@Service
+public class TokenRevocationServiceImpl implements TokenRevocationService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TokenRevocationServiceImpl.class);
+
+    @Autowired
+    private TokenStore tokenStore;
+
+    /**
+     * security.oauth2.token.revocation.enabled=false 时不存在
+     */
+    @Autowired
+    private ObjectProvider<TokenRevocationRegistry> revocationRegistry;
+
+    @Override
+    public boolean revoke(String tokenValue) {
+        OAuth2AccessToken accessToken;
+        try {
+            accessToken = tokenStore.readAccessToken(tokenValue);
+        } catch (InvalidTokenException e) {
+            LOG.debug("注销的令牌无效: {}", e.getMessage());
+            return false;
+        }
+        return accessToken != null && revoke(accessToken);
+    }
+
+    @Override
+    public boolean revoke(OAuth2AccessToken accessToken) {
+        if (accessToken.isExpired()) {
+            return false;
+        }
+        tokenStore.removeAccessToken(accessToken);
+        if (accessToken.getRefreshToken() != null) {
+            tokenStore.removeRefreshToken(accessToken.getRefreshToken());
+        }
+        Object jti = accessToken.getAdditionalInformation().get(AccessTokenConverter.JTI);
+        if (jti != null && accessToken.getExpiration() != null) {
+            revokeJti(jti.toString(), accessToken.getExpiration());
+        }
+        return true;
+    }
+
+    @Override
+    public boolean revokeJti(String jti, Date expiration) {
+        TokenRevocationRegistry registry = revocationRegistry.getIfAvailable();
+        return registry != null && registry.revoke(jti, expiration);
+    }
+
+    @Override
+    public boolean isRevoked(String jti) {
+        TokenRevocationRegistry registry = revocationRegistry.getIfAvailable();
+        return registry != null && registry.isRevoked(jti);
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.hy.oauth2.server.service.impl;
+
+import com.hy.oauth2.server.entity.LoginUser;
+import com.hy.oauth2.server.service.PermissionClosureService;
+import com.hy.oauth2.server.service.UserAuthorityLoader;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * 用户及权限一次查询加载，手写结果集映射，只取用到的列
+ * <p>
+ * 权限取自角色有效权限表 tb_role_effective_permission，已包含继承的角色权限及子权限，见 {@link PermissionClosureServiceImpl}；
+ * 有效权限表未建或未填充时（已有库尚未迁移）直接关联 tb_role_permission
+ *
+ * @author wyl
+ * @since 2026-10-16 11:12:46
+ */
+@Service
+public class UserAuthorityLoaderImpl implements UserAuthorityLoader {
+
+    private static final String SQL = "SELECT u.id, u.username, u.password, p.enname" +
+            " FROM" +
+            "  tb_user AS u" +
+            "  LEFT JOIN tb_user_role AS ur" +
+            "    ON u.id = ur.user_id" +
+            "  LEFT JOIN tb_role_effective_permission AS rep" +
+            "    ON ur.role_id = rep.role_id" +
+            "  LEFT JOIN tb_permission AS p" +
+            "    ON p.id = rep.permission_id" +
+            " WHERE u.username = ?";
+
+    private static final String LEGACY_SQL = "SELECT u.id, u.username, u.password, p.enname" +
+            " FROM" +
+            "  tb_user AS u" +
+            "  LEFT JOIN tb_user_role AS ur" +
+            "    ON u.id = ur.user_id" +
+            "  LEFT JOIN tb_role_permission AS rp" +
+            "    ON ur.role_id = rp.role_id" +
+            "  LEFT JOIN tb_permission AS p" +
+            "    ON p.id = rp.permission_id" +
+            " WHERE u.username = ?";
+
+    /**
+     * 每行是同一个用户与一个权限的组合，第一行取用户信息，权限按出现顺序去重
+     */
+    private static final ResultSetExtractor<LoginUser> EXTRACTOR = rs -> {
+        if (!rs.next()) {
+            return null;
+        }
+        LoginUser loginUser = new LoginUser();
+        loginUser.setId(rs.getLong(1));
+        loginUser.setUsername(rs.getString(2));
+        loginUser.setPassword(rs.getString(3));
+        Set<String> authorities = new LinkedHashSet<>();
+        do {
+            String enname = rs.getString(4);
+            if (enname != null) {
+                authorities.add(enname);
+            }
+        } while (rs.next());
+        loginUser.setAuthorities(new ArrayList<>(authorities));
+        return loginUser;
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectProvider<PermissionClosureService> permissionClosureService;
+
+    @Override
+    public LoginUser loadByUsername(String username) {
+        PermissionClosureService closure = permissionClosureService.getIfAvailable();
+        String sql = closure == null || closure.isEffectiveTableReady() ? SQL : LEGACY_SQL;
+        return jdbcTemplate.query(sql, EXTRACTOR, username);
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.hy.oauth2.server.token;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * 支持一次读取多个访问令牌的令牌存储，批量校验令牌时使用
+ * <p>
+ * 未实现本接口的存储逐个调用 readAccessToken、readAuthentication
+ *
+ * @author wyl
+ * @since 2026-10-17 00:53:40
+ */
+public interface BatchTokenStore {
+
+    /**
+     * @param tokenValues 访问令牌，不重复
+     * @return 按令牌值索引，不存在或无法解析的令牌不在结果中
+     */
+    Map<String, StoredAccessToken> readAccessTokens(Collection<String> tokenValues);
+
+}
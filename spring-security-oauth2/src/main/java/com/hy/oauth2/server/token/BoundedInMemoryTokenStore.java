@@ -0,0 +1,655 @@
+package com.hy.oauth2.server.token;
+
+import org.springframework.security.oauth2.common.ExpiringOAuth2RefreshToken;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.OAuth2RefreshToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.AuthenticationKeyGenerator;
+import org.springframework.security.oauth2.provider.token.DefaultAuthenticationKeyGenerator;
+import org.springframework.security.oauth2.provider.token.TokenStore;
+import org.springframework.security.oauth2.provider.token.store.InMemoryTokenStore;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * 有容量上限、分段加锁、数据存放在堆外的内存令牌存储
+ * <p>
+ * {@link InMemoryTokenStore} 把令牌、认证信息对象分散保存在九个 ConcurrentHashMap 中，并用 DelayQueue 清理，
+ * 令牌多时老年代持续增长，GC 停顿明显。这里：
+ * <ul>
+ * <li>令牌及认证信息用 {@link CompactTokenSerializer} 序列化后写入 {@link OffHeapBlockArena}，堆上每个令牌只剩下索引</li>
+ * <li>按令牌值分为 stripes 段，每段一把锁、一个堆外分配器，互不阻塞</li>
+ * <li>访问令牌、刷新令牌各最多 maxTokens 个，段满时淘汰最早写入的令牌；
+ * 写入时顺带删除段内最早写入且已过期的令牌，写入顺序与过期顺序不一致（如各客户端有效期不同）时
+ * 靠 {@link #removeExpired()} 定期逐段清理</li>
+ * <li>按认证信息、客户端、用户名的索引在令牌所在段的锁内更新，同一令牌的写入、删除与其索引变更不会交错，
+ * 不会留下指向已删除令牌的索引</li>
+ * </ul>
+ * 被淘汰的令牌与已撤销的令牌一样校验失败，容量应大于有效期内签发的令牌数。
+ * 堆外内存受 -XX:MaxDirectMemorySize 限制，每个令牌占用见 {@link #offHeapBytesUsed()}
+ *
+ * @author wyl
+ * @since 2026-10-16 22:06:41
+ */
+public class BoundedInMemoryTokenStore implements TokenStore {
+
+    /**
+     * 每次写入最多顺带清理的过期令牌数
+     */
+    private static final int EXPIRE_PER_WRITE = 2;
+
+    private static final int PAGE_SIZE = 1 << 20;
+
+    private final Stripe[] stripes;
+
+    private final int stripeCapacity;
+
+    private final ConcurrentHashMap<String, String> authenticationToAccessToken = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<String, String> refreshTokenToAccessToken = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<String, Set<String>> clientIdToAccessTokens = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<String, Set<String>> userNameToAccessTokens = new ConcurrentHashMap<>();
+
+    private AuthenticationKeyGenerator authenticationKeyGenerator = new DefaultAuthenticationKeyGenerator();
+
+    /**
+     * @param maxTokens 访问令牌（刷新令牌同样）的最大数量
+     * @param stripes   分段数，取不小于该值的 2 的幂
+     * @param blockSize 堆外分配块大小（字节），接近单个令牌序列化大小的约数时浪费最少
+     */
+    public BoundedInMemoryTokenStore(int maxTokens, int stripes, int blockSize) {
+        if (maxTokens <= 0) {
+            throw new IllegalArgumentException("maxTokens must be positive");
+        }
+        int count = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new Stripe(blockSize);
+        }
+        this.stripeCapacity = Math.max(1, (maxTokens + count - 1) / count);
+    }
+
+    public void setAuthenticationKeyGenerator(AuthenticationKeyGenerator authenticationKeyGenerator) {
+        this.authenticationKeyGenerator = authenticationKeyGenerator;
+    }
+
+    @Override
+    public OAuth2AccessToken getAccessToken(OAuth2Authentication authentication) {
+        String key = authenticationKeyGenerator.extractKey(authentication);
+        String tokenValue = authenticationToAccessToken.get(key);
+        if (tokenValue == null) {
+            return null;
+        }
+        byte[] payload = stripe(tokenValue).get(tokenValue, false,
+                () -> authenticationToAccessToken.remove(key, tokenValue));
+        if (payload == null) {
+            return null;
+        }
+        AccessRecord record = new AccessRecord(payload);
+        OAuth2AccessToken accessToken = record.accessToken();
+        if (!key.equals(record.authenticationKey)) {
+            // 与 InMemoryTokenStore 一致，认证信息变化时重新保存
+            storeAccessToken(accessToken, authentication);
+        }
+        return accessToken;
+    }
+
+    @Override
+    public OAuth2Authentication readAuthentication(OAuth2AccessToken token) {
+        return readAuthentication(token.getValue());
+    }
+
+    @Override
+    public OAuth2Authentication readAuthentication(String token) {
+        byte[] payload = stripe(token).get(token, false);
+        return payload == null ? null : new AccessRecord(payload).authentication();
+    }
+
+    @Override
+    public void storeAccessToken(OAuth2AccessToken token, OAuth2Authentication authentication) {
+        String tokenValue = token.getValue();
+        String authenticationKey = authenticationKeyGenerator.extractKey(authentication);
+        String clientId = authentication.getOAuth2Request().getClientId();
+        String userName = authentication.isClientOnly() ? null : authentication.getName();
+        String refreshToken = token.getRefreshToken() == null ? null : token.getRefreshToken().getValue();
+        byte[] payload = AccessRecord.write(CompactTokenSerializer.serializeAccessToken(token),
+                CompactTokenSerializer.serializeAuthentication(authentication), tokenValue, authenticationKey,
+                clientId, userName, refreshToken);
+
+        stripe(tokenValue).put(tokenValue, false, payload, expiresAt(token.getExpiration()), this::accessTokenRemoved, () -> {
+            authenticationToAccessToken.put(authenticationKey, tokenValue);
+            if (refreshToken != null) {
+                refreshTokenToAccessToken.put(refreshToken, tokenValue);
+            }
+            addToSet(clientIdToAccessTokens, clientId, tokenValue);
+            if (userName != null) {
+                addToSet(userNameToAccessTokens, userKey(clientId, userName), tokenValue);
+            }
+        });
+    }
+
+    @Override
+    public OAuth2AccessToken readAccessToken(String tokenValue) {
+        byte[] payload = stripe(tokenValue).get(tokenValue, false);
+        return payload == null ? null : new AccessRecord(payload).accessToken();
+    }
+
+    @Override
+    public void removeAccessToken(OAuth2AccessToken token) {
+        removeAccessToken(token.getValue());
+    }
+
+    public void removeAccessToken(String tokenValue) {
+        stripe(tokenValue).remove(tokenValue, false, this::accessTokenRemoved);
+    }
+
+    @Override
+    public void storeRefreshToken(OAuth2RefreshToken refreshToken, OAuth2Authentication authentication) {
+        Date expiration = refreshToken instanceof ExpiringOAuth2RefreshToken
+                ? ((ExpiringOAuth2RefreshToken) refreshToken).getExpiration() : null;
+        byte[] payload = RefreshRecord.write(CompactTokenSerializer.serializeRefreshToken(refreshToken),
+                CompactTokenSerializer.serializeAuthentication(authentication));
+        String tokenValue = refreshToken.getValue();
+        stripe(tokenValue).put(tokenValue, true, payload, expiresAt(expiration), old -> {
+            String refreshValue = new RefreshRecord(old).refreshToken().getValue();
+            // 重新保存同一刷新令牌（reuseRefreshToken）时，storeAccessToken 刚写入的映射需要保留
+            if (!tokenValue.equals(refreshValue)) {
+                refreshTokenToAccessToken.remove(refreshValue);
+            }
+        }, null);
+    }
+
+    @Override
+    public OAuth2RefreshToken readRefreshToken(String tokenValue) {
+        byte[] payload = stripe(tokenValue).get(tokenValue, true);
+        return payload == null ? null : new RefreshRecord(payload).refreshToken();
+    }
+
+    @Override
+    public OAuth2Authentication readAuthenticationForRefreshToken(OAuth2RefreshToken token) {
+        return readAuthenticationForRefreshToken(token.getValue());
+    }
+
+    public OAuth2Authentication readAuthenticationForRefreshToken(String token) {
+        byte[] payload = stripe(token).get(token, true);
+        return payload == null ? null : new RefreshRecord(payload).authentication();
+    }
+
+    @Override
+    public void removeRefreshToken(OAuth2RefreshToken token) {
+        removeRefreshToken(token.getValue());
+    }
+
+    public void removeRefreshToken(String tokenValue) {
+        // 与 storeRefreshToken 替换旧令牌时一样在段锁内删除映射；刷新令牌已不存在时映射随访问令牌删除
+        stripe(tokenValue).remove(tokenValue, true, old -> refreshTokenToAccessToken.remove(tokenValue));
+    }
+
+    @Override
+    public void removeAccessTokenUsingRefreshToken(OAuth2RefreshToken refreshToken) {
+        String accessToken = refreshTokenToAccessToken.remove(refreshToken.getValue());
+        if (accessToken != null) {
+            removeAccessToken(accessToken);
+        }
+    }
+
+    @Override
+    public Collection<OAuth2AccessToken> findTokensByClientIdAndUserName(String clientId, String userName) {
+        return findTokens(userNameToAccessTokens, userKey(clientId, userName));
+    }
+
+    @Override
+    public Collection<OAuth2AccessToken> findTokensByClientId(String clientId) {
+        return findTokens(clientIdToAccessTokens, clientId);
+    }
+
+    /**
+     * 逐段删除全部已过期的访问令牌、刷新令牌及其索引，每次只锁一个段
+     *
+     * @return 删除的令牌数
+     */
+    public int removeExpired() {
+        long now = System.currentTimeMillis();
+        int removed = 0;
+        for (Stripe stripe : stripes) {
+            removed += stripe.removeExpired(false, now, this::accessTokenRemoved);
+            removed += stripe.removeExpired(true, now,
+                    old -> refreshTokenToAccessToken.remove(new RefreshRecord(old).refreshToken().getValue()));
+        }
+        return removed;
+    }
+
+    /**
+     * @return 访问令牌数
+     */
+    public int getAccessTokenCount() {
+        int count = 0;
+        for (Stripe stripe : stripes) {
+            count += stripe.size(false);
+        }
+        return count;
+    }
+
+    /**
+     * @return 刷新令牌数
+     */
+    public int getRefreshTokenCount() {
+        int count = 0;
+        for (Stripe stripe : stripes) {
+            count += stripe.size(true);
+        }
+        return count;
+    }
+
+    /**
+     * @return 令牌实际占用的堆外字节数（按块计）
+     */
+    public long offHeapBytesUsed() {
+        long bytes = 0;
+        for (Stripe stripe : stripes) {
+            bytes += stripe.usedBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * @return 已申请的堆外字节数，释放的块会复用但不归还
+     */
+    public long offHeapBytesReserved() {
+        long bytes = 0;
+        for (Stripe stripe : stripes) {
+            bytes += stripe.reservedBytes();
+        }
+        return bytes;
+    }
+
+    public int getCapacity() {
+        return stripeCapacity * stripes.length;
+    }
+
+    public int getStripes() {
+        return stripes.length;
+    }
+
+    private Collection<OAuth2AccessToken> findTokens(ConcurrentHashMap<String, Set<String>> index, String key) {
+        Set<String> tokenValues = index.get(key);
+        if (tokenValues == null) {
+            return Collections.emptyList();
+        }
+        List<OAuth2AccessToken> accessTokens = new ArrayList<>(tokenValues.size());
+        for (String tokenValue : tokenValues) {
+            // 已被淘汰的令牌在段锁内移出索引，避免与同时写入的同一令牌交错；集合为空时一并删除
+            byte[] payload = stripe(tokenValue).get(tokenValue, false, () -> removeFromSet(index, key, tokenValue));
+            if (payload != null) {
+                accessTokens.add(new AccessRecord(payload).accessToken());
+            }
+        }
+        return accessTokens;
+    }
+
+    /**
+     * 在被删除令牌所在段的锁内调用
+     */
+    private void accessTokenRemoved(byte[] payload) {
+        removeIndexes(new AccessRecord(payload));
+    }
+
+    /**
+     * 只删除仍指向该令牌的索引，同一认证信息可能已签发了新令牌
+     */
+    private void removeIndexes(AccessRecord record) {
+        String tokenValue = record.tokenValue;
+        authenticationToAccessToken.remove(record.authenticationKey, tokenValue);
+        if (record.refreshToken != null) {
+            refreshTokenToAccessToken.remove(record.refreshToken, tokenValue);
+        }
+        removeFromSet(clientIdToAccessTokens, record.clientId, tokenValue);
+        if (record.userName != null) {
+            removeFromSet(userNameToAccessTokens, userKey(record.clientId, record.userName), tokenValue);
+        }
+    }
+
+    /**
+     * 在 compute 内加入，不会加入到 {@link #removeFromSet} 刚删除的空集合中
+     */
+    private static void addToSet(ConcurrentHashMap<String, Set<String>> index, String key, String tokenValue) {
+        index.compute(key, (k, tokenValues) -> {
+            Set<String> values = tokenValues == null ? ConcurrentHashMap.newKeySet() : tokenValues;
+            values.add(tokenValue);
+            return values;
+        });
+    }
+
+    private static void removeFromSet(ConcurrentHashMap<String, Set<String>> index, String key, String tokenValue) {
+        index.computeIfPresent(key, (k, tokenValues) -> {
+            tokenValues.remove(tokenValue);
+            return tokenValues.isEmpty() ? null : tokenValues;
+        });
+    }
+
+    private static String userKey(String clientId, String userName) {
+        return clientId + ":" + userName;
+    }
+
+    private static long expiresAt(Date expiration) {
+        return expiration == null ? Long.MAX_VALUE : expiration.getTime();
+    }
+
+    private Stripe stripe(String tokenValue) {
+        int hash = tokenValue.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    /**
+     * 堆上只保存块编号、长度、过期时间
+     */
+    private static final class Slot {
+
+        final int block;
+
+        final int length;
+
+        final long expiresAt;
+
+        Slot(int block, int length, long expiresAt) {
+            this.block = block;
+            this.length = length;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final class Stripe {
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        /**
+         * 按写入顺序，头部最早写入，淘汰、过期清理都从头部开始
+         */
+        private final LinkedHashMap<String, Slot> accessTokens = new LinkedHashMap<>();
+
+        private final LinkedHashMap<String, Slot> refreshTokens = new LinkedHashMap<>();
+
+        private final OffHeapBlockArena arena;
+
+        Stripe(int blockSize) {
+            this.arena = new OffHeapBlockArena(blockSize, PAGE_SIZE);
+        }
+
+        /**
+         * 锁内只复制字节，反序列化在锁外进行
+         *
+         * @param ifAbsent 令牌不存在时在锁内执行，用于清理索引，可以为 null
+         */
+        byte[] get(String key, boolean refresh, Runnable ifAbsent) {
+            lock.lock();
+            try {
+                Slot slot = map(refresh).get(key);
+                if (slot == null) {
+                    if (ifAbsent != null) {
+                        ifAbsent.run();
+                    }
+                    return null;
+                }
+                return arena.read(slot.block, slot.length);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        byte[] get(String key, boolean refresh) {
+            return get(key, refresh, null);
+        }
+
+        /**
+         * @param onRemoved 被替换、淘汰、过期删除的数据，在锁内清理索引
+         * @param onStored  写入后在锁内建立索引，可以为 null
+         */
+        void put(String key, boolean refresh, byte[] payload, long expiresAt, Consumer<byte[]> onRemoved, Runnable onStored) {
+            LinkedHashMap<String, Slot> map = map(refresh);
+            long now = System.currentTimeMillis();
+            lock.lock();
+            try {
+                Slot old = map.remove(key);
+                if (old != null) {
+                    onRemoved.accept(release(old));
+                }
+                Iterator<Slot> eldest = map.values().iterator();
+                for (int i = 0; i < EXPIRE_PER_WRITE && eldest.hasNext(); i++) {
+                    Slot slot = eldest.next();
+                    if (slot.expiresAt > now) {
+                        break;
+                    }
+                    eldest.remove();
+                    onRemoved.accept(release(slot));
+                }
+                if (map.size() >= stripeCapacity) {
+                    eldest = map.values().iterator();
+                    Slot slot = eldest.next();
+                    eldest.remove();
+                    onRemoved.accept(release(slot));
+                }
+                map.put(key, new Slot(arena.write(payload), payload.length, expiresAt));
+                if (onStored != null) {
+                    onStored.run();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * @param onRemoved 删除成功时在锁内清理索引，可以为 null
+         */
+        void remove(String key, boolean refresh, Consumer<byte[]> onRemoved) {
+            lock.lock();
+            try {
+                Slot slot = map(refresh).remove(key);
+                if (slot != null) {
+                    byte[] payload = release(slot);
+                    if (onRemoved != null) {
+                        onRemoved.accept(payload);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * 遍历整段，段内令牌数不超过 stripeCapacity，锁持有时间有上限
+         */
+        int removeExpired(boolean refresh, long now, Consumer<byte[]> onRemoved) {
+            lock.lock();
+            try {
+                int removed = 0;
+                for (Iterator<Slot> iterator = map(refresh).values().iterator(); iterator.hasNext(); ) {
+                    Slot slot = iterator.next();
+                    if (slot.expiresAt <= now) {
+                        iterator.remove();
+                        onRemoved.accept(release(slot));
+                        removed++;
+                    }
+                }
+                return removed;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int size(boolean refresh) {
+            lock.lock();
+            try {
+                return map(refresh).size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long usedBytes() {
+            lock.lock();
+            try {
+                return arena.usedBytes();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long reservedBytes() {
+            lock.lock();
+            try {
+                return arena.reservedBytes();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private byte[] release(Slot slot) {
+            byte[] payload = arena.read(slot.block, slot.length);
+            arena.free(slot.block);
+            return payload;
+        }
+
+        private LinkedHashMap<String, Slot> map(boolean refresh) {
+            return refresh ? refreshTokens : accessTokens;
+        }
+    }
+
+    /**
+     * 访问令牌数据：令牌、认证信息及清理索引用到的字段
+     */
+    private static final class AccessRecord {
+
+        final byte[] payload;
+
+        final int tokenOffset;
+
+        final int tokenLength;
+
+        final int authenticationOffset;
+
+        final int authenticationLength;
+
+        final String tokenValue;
+
+        final String authenticationKey;
+
+        final String clientId;
+
+        final String userName;
+
+        final String refreshToken;
+
+        AccessRecord(byte[] payload) {
+            this.payload = payload;
+            ByteBuffer buffer = ByteBuffer.wrap(payload);
+            tokenLength = buffer.getInt();
+            tokenOffset = buffer.position();
+            ((Buffer) buffer).position(tokenOffset + tokenLength);
+            authenticationLength = buffer.getInt();
+            authenticationOffset = buffer.position();
+            ((Buffer) buffer).position(authenticationOffset + authenticationLength);
+            tokenValue = readString(buffer);
+            authenticationKey = readString(buffer);
+            clientId = readString(buffer);
+            userName = readString(buffer);
+            refreshToken = readString(buffer);
+        }
+
+        OAuth2AccessToken accessToken() {
+            return CompactTokenSerializer.deserializeAccessToken(payload, tokenOffset, tokenLength);
+        }
+
+        OAuth2Authentication authentication() {
+            return CompactTokenSerializer.deserializeAuthentication(payload, authenticationOffset, authenticationLength);
+        }
+
+        static byte[] write(byte[] token, byte[] authentication, String tokenValue, String authenticationKey,
+                            String clientId, String userName, String refreshToken) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(token.length + authentication.length + 192);
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                out.writeInt(token.length);
+                out.write(token);
+                out.writeInt(authentication.length);
+                out.write(authentication);
+                // 令牌值已在 token 中，这里重复一份，清理索引时不必反序列化令牌
+                writeString(out, tokenValue);
+                writeString(out, authenticationKey);
+                writeString(out, clientId);
+                writeString(out, userName);
+                writeString(out, refreshToken);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return bytes.toByteArray();
+        }
+    }
+
+    /**
+     * 刷新令牌数据：令牌及认证信息
+     */
+    private static final class RefreshRecord {
+
+        final byte[] payload;
+
+        final int tokenLength;
+
+        RefreshRecord(byte[] payload) {
+            this.payload = payload;
+            this.tokenLength = ByteBuffer.wrap(payload).getInt();
+        }
+
+        OAuth2RefreshToken refreshToken() {
+            return CompactTokenSerializer.deserializeRefreshToken(payload, 4, tokenLength);
+        }
+
+        OAuth2Authentication authentication() {
+            return CompactTokenSerializer.deserializeAuthentication(payload, 4 + tokenLength, payload.length - 4 - tokenLength);
+        }
+
+        static byte[] write(byte[] token, byte[] authentication) {
+            ByteBuffer buffer = ByteBuffer.allocate(4 + token.length + authentication.length);
+            buffer.putInt(token.length).put(token).put(authentication);
+            return buffer.array();
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String string) throws IOException {
+        if (string == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String string = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        ((Buffer) buffer).position(buffer.position() + length);
+        return string;
+    }
+
+}
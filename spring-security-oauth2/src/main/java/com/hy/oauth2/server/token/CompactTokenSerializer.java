@@ -0,0 +1,471 @@
+package com.hy.oauth2.server.token;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.oauth2.common.DefaultExpiringOAuth2RefreshToken;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.common.DefaultOAuth2RefreshToken;
+import org.springframework.security.oauth2.common.ExpiringOAuth2RefreshToken;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.OAuth2RefreshToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+import org.springframework.util.SerializationUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 令牌及认证信息的紧凑二进制格式，代替 JDK 序列化
+ * <p>
+ * JDK 序列化结果中大部分是类描述信息，一个带 20 个权限的认证信息约 2.3KB，这里只写字段值，OAuth2Request 部分明显变小，
+ * 读写也不经过反射。用户认证的 principal 为用户名且没有 details 时只保存用户名及权限；
+ * principal 为 {@link User}（password 授权）且凭证已擦除时保存用户名、权限、四个状态标志及 details；
+ * 其他情况整个用户认证使用 JDK 序列化。读取结果与写入时相同；
+ * additionalInformation、extensions 中的字符串、数字、布尔、日期、集合直接写入，其他类型退回 JDK 序列化。
+ * <p>
+ * 数据以 {@link #VERSION} 开头，JDK 序列化数据以 0xACED 开头，因此可以读取 JdbcTokenStore 写入的数据
+ *
+ * @author wyl
+ * @since 2026-10-16 20:18:26
+ */
+public final class CompactTokenSerializer {
+
+    static final byte VERSION = 1;
+
+    private static final byte JDK_MAGIC = (byte) 0xAC;
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte INT = 2;
+    private static final byte LONG = 3;
+    private static final byte DOUBLE = 4;
+    private static final byte BOOLEAN = 5;
+    private static final byte DATE = 6;
+    private static final byte LIST = 7;
+    private static final byte SET = 8;
+    private static final byte MAP = 9;
+    private static final byte JDK = 10;
+
+    private static final byte NO_REFRESH_TOKEN = 0;
+    private static final byte REFRESH_TOKEN = 1;
+    private static final byte EXPIRING_REFRESH_TOKEN = 2;
+
+    /**
+     * 用户认证类型，NO_USER、NAME_ONLY_USER 与早期写入的 boolean 取值相同
+     */
+    private static final byte NO_USER = 0;
+    private static final byte NAME_ONLY_USER = 1;
+    private static final byte JDK_USER = 2;
+    private static final byte USER_DETAILS_USER = 3;
+
+    private CompactTokenSerializer() {
+    }
+
+    public static byte[] serializeAccessToken(OAuth2AccessToken token) {
+        return write(out -> {
+            writeString(out, token.getValue());
+            writeString(out, token.getTokenType());
+            writeDate(out, token.getExpiration());
+            writeStrings(out, token.getScope());
+            writeRefreshToken(out, token.getRefreshToken());
+            writeValue(out, token.getAdditionalInformation());
+        });
+    }
+
+    public static OAuth2AccessToken deserializeAccessToken(byte[] bytes) {
+        return bytes == null ? null : deserializeAccessToken(bytes, 0, bytes.length);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static OAuth2AccessToken deserializeAccessToken(byte[] bytes, int offset, int length) {
+        return read(bytes, offset, length, OAuth2AccessToken.class, in -> {
+            DefaultOAuth2AccessToken token = new DefaultOAuth2AccessToken(readString(in));
+            token.setTokenType(readString(in));
+            token.setExpiration(readDate(in));
+            token.setScope(readStrings(in));
+            token.setRefreshToken(readRefreshToken(in));
+            token.setAdditionalInformation((Map<String, Object>) readValue(in));
+            return token;
+        });
+    }
+
+    public static byte[] serializeRefreshToken(OAuth2RefreshToken token) {
+        return write(out -> writeRefreshToken(out, token));
+    }
+
+    public static OAuth2RefreshToken deserializeRefreshToken(byte[] bytes) {
+        return bytes == null ? null : deserializeRefreshToken(bytes, 0, bytes.length);
+    }
+
+    public static OAuth2RefreshToken deserializeRefreshToken(byte[] bytes, int offset, int length) {
+        return read(bytes, offset, length, OAuth2RefreshToken.class, CompactTokenSerializer::readRefreshToken);
+    }
+
+    public static byte[] serializeAuthentication(OAuth2Authentication authentication) {
+        return write(out -> {
+            OAuth2Request request = authentication.getOAuth2Request();
+            writeString(out, request.getClientId());
+            writeValue(out, request.getRequestParameters());
+            writeAuthorities(out, request.getAuthorities());
+            out.writeBoolean(request.isApproved());
+            writeStrings(out, request.getScope());
+            writeStrings(out, request.getResourceIds());
+            writeString(out, request.getRedirectUri());
+            writeStrings(out, request.getResponseTypes());
+            writeValue(out, request.getExtensions());
+            Authentication user = authentication.getUserAuthentication();
+            if (user == null) {
+                out.writeByte(NO_USER);
+            } else if (user instanceof UsernamePasswordAuthenticationToken
+                    && user.getPrincipal() instanceof String && user.getDetails() == null) {
+                out.writeByte(NAME_ONLY_USER);
+                writeString(out, user.getName());
+                writeAuthorities(out, user.getAuthorities());
+            } else if (isCompactUserDetails(user)) {
+                User principal = (User) user.getPrincipal();
+                out.writeByte(USER_DETAILS_USER);
+                writeString(out, principal.getUsername());
+                out.writeBoolean(principal.isEnabled());
+                out.writeBoolean(principal.isAccountNonExpired());
+                out.writeBoolean(principal.isCredentialsNonExpired());
+                out.writeBoolean(principal.isAccountNonLocked());
+                writeAuthorities(out, user.getAuthorities());
+                // 通常与认证信息的权限相同，只写一份
+                boolean sameAuthorities = authorityNames(principal.getAuthorities()).equals(authorityNames(user.getAuthorities()));
+                out.writeBoolean(sameAuthorities);
+                if (!sameAuthorities) {
+                    writeAuthorities(out, principal.getAuthorities());
+                }
+                writeValue(out, user.getDetails());
+            } else {
+                byte[] bytes = SerializationUtils.serialize(user);
+                out.writeByte(JDK_USER);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+        });
+    }
+
+    public static OAuth2Authentication deserializeAuthentication(byte[] bytes) {
+        return bytes == null ? null : deserializeAuthentication(bytes, 0, bytes.length);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static OAuth2Authentication deserializeAuthentication(byte[] bytes, int offset, int length) {
+        return read(bytes, offset, length, OAuth2Authentication.class, in -> {
+            String clientId = readString(in);
+            Map<String, String> requestParameters = (Map<String, String>) readValue(in);
+            List<GrantedAuthority> authorities = readAuthorities(in);
+            boolean approved = in.readBoolean();
+            Set<String> scope = readStrings(in);
+            Set<String> resourceIds = readStrings(in);
+            String redirectUri = readString(in);
+            Set<String> responseTypes = readStrings(in);
+            Map<String, Serializable> extensions = (Map<String, Serializable>) readValue(in);
+            OAuth2Request request = new OAuth2Request(requestParameters, clientId, authorities, approved, scope,
+                    resourceIds, redirectUri, responseTypes, extensions);
+            return new OAuth2Authentication(request, readUserAuthentication(in));
+        });
+    }
+
+    private static Authentication readUserAuthentication(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case NO_USER:
+                return null;
+            case NAME_ONLY_USER:
+                String name = readString(in);
+                return new UsernamePasswordAuthenticationToken(name, "N/A", readAuthorities(in));
+            case JDK_USER:
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                return (Authentication) SerializationUtils.deserialize(bytes);
+            case USER_DETAILS_USER:
+                String username = readString(in);
+                boolean enabled = in.readBoolean();
+                boolean accountNonExpired = in.readBoolean();
+                boolean credentialsNonExpired = in.readBoolean();
+                boolean accountNonLocked = in.readBoolean();
+                List<GrantedAuthority> authorities = readAuthorities(in);
+                List<GrantedAuthority> principalAuthorities = in.readBoolean() ? authorities : readAuthorities(in);
+                // User 不接受 null 密码，构造后再擦除，与写入时一致
+                User principal = new User(username, "", enabled, accountNonExpired, credentialsNonExpired, accountNonLocked,
+                        principalAuthorities);
+                principal.eraseCredentials();
+                UsernamePasswordAuthenticationToken user = new UsernamePasswordAuthenticationToken(principal, null, authorities);
+                user.setDetails(readValue(in));
+                return user;
+            default:
+                throw new IllegalArgumentException("未知的用户认证类型 " + type);
+        }
+    }
+
+    /**
+     * 只处理凭证已擦除（ProviderManager 认证成功后默认擦除）的 User，子类可能带有其他字段，仍使用 JDK 序列化
+     */
+    private static boolean isCompactUserDetails(Authentication user) {
+        if (user.getClass() != UsernamePasswordAuthenticationToken.class || !user.isAuthenticated()
+                || user.getCredentials() != null || user.getPrincipal() == null || user.getPrincipal().getClass() != User.class) {
+            return false;
+        }
+        return ((User) user.getPrincipal()).getPassword() == null;
+    }
+
+    private static List<String> authorityNames(Collection<? extends GrantedAuthority> authorities) {
+        List<String> names = new ArrayList<>(authorities.size());
+        for (GrantedAuthority authority : authorities) {
+            names.add(authority.getAuthority());
+        }
+        return names;
+    }
+
+    private static void writeRefreshToken(DataOutputStream out, OAuth2RefreshToken token) throws IOException {
+        if (token == null) {
+            out.writeByte(NO_REFRESH_TOKEN);
+        } else if (token instanceof ExpiringOAuth2RefreshToken) {
+            out.writeByte(EXPIRING_REFRESH_TOKEN);
+            writeString(out, token.getValue());
+            writeDate(out, ((ExpiringOAuth2RefreshToken) token).getExpiration());
+        } else {
+            out.writeByte(REFRESH_TOKEN);
+            writeString(out, token.getValue());
+        }
+    }
+
+    private static OAuth2RefreshToken readRefreshToken(DataInputStream in) throws IOException {
+        switch (in.readByte()) {
+            case NO_REFRESH_TOKEN:
+                return null;
+            case REFRESH_TOKEN:
+                return new DefaultOAuth2RefreshToken(readString(in));
+            case EXPIRING_REFRESH_TOKEN:
+                return new DefaultExpiringOAuth2RefreshToken(readString(in), readDate(in));
+            default:
+                throw new IllegalArgumentException("未知的刷新令牌类型");
+        }
+    }
+
+    private static void writeAuthorities(DataOutputStream out, Collection<? extends GrantedAuthority> authorities) throws IOException {
+        out.writeInt(authorities.size());
+        for (GrantedAuthority authority : authorities) {
+            writeString(out, authority.getAuthority());
+        }
+    }
+
+    private static List<GrantedAuthority> readAuthorities(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        String[] authorities = new String[size];
+        for (int i = 0; i < size; i++) {
+            authorities[i] = readString(in);
+        }
+        return AuthorityUtils.createAuthorityList(authorities);
+    }
+
+    private static void writeStrings(DataOutputStream out, Collection<String> strings) throws IOException {
+        out.writeInt(strings == null ? -1 : strings.size());
+        if (strings != null) {
+            for (String string : strings) {
+                writeString(out, string);
+            }
+        }
+    }
+
+    private static Set<String> readStrings(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            return null;
+        }
+        Set<String> strings = new LinkedHashSet<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            strings.add(readString(in));
+        }
+        return strings;
+    }
+
+    /**
+     * 长度 + UTF-8，长度 -1 表示 null（writeUTF 限制 64KB，jwt 等长令牌可能超出）
+     */
+    private static void writeString(DataOutputStream out, String string) throws IOException {
+        if (string == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeDate(DataOutputStream out, Date date) throws IOException {
+        out.writeLong(date == null ? Long.MIN_VALUE : date.getTime());
+    }
+
+    private static Date readDate(DataInputStream in) throws IOException {
+        long time = in.readLong();
+        return time == Long.MIN_VALUE ? null : new Date(time);
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof String) {
+            out.writeByte(STRING);
+            writeString(out, (String) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(INT);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Double) {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof Date) {
+            out.writeByte(DATE);
+            out.writeLong(((Date) value).getTime());
+        } else if (value instanceof List || value instanceof Set) {
+            Collection<?> collection = (Collection<?>) value;
+            out.writeByte(value instanceof List ? LIST : SET);
+            out.writeInt(collection.size());
+            for (Object element : collection) {
+                writeValue(out, element);
+            }
+        } else if (value instanceof Map && stringKeys((Map<?, ?>) value)) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            out.writeByte(MAP);
+            out.writeInt(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeString(out, (String) entry.getKey());
+                writeValue(out, entry.getValue());
+            }
+        } else {
+            byte[] bytes = SerializationUtils.serialize(value);
+            out.writeByte(JDK);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case NULL:
+                return null;
+            case STRING:
+                return readString(in);
+            case INT:
+                return in.readInt();
+            case LONG:
+                return in.readLong();
+            case DOUBLE:
+                return in.readDouble();
+            case BOOLEAN:
+                return in.readBoolean();
+            case DATE:
+                return new Date(in.readLong());
+            case LIST:
+            case SET:
+                int size = in.readInt();
+                Collection<Object> collection = type == LIST ? new ArrayList<>(size) : new LinkedHashSet<>(size * 2);
+                for (int i = 0; i < size; i++) {
+                    collection.add(readValue(in));
+                }
+                return collection;
+            case MAP:
+                int entries = in.readInt();
+                Map<String, Object> map = new LinkedHashMap<>(entries * 2);
+                for (int i = 0; i < entries; i++) {
+                    map.put(readString(in), readValue(in));
+                }
+                return map;
+            case JDK:
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                return SerializationUtils.deserialize(bytes);
+            default:
+                throw new IllegalArgumentException("未知的数据类型 " + type);
+        }
+    }
+
+    private static boolean stringKeys(Map<?, ?> map) {
+        for (Object key : map.keySet()) {
+            if (!(key instanceof String)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] write(Writer writer) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            writer.write(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * 与 JdbcTokenStore 一致，格式错误时抛出 IllegalArgumentException
+     */
+    private static <T> T read(byte[] bytes, int offset, int length, Class<T> type, Reader<? extends T> reader) {
+        if (length == 0) {
+            return null;
+        }
+        if (bytes[offset] == JDK_MAGIC) {
+            return type.cast(SerializationUtils.deserialize(Arrays.copyOfRange(bytes, offset, offset + length)));
+        }
+        if (bytes[offset] != VERSION) {
+            throw new IllegalArgumentException("不支持的令牌数据版本 " + bytes[offset]);
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, offset + 1, length - 1))) {
+            return reader.read(in);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("令牌数据格式错误", e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Writer {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface Reader<T> {
+        T read(DataInputStream in) throws IOException;
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.hy.oauth2.server.token;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分批删除 oauth_access_token、oauth_refresh_token 中已过期（expires_at 早于当前时间）的记录
+ * <p>
+ * 每批最多删除 batchSize 行并单独提交，批次之间暂停 pause，避免长事务及大范围锁影响令牌的签发、校验；
+ * 一次最多执行 maxBatches 批，剩余的留到下次。多个节点同时执行不会出错，只是重复扫描
+ *
+ * @author wyl
+ * @since 2026-10-16 20:46:52
+ */
+public class ExpiredTokenSweeper implements Runnable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ExpiredTokenSweeper.class);
+
+    private static final String[] TABLES = {"oauth_access_token", "oauth_refresh_token"};
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final int batchSize;
+
+    private final int maxBatches;
+
+    private final long pauseMillis;
+
+    public ExpiredTokenSweeper(JdbcTemplate jdbcTemplate, int batchSize, int maxBatches, long pauseMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.pauseMillis = pauseMillis;
+    }
+
+    @Override
+    public void run() {
+        for (String table : TABLES) {
+            try {
+                int deleted = sweep(table);
+                if (deleted > 0) {
+                    LOG.info("清理过期令牌 {} 条（{}）", deleted, table);
+                }
+            } catch (RuntimeException e) {
+                LOG.warn("清理过期令牌失败（{}）", table, e);
+            }
+        }
+    }
+
+    /**
+     * @param table
+     * @return 删除的行数
+     */
+    public int sweep(String table) {
+        // MySQL、H2 均支持 DELETE ... LIMIT，按 expires_at 索引范围删除
+        String sql = "DELETE FROM " + table + " WHERE expires_at < ? LIMIT " + batchSize;
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        int total = 0;
+        for (int i = 0; i < maxBatches; i++) {
+            int deleted = jdbcTemplate.update(sql, now);
+            total += deleted;
+            if (deleted < batchSize || !pause()) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * @return 被中断（应用关闭）时返回 false
+     */
+    private boolean pause() {
+        if (pauseMillis <= 0) {
+            return true;
+        }
+        try {
+            TimeUnit.MILLISECONDS.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+}
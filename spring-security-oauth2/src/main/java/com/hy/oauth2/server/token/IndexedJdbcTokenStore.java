@@ -0,0 +1,297 @@
+package com.hy.oauth2.server.token;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.security.oauth2.common.ExpiringOAuth2RefreshToken;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.OAuth2RefreshToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.AuthenticationKeyGenerator;
+import org.springframework.security.oauth2.provider.token.DefaultAuthenticationKeyGenerator;
+import org.springframework.security.oauth2.provider.token.TokenStore;
+import org.springframework.security.oauth2.provider.token.store.JdbcTokenStore;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 使用索引列及紧凑序列化的数据库令牌存储，表结构见 oauth2.sql
+ * <p>
+ * 与 {@link JdbcTokenStore} 使用相同的表及 token_id（令牌值的 MD5）。不同之处：
+ * <ul>
+ * <li>所有查询走索引：token_id 唯一索引，client_id + user_name、refresh_token、expires_at 普通索引</li>
+ * <li>令牌、认证信息使用 {@link CompactTokenSerializer}，仍可读取 JdbcTokenStore 写入的 JDK 序列化数据</li>
+ * <li>写入 expires_at，过期数据由 {@link ExpiredTokenSweeper} 分批删除</li>
+ * <li>getAccessToken 一次查询同时取回令牌及认证信息；保存时先 UPDATE，没有记录再 INSERT，不再先查询再删除</li>
+ * <li>批量读取令牌时按 token_id IN (...) 查询，每条语句最多 {@link #BATCH_SIZE} 个</li>
+ * </ul>
+ * 切换后写入的数据 JdbcTokenStore 无法读取
+ *
+ * @author wyl
+ * @since 2026-10-16 20:31:05
+ */
+public class IndexedJdbcTokenStore implements TokenStore, BatchTokenStore {
+
+    private static final Logger LOG = LoggerFactory.getLogger(IndexedJdbcTokenStore.class);
+
+    private static final String SELECT_ACCESS_TOKEN = "SELECT token FROM oauth_access_token WHERE token_id = ?";
+    private static final String SELECT_ACCESS_TOKEN_AUTHENTICATION = "SELECT authentication FROM oauth_access_token WHERE token_id = ?";
+    private static final String SELECT_ACCESS_TOKEN_FROM_AUTHENTICATION = "SELECT token, authentication FROM oauth_access_token WHERE authentication_id = ?";
+    private static final String SELECT_ACCESS_TOKENS_FROM_CLIENT = "SELECT token FROM oauth_access_token WHERE client_id = ?";
+    private static final String SELECT_ACCESS_TOKENS_FROM_CLIENT_AND_USER = "SELECT token FROM oauth_access_token WHERE client_id = ? AND user_name = ?";
+    private static final String UPDATE_ACCESS_TOKEN = "UPDATE oauth_access_token SET token_id = ?, token = ?, user_name = ?, client_id = ?, authentication = ?, refresh_token = ?, expires_at = ? WHERE authentication_id = ?";
+    private static final String INSERT_ACCESS_TOKEN = "INSERT INTO oauth_access_token (token_id, token, user_name, client_id, authentication, refresh_token, expires_at, authentication_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String DELETE_ACCESS_TOKEN = "DELETE FROM oauth_access_token WHERE token_id = ?";
+    private static final String SELECT_ACCESS_TOKENS_IN = "SELECT token_id, token, authentication FROM oauth_access_token WHERE token_id IN ";
+    private static final String DELETE_ACCESS_TOKEN_FROM_REFRESH_TOKEN = "DELETE FROM oauth_access_token WHERE refresh_token = ?";
+
+    private static final String SELECT_REFRESH_TOKEN = "SELECT token FROM oauth_refresh_token WHERE token_id = ?";
+    private static final String SELECT_REFRESH_TOKEN_AUTHENTICATION = "SELECT authentication FROM oauth_refresh_token WHERE token_id = ?";
+    private static final String UPDATE_REFRESH_TOKEN = "UPDATE oauth_refresh_token SET token = ?, authentication = ?, expires_at = ? WHERE token_id = ?";
+    private static final String INSERT_REFRESH_TOKEN = "INSERT INTO oauth_refresh_token (token, authentication, expires_at, token_id) VALUES (?, ?, ?, ?)";
+    private static final String DELETE_REFRESH_TOKEN = "DELETE FROM oauth_refresh_token WHERE token_id = ?";
+
+    /**
+     * IN 子句的最大参数个数，超出时分多条语句查询
+     */
+    private static final int BATCH_SIZE = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private AuthenticationKeyGenerator authenticationKeyGenerator = new DefaultAuthenticationKeyGenerator();
+
+    public IndexedJdbcTokenStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void setAuthenticationKeyGenerator(AuthenticationKeyGenerator authenticationKeyGenerator) {
+        this.authenticationKeyGenerator = authenticationKeyGenerator;
+    }
+
+    @Override
+    public OAuth2AccessToken getAccessToken(OAuth2Authentication authentication) {
+        String key = authenticationKeyGenerator.extractKey(authentication);
+        List<Object[]> rows = jdbcTemplate.query(SELECT_ACCESS_TOKEN_FROM_AUTHENTICATION,
+                (rs, rowNum) -> new Object[]{rs.getBytes(1), rs.getBytes(2)}, key);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        OAuth2AccessToken accessToken;
+        OAuth2Authentication storedAuthentication;
+        try {
+            accessToken = CompactTokenSerializer.deserializeAccessToken((byte[]) rows.get(0)[0]);
+            storedAuthentication = CompactTokenSerializer.deserializeAuthentication((byte[]) rows.get(0)[1]);
+        } catch (IllegalArgumentException e) {
+            LOG.warn("Failed to deserialize access token for authentication {}", key, e);
+            jdbcTemplate.update("DELETE FROM oauth_access_token WHERE authentication_id = ?", key);
+            return null;
+        }
+        if (!key.equals(authenticationKeyGenerator.extractKey(storedAuthentication))) {
+            // 与 JdbcTokenStore 一致，认证信息变化时重新保存
+            storeAccessToken(accessToken, authentication);
+        }
+        return accessToken;
+    }
+
+    @Override
+    public OAuth2Authentication readAuthentication(OAuth2AccessToken token) {
+        return readAuthentication(token.getValue());
+    }
+
+    @Override
+    public OAuth2Authentication readAuthentication(String token) {
+        String tokenId = extractTokenKey(token);
+        try {
+            return CompactTokenSerializer.deserializeAuthentication(queryBytes(SELECT_ACCESS_TOKEN_AUTHENTICATION, tokenId));
+        } catch (IllegalArgumentException e) {
+            LOG.warn("Failed to deserialize authentication for {}", token, e);
+            removeAccessToken(token);
+            return null;
+        }
+    }
+
+    @Override
+    public void storeAccessToken(OAuth2AccessToken token, OAuth2Authentication authentication) {
+        String refreshToken = token.getRefreshToken() == null ? null : extractTokenKey(token.getRefreshToken().getValue());
+        String tokenId = extractTokenKey(token.getValue());
+        Object[] args = {tokenId, CompactTokenSerializer.serializeAccessToken(token),
+                authentication.isClientOnly() ? null : authentication.getName(),
+                authentication.getOAuth2Request().getClientId(),
+                CompactTokenSerializer.serializeAuthentication(authentication), refreshToken,
+                timestamp(token.getExpiration()), authenticationKeyGenerator.extractKey(authentication)};
+        upsert(UPDATE_ACCESS_TOKEN, INSERT_ACCESS_TOKEN, DELETE_ACCESS_TOKEN, tokenId, args);
+    }
+
+    @Override
+    public OAuth2AccessToken readAccessToken(String tokenValue) {
+        try {
+            return CompactTokenSerializer.deserializeAccessToken(queryBytes(SELECT_ACCESS_TOKEN, extractTokenKey(tokenValue)));
+        } catch (IllegalArgumentException e) {
+            LOG.warn("Failed to deserialize access token for {}", tokenValue, e);
+            removeAccessToken(tokenValue);
+            return null;
+        }
+    }
+
+    @Override
+    public Map<String, StoredAccessToken> readAccessTokens(Collection<String> tokenValues) {
+        Map<String, String> tokenIds = new HashMap<>(tokenValues.size() * 2);
+        for (String tokenValue : tokenValues) {
+            tokenIds.put(extractTokenKey(tokenValue), tokenValue);
+        }
+        Map<String, StoredAccessToken> result = new HashMap<>(tokenValues.size() * 2);
+        List<String> ids = new ArrayList<>(tokenIds.keySet());
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            List<String> batch = ids.subList(from, Math.min(from + BATCH_SIZE, ids.size()));
+            String sql = SELECT_ACCESS_TOKENS_IN + "(" + String.join(",", Collections.nCopies(batch.size(), "?")) + ")";
+            jdbcTemplate.query(sql, (RowCallbackHandler) rs -> {
+                String tokenValue = tokenIds.get(rs.getString(1));
+                try {
+                    result.put(tokenValue, new StoredAccessToken(CompactTokenSerializer.deserializeAccessToken(rs.getBytes(2)),
+                            CompactTokenSerializer.deserializeAuthentication(rs.getBytes(3))));
+                } catch (IllegalArgumentException e) {
+                    // 单条数据损坏不影响其余令牌，与 readAccessToken 不同，这里不删除
+                    LOG.warn("Failed to deserialize access token for {}", tokenValue, e);
+                }
+            }, batch.toArray());
+        }
+        return result;
+    }
+
+    @Override
+    public void removeAccessToken(OAuth2AccessToken token) {
+        removeAccessToken(token.getValue());
+    }
+
+    public void removeAccessToken(String tokenValue) {
+        jdbcTemplate.update(DELETE_ACCESS_TOKEN, extractTokenKey(tokenValue));
+    }
+
+    @Override
+    public void storeRefreshToken(OAuth2RefreshToken refreshToken, OAuth2Authentication authentication) {
+        Date expiration = refreshToken instanceof ExpiringOAuth2RefreshToken
+                ? ((ExpiringOAuth2RefreshToken) refreshToken).getExpiration() : null;
+        String tokenId = extractTokenKey(refreshToken.getValue());
+        Object[] args = {CompactTokenSerializer.serializeRefreshToken(refreshToken),
+                CompactTokenSerializer.serializeAuthentication(authentication), timestamp(expiration), tokenId};
+        upsert(UPDATE_REFRESH_TOKEN, INSERT_REFRESH_TOKEN, DELETE_REFRESH_TOKEN, tokenId, args);
+    }
+
+    @Override
+    public OAuth2RefreshToken readRefreshToken(String tokenValue) {
+        try {
+            return CompactTokenSerializer.deserializeRefreshToken(queryBytes(SELECT_REFRESH_TOKEN, extractTokenKey(tokenValue)));
+        } catch (IllegalArgumentException e) {
+            LOG.warn("Failed to deserialize refresh token for {}", tokenValue, e);
+            removeRefreshToken(tokenValue);
+            return null;
+        }
+    }
+
+    @Override
+    public OAuth2Authentication readAuthenticationForRefreshToken(OAuth2RefreshToken token) {
+        return readAuthenticationForRefreshToken(token.getValue());
+    }
+
+    public OAuth2Authentication readAuthenticationForRefreshToken(String value) {
+        try {
+            return CompactTokenSerializer.deserializeAuthentication(queryBytes(SELECT_REFRESH_TOKEN_AUTHENTICATION, extractTokenKey(value)));
+        } catch (IllegalArgumentException e) {
+            LOG.warn("Failed to deserialize authentication for refresh token {}", value, e);
+            removeRefreshToken(value);
+            return null;
+        }
+    }
+
+    @Override
+    public void removeRefreshToken(OAuth2RefreshToken token) {
+        removeRefreshToken(token.getValue());
+    }
+
+    public void removeRefreshToken(String token) {
+        jdbcTemplate.update(DELETE_REFRESH_TOKEN, extractTokenKey(token));
+    }
+
+    @Override
+    public void removeAccessTokenUsingRefreshToken(OAuth2RefreshToken refreshToken) {
+        jdbcTemplate.update(DELETE_ACCESS_TOKEN_FROM_REFRESH_TOKEN, extractTokenKey(refreshToken.getValue()));
+    }
+
+    @Override
+    public Collection<OAuth2AccessToken> findTokensByClientIdAndUserName(String clientId, String userName) {
+        return queryTokens(SELECT_ACCESS_TOKENS_FROM_CLIENT_AND_USER, clientId, userName);
+    }
+
+    @Override
+    public Collection<OAuth2AccessToken> findTokensByClientId(String clientId) {
+        return queryTokens(SELECT_ACCESS_TOKENS_FROM_CLIENT, clientId);
+    }
+
+    /**
+     * 先 UPDATE，没有记录时 INSERT，参数最后一个为 UPDATE 条件。
+     * 唯一键冲突（并发写入，或同一令牌换了 authentication_id）时删除同 token_id 的记录后再写一次
+     */
+    private void upsert(String updateSql, String insertSql, String deleteSql, String tokenId, Object[] args) {
+        try {
+            if (jdbcTemplate.update(updateSql, args) == 0) {
+                jdbcTemplate.update(insertSql, args);
+            }
+        } catch (DuplicateKeyException e) {
+            jdbcTemplate.update(deleteSql, tokenId);
+            if (jdbcTemplate.update(updateSql, args) == 0) {
+                jdbcTemplate.update(insertSql, args);
+            }
+        }
+    }
+
+    private byte[] queryBytes(String sql, String tokenId) {
+        List<byte[]> rows = jdbcTemplate.query(sql, (rs, rowNum) -> rs.getBytes(1), tokenId);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private List<OAuth2AccessToken> queryTokens(String sql, Object... args) {
+        List<byte[]> rows = jdbcTemplate.query(sql, (rs, rowNum) -> rs.getBytes(1), args);
+        List<OAuth2AccessToken> accessTokens = new ArrayList<>(rows.size());
+        for (byte[] row : rows) {
+            try {
+                accessTokens.add(CompactTokenSerializer.deserializeAccessToken(row));
+            } catch (IllegalArgumentException e) {
+                LOG.warn("Failed to deserialize access token", e);
+            }
+        }
+        return accessTokens;
+    }
+
+    private static Timestamp timestamp(Date date) {
+        return date == null ? null : new Timestamp(date.getTime());
+    }
+
+    /**
+     * 与 JdbcTokenStore.extractTokenKey 相同，已有数据可以继续使用
+     */
+    protected String extractTokenKey(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            byte[] bytes = MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8));
+            return String.format("%032x", new BigInteger(1, bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 algorithm not available.  Fatal (should be in the JDK).", e);
+        }
+    }
+
+}
@@ -0,0 +1,144 @@
+package com.hy.oauth2.server.token;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 堆外定长块分配器，数据按块链式存放
+ * <p>
+ * 内存按页（DirectByteBuffer）向操作系统申请，页内切成 blockSize 字节的块，每块前 4 字节为下一块的编号（-1 结束）。
+ * 释放的块串成空闲链表复用，页不归还，因此堆上只有少量页对象，GC 不需要扫描数据本身。
+ * 非线程安全，由调用方加锁
+ *
+ * @author wyl
+ * @since 2026-10-16 21:48:15
+ */
+class OffHeapBlockArena {
+
+    private static final int END = -1;
+
+    private static final int HEADER = 4;
+
+    private final int blockSize;
+
+    private final int dataSize;
+
+    private final int blocksPerPage;
+
+    private final List<ByteBuffer> pages = new ArrayList<>();
+
+    private int freeHead = END;
+
+    private int nextUnused;
+
+    private int usedBlocks;
+
+    /**
+     * @param blockSize 块大小（字节），包含 4 字节链接
+     * @param pageSize  每页大小（字节）
+     */
+    OffHeapBlockArena(int blockSize, int pageSize) {
+        if (blockSize <= HEADER) {
+            throw new IllegalArgumentException("blockSize must be greater than " + HEADER);
+        }
+        this.blockSize = blockSize;
+        this.dataSize = blockSize - HEADER;
+        this.blocksPerPage = Math.max(1, pageSize / blockSize);
+    }
+
+    /**
+     * @param data
+     * @return 第一块的编号，读取、释放时使用
+     */
+    int write(byte[] data) {
+        int count = Math.max(1, (data.length + dataSize - 1) / dataSize);
+        int first = allocate();
+        int block = first;
+        int offset = 0;
+        for (int i = 0; i < count; i++) {
+            int next = i == count - 1 ? END : allocate();
+            ByteBuffer page = page(block);
+            int position = position(block);
+            page.putInt(position, next);
+            int length = Math.min(dataSize, data.length - offset);
+            ((Buffer) page).position(position + HEADER);
+            page.put(data, offset, length);
+            offset += length;
+            block = next;
+        }
+        return first;
+    }
+
+    /**
+     * @param first  {@link #write(byte[])} 返回的编号
+     * @param length 写入的字节数
+     * @return
+     */
+    byte[] read(int first, int length) {
+        byte[] data = new byte[length];
+        int block = first;
+        int offset = 0;
+        while (offset < length) {
+            ByteBuffer page = page(block);
+            int position = position(block);
+            int size = Math.min(dataSize, length - offset);
+            ((Buffer) page).position(position + HEADER);
+            page.get(data, offset, size);
+            offset += size;
+            block = page.getInt(position);
+        }
+        return data;
+    }
+
+    void free(int first) {
+        int block = first;
+        int last;
+        do {
+            last = block;
+            block = page(block).getInt(position(block));
+            usedBlocks--;
+        } while (block != END);
+        page(last).putInt(position(last), freeHead);
+        freeHead = first;
+    }
+
+    /**
+     * @return 已使用的字节数（按块计）
+     */
+    long usedBytes() {
+        return (long) usedBlocks * blockSize;
+    }
+
+    /**
+     * @return 已申请的堆外内存字节数
+     */
+    long reservedBytes() {
+        return (long) pages.size() * blocksPerPage * blockSize;
+    }
+
+    private int allocate() {
+        int block;
+        if (freeHead != END) {
+            block = freeHead;
+            freeHead = page(block).getInt(position(block));
+        } else {
+            if (nextUnused == pages.size() * blocksPerPage) {
+                pages.add(ByteBuffer.allocateDirect(blocksPerPage * blockSize));
+            }
+            block = nextUnused++;
+        }
+        usedBlocks++;
+        return block;
+    }
+
+    private ByteBuffer page(int block) {
+        return pages.get(block / blocksPerPage);
+    }
+
+    private int position(int block) {
+        return (block % blocksPerPage) * blockSize;
+    }
+
+}
@@ -0,0 +1,436 @@
+package com.hy.oauth2.server.token;
+
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.security.oauth2.common.ExpiringOAuth2RefreshToken;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.OAuth2RefreshToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.AuthenticationKeyGenerator;
+import org.springframework.security.oauth2.provider.token.DefaultAuthenticationKeyGenerator;
+import org.springframework.security.oauth2.provider.token.TokenStore;
+import org.springframework.security.oauth2.provider.token.store.redis.JdkSerializationStrategy;
+import org.springframework.security.oauth2.provider.token.store.redis.RedisTokenStore;
+import org.springframework.security.oauth2.provider.token.store.redis.RedisTokenStoreSerializationStrategy;
+import org.springframework.security.oauth2.provider.token.store.redis.StandardStringSerializationStrategy;
+import org.springframework.util.Assert;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 与 {@link RedisTokenStore} key 结构相同的令牌存储，每个操作只与 Redis 往返一次
+ * <p>
+ * RedisTokenStore 删除访问令牌时先读取认证信息才能得到 auth_to_access、uname_to_access、client_id_to_access 的 key，
+ * 需要两次往返，通过刷新令牌删除时需要三次；过期时间使用单独的 EXPIRE 命令。这里：
+ * <ul>
+ * <li>保存时额外写入 access_idx:{token}，记录关联的 key，删除由 Lua 脚本一次完成</li>
+ * <li>SET 直接带过期时间，多个 DEL 合并为一条命令</li>
+ * <li>查询集合使用 SMEMBERS，不再 SCARD + SSCAN</li>
+ * </ul>
+ * 可以直接替换 RedisTokenStore 读取已有数据，没有 access_idx 的旧令牌删除时退回两次往返。
+ * Lua 脚本访问的 key 由脚本拼接，只支持单机、哨兵模式，集群模式请使用 RedisTokenStore。
+ * 序列化方式必须保持字符串为 UTF-8（{@link StandardStringSerializationStrategy} 的子类）。
+ * 批量读取令牌时 access、auth 合并为一条 MGET
+ *
+ * @author wyl
+ * @since 2026-10-16 19:12:36
+ */
+public class PipelinedRedisTokenStore implements TokenStore, BatchTokenStore {
+
+    private static final String ACCESS = "access:";
+    private static final String AUTH_TO_ACCESS = "auth_to_access:";
+    private static final String AUTH = "auth:";
+    private static final String REFRESH_AUTH = "refresh_auth:";
+    private static final String ACCESS_TO_REFRESH = "access_to_refresh:";
+    private static final String REFRESH = "refresh:";
+    private static final String REFRESH_TO_ACCESS = "refresh_to_access:";
+    private static final String CLIENT_ID_TO_ACCESS = "client_id_to_access:";
+    private static final String UNAME_TO_ACCESS = "uname_to_access:";
+    private static final String ACCESS_INDEX = "access_idx:";
+
+    /**
+     * ARGV[1] 前缀，ARGV[2] 为 access 时删除访问令牌 ARGV[3]，为 refresh 时删除刷新令牌 ARGV[3] 对应的访问令牌。
+     * access_idx 不存在（旧数据）时返回 {access, auth}，由调用方完成剩余的清理
+     */
+    private static final String REMOVE_ACCESS_SCRIPT = "local prefix = ARGV[1]\n" +
+            "local token = ARGV[3]\n" +
+            "if ARGV[2] == 'refresh' then\n" +
+            "  local key = prefix .. 'refresh_to_access:' .. token\n" +
+            "  token = redis.call('GET', key)\n" +
+            "  redis.call('DEL', key)\n" +
+            "  if not token then return nil end\n" +
+            "end\n" +
+            "local accessKey = prefix .. 'access:' .. token\n" +
+            "local authKey = prefix .. 'auth:' .. token\n" +
+            "local indexKey = prefix .. 'access_idx:' .. token\n" +
+            "local access = redis.call('GET', accessKey)\n" +
+            "local index = redis.call('GET', indexKey)\n" +
+            "local auth = false\n" +
+            "if not index then auth = redis.call('GET', authKey) end\n" +
+            "redis.call('DEL', accessKey, authKey, prefix .. 'access_to_refresh:' .. token, indexKey)\n" +
+            "if not index then\n" +
+            "  if access and auth then return {access, auth} end\n" +
+            "  return nil\n" +
+            "end\n" +
+            "local first = true\n" +
+            "for key in string.gmatch(index, '[^\\n]+') do\n" +
+            "  if first then\n" +
+            "    redis.call('DEL', key)\n" +
+            "    first = false\n" +
+            "  elseif access then\n" +
+            "    redis.call('SREM', key, access)\n" +
+            "  end\n" +
+            "end\n" +
+            "return nil\n";
+
+    private static final byte[] REMOVE_ACCESS_SCRIPT_BYTES = REMOVE_ACCESS_SCRIPT.getBytes(StandardCharsets.UTF_8);
+
+    private static final String REMOVE_ACCESS_SCRIPT_SHA = sha1Hex(REMOVE_ACCESS_SCRIPT_BYTES);
+
+    private final RedisConnectionFactory connectionFactory;
+
+    private AuthenticationKeyGenerator authenticationKeyGenerator = new DefaultAuthenticationKeyGenerator();
+
+    private RedisTokenStoreSerializationStrategy serializationStrategy = new JdkSerializationStrategy();
+
+    private String prefix = "";
+
+    public PipelinedRedisTokenStore(RedisConnectionFactory connectionFactory) {
+        this.connectionFactory = connectionFactory;
+    }
+
+    public void setAuthenticationKeyGenerator(AuthenticationKeyGenerator authenticationKeyGenerator) {
+        this.authenticationKeyGenerator = authenticationKeyGenerator;
+    }
+
+    public void setSerializationStrategy(RedisTokenStoreSerializationStrategy serializationStrategy) {
+        Assert.isInstanceOf(StandardStringSerializationStrategy.class, serializationStrategy,
+                "Lua 脚本按 UTF-8 拼接 key，序列化方式需继承 StandardStringSerializationStrategy");
+        this.serializationStrategy = serializationStrategy;
+    }
+
+    public void setPrefix(String prefix) {
+        this.prefix = prefix;
+    }
+
+    @Override
+    public OAuth2AccessToken getAccessToken(OAuth2Authentication authentication) {
+        String key = authenticationKeyGenerator.extractKey(authentication);
+        OAuth2AccessToken accessToken = deserializeAccessToken(get(serializeKey(AUTH_TO_ACCESS + key)));
+        if (accessToken != null) {
+            OAuth2Authentication storedAuthentication = readAuthentication(accessToken.getValue());
+            if (storedAuthentication == null || !key.equals(authenticationKeyGenerator.extractKey(storedAuthentication))) {
+                // 与 RedisTokenStore 一致，认证信息变化时重新保存
+                storeAccessToken(accessToken, authentication);
+            }
+        }
+        return accessToken;
+    }
+
+    @Override
+    public OAuth2Authentication readAuthentication(OAuth2AccessToken token) {
+        return readAuthentication(token.getValue());
+    }
+
+    @Override
+    public OAuth2Authentication readAuthentication(String token) {
+        return deserializeAuthentication(get(serializeKey(AUTH + token)));
+    }
+
+    @Override
+    public OAuth2Authentication readAuthenticationForRefreshToken(OAuth2RefreshToken token) {
+        return readAuthenticationForRefreshToken(token.getValue());
+    }
+
+    public OAuth2Authentication readAuthenticationForRefreshToken(String token) {
+        return deserializeAuthentication(get(serializeKey(REFRESH_AUTH + token)));
+    }
+
+    @Override
+    public void storeAccessToken(OAuth2AccessToken token, OAuth2Authentication authentication) {
+        byte[] serializedAccessToken = serialize(token);
+        byte[] serializedAuth = serialize(authentication);
+        String authToAccessKey = prefix + AUTH_TO_ACCESS + authenticationKeyGenerator.extractKey(authentication);
+        String clientIdKey = prefix + CLIENT_ID_TO_ACCESS + authentication.getOAuth2Request().getClientId();
+        String approvalKey = prefix + UNAME_TO_ACCESS + getApprovalKey(authentication);
+        // 删除时需要清理的 key：第一行直接删除，其余行为集合
+        StringBuilder index = new StringBuilder(authToAccessKey).append('\n').append(clientIdKey);
+        if (!authentication.isClientOnly()) {
+            index.append('\n').append(approvalKey);
+        }
+        Expiration expiration = token.getExpiration() == null ? Expiration.persistent() : Expiration.seconds(seconds(token.getExpiration()));
+
+        RedisConnection conn = connectionFactory.getConnection();
+        try {
+            conn.openPipeline();
+            set(conn, serializeKey(ACCESS + token.getValue()), serializedAccessToken, expiration);
+            set(conn, serializeKey(AUTH + token.getValue()), serializedAuth, expiration);
+            set(conn, serialize(authToAccessKey), serializedAccessToken, expiration);
+            set(conn, serializeKey(ACCESS_INDEX + token.getValue()), serialize(index.toString()), expiration);
+            if (!authentication.isClientOnly()) {
+                conn.sAdd(serialize(approvalKey), serializedAccessToken);
+            }
+            conn.sAdd(serialize(clientIdKey), serializedAccessToken);
+            if (!expiration.isPersistent()) {
+                conn.expire(serialize(clientIdKey), expiration.getExpirationTime());
+                conn.expire(serialize(approvalKey), expiration.getExpirationTime());
+            }
+            OAuth2RefreshToken refreshToken = token.getRefreshToken();
+            if (refreshToken != null && refreshToken.getValue() != null) {
+                Expiration refreshExpiration = refreshExpiration(refreshToken);
+                set(conn, serializeKey(REFRESH_TO_ACCESS + refreshToken.getValue()), serialize(token.getValue()), refreshExpiration);
+                set(conn, serializeKey(ACCESS_TO_REFRESH + token.getValue()), serialize(refreshToken.getValue()), refreshExpiration);
+            }
+            conn.closePipeline();
+        } finally {
+            conn.close();
+        }
+    }
+
+    @Override
+    public OAuth2AccessToken readAccessToken(String tokenValue) {
+        return deserializeAccessToken(get(serializeKey(ACCESS + tokenValue)));
+    }
+
+    @Override
+    public Map<String, StoredAccessToken> readAccessTokens(Collection<String> tokenValues) {
+        if (tokenValues.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        byte[][] keys = new byte[tokenValues.size() * 2][];
+        int i = 0;
+        for (String tokenValue : tokenValues) {
+            keys[i++] = serializeKey(ACCESS + tokenValue);
+            keys[i++] = serializeKey(AUTH + tokenValue);
+        }
+        List<byte[]> values;
+        RedisConnection conn = connectionFactory.getConnection();
+        try {
+            values = conn.mGet(keys);
+        } finally {
+            conn.close();
+        }
+        Map<String, StoredAccessToken> result = new HashMap<>(tokenValues.size() * 2);
+        if (values == null) {
+            return result;
+        }
+        i = 0;
+        for (String tokenValue : tokenValues) {
+            OAuth2AccessToken accessToken = deserializeAccessToken(values.get(i++));
+            OAuth2Authentication authentication = deserializeAuthentication(values.get(i++));
+            if (accessToken != null && authentication != null) {
+                result.put(tokenValue, new StoredAccessToken(accessToken, authentication));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void removeAccessToken(OAuth2AccessToken accessToken) {
+        removeAccessToken(accessToken.getValue());
+    }
+
+    public void removeAccessToken(String tokenValue) {
+        remove("access", tokenValue);
+    }
+
+    @Override
+    public void storeRefreshToken(OAuth2RefreshToken refreshToken, OAuth2Authentication authentication) {
+        Expiration expiration = refreshExpiration(refreshToken);
+        RedisConnection conn = connectionFactory.getConnection();
+        try {
+            conn.openPipeline();
+            set(conn, serializeKey(REFRESH + refreshToken.getValue()), serialize(refreshToken), expiration);
+            set(conn, serializeKey(REFRESH_AUTH + refreshToken.getValue()), serialize(authentication), expiration);
+            conn.closePipeline();
+        } finally {
+            conn.close();
+        }
+    }
+
+    @Override
+    public OAuth2RefreshToken readRefreshToken(String tokenValue) {
+        return deserializeRefreshToken(get(serializeKey(REFRESH + tokenValue)));
+    }
+
+    @Override
+    public void removeRefreshToken(OAuth2RefreshToken refreshToken) {
+        removeRefreshToken(refreshToken.getValue());
+    }
+
+    public void removeRefreshToken(String tokenValue) {
+        RedisConnection conn = connectionFactory.getConnection();
+        try {
+            conn.del(serializeKey(REFRESH + tokenValue), serializeKey(REFRESH_AUTH + tokenValue),
+                    serializeKey(REFRESH_TO_ACCESS + tokenValue), serializeKey(ACCESS_TO_REFRESH + tokenValue));
+        } finally {
+            conn.close();
+        }
+    }
+
+    @Override
+    public void removeAccessTokenUsingRefreshToken(OAuth2RefreshToken refreshToken) {
+        remove("refresh", refreshToken.getValue());
+    }
+
+    @Override
+    public Collection<OAuth2AccessToken> findTokensByClientIdAndUserName(String clientId, String userName) {
+        return members(serializeKey(UNAME_TO_ACCESS + getApprovalKey(clientId, userName)));
+    }
+
+    @Override
+    public Collection<OAuth2AccessToken> findTokensByClientId(String clientId) {
+        return members(serializeKey(CLIENT_ID_TO_ACCESS + clientId));
+    }
+
+    /**
+     * 执行删除脚本，旧数据没有 access_idx 时按 RedisTokenStore 的方式再清理一次
+     */
+    private void remove(String mode, String tokenValue) {
+        List<Object> legacy;
+        RedisConnection conn = connectionFactory.getConnection();
+        try {
+            byte[][] args = {serialize(prefix), serialize(mode), serialize(tokenValue)};
+            try {
+                legacy = conn.evalSha(REMOVE_ACCESS_SCRIPT_SHA, ReturnType.MULTI, 0, args);
+            } catch (RuntimeException e) {
+                if (!isNoScript(e)) {
+                    throw e;
+                }
+                legacy = conn.eval(REMOVE_ACCESS_SCRIPT_BYTES, ReturnType.MULTI, 0, args);
+            }
+            if (legacy == null || legacy.size() < 2) {
+                return;
+            }
+            byte[] access = (byte[]) legacy.get(0);
+            OAuth2Authentication authentication = deserializeAuthentication((byte[]) legacy.get(1));
+            if (authentication != null) {
+                conn.openPipeline();
+                conn.del(serializeKey(AUTH_TO_ACCESS + authenticationKeyGenerator.extractKey(authentication)));
+                conn.sRem(serializeKey(UNAME_TO_ACCESS + getApprovalKey(authentication)), access);
+                conn.sRem(serializeKey(CLIENT_ID_TO_ACCESS + authentication.getOAuth2Request().getClientId()), access);
+                conn.closePipeline();
+            }
+        } finally {
+            conn.close();
+        }
+    }
+
+    private Collection<OAuth2AccessToken> members(byte[] key) {
+        Set<byte[]> members;
+        RedisConnection conn = connectionFactory.getConnection();
+        try {
+            members = conn.sMembers(key);
+        } finally {
+            conn.close();
+        }
+        if (members == null || members.isEmpty()) {
+            return Collections.emptySet();
+        }
+        List<OAuth2AccessToken> accessTokens = new ArrayList<>(members.size());
+        for (byte[] bytes : members) {
+            accessTokens.add(deserializeAccessToken(bytes));
+        }
+        return Collections.unmodifiableCollection(accessTokens);
+    }
+
+    private byte[] get(byte[] key) {
+        RedisConnection conn = connectionFactory.getConnection();
+        try {
+            return conn.get(key);
+        } finally {
+            conn.close();
+        }
+    }
+
+    private static void set(RedisConnection conn, byte[] key, byte[] value, Expiration expiration) {
+        conn.set(key, value, expiration, RedisStringCommands.SetOption.UPSERT);
+    }
+
+    private static Expiration refreshExpiration(OAuth2RefreshToken refreshToken) {
+        if (refreshToken instanceof ExpiringOAuth2RefreshToken) {
+            Date expiration = ((ExpiringOAuth2RefreshToken) refreshToken).getExpiration();
+            if (expiration != null) {
+                return Expiration.seconds(seconds(expiration));
+            }
+        }
+        return Expiration.persistent();
+    }
+
+    /**
+     * SET EX 不接受 0，即将过期的令牌至少保留 1 秒
+     */
+    private static long seconds(Date expiration) {
+        return Math.max(1L, (expiration.getTime() - System.currentTimeMillis()) / 1000L);
+    }
+
+    private static boolean isNoScript(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause.getMessage() != null && cause.getMessage().contains("NOSCRIPT")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String getApprovalKey(OAuth2Authentication authentication) {
+        String userName = authentication.getUserAuthentication() == null ? ""
+                : authentication.getUserAuthentication().getName();
+        return getApprovalKey(authentication.getOAuth2Request().getClientId(), userName);
+    }
+
+    private static String getApprovalKey(String clientId, String userName) {
+        return clientId + (userName == null ? "" : ":" + userName);
+    }
+
+    private byte[] serialize(Object object) {
+        return serializationStrategy.serialize(object);
+    }
+
+    private byte[] serialize(String string) {
+        return serializationStrategy.serialize(string);
+    }
+
+    private byte[] serializeKey(String object) {
+        return serialize(prefix + object);
+    }
+
+    private OAuth2AccessToken deserializeAccessToken(byte[] bytes) {
+        return serializationStrategy.deserialize(bytes, OAuth2AccessToken.class);
+    }
+
+    private OAuth2Authentication deserializeAuthentication(byte[] bytes) {
+        return serializationStrategy.deserialize(bytes, OAuth2Authentication.class);
+    }
+
+    private OAuth2RefreshToken deserializeRefreshToken(byte[] bytes) {
+        return serializationStrategy.deserialize(bytes, OAuth2RefreshToken.class);
+    }
+
+    private static String sha1Hex(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(bytes);
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
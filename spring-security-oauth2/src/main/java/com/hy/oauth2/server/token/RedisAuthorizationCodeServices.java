@@ -0,0 +1,117 @@
+package com.hy.oauth2.server.token;
+
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.security.oauth2.common.exceptions.InvalidGrantException;
+import org.springframework.security.oauth2.common.util.RandomValueStringGenerator;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.code.AuthorizationCodeServices;
+import org.springframework.security.oauth2.provider.code.InMemoryAuthorizationCodeServices;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * 授权码保存在 Redis 中，多个认证服务节点不需要会话粘滞
+ * <p>
+ * 与 {@link InMemoryAuthorizationCodeServices} 相比：
+ * <ul>
+ * <li>授权码 SET NX EX 写入，有效期 ttl 到期自动删除；生成的授权码已存在时重新生成</li>
+ * <li>使用时由 Lua 脚本读取并删除（GETDEL），同一授权码并发换取令牌只有一次成功</li>
+ * <li>认证信息使用 {@link CompactTokenSerializer}，与令牌存储相同，用户认证（UserDetails principal 及 details）原样保留</li>
+ * </ul>
+ * 脚本只访问一个 key，集群模式下同样可用
+ *
+ * @author wyl
+ * @since 2026-10-17 01:24:50
+ */
+public class RedisAuthorizationCodeServices implements AuthorizationCodeServices {
+
+    public static final String DEFAULT_KEY_PREFIX = "oauth2:code:";
+
+    /**
+     * Redis 6.2 以下没有 GETDEL 命令
+     */
+    private static final byte[] GET_DEL_SCRIPT = ("local value = redis.call('GET', KEYS[1])\n" +
+            "if value then redis.call('DEL', KEYS[1]) end\n" +
+            "return value\n").getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * 连续生成重复授权码的最大次数
+     */
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final RedisConnectionFactory connectionFactory;
+
+    private final Duration ttl;
+
+    private String keyPrefix = DEFAULT_KEY_PREFIX;
+
+    private RandomValueStringGenerator generator = new RandomValueStringGenerator();
+
+    /**
+     * @param connectionFactory
+     * @param ttl               授权码有效期，应足够短
+     */
+    public RedisAuthorizationCodeServices(RedisConnectionFactory connectionFactory, Duration ttl) {
+        this.connectionFactory = connectionFactory;
+        this.ttl = ttl;
+    }
+
+    public void setKeyPrefix(String keyPrefix) {
+        this.keyPrefix = keyPrefix;
+    }
+
+    /**
+     * @param codeLength 授权码长度，默认 6 位，与 InMemoryAuthorizationCodeServices 相同
+     */
+    public void setCodeLength(int codeLength) {
+        this.generator = new RandomValueStringGenerator(codeLength);
+    }
+
+    @Override
+    public String createAuthorizationCode(OAuth2Authentication authentication) {
+        byte[] value = CompactTokenSerializer.serializeAuthentication(authentication);
+        Expiration expiration = Expiration.milliseconds(ttl.toMillis());
+        RedisConnection conn = connectionFactory.getConnection();
+        try {
+            for (int i = 0; i < MAX_ATTEMPTS; i++) {
+                String code = generator.generate();
+                Boolean stored = conn.set(key(code), value, expiration, RedisStringCommands.SetOption.SET_IF_ABSENT);
+                if (stored != null && stored) {
+                    return code;
+                }
+            }
+        } finally {
+            conn.close();
+        }
+        throw new IllegalStateException("连续 " + MAX_ATTEMPTS + " 次生成重复的授权码，请增大授权码长度");
+    }
+
+    @Override
+    public OAuth2Authentication consumeAuthorizationCode(String code) throws InvalidGrantException {
+        byte[] value;
+        RedisConnection conn = connectionFactory.getConnection();
+        try {
+            value = conn.eval(GET_DEL_SCRIPT, ReturnType.VALUE, 1, key(code));
+        } finally {
+            conn.close();
+        }
+        if (value == null) {
+            throw new InvalidGrantException("Invalid authorization code: " + code);
+        }
+        try {
+            return CompactTokenSerializer.deserializeAuthentication(value);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidGrantException("Invalid authorization code: " + code);
+        }
+    }
+
+    private byte[] key(String code) {
+        return (keyPrefix + code).getBytes(StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.hy.oauth2.server.token;
+
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+
+/**
+ * 访问令牌及其认证信息，批量读取时使用
+ *
+ * @author wyl
+ * @since 2026-10-17 00:52:16
+ */
+public final class StoredAccessToken {
+
+    private final OAuth2AccessToken accessToken;
+
+    private final OAuth2Authentication authentication;
+
+    public StoredAccessToken(OAuth2AccessToken accessToken, OAuth2Authentication authentication) {
+        this.accessToken = accessToken;
+        this.authentication = authentication;
+    }
+
+    public OAuth2AccessToken getAccessToken() {
+        return accessToken;
+    }
+
+    public OAuth2Authentication getAuthentication() {
+        return authentication;
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.hy.oauth2.server.token;
+
+import com.hy.oauth2.server.service.TokenRevocationService;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 管理员注销令牌端点
+ * <p>
+ * POST /actuator/tokenrevocation {"token": "..."} 注销访问令牌；只知道 jti 时提交 {"jti": "...", "exp": 过期时间（秒）}。
+ * GET /actuator/tokenrevocation/{jti} 查看是否已注销
+ *
+ * @author wyl
+ * @since 2026-10-16 23:44:19
+ */
+@Endpoint(id = "tokenrevocation")
+public class TokenRevocationEndpoint {
+
+    private final TokenRevocationService tokenRevocationService;
+
+    public TokenRevocationEndpoint(TokenRevocationService tokenRevocationService) {
+        this.tokenRevocationService = tokenRevocationService;
+    }
+
+    @ReadOperation
+    public Map<String, Object> status(@Selector String jti) {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("jti", jti);
+        status.put("revoked", tokenRevocationService.isRevoked(jti));
+        return status;
+    }
+
+    @WriteOperation
+    public Map<String, Object> revoke(@Nullable String token, @Nullable String jti, @Nullable Long exp) {
+        boolean revoked;
+        if (token != null) {
+            revoked = tokenRevocationService.revoke(token);
+        } else if (jti != null && exp != null) {
+            revoked = tokenRevocationService.revokeJti(jti, new Date(exp * 1000));
+        } else {
+            throw new IllegalArgumentException("需要 token，或 jti 及 exp");
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("revoked", revoked);
+        return result;
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.hy.oauth2.server.token;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 内存令牌存储状态端点
+ * <p>
+ * GET /actuator/tokenstore 查看令牌数、容量及堆外内存占用，offHeapBytesPerToken 为平均每个令牌（访问令牌、刷新令牌分别计）占用的堆外字节数
+ *
+ * @author wyl
+ * @since 2026-10-16 22:31:54
+ */
+@Endpoint(id = "tokenstore")
+public class TokenStoreEndpoint {
+
+    private final BoundedInMemoryTokenStore tokenStore;
+
+    public TokenStoreEndpoint(BoundedInMemoryTokenStore tokenStore) {
+        this.tokenStore = tokenStore;
+    }
+
+    @ReadOperation
+    public Map<String, Object> info() {
+        int accessTokens = tokenStore.getAccessTokenCount();
+        int refreshTokens = tokenStore.getRefreshTokenCount();
+        long used = tokenStore.offHeapBytesUsed();
+        Map<String, Object> info = new LinkedHashMap<>();
+        info.put("accessTokens", accessTokens);
+        info.put("refreshTokens", refreshTokens);
+        info.put("capacity", tokenStore.getCapacity());
+        info.put("stripes", tokenStore.getStripes());
+        info.put("offHeapBytesUsed", used);
+        info.put("offHeapBytesReserved", tokenStore.offHeapBytesReserved());
+        info.put("offHeapBytesPerToken", accessTokens + refreshTokens == 0 ? 0 : used / (accessTokens + refreshTokens));
+        return info;
+    }
+
+}
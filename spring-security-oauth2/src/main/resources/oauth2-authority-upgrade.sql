@@ -0,0 +1,63 @@
+-- ----------------------------
+-- 已有库升级：创建并填充角色、权限闭包表及角色有效权限表（登录时按 tb_role_effective_permission 加载权限）
+-- 需要 MySQL 8.0（WITH RECURSIVE）；5.7 可只执行建表语句，再通过 POST /actuator/permissionclosure 全量重建
+-- 脚本可重复执行
+-- ----------------------------
+CREATE TABLE IF NOT EXISTS `tb_permission_closure`  (
+  `ancestor_id` bigint(0) NOT NULL COMMENT '祖先权限 ID',
+  `descendant_id` bigint(0) NOT NULL COMMENT '后代权限 ID（包含自身）',
+  `depth` int(0) NOT NULL COMMENT '层级距离，自身为 0',
+  PRIMARY KEY (`ancestor_id`, `descendant_id`) USING BTREE,
+  INDEX `descendant_id`(`descendant_id`) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8 COLLATE = utf8_general_ci COMMENT = '权限层级闭包表' ROW_FORMAT = Dynamic;
+
+CREATE TABLE IF NOT EXISTS `tb_role_closure`  (
+  `ancestor_id` bigint(0) NOT NULL COMMENT '祖先角色 ID',
+  `descendant_id` bigint(0) NOT NULL COMMENT '后代角色 ID（包含自身）',
+  `depth` int(0) NOT NULL COMMENT '层级距离，自身为 0',
+  PRIMARY KEY (`ancestor_id`, `descendant_id`) USING BTREE,
+  INDEX `descendant_id`(`descendant_id`) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8 COLLATE = utf8_general_ci COMMENT = '角色层级闭包表' ROW_FORMAT = Dynamic;
+
+CREATE TABLE IF NOT EXISTS `tb_role_effective_permission`  (
+  `role_id` bigint(0) NOT NULL COMMENT '角色 ID',
+  `permission_id` bigint(0) NOT NULL COMMENT '权限 ID',
+  PRIMARY KEY (`role_id`, `permission_id`) USING BTREE,
+  INDEX `permission_id`(`permission_id`) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8 COLLATE = utf8_general_ci COMMENT = '角色有效权限表（继承父角色权限及子权限后的结果）' ROW_FORMAT = Dynamic;
+
+-- 登录查询使用的索引，已存在时跳过（存在重复授权时需先去重）
+-- ALTER TABLE `tb_role_permission` ADD UNIQUE INDEX `role_id`(`role_id`, `permission_id`) USING BTREE, ADD INDEX `permission_id`(`permission_id`) USING BTREE;
+-- ALTER TABLE `tb_user_role` ADD UNIQUE INDEX `user_id`(`user_id`, `role_id`) USING BTREE, ADD INDEX `role_id`(`role_id`) USING BTREE;
+
+START TRANSACTION;
+
+DELETE FROM `tb_permission_closure`;
+INSERT INTO `tb_permission_closure` (`ancestor_id`, `descendant_id`, `depth`)
+WITH RECURSIVE c AS (
+  SELECT `id` AS ancestor_id, `id` AS descendant_id, 0 AS depth FROM `tb_permission`
+  UNION ALL
+  SELECT c.ancestor_id, p.`id`, c.depth + 1 FROM c JOIN `tb_permission` AS p ON p.`parent_id` = c.descendant_id
+)
+SELECT ancestor_id, descendant_id, depth FROM c;
+
+DELETE FROM `tb_role_closure`;
+INSERT INTO `tb_role_closure` (`ancestor_id`, `descendant_id`, `depth`)
+WITH RECURSIVE c AS (
+  SELECT `id` AS ancestor_id, `id` AS descendant_id, 0 AS depth FROM `tb_role`
+  UNION ALL
+  SELECT c.ancestor_id, r.`id`, c.depth + 1 FROM c JOIN `tb_role` AS r ON r.`parent_id` = c.descendant_id
+)
+SELECT ancestor_id, descendant_id, depth FROM c;
+
+DELETE FROM `tb_role_effective_permission`;
+INSERT INTO `tb_role_effective_permission` (`role_id`, `permission_id`)
+SELECT DISTINCT rc.`descendant_id`, pc.`descendant_id`
+FROM
+  `tb_role_permission` AS rp
+  JOIN `tb_role_closure` AS rc
+    ON rc.`ancestor_id` = rp.`role_id`
+  JOIN `tb_permission_closure` AS pc
+    ON pc.`ancestor_id` = rp.`permission_id`;
+
+COMMIT;
@@ -0,0 +1,26 @@
+-- ----------------------------
+-- 已有库升级：oauth_access_token、oauth_refresh_token 增加索引及 expires_at（security.oauth2.token.jdbc.indexed=true）
+-- 升级前写入的记录 expires_at 为空，不会被定期清理，令牌过期后由 DefaultTokenServices 在使用时删除
+-- ----------------------------
+ALTER TABLE `oauth_access_token`
+  ADD COLUMN `expires_at` datetime(3) NULL DEFAULT NULL COMMENT '过期时间，为空不过期',
+  ADD UNIQUE INDEX `uk_access_token_id`(`token_id`) USING BTREE,
+  ADD INDEX `idx_access_client_user`(`client_id`, `user_name`) USING BTREE,
+  ADD INDEX `idx_access_refresh_token`(`refresh_token`) USING BTREE,
+  ADD INDEX `idx_access_expires_at`(`expires_at`) USING BTREE;
+
+-- JdbcTokenStore 复用刷新令牌时会重复写入同一 token_id，去重后再建主键
+CREATE TABLE `oauth_refresh_token_new`  (
+  `token_id` varchar(256) CHARACTER SET utf8 COLLATE utf8_general_ci NOT NULL,
+  `token` blob NULL,
+  `authentication` blob NULL,
+  `expires_at` datetime(3) NULL DEFAULT NULL COMMENT '过期时间，为空不过期',
+  PRIMARY KEY (`token_id`) USING BTREE,
+  INDEX `idx_refresh_expires_at`(`expires_at`) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8 COLLATE = utf8_general_ci ROW_FORMAT = Dynamic;
+
+INSERT IGNORE INTO `oauth_refresh_token_new` (`token_id`, `token`, `authentication`)
+SELECT `token_id`, `token`, `authentication` FROM `oauth_refresh_token` WHERE `token_id` IS NOT NULL;
+
+RENAME TABLE `oauth_refresh_token` TO `oauth_refresh_token_old`, `oauth_refresh_token_new` TO `oauth_refresh_token`;
+DROP TABLE `oauth_refresh_token_old`;
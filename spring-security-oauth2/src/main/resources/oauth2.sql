@@ -48,7 +48,12 @@ CREATE TABLE `oauth_access_token`  (
   `client_id` varchar(256) CHARACTER SET utf8 COLLATE utf8_general_ci NULL DEFAULT NULL,
   `authentication` blob NULL,
   `refresh_token` varchar(256) CHARACTER SET utf8 COLLATE utf8_general_ci NULL DEFAULT NULL,
-  PRIMARY KEY (`authentication_id`) USING BTREE
+  `expires_at` datetime(3) NULL DEFAULT NULL COMMENT '过期时间，为空不过期',
+  PRIMARY KEY (`authentication_id`) USING BTREE,
+  UNIQUE INDEX `uk_access_token_id`(`token_id`) USING BTREE,
+  INDEX `idx_access_client_user`(`client_id`, `user_name`) USING BTREE,
+  INDEX `idx_access_refresh_token`(`refresh_token`) USING BTREE,
+  INDEX `idx_access_expires_at`(`expires_at`) USING BTREE
 ) ENGINE = InnoDB CHARACTER SET = utf8 COLLATE = utf8_general_ci ROW_FORMAT = Dynamic;
 
 -- ----------------------------
@@ -112,14 +117,32 @@ CREATE TABLE `oauth_code`  (
   `authentication` blob NULL
 ) ENGINE = InnoDB CHARACTER SET = utf8 COLLATE = utf8_general_ci ROW_FORMAT = Dynamic;
 
+-- ----------------------------
+-- Table structure for oauth_jwk
+-- ----------------------------
+DROP TABLE IF EXISTS `oauth_jwk`;
+CREATE TABLE `oauth_jwk`  (
+  `kid` varchar(64) CHARACTER SET utf8 COLLATE utf8_general_ci NOT NULL,
+  `algorithm` varchar(16) CHARACTER SET utf8 COLLATE utf8_general_ci NOT NULL COMMENT 'RS256、ES256',
+  `public_key` text CHARACTER SET utf8 COLLATE utf8_general_ci NOT NULL COMMENT '公钥，X.509 编码后 base64',
+  `private_key` text CHARACTER SET utf8 COLLATE utf8_general_ci NOT NULL COMMENT '私钥，PKCS#8 编码后 base64',
+  `activate_at` datetime(3) NOT NULL COMMENT '开始签名的时间，之前只发布公钥',
+  `created` datetime(3) NOT NULL,
+  PRIMARY KEY (`kid`) USING BTREE,
+  INDEX `idx_jwk_activate_at`(`activate_at`) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8 COLLATE = utf8_general_ci ROW_FORMAT = Dynamic;
+
 -- ----------------------------
 -- Table structure for oauth_refresh_token
 -- ----------------------------
 DROP TABLE IF EXISTS `oauth_refresh_token`;
 CREATE TABLE `oauth_refresh_token`  (
-  `token_id` varchar(256) CHARACTER SET utf8 COLLATE utf8_general_ci NULL DEFAULT NULL,
+  `token_id` varchar(256) CHARACTER SET utf8 COLLATE utf8_general_ci NOT NULL,
   `token` blob NULL,
-  `authentication` blob NULL
+  `authentication` blob NULL,
+  `expires_at` datetime(3) NULL DEFAULT NULL COMMENT '过期时间，为空不过期',
+  PRIMARY KEY (`token_id`) USING BTREE,
+  INDEX `idx_refresh_expires_at`(`expires_at`) USING BTREE
 ) ENGINE = InnoDB CHARACTER SET = utf8 COLLATE = utf8_general_ci ROW_FORMAT = Dynamic;
 
 -- ----------------------------
@@ -217,6 +240,51 @@ INSERT INTO `tb_permission` VALUES (46, 44, '新增内容', 'SystemContentInsert
 INSERT INTO `tb_permission` VALUES (47, 44, '编辑内容', 'SystemContentUpdate', '/contents/update/**', NULL, '2019-04-06 23:51:04', '2019-04-06 23:51:06');
 INSERT INTO `tb_permission` VALUES (48, 44, '删除内容', 'SystemContentDelete', '/contents/delete/**', NULL, '2019-04-06 23:51:08', '2019-04-06 23:51:10');
 
+-- ----------------------------
+-- Table structure for tb_permission_closure
+-- ----------------------------
+DROP TABLE IF EXISTS `tb_permission_closure`;
+CREATE TABLE `tb_permission_closure`  (
+  `ancestor_id` bigint(0) NOT NULL COMMENT '祖先权限 ID',
+  `descendant_id` bigint(0) NOT NULL COMMENT '后代权限 ID（包含自身）',
+  `depth` int(0) NOT NULL COMMENT '层级距离，自身为 0',
+  PRIMARY KEY (`ancestor_id`, `descendant_id`) USING BTREE,
+  INDEX `descendant_id`(`descendant_id`) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8 COLLATE = utf8_general_ci COMMENT = '权限层级闭包表' ROW_FORMAT = Dynamic;
+
+-- ----------------------------
+-- Records of tb_permission_closure
+-- ----------------------------
+INSERT INTO `tb_permission_closure` VALUES (37, 37, 0);
+INSERT INTO `tb_permission_closure` VALUES (37, 38, 1);
+INSERT INTO `tb_permission_closure` VALUES (37, 39, 2);
+INSERT INTO `tb_permission_closure` VALUES (37, 40, 2);
+INSERT INTO `tb_permission_closure` VALUES (37, 41, 2);
+INSERT INTO `tb_permission_closure` VALUES (37, 42, 2);
+INSERT INTO `tb_permission_closure` VALUES (37, 44, 1);
+INSERT INTO `tb_permission_closure` VALUES (37, 45, 2);
+INSERT INTO `tb_permission_closure` VALUES (37, 46, 2);
+INSERT INTO `tb_permission_closure` VALUES (37, 47, 2);
+INSERT INTO `tb_permission_closure` VALUES (37, 48, 2);
+INSERT INTO `tb_permission_closure` VALUES (38, 38, 0);
+INSERT INTO `tb_permission_closure` VALUES (38, 39, 1);
+INSERT INTO `tb_permission_closure` VALUES (38, 40, 1);
+INSERT INTO `tb_permission_closure` VALUES (38, 41, 1);
+INSERT INTO `tb_permission_closure` VALUES (38, 42, 1);
+INSERT INTO `tb_permission_closure` VALUES (39, 39, 0);
+INSERT INTO `tb_permission_closure` VALUES (40, 40, 0);
+INSERT INTO `tb_permission_closure` VALUES (41, 41, 0);
+INSERT INTO `tb_permission_closure` VALUES (42, 42, 0);
+INSERT INTO `tb_permission_closure` VALUES (44, 44, 0);
+INSERT INTO `tb_permission_closure` VALUES (44, 45, 1);
+INSERT INTO `tb_permission_closure` VALUES (44, 46, 1);
+INSERT INTO `tb_permission_closure` VALUES (44, 47, 1);
+INSERT INTO `tb_permission_closure` VALUES (44, 48, 1);
+INSERT INTO `tb_permission_closure` VALUES (45, 45, 0);
+INSERT INTO `tb_permission_closure` VALUES (46, 46, 0);
+INSERT INTO `tb_permission_closure` VALUES (47, 47, 0);
+INSERT INTO `tb_permission_closure` VALUES (48, 48, 0);
+
 -- ----------------------------
 -- Table structure for tb_role
 -- ----------------------------
@@ -237,6 +305,49 @@ CREATE TABLE `tb_role`  (
 -- ----------------------------
 INSERT INTO `tb_role` VALUES (37, 0, '超级管理员', 'admin', NULL, '2019-04-04 23:22:03', '2019-04-04 23:22:05');
 
+-- ----------------------------
+-- Table structure for tb_role_closure
+-- ----------------------------
+DROP TABLE IF EXISTS `tb_role_closure`;
+CREATE TABLE `tb_role_closure`  (
+  `ancestor_id` bigint(0) NOT NULL COMMENT '祖先角色 ID',
+  `descendant_id` bigint(0) NOT NULL COMMENT '后代角色 ID（包含自身）',
+  `depth` int(0) NOT NULL COMMENT '层级距离，自身为 0',
+  PRIMARY KEY (`ancestor_id`, `descendant_id`) USING BTREE,
+  INDEX `descendant_id`(`descendant_id`) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8 COLLATE = utf8_general_ci COMMENT = '角色层级闭包表' ROW_FORMAT = Dynamic;
+
+-- ----------------------------
+-- Records of tb_role_closure
+-- ----------------------------
+INSERT INTO `tb_role_closure` VALUES (37, 37, 0);
+
+-- ----------------------------
+-- Table structure for tb_role_effective_permission
+-- ----------------------------
+DROP TABLE IF EXISTS `tb_role_effective_permission`;
+CREATE TABLE `tb_role_effective_permission`  (
+  `role_id` bigint(0) NOT NULL COMMENT '角色 ID',
+  `permission_id` bigint(0) NOT NULL COMMENT '权限 ID',
+  PRIMARY KEY (`role_id`, `permission_id`) USING BTREE,
+  INDEX `permission_id`(`permission_id`) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8 COLLATE = utf8_general_ci COMMENT = '角色有效权限表（继承父角色权限及子权限后的结果）' ROW_FORMAT = Dynamic;
+
+-- ----------------------------
+-- Records of tb_role_effective_permission
+-- ----------------------------
+INSERT INTO `tb_role_effective_permission` VALUES (37, 37);
+INSERT INTO `tb_role_effective_permission` VALUES (37, 38);
+INSERT INTO `tb_role_effective_permission` VALUES (37, 39);
+INSERT INTO `tb_role_effective_permission` VALUES (37, 40);
+INSERT INTO `tb_role_effective_permission` VALUES (37, 41);
+INSERT INTO `tb_role_effective_permission` VALUES (37, 42);
+INSERT INTO `tb_role_effective_permission` VALUES (37, 44);
+INSERT INTO `tb_role_effective_permission` VALUES (37, 45);
+INSERT INTO `tb_role_effective_permission` VALUES (37, 46);
+INSERT INTO `tb_role_effective_permission` VALUES (37, 47);
+INSERT INTO `tb_role_effective_permission` VALUES (37, 48);
+
 -- ----------------------------
 -- Table structure for tb_role_permission
 -- ----------------------------
@@ -245,7 +356,9 @@ CREATE TABLE `tb_role_permission`  (
   `id` bigint(0) NOT NULL AUTO_INCREMENT,
   `role_id` bigint(0) NOT NULL COMMENT '角色 ID',
   `permission_id` bigint(0) NOT NULL COMMENT '权限 ID',
-  PRIMARY KEY (`id`) USING BTREE
+  PRIMARY KEY (`id`) USING BTREE,
+  UNIQUE INDEX `role_id`(`role_id`, `permission_id`) USING BTREE,
+  INDEX `permission_id`(`permission_id`) USING BTREE
 ) ENGINE = InnoDB AUTO_INCREMENT = 48 CHARACTER SET = utf8 COLLATE = utf8_general_ci COMMENT = '角色权限表' ROW_FORMAT = Dynamic;
 
 -- ----------------------------
@@ -294,7 +407,9 @@ CREATE TABLE `tb_user_role`  (
   `id` bigint(0) NOT NULL AUTO_INCREMENT,
   `user_id` bigint(0) NOT NULL COMMENT '用户 ID',
   `role_id` bigint(0) NOT NULL COMMENT '角色 ID',
-  PRIMARY KEY (`id`) USING BTREE
+  PRIMARY KEY (`id`) USING BTREE,
+  UNIQUE INDEX `user_id`(`user_id`, `role_id`) USING BTREE,
+  INDEX `role_id`(`role_id`) USING BTREE
 ) ENGINE = InnoDB AUTO_INCREMENT = 38 CHARACTER SET = utf8 COLLATE = utf8_general_ci COMMENT = '用户角色表' ROW_FORMAT = Dynamic;
 
 -- ----------------------------
@@ -0,0 +1,196 @@
+package com.hy.oauth2.server.token;
+
+import org.junit.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.oauth2.common.DefaultExpiringOAuth2RefreshToken;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.common.ExpiringOAuth2RefreshToken;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.OAuth2RefreshToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+import org.springframework.util.SerializationUtils;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 令牌及认证信息写入后再读出，与原对象字段一致；JDK 序列化写入的旧数据仍可读取
+ *
+ * @author wyl
+ * @since 2026-10-17 05:06:38
+ */
+public class CompactTokenSerializerTest {
+
+    private static final List<GrantedAuthority> AUTHORITIES =
+            AuthorityUtils.createAuthorityList("SystemModule0View", "SystemModule0Insert", "SystemModule1View");
+
+    @Test
+    public void userDetailsPrincipalRoundTrip() {
+        OAuth2Authentication authentication = passwordAuthentication(new User("admin", "secret", true, true, false, true, AUTHORITIES));
+
+        byte[] bytes = CompactTokenSerializer.serializeAuthentication(authentication);
+        OAuth2Authentication read = CompactTokenSerializer.deserializeAuthentication(bytes);
+
+        assertEquals(CompactTokenSerializer.VERSION, bytes[0]);
+        assertTrue(bytes.length < SerializationUtils.serialize(authentication).length);
+        assertRequestEquals(authentication.getOAuth2Request(), read.getOAuth2Request());
+        Authentication user = read.getUserAuthentication();
+        assertEquals(UsernamePasswordAuthenticationToken.class, user.getClass());
+        assertTrue(user.isAuthenticated());
+        assertNull(user.getCredentials());
+        assertEquals(authentication.getUserAuthentication().getDetails(), user.getDetails());
+        assertEquals(names(authentication.getAuthorities()), names(read.getAuthorities()));
+        User principal = (User) user.getPrincipal();
+        assertEquals("admin", principal.getUsername());
+        assertNull(principal.getPassword());
+        assertTrue(principal.isEnabled());
+        assertTrue(principal.isAccountNonExpired());
+        assertFalse(principal.isCredentialsNonExpired());
+        assertTrue(principal.isAccountNonLocked());
+        assertEquals(names(AUTHORITIES), names(principal.getAuthorities()));
+    }
+
+    @Test
+    public void principalAuthoritiesDifferentFromTokenAuthorities() {
+        User principal = new User("admin", "secret", AuthorityUtils.createAuthorityList("SystemModule9View"));
+        principal.eraseCredentials();
+        OAuth2Authentication authentication = new OAuth2Authentication(request(),
+                new UsernamePasswordAuthenticationToken(principal, null, AUTHORITIES));
+
+        OAuth2Authentication read = CompactTokenSerializer.deserializeAuthentication(
+                CompactTokenSerializer.serializeAuthentication(authentication));
+
+        assertEquals(names(AUTHORITIES), names(read.getAuthorities()));
+        assertEquals(Collections.singleton("SystemModule9View"),
+                names(((User) read.getUserAuthentication().getPrincipal()).getAuthorities()));
+    }
+
+    @Test
+    public void userDetailsWithCredentialsFallsBackToJdkSerialization() {
+        // 凭证未擦除时不能丢弃密码，整个用户认证走 JDK 序列化
+        User principal = new User("admin", "secret", AUTHORITIES);
+        OAuth2Authentication authentication = new OAuth2Authentication(request(),
+                new UsernamePasswordAuthenticationToken(principal, "secret", AUTHORITIES));
+
+        OAuth2Authentication read = CompactTokenSerializer.deserializeAuthentication(
+                CompactTokenSerializer.serializeAuthentication(authentication));
+
+        assertEquals("secret", read.getUserAuthentication().getCredentials());
+        assertEquals("secret", ((User) read.getUserAuthentication().getPrincipal()).getPassword());
+    }
+
+    @Test
+    public void nameOnlyPrincipalRoundTrip() {
+        OAuth2Authentication authentication = new OAuth2Authentication(request(),
+                new UsernamePasswordAuthenticationToken("admin", "N/A", AUTHORITIES));
+
+        OAuth2Authentication read = CompactTokenSerializer.deserializeAuthentication(
+                CompactTokenSerializer.serializeAuthentication(authentication));
+
+        assertEquals("admin", read.getUserAuthentication().getPrincipal());
+        assertEquals(names(AUTHORITIES), names(read.getAuthorities()));
+    }
+
+    @Test
+    public void clientOnlyRoundTrip() {
+        OAuth2Authentication authentication = new OAuth2Authentication(request(), null);
+
+        OAuth2Authentication read = CompactTokenSerializer.deserializeAuthentication(
+                CompactTokenSerializer.serializeAuthentication(authentication));
+
+        assertTrue(read.isClientOnly());
+        assertRequestEquals(authentication.getOAuth2Request(), read.getOAuth2Request());
+    }
+
+    @Test
+    public void accessTokenRoundTrip() {
+        DefaultOAuth2AccessToken token = new DefaultOAuth2AccessToken("access-token");
+        token.setExpiration(new Date(1800000000000L));
+        token.setScope(new LinkedHashSet<>(Arrays.asList("app", "read")));
+        token.setRefreshToken(new DefaultExpiringOAuth2RefreshToken("refresh-token", new Date(1900000000000L)));
+        Map<String, Object> info = new LinkedHashMap<>();
+        info.put("user_id", 42L);
+        info.put("tenants", Arrays.asList("a", "b"));
+        token.setAdditionalInformation(info);
+
+        OAuth2AccessToken read = CompactTokenSerializer.deserializeAccessToken(CompactTokenSerializer.serializeAccessToken(token));
+
+        assertEquals(token.getValue(), read.getValue());
+        assertEquals(token.getTokenType(), read.getTokenType());
+        assertEquals(token.getExpiration(), read.getExpiration());
+        assertEquals(token.getScope(), read.getScope());
+        assertEquals(info, read.getAdditionalInformation());
+        ExpiringOAuth2RefreshToken refreshToken = (ExpiringOAuth2RefreshToken) read.getRefreshToken();
+        assertEquals("refresh-token", refreshToken.getValue());
+        assertEquals(new Date(1900000000000L), refreshToken.getExpiration());
+    }
+
+    @Test
+    public void readsJdkSerializedData() {
+        OAuth2Authentication authentication = passwordAuthentication(new User("admin", "secret", AUTHORITIES));
+        OAuth2RefreshToken refreshToken = new DefaultExpiringOAuth2RefreshToken("refresh-token", new Date(1900000000000L));
+
+        OAuth2Authentication read = CompactTokenSerializer.deserializeAuthentication(SerializationUtils.serialize(authentication));
+        OAuth2RefreshToken readToken = CompactTokenSerializer.deserializeRefreshToken(SerializationUtils.serialize(refreshToken));
+
+        assertEquals("admin", read.getName());
+        assertEquals(refreshToken, readToken);
+    }
+
+    /**
+     * 与 password 授权认证成功后相同：principal 为凭证已擦除的 User，details 为请求参数
+     */
+    private static OAuth2Authentication passwordAuthentication(User principal) {
+        principal.eraseCredentials();
+        UsernamePasswordAuthenticationToken user = new UsernamePasswordAuthenticationToken(principal, null, AUTHORITIES);
+        Map<String, String> details = new LinkedHashMap<>();
+        details.put("grant_type", "password");
+        details.put("username", principal.getUsername());
+        details.put("scope", "app");
+        user.setDetails(details);
+        return new OAuth2Authentication(request(), user);
+    }
+
+    private static OAuth2Request request() {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        parameters.put("grant_type", "password");
+        parameters.put("scope", "app");
+        return new OAuth2Request(parameters, "client", AuthorityUtils.createAuthorityList("ROLE_CLIENT"), true,
+                Collections.singleton("app"), Collections.singleton("resource"), null,
+                Collections.emptySet(), Collections.emptyMap());
+    }
+
+    private static void assertRequestEquals(OAuth2Request expected, OAuth2Request actual) {
+        assertEquals(expected.getClientId(), actual.getClientId());
+        assertEquals(expected.getRequestParameters(), actual.getRequestParameters());
+        assertEquals(names(expected.getAuthorities()), names(actual.getAuthorities()));
+        assertEquals(expected.isApproved(), actual.isApproved());
+        assertEquals(expected.getScope(), actual.getScope());
+        assertEquals(expected.getResourceIds(), actual.getResourceIds());
+        assertEquals(expected.getRedirectUri(), actual.getRedirectUri());
+        assertEquals(expected.getResponseTypes(), actual.getResponseTypes());
+        assertEquals(expected.getExtensions(), actual.getExtensions());
+    }
+
+    private static Set<String> names(Collection<? extends GrantedAuthority> authorities) {
+        return AuthorityUtils.authorityListToSet(authorities);
+    }
+
+}